@@ -0,0 +1,56 @@
+/*
+ * Copyright 2017 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.destination.http;
+
+/**
+ * Decides how many records go into the next request.
+ *
+ * Without a target request time the size is fixed to the configured maximum. With a target it is derived from an
+ * exponentially weighted average of the observed throughput (records per millisecond), so that a request takes
+ * about the target time, while staying within [1, maxRecords].
+ */
+class AdaptiveRequestSizer {
+  // Size of the first requests when adapting, before there is any measurement
+  static final int INITIAL_ADAPTIVE_SIZE = 100;
+  private static final double SMOOTHING = 0.3;
+
+  private final int maxRecords;
+  private final long targetMillis;
+  private double recordsPerMilli = -1;
+  private int nextSize;
+
+  AdaptiveRequestSizer(int maxRecords, long targetMillis) {
+    this.maxRecords = maxRecords > 0 ? maxRecords : Integer.MAX_VALUE;
+    this.targetMillis = targetMillis;
+    this.nextSize = targetMillis > 0 ? Math.min(INITIAL_ADAPTIVE_SIZE, this.maxRecords) : this.maxRecords;
+  }
+
+  int nextSize() {
+    return nextSize;
+  }
+
+  /**
+   * Records the completion of a successful request with given number of records.
+   */
+  void onRequestCompleted(int records, long elapsedMillis) {
+    if (targetMillis <= 0 || records == 0) {
+      return;
+    }
+    double observed = (double) records / Math.max(1, elapsedMillis);
+    recordsPerMilli = recordsPerMilli < 0 ? observed : SMOOTHING * observed + (1 - SMOOTHING) * recordsPerMilli;
+    nextSize = (int) Math.max(1, Math.min(maxRecords, Math.round(recordsPerMilli * targetMillis)));
+  }
+}
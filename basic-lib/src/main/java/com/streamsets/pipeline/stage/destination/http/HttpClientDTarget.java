@@ -25,7 +25,7 @@ import com.streamsets.pipeline.configurablestage.DTarget;
 import com.streamsets.pipeline.lib.http.Groups;
 
 @StageDef(
-    version = 3,
+    version = 4,
     label = "HTTP Client",
     description = "Uses an HTTP client to write data.",
     icon = "httpclient.png",
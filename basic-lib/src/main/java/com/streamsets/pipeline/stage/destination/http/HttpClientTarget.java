@@ -29,6 +29,7 @@ import com.streamsets.pipeline.lib.http.Errors;
 import com.streamsets.pipeline.lib.http.Groups;
 import com.streamsets.pipeline.lib.http.HttpClientCommon;
 import com.streamsets.pipeline.lib.http.HttpMethod;
+import com.streamsets.pipeline.lib.util.ThreadUtil;
 import com.streamsets.pipeline.stage.common.DefaultErrorRecordHandler;
 import com.streamsets.pipeline.stage.common.ErrorRecordHandler;
 import com.streamsets.pipeline.stage.util.http.HttpStageUtil;
@@ -44,8 +45,11 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.StreamingOutput;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
@@ -56,11 +60,15 @@ import java.util.concurrent.TimeoutException;
 public class HttpClientTarget extends BaseTarget {
 
   private static final Logger LOG = LoggerFactory.getLogger(HttpClientTarget.class);
+  // Backoff before resending a failed request of a split batch, doubled with every attempt
+  private static final long INITIAL_RETRY_BACKOFF_MILLIS = 100;
+  private static final long MAX_RETRY_BACKOFF_MILLIS = 10_000;
   private final HttpClientTargetConfig conf;
   private final HttpClientCommon httpClientCommon;
   private DataGeneratorFactory generatorFactory;
   private ErrorRecordHandler errorRecordHandler;
   private RateLimiter rateLimiter;
+  private AdaptiveRequestSizer requestSizer;
 
   HttpClientTarget(HttpClientTargetConfig conf) {
     this.conf = conf;
@@ -72,6 +80,7 @@ public class HttpClientTarget extends BaseTarget {
     List<ConfigIssue> issues = super.init();
     int rateLimit = conf.rateLimit > 0 ? conf.rateLimit : Integer.MAX_VALUE;
     rateLimiter = RateLimiter.create(rateLimit);
+    requestSizer = new AdaptiveRequestSizer(conf.maxRecordsPerRequest, conf.targetRequestTimeMillis);
     errorRecordHandler = new DefaultErrorRecordHandler(getContext());
     this.httpClientCommon.init(issues, getContext());
     if(issues.size() == 0) {
@@ -89,7 +98,9 @@ public class HttpClientTarget extends BaseTarget {
 
   @Override
   public void write(Batch batch) throws StageException {
-    if (conf.singleRequestPerBatch) {
+    if (conf.singleRequestPerBatch && isSplittingBatches()) {
+      writeRequestsPerBatch(batch);
+    } else if (conf.singleRequestPerBatch) {
       writeOneRequestPerBatch(batch);
     } else {
       writeOneRequestPerRecord(batch);
@@ -150,6 +161,170 @@ public class HttpClientTarget extends BaseTarget {
     }
   }
 
+  private boolean isSplittingBatches() {
+    return conf.maxRecordsPerRequest > 0 || conf.maxRequestSizeKB > 0 || conf.targetRequestTimeMillis > 0;
+  }
+
+  /**
+   * Splits the batch into requests bounded by record count and payload size, keeps up to maxConcurrentRequests of
+   * them in flight and resends only the requests that failed.
+   *
+   * A failed request is resent with exponential backoff before any new request is started, so with a single
+   * concurrent request the records reach the server in batch order. With more concurrent requests they can be
+   * received out of order.
+   */
+  private void writeRequestsPerBatch(Batch batch) throws StageException {
+    Iterator<Record> records = batch.getRecords();
+    Deque<RequestChunk> inFlight = new ArrayDeque<>();
+    Deque<RequestChunk> retries = new ArrayDeque<>();
+    while (records.hasNext() || !retries.isEmpty() || !inFlight.isEmpty()) {
+      boolean nothingToSend = !records.hasNext() && retries.isEmpty();
+      if (inFlight.size() >= conf.maxConcurrentRequests || nothingToSend) {
+        completeRequest(inFlight.poll(), retries);
+        continue;
+      }
+      RequestChunk chunk;
+      if (retries.isEmpty()) {
+        chunk = nextChunk(records);
+      } else {
+        chunk = retries.poll();
+        long wait = chunk.retryTime - System.currentTimeMillis();
+        if (wait > 0 && !ThreadUtil.sleep(wait)) {
+          errorRecordHandler.onError(chunk.records, chunk.failure);
+          continue;
+        }
+      }
+      if (chunk != null) {
+        sendRequest(chunk);
+        inFlight.add(chunk);
+      }
+    }
+  }
+
+  private RequestChunk nextChunk(Iterator<Record> records) throws StageException {
+    int maxRecords = requestSizer.nextSize();
+    long maxBytes = conf.maxRequestSizeKB > 0 ? conf.maxRequestSizeKB * 1024L : 0;
+    List<Record> chunkRecords = new ArrayList<>();
+    ByteArrayOutputStream payload = new ByteArrayOutputStream();
+    try (DataGenerator dataGenerator = generatorFactory.getGenerator(payload)) {
+      while (records.hasNext() && chunkRecords.size() < maxRecords) {
+        Record record = records.next();
+        chunkRecords.add(record);
+        dataGenerator.write(record);
+        if (maxBytes > 0) {
+          dataGenerator.flush();
+          if (payload.size() >= maxBytes) {
+            break;
+          }
+        }
+      }
+      dataGenerator.flush();
+    } catch (IOException | DataGeneratorException ex) {
+      LOG.error(Errors.HTTP_41.getMessage(), ex.toString(), ex);
+      errorRecordHandler.onError(chunkRecords, new StageException(Errors.HTTP_41, ex, ex));
+      return null;
+    }
+    return new RequestChunk(chunkRecords, payload.toByteArray());
+  }
+
+  private void sendRequest(RequestChunk chunk) {
+    Record firstRecord = chunk.records.get(0);
+    rateLimiter.acquire();
+    chunk.attempts++;
+    chunk.failure = null;
+    chunk.startTime = System.currentTimeMillis();
+    try {
+      // Use first record for resolving url, headers, ...
+      AsyncInvoker asyncInvoker = getBuilder(firstRecord).async();
+      HttpMethod method = httpClientCommon.getHttpMethod(conf.httpMethod, conf.methodExpression, firstRecord);
+      if (method == HttpMethod.POST || method == HttpMethod.PUT || method == HttpMethod.PATCH) {
+        chunk.response = asyncInvoker.method(method.getLabel(), Entity.entity(chunk.payload, getContentType()));
+      } else {
+        chunk.response = asyncInvoker.method(method.getLabel());
+      }
+    } catch (Exception ex) {
+      LOG.error(Errors.HTTP_41.getMessage(), ex.toString(), ex);
+      chunk.failure = new StageException(Errors.HTTP_41, ex, ex);
+      // resolving the url, headers or method fails the same way every time
+      chunk.retryable = false;
+    }
+  }
+
+  private void completeRequest(RequestChunk chunk, Deque<RequestChunk> retries) throws StageException {
+    if (chunk.failure == null) {
+      try {
+        Response response = chunk.response.get(conf.maxRequestCompletionSecs, TimeUnit.SECONDS);
+        try {
+          String responseBody = "";
+          if (response.hasEntity()) {
+            responseBody = response.readEntity(String.class);
+          }
+          if (response.getStatus() >= 200 && response.getStatus() < 300) {
+            requestSizer.onRequestCompleted(chunk.records.size(), System.currentTimeMillis() - chunk.startTime);
+            return;
+          }
+          if (conf.client.useOAuth2 && response.getStatus() == 403) {
+            HttpStageUtil.getNewOAuth2Token(conf.client.oauth2, httpClientCommon.getClient());
+          } else {
+            chunk.retryable = isRetryable(response.getStatus());
+          }
+          chunk.failure = new OnRecordErrorException(
+              Errors.HTTP_40,
+              response.getStatus(),
+              response.getStatusInfo().getReasonPhrase() + " " + responseBody
+          );
+        } finally {
+          response.close();
+        }
+      } catch (InterruptedException | ExecutionException | TimeoutException e) {
+        LOG.error(Errors.HTTP_41.getMessage(), e.toString(), e);
+        chunk.response.cancel(true);
+        chunk.failure = new StageException(Errors.HTTP_41, e.toString(), e);
+      }
+    }
+
+    if (chunk.retryable && chunk.attempts <= conf.maxRequestRetries) {
+      long backoff = Math.min(INITIAL_RETRY_BACKOFF_MILLIS << (chunk.attempts - 1), MAX_RETRY_BACKOFF_MILLIS);
+      LOG.debug(
+          "Retrying request with {} records in {} ms, attempt {}",
+          chunk.records.size(),
+          backoff,
+          chunk.attempts + 1
+      );
+      chunk.retryTime = System.currentTimeMillis() + backoff;
+      retries.add(chunk);
+    } else {
+      errorRecordHandler.onError(chunk.records, chunk.failure);
+    }
+  }
+
+  /**
+   * Client errors are not retried as the same request would fail again, except for request timeout and too many
+   * requests.
+   */
+  static boolean isRetryable(int status) {
+    return status < 400 || status >= 500 || status == 408 || status == 429;
+  }
+
+  /**
+   * Records sent together in one request of a split batch.
+   */
+  private static class RequestChunk {
+    private final List<Record> records;
+    private final byte[] payload;
+    private int attempts;
+    private boolean retryable = true;
+    private long retryTime;
+    private long startTime;
+    private Future<Response> response;
+    private StageException failure;
+
+    private RequestChunk(List<Record> records, byte[] payload) {
+      this.records = records;
+      this.payload = payload;
+    }
+  }
+
   private void writeOneRequestPerRecord(Batch batch) throws StageException {
     List<Future<Response>> responses = new ArrayList<>();
     Iterator<Record> records = batch.getRecords();
@@ -114,6 +114,79 @@ public class HttpClientTargetConfig {
   )
   public boolean singleRequestPerBatch;
 
+  @ConfigDef(
+      required = false,
+      type = ConfigDef.Type.NUMBER,
+      label = "Max Records per Request",
+      defaultValue = "0",
+      description = "Splits the batch into requests of up to this many records (0 for the whole batch)",
+      displayPosition = 142,
+      dependsOn = "singleRequestPerBatch",
+      triggeredByValue = "true",
+      min = 0,
+      group = "HTTP"
+  )
+  public int maxRecordsPerRequest;
+
+  @ConfigDef(
+      required = false,
+      type = ConfigDef.Type.NUMBER,
+      label = "Max Request Size (KB)",
+      defaultValue = "0",
+      description = "Starts a new request once the payload reaches this size (0 for unlimited)",
+      displayPosition = 143,
+      dependsOn = "singleRequestPerBatch",
+      triggeredByValue = "true",
+      min = 0,
+      group = "HTTP"
+  )
+  public int maxRequestSizeKB;
+
+  @ConfigDef(
+      required = false,
+      type = ConfigDef.Type.NUMBER,
+      label = "Target Request Time (ms)",
+      defaultValue = "0",
+      description = "Adapts the number of records per request to the observed throughput so that each request " +
+          "takes about this long (0 to disable). Bounded by Max Records per Request.",
+      displayPosition = 144,
+      dependsOn = "singleRequestPerBatch",
+      triggeredByValue = "true",
+      min = 0,
+      group = "HTTP"
+  )
+  public long targetRequestTimeMillis;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      label = "Max Concurrent Requests",
+      defaultValue = "1",
+      description = "Maximum number of requests in flight when a batch is split into several requests. With more " +
+          "than one request, records can be received out of order.",
+      displayPosition = 145,
+      dependsOn = "singleRequestPerBatch",
+      triggeredByValue = "true",
+      min = 1,
+      group = "HTTP"
+  )
+  public int maxConcurrentRequests = 1;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      label = "Max Request Retries",
+      defaultValue = "0",
+      description = "Number of times a failed request is retried with exponential backoff. Only the records of the " +
+          "failed request are resent. Client errors other than 408 and 429 are not retried.",
+      displayPosition = 146,
+      dependsOn = "singleRequestPerBatch",
+      triggeredByValue = "true",
+      min = 0,
+      group = "HTTP"
+  )
+  public int maxRequestRetries;
+
   @ConfigDef(
       required = false,
       type = ConfigDef.Type.NUMBER,
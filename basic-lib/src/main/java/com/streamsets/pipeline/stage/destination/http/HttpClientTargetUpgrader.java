@@ -38,6 +38,12 @@ public class HttpClientTargetUpgrader implements StageUpgrader {
           // fall through
         case 2:
           upgradeV2ToV3(configs);
+          if (toVersion == 3) {
+            break;
+          }
+          // fall through
+        case 3:
+          upgradeV3ToV4(configs);
           break;
         default:
           throw new IllegalStateException(Utils.format("Unexpected fromVersion {}", fromVersion));
@@ -48,4 +54,12 @@ public class HttpClientTargetUpgrader implements StageUpgrader {
   private void upgradeV2ToV3(List<Config> configs) {
     HttpConfigUpgraderUtil.addDefaultRequestLoggingConfigs(configs, "conf.client");
   }
+
+  private void upgradeV3ToV4(List<Config> configs) {
+    configs.add(new Config("conf.maxRecordsPerRequest", 0));
+    configs.add(new Config("conf.maxRequestSizeKB", 0));
+    configs.add(new Config("conf.targetRequestTimeMillis", 0));
+    configs.add(new Config("conf.maxConcurrentRequests", 1));
+    configs.add(new Config("conf.maxRequestRetries", 0));
+  }
 }
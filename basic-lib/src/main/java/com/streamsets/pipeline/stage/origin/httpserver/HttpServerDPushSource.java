@@ -33,7 +33,7 @@ import com.streamsets.pipeline.stage.origin.lib.DataParserFormatConfig;
 import static com.streamsets.pipeline.config.OriginAvroSchemaSource.SOURCE;
 
 @StageDef(
-    version = 10,
+    version = 11,
     label = "HTTP Server",
     description = "Listens for requests on an HTTP endpoint",
     icon="httpserver_multithreaded.png",
@@ -69,6 +69,48 @@ public class HttpServerDPushSource extends DPushSource {
   )
   public int maxRequestSizeMB;
 
+  @ConfigDef(
+      required = false,
+      type = ConfigDef.Type.BOOLEAN,
+      label = "Coalesce Requests",
+      description = "Gathers records from concurrent requests into shared batches. A request is acknowledged " +
+          "once the batch with its records has been processed.",
+      defaultValue = "false",
+      displayPosition = 40,
+      group = "HTTP"
+  )
+  public boolean coalesceRequests;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      label = "Max Coalesced Batch Size (records)",
+      description = "Requests stop joining a batch once it has this many records",
+      defaultValue = "1000",
+      displayPosition = 50,
+      group = "HTTP",
+      dependsOn = "coalesceRequests",
+      triggeredByValue = "true",
+      min = 1,
+      max = Integer.MAX_VALUE
+  )
+  public int coalesceMaxBatchSize;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      label = "Max Coalescing Wait Time (ms)",
+      description = "Max time a batch waits for other requests before it is processed",
+      defaultValue = "100",
+      displayPosition = 60,
+      group = "HTTP",
+      dependsOn = "coalesceRequests",
+      triggeredByValue = "true",
+      min = 0,
+      max = Integer.MAX_VALUE
+  )
+  public long coalesceMaxWaitTime;
+
   @ConfigDef(
       required = true,
       type = ConfigDef.Type.MODEL,
@@ -88,7 +130,14 @@ public class HttpServerDPushSource extends DPushSource {
     if (dataFormat == DataFormat.AVRO) {
       dataFormatConfig.avroSchemaSource = SOURCE;
     }
-    return new HttpServerPushSource(httpConfigs, maxRequestSizeMB, dataFormat, dataFormatConfig);
+    return new HttpServerPushSource(
+        httpConfigs,
+        maxRequestSizeMB,
+        dataFormat,
+        dataFormatConfig,
+        coalesceRequests ? coalesceMaxBatchSize : 0,
+        coalesceMaxWaitTime
+    );
   }
 
 }
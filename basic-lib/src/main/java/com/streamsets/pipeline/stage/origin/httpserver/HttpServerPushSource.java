@@ -38,7 +38,27 @@ public class HttpServerPushSource extends AbstractHttpServerPushSource<HttpRecei
       DataFormat dataFormat,
       DataParserFormatConfig dataFormatConfig
   ) {
-    super(httpConfigs, new PushHttpReceiver(httpConfigs, maxRequestSizeMB, dataFormatConfig));
+    this(httpConfigs, maxRequestSizeMB, dataFormat, dataFormatConfig, 0, 0);
+  }
+
+  HttpServerPushSource(
+      HttpConfigs httpConfigs,
+      int maxRequestSizeMB,
+      DataFormat dataFormat,
+      DataParserFormatConfig dataFormatConfig,
+      int coalesceMaxBatchSize,
+      long coalesceMaxWaitTime
+  ) {
+    super(
+        httpConfigs,
+        new PushHttpReceiver(
+            httpConfigs,
+            maxRequestSizeMB,
+            dataFormatConfig,
+            coalesceMaxBatchSize,
+            coalesceMaxWaitTime
+        )
+    );
     this.httpConfigs = httpConfigs;
     this.dataFormat = dataFormat;
     this.dataFormatConfig = dataFormatConfig;
@@ -46,6 +46,12 @@ public class HttpServerPushSourceUpgrader implements StageUpgrader {
             "sslEnabled",
             "tlsEnabled"
         );
+        if (toVersion == 10) {
+          break;
+        }
+        // fall through
+      case 10:
+        upgradeV10ToV11(configs);
         break;
       default:
         throw new IllegalStateException(Utils.format("Unexpected fromVersion {}", fromVersion));
@@ -53,4 +59,10 @@ public class HttpServerPushSourceUpgrader implements StageUpgrader {
     return configs;
   }
 
+  private static void upgradeV10ToV11(List<Config> configs) {
+    configs.add(new Config("coalesceRequests", false));
+    configs.add(new Config("coalesceMaxBatchSize", 1000));
+    configs.add(new Config("coalesceMaxWaitTime", 100));
+  }
+
 }
@@ -54,14 +54,34 @@ public class PushHttpReceiver implements HttpReceiver {
   private final int maxRequestSizeMB;
   private int maxRequestSize;
   private final DataParserFormatConfig dataParserFormatConfig;
+  private final int coalesceMaxBatchSize;
+  private final long coalesceMaxWaitTime;
   private PushSource.Context context;
   private DataParserFactory parserFactory;
+  private RequestCoalescer coalescer;
   private AtomicLong counter = new AtomicLong();
 
   PushHttpReceiver(HttpConfigs httpConfigs, int maxRequestSizeMB, DataParserFormatConfig dataParserFormatConfig) {
+    this(httpConfigs, maxRequestSizeMB, dataParserFormatConfig, 0, 0);
+  }
+
+  /**
+   * @param coalesceMaxBatchSize when greater than zero records from concurrent requests are coalesced into batches
+   * of up to this many records, see {@link RequestCoalescer}.
+   * @param coalesceMaxWaitTime max time in milliseconds a coalesced batch waits for more requests.
+   */
+  PushHttpReceiver(
+      HttpConfigs httpConfigs,
+      int maxRequestSizeMB,
+      DataParserFormatConfig dataParserFormatConfig,
+      int coalesceMaxBatchSize,
+      long coalesceMaxWaitTime
+  ) {
     this.httpConfigs = httpConfigs;
     this.maxRequestSizeMB = maxRequestSizeMB;
     this.dataParserFormatConfig = dataParserFormatConfig;
+    this.coalesceMaxBatchSize = coalesceMaxBatchSize;
+    this.coalesceMaxWaitTime = coalesceMaxWaitTime;
   }
 
   public PushSource.Context getContext() {
@@ -79,6 +99,9 @@ public class PushHttpReceiver implements HttpReceiver {
     } else {
       maxRequestSize = maxRequestSizeMB * 1000 * 1000;
     }
+    if (coalesceMaxBatchSize > 0) {
+      coalescer = new RequestCoalescer(getContext(), coalesceMaxBatchSize, coalesceMaxWaitTime);
+    }
     return issues;
   }
 
@@ -112,6 +135,11 @@ public class PushHttpReceiver implements HttpReceiver {
     return parserFactory;
   }
 
+  @VisibleForTesting
+  RequestCoalescer getCoalescer() {
+    return coalescer;
+  }
+
   @VisibleForTesting
   int getMaxRequestSize() {
     return maxRequestSize;
@@ -125,8 +153,9 @@ public class PushHttpReceiver implements HttpReceiver {
     // Capping the size of the request based on configuration to avoid OOME
     is = createBoundInputStream(is);
 
-    // Create new batch (we create it up front for metrics gathering purposes
-    BatchContext batchContext = getContext().startBatch();
+    // Create new batch (we create it up front for metrics gathering purposes), coalesced batches are created
+    // once all their requests have been parsed
+    BatchContext batchContext = getCoalescer() == null ? getContext().startBatch() : null;
 
     Map<String, String> customHeaderAttributes = new HashMap<>();
     customHeaderAttributes.put(PATH_HEADER, StringUtils.stripToEmpty(req.getServletPath()));
@@ -154,6 +183,10 @@ public class PushHttpReceiver implements HttpReceiver {
       throw new IOException(ex);
     }
 
+    if (batchContext == null) {
+      return getCoalescer().process(records);
+    }
+
     // dispatch records to batch
     for (Record record : records) {
       batchContext.getBatchMaker().addRecord(record);
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2017 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.origin.httpserver;
+
+import com.streamsets.pipeline.api.BatchContext;
+import com.streamsets.pipeline.api.PushSource;
+import com.streamsets.pipeline.api.Record;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Gathers records parsed from concurrent HTTP requests into shared pipeline batches.
+ *
+ * The first request that finds no open batch becomes its leader: it waits until the batch has at least
+ * maxBatchSize records or until maxWaitTime elapses, and then runs the batch through the pipeline. Requests
+ * that arrive in the meantime only add their records and wait for the leader. Every request gets the result of
+ * the batch that contained its records, so a successful response still means its records were processed. Records
+ * of a single request are never split across batches.
+ */
+class RequestCoalescer {
+
+  private final PushSource.Context context;
+  private final int maxBatchSize;
+  private final long maxWaitTime;
+  private final Object lock = new Object();
+  // Batch that is currently accepting records, null if there is none
+  private Group open;
+
+  RequestCoalescer(PushSource.Context context, int maxBatchSize, long maxWaitTime) {
+    this.context = context;
+    this.maxBatchSize = maxBatchSize;
+    this.maxWaitTime = maxWaitTime;
+  }
+
+  /**
+   * Adds given records to the open batch and blocks until that batch has been processed.
+   *
+   * @return the result of {@link PushSource.Context#processBatch(BatchContext)} for the batch with the records
+   */
+  boolean process(List<Record> records) throws IOException {
+    Group group;
+    boolean leader;
+    synchronized (lock) {
+      leader = open == null;
+      if (leader) {
+        open = new Group();
+      }
+      group = open;
+      group.records.addAll(records);
+      if (group.records.size() >= maxBatchSize) {
+        // batch is full, no other request will join it
+        open = null;
+        lock.notifyAll();
+      }
+    }
+
+    if (leader) {
+      awaitBatch(group);
+      group.complete();
+    }
+
+    try {
+      group.done.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    }
+    if (group.error != null) {
+      throw new IOException(group.error);
+    }
+    return group.result;
+  }
+
+  private void awaitBatch(Group group) {
+    long deadline = System.currentTimeMillis() + maxWaitTime;
+    synchronized (lock) {
+      try {
+        long remaining = deadline - System.currentTimeMillis();
+        while (open == group && remaining > 0) {
+          lock.wait(remaining);
+          remaining = deadline - System.currentTimeMillis();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        if (open == group) {
+          open = null;
+        }
+      }
+    }
+  }
+
+  private class Group {
+    private final List<Record> records = new ArrayList<>();
+    private final CountDownLatch done = new CountDownLatch(1);
+    private boolean result;
+    private Throwable error;
+
+    private void complete() {
+      try {
+        BatchContext batchContext = context.startBatch();
+        for (Record record : records) {
+          batchContext.getBatchMaker().addRecord(record);
+        }
+        result = context.processBatch(batchContext);
+      } catch (Throwable e) {
+        error = e;
+      } finally {
+        done.countDown();
+      }
+    }
+  }
+}
@@ -112,6 +112,18 @@ public class AggregationConfigBean {
   @ListBeanModel
   public List<AggregatorConfig> aggregatorConfigs;
 
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.BOOLEAN,
+      defaultValue = "false",
+      label = "Per Runner Partial Aggregation",
+      description = "Each pipeline runner aggregates into its own partial aggregations, they are merged when the " +
+          "time window closes or when the aggregation metrics are read. Avoids contention with multithreaded origins",
+      displayPosition = 50,
+      group = "AGGREGATIONS"
+  )
+  public boolean perRunnerPartialAggregation;
+
   @ConfigDef(
       required = true,
       type = ConfigDef.Type.BOOLEAN,
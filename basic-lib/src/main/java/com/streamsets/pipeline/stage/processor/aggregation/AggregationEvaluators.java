@@ -37,11 +37,13 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * An AggregationEvaluators handles all aggregations defined by the AggregatorProcessor configuration.
@@ -72,7 +74,11 @@ public class AggregationEvaluators {
     this.config = config;
     this.queue = queue;
     evaluators = new ArrayList<>();
-    aggregators = new Aggregators(config.getNumberOfTimeWindows(), config.windowType);
+    aggregators = new Aggregators(
+        config.getNumberOfTimeWindows(),
+        config.windowType,
+        config.perRunnerPartialAggregation
+    );
     executor = new SafeScheduledExecutorService(1, context.getStageInfo().getInstanceName() + "_" + config.windowType);
   }
 
@@ -164,6 +170,22 @@ public class AggregationEvaluators {
     }
   }
 
+  /**
+   * Evaluates all the records of a batch, with partial aggregation the runner's partials are locked once per batch.
+   */
+  public void evaluate(Iterator<Record> records, Consumer<Record> evaluated) throws StageException {
+    aggregators.startBatch();
+    try {
+      while (records.hasNext()) {
+        Record record = records.next();
+        evaluate(record);
+        evaluated.accept(record);
+      }
+    } finally {
+      aggregators.endBatch();
+    }
+  }
+
   private void createEventRecord(Object data, String eventType, String recordSrcId) {
     EventRecord windowRollEvent = context.createEventRecord(eventType, 1, recordSrcId);
     JsonMapper json = DataCollectorServices.instance().get(JsonMapper.SERVICE_KEY);
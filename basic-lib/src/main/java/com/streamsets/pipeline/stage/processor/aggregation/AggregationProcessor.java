@@ -18,12 +18,10 @@ package com.streamsets.pipeline.stage.processor.aggregation;
 import com.google.common.annotations.VisibleForTesting;
 import com.streamsets.pipeline.api.Batch;
 import com.streamsets.pipeline.api.EventRecord;
-import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.StageException;
 import com.streamsets.pipeline.api.base.SingleLaneProcessor;
 
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
@@ -73,12 +71,7 @@ public class AggregationProcessor extends SingleLaneProcessor {
       Batch batch, SingleLaneBatchMaker singleLaneBatchMaker
   ) throws StageException {
     publishEventRecordsIfAny();
-    Iterator<Record> it = batch.getRecords();
-    while (it.hasNext()) {
-      Record record = it.next();
-      evaluators.evaluate(record);
-      singleLaneBatchMaker.addRecord(record);
-    }
+    evaluators.evaluate(batch.getRecords(), singleLaneBatchMaker::addRecord);
   }
 
   @Override
@@ -29,6 +29,7 @@ public class AggregationProcessorUpgrader implements StageUpgrader {
 
   static final String CONFIG = "config";
   static final String EVENT_RECORD_TEXT_FIELD = "eventRecordWithTextField";
+  static final String PER_RUNNER_PARTIAL_AGGREGATION = "perRunnerPartialAggregation";
 
   @Override
   public List<Config> upgrade(String library, String stageName, String stageInstance, int fromVersion, int toVersion,
@@ -36,6 +37,12 @@ public class AggregationProcessorUpgrader implements StageUpgrader {
     switch(fromVersion) {
       case 1:
         upgradeV1ToV2(configs);
+        if (toVersion == 2) {
+          break;
+        }
+        // fall through
+      case 2:
+        upgradeV2ToV3(configs);
         break;
       default:
         throw new IllegalStateException(Utils.format("Unexpected fromVersion {}", fromVersion));
@@ -47,4 +54,8 @@ public class AggregationProcessorUpgrader implements StageUpgrader {
     // set value to be true to be compatible with existing behavior
     configs.add(new Config(JOINER.join(CONFIG, EVENT_RECORD_TEXT_FIELD), true));
   }
+
+  private void upgradeV2ToV3(List<Config> configs) {
+    configs.add(new Config(JOINER.join(CONFIG, PER_RUNNER_PARTIAL_AGGREGATION), false));
+  }
 }
@@ -15,6 +15,8 @@
  */
 package com.streamsets.pipeline.stage.processor.aggregation.aggregator;
 
+import java.util.function.Consumer;
+
 /**
  * Base class for all aggregator functions.
  * <p/>
@@ -120,6 +122,19 @@ public abstract class Aggregator<A extends Aggregator, T> {
     return getDataProvider().getData(this);
   }
 
+  /**
+   * Processes values into the AggregatorData of the Aggregator.
+   * <p/>
+   * The AggregatorData instance is provided by the DataProvider of the Aggregator, if partial aggregation is enabled
+   * it is the partial AggregatorData of the calling thread and the action must not keep a reference to it.
+   *
+   * @param action processing of the values into the given AggregatorData.
+   */
+  @SuppressWarnings("unchecked")
+  protected void processData(Consumer<AggregatorData<A, T>> action) {
+    getDataProvider().processData(this, data -> action.accept(data));
+  }
+
   /**
    * Returns the current computed value of the Aggregator.
    * <p/>
@@ -154,7 +169,7 @@ public abstract class Aggregator<A extends Aggregator, T> {
    * @param aggregatable the aggregatable value to aggregate.
    */
   public void aggregate(Aggregatable<A> aggregatable) {
-    getData().aggregate(aggregatable);
+    processData(data -> data.aggregate(aggregatable));
   }
 
   /**
@@ -29,6 +29,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 /**
  * The AggregatorDataProvider is responsible for creating and providing AggregatorData structures to a set of
@@ -42,6 +45,17 @@ import java.util.concurrent.ConcurrentHashMap;
  * <p/>
  * By providing the AggregatorData to a set of Aggregators, the AggregatorDataProvider has the capability of
  * atomically replacing the AggregatorData for all registered Aggregators with no contention.
+ * <p/>
+ * If partial aggregation is enabled, each thread processing values (pipeline runner) gets its own AggregatorData
+ * structures for the current time window (see {@link #processData(Aggregator, Consumer)}). As these partial structures
+ * are written by a single thread, processing does not contend with other runners. The partials are merged into the
+ * AggregatorData of the time window when the window rolls. Each partial has a lock held while values are processed
+ * into it and while it is merged, so a value processed concurrently with a roll ends up either in the closing window
+ * or, if the partial was already merged, in the new one. Runners processing a batch of values take the lock once for
+ * the whole batch (see {@link #startBatch()}).
+ * <p/>
+ * Live reads in partial mode return a snapshot of the window data merged with the partials. The snapshot is only
+ * rebuilt when the window rolled or a batch completed since it was built, not on every read.
  */
 public class AggregatorDataProvider {
 
@@ -113,9 +127,70 @@ public class AggregatorDataProvider {
     }
   }
 
+  /**
+   * Partial AggregatorData of all threads that processed values during a time window.
+   */
+  private static class Partials {
+    private final long endTimeMillis;
+    private final List<ThreadPartial> list;
+    private boolean merged;
+
+    private Partials(long endTimeMillis) {
+      this.endTimeMillis = endTimeMillis;
+      list = new ArrayList<>();
+    }
+
+    /**
+     * Registers the partial data of a thread, it fails if the partials have been already merged.
+     */
+    synchronized boolean add(ThreadPartial partial) {
+      if (!merged) {
+        list.add(partial);
+      }
+      return !merged;
+    }
+
+    synchronized List<ThreadPartial> get() {
+      return new ArrayList<>(list);
+    }
+
+    synchronized List<ThreadPartial> close() {
+      merged = true;
+      return list;
+    }
+  }
+
+  /**
+   * Partial AggregatorData of a thread, valid only while its Partials are the current ones.
+   * <p/>
+   * The lock is only contended when the partial is being merged, once merged (during a roll) the partial must not be
+   * processed into anymore. The lock is fair so that a merge does not wait behind back to back batches of the thread.
+   */
+  private static class ThreadPartial {
+    private final Partials owner;
+    private final Map<Aggregator, AggregatorData> data;
+    private final ReentrantLock lock;
+    private boolean merged;
+
+    private ThreadPartial(Partials owner, Map<Aggregator, AggregatorData> data) {
+      this.owner = owner;
+      this.data = data;
+      this.lock = new ReentrantLock(true);
+    }
+  }
+
   private final WindowType windowType;
+  private final boolean partialAggregation;
   private final Set<Aggregator> aggregators;
   private volatile Map<Aggregator, AggregatorData> data;
+  private volatile Partials partials;
+  private final ThreadLocal<ThreadPartial> threadPartial;
+  // number of times the partials reached a boundary (end of batch or single value processed)
+  private final AtomicLong partialBoundaries;
+  private final Object snapshotLock;
+  private Map<Aggregator, AggregatorData> snapshot;
+  private Map<Aggregator, AggregatorData> snapshotBase;
+  private long snapshotBoundary;
   private EvictingQueue<DataWindow> dataWindowQueue;
   private volatile List<DataWindow> dataWindowList;
   private DataWindow currentDataWindow;
@@ -128,11 +203,34 @@ public class AggregatorDataProvider {
    * @param windowsToKeep number of data windows to keep in memory, including the live one.
    */
   public AggregatorDataProvider(int windowsToKeep, WindowType windowType) {
+    this(windowsToKeep, windowType, false);
+  }
+
+  /**
+   * Creates an AggregatorDataProvider for a family of Aggregators that will close data windows together (atomically)
+   *
+   * @param windowsToKeep number of data windows to keep in memory, including the live one.
+   * @param partialAggregation if each processing thread should aggregate into its own partial data.
+   */
+  public AggregatorDataProvider(int windowsToKeep, WindowType windowType, boolean partialAggregation) {
     Utils.checkArgument(windowsToKeep > 0, "windows to keep must be greater than zero");
     aggregators = new HashSet<>();
     dataWindowQueue = EvictingQueue.create(windowsToKeep);
     dataWindowList = Collections.emptyList();
     this.windowType = windowType;
+    this.partialAggregation = partialAggregation;
+    threadPartial = new ThreadLocal<>();
+    partialBoundaries = new AtomicLong();
+    snapshotLock = new Object();
+  }
+
+  /**
+   * Indicates if each processing thread aggregates into its own partial data.
+   *
+   * @return if each processing thread aggregates into its own partial data.
+   */
+  public boolean isPartialAggregation() {
+    return partialAggregation;
   }
 
   @VisibleForTesting
@@ -170,6 +268,9 @@ public class AggregatorDataProvider {
     Utils.checkState(started, "Not started");
     Utils.checkState(!stopped, "Already stopped");
     stopped = true;
+    if (partialAggregation) {
+      mergePartials(data, partials.close(), true);
+    }
     long currentTimeMillis = System.currentTimeMillis();
     for(Map.Entry<Aggregator, AggregatorData> e : data.entrySet()) {
       e.getValue().setTime(currentTimeMillis);
@@ -194,7 +295,15 @@ public class AggregatorDataProvider {
     for (Aggregator aggregator : aggregators) {
       newData.put(aggregator, aggregator.createAggregatorData(newDataWindowEndTimeMillis));
     }
+    Partials oldPartials = partials;
+    if (partialAggregation) {
+      partials = new Partials(newDataWindowEndTimeMillis);
+    }
     data = newData;
+    if (oldPartials != null) {
+      // threads pick up new partials on their next value, the old ones are final once merged
+      mergePartials(result, oldPartials.close(), true);
+    }
 
     Map<Aggregator, AggregatorData> oldData = result;
     // In case of sliding window, aggregate the data windows to get the result
@@ -219,7 +328,35 @@ public class AggregatorDataProvider {
    */
   public Map<Aggregator, AggregatorData> get() {
     Utils.checkState(started, "Not started");
-    return data;
+    Map<Aggregator, AggregatorData> current = data;
+    if (partialAggregation && !stopped) {
+      current = getSnapshot(current);
+    }
+    return current;
+  }
+
+  /**
+   * Returns the given window data merged with the current partials, reusing the last snapshot if neither the window
+   * rolled nor the partials reached a boundary since it was built.
+   */
+  private Map<Aggregator, AggregatorData> getSnapshot(Map<Aggregator, AggregatorData> current) {
+    long boundary = partialBoundaries.get();
+    synchronized (snapshotLock) {
+      if (snapshot == null || snapshotBase != current || snapshotBoundary != boundary) {
+        // aggregating into a copy, the partials are merged into the data only when the window rolls
+        Map<Aggregator, AggregatorData> merged = new HashMap<>();
+        for (Map.Entry<Aggregator, AggregatorData> entry : current.entrySet()) {
+          AggregatorData aggregatorData = entry.getKey().createAggregatorData(entry.getValue().getTime());
+          aggregatorData.aggregate(entry.getValue().getAggregatable());
+          merged.put(entry.getKey(), aggregatorData);
+        }
+        mergePartials(merged, partials.get(), false);
+        snapshot = Collections.unmodifiableMap(merged);
+        snapshotBase = current;
+        snapshotBoundary = boundary;
+      }
+      return snapshot;
+    }
   }
 
   /**
@@ -247,7 +384,137 @@ public class AggregatorDataProvider {
         aggregators.contains(aggregator),
         Utils.formatL("Aggregator {} is not registered to provider", aggregator)
     );
-    return data.get(aggregator);
+    return (partialAggregation) ? get().get(aggregator) : data.get(aggregator);
+  }
+
+  /**
+   * Processes values into the AggregatorData of an Aggregator.
+   * <p/>
+   * If partial aggregation is enabled, the action is given the calling thread's partial AggregatorData for the current
+   * DataWindow and it must not keep a reference to it. Otherwise the action is given the same AggregatorData as
+   * {@link #getData(Aggregator)}.
+   *
+   * @param aggregator Aggregator to process values for.
+   * @param action processing of the values into the given AggregatorData.
+   */
+  public void processData(Aggregator aggregator, Consumer<AggregatorData> action) {
+    if (!partialAggregation) {
+      action.accept(getData(aggregator));
+      return;
+    }
+    Utils.checkState(started, "Not started");
+    Utils.checkState(!stopped, "Already stopped");
+    ThreadPartial partial = threadPartial.get();
+    if (partial != null && partial.lock.isHeldByCurrentThread()) {
+      // within a batch, the partial is locked until the end of the batch even if the window rolls meanwhile
+      action.accept(getPartialData(partial, aggregator));
+      return;
+    }
+    while (true) {
+      partial = getThreadPartial();
+      AggregatorData aggregatorData = getPartialData(partial, aggregator);
+      partial.lock.lock();
+      try {
+        // the window rolled after we picked the partial, the value goes to the new window
+        if (!partial.merged) {
+          action.accept(aggregatorData);
+          partialBoundaries.incrementAndGet();
+          return;
+        }
+      } finally {
+        partial.lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Starts processing a batch of values from the calling thread.
+   * <p/>
+   * If partial aggregation is enabled, the thread's partial AggregatorData is locked until {@link #endBatch()} so that
+   * {@link #processData(Aggregator, Consumer)} does not take the lock for every value. A roll happening meanwhile
+   * waits for the end of the batch to merge the partial.
+   */
+  public void startBatch() {
+    if (!partialAggregation) {
+      return;
+    }
+    Utils.checkState(started, "Not started");
+    Utils.checkState(!stopped, "Already stopped");
+    while (true) {
+      ThreadPartial partial = getThreadPartial();
+      partial.lock.lock();
+      // the window rolled after we picked the partial, the batch goes to the new window
+      if (!partial.merged) {
+        return;
+      }
+      partial.lock.unlock();
+    }
+  }
+
+  /**
+   * Ends processing a batch of values started with {@link #startBatch()}.
+   */
+  public void endBatch() {
+    if (!partialAggregation) {
+      return;
+    }
+    ThreadPartial partial = threadPartial.get();
+    if (partial != null && partial.lock.isHeldByCurrentThread()) {
+      partial.lock.unlock();
+      partialBoundaries.incrementAndGet();
+    }
+  }
+
+  private ThreadPartial getThreadPartial() {
+    ThreadPartial partial = threadPartial.get();
+    if (partial == null || partial.owner != partials) {
+      partial = createThreadPartial();
+      threadPartial.set(partial);
+    }
+    return partial;
+  }
+
+  private AggregatorData getPartialData(ThreadPartial partial, Aggregator aggregator) {
+    AggregatorData aggregatorData = partial.data.get(aggregator);
+    Utils.checkArgument(
+        aggregatorData != null,
+        Utils.formatL("Aggregator {} is not registered to provider", aggregator)
+    );
+    return aggregatorData;
+  }
+
+  private ThreadPartial createThreadPartial() {
+    while (true) {
+      Partials current = partials;
+      Map<Aggregator, AggregatorData> partialData = new HashMap<>();
+      for (Aggregator aggregator : aggregators) {
+        partialData.put(aggregator, aggregator.createAggregatorData(current.endTimeMillis));
+      }
+      ThreadPartial partial = new ThreadPartial(current, partialData);
+      // if the window rolled in between, the registration fails and we retry with the new window
+      if (current.add(partial)) {
+        return partial;
+      }
+    }
+  }
+
+  /**
+   * Merges partials into the given data, waiting for values being processed into them.
+   *
+   * @param close if the partials are final, values processed from now on have to go to the next window.
+   */
+  private void mergePartials(Map<Aggregator, AggregatorData> into, List<ThreadPartial> partialList, boolean close) {
+    for (ThreadPartial partial : partialList) {
+      partial.lock.lock();
+      try {
+        partial.merged |= close;
+        for (Map.Entry<Aggregator, AggregatorData> entry : partial.data.entrySet()) {
+          into.get(entry.getKey()).aggregate(entry.getValue().getAggregatable());
+        }
+      } finally {
+        partial.lock.unlock();
+      }
+    }
   }
 
   private Map<Aggregator, AggregatorData> aggregateDataWindows(Map<Aggregator, AggregatorData> result) {
@@ -71,7 +71,17 @@ public class Aggregators {
    * @param windowsToKeep datawindows to remember, including the active one.
    */
   public Aggregators(int windowsToKeep, WindowType windowType) {
-    dataProvider = new AggregatorDataProvider(windowsToKeep, windowType);
+    this(windowsToKeep, windowType, false);
+  }
+
+  /**
+   * Creates an Aggregators.
+   *
+   * @param windowsToKeep datawindows to remember, including the active one.
+   * @param partialAggregation if each processing thread should aggregate into its own partial data.
+   */
+  public Aggregators(int windowsToKeep, WindowType windowType, boolean partialAggregation) {
+    dataProvider = new AggregatorDataProvider(windowsToKeep, windowType, partialAggregation);
   }
 
   /**
@@ -191,4 +201,18 @@ public class Aggregators {
     return dataProvider.roll(newDataWindowEndTimeMillis);
   }
 
+  /**
+   * Starts processing a batch of values from the calling thread, see {@link AggregatorDataProvider#startBatch()}.
+   */
+  public void startBatch() {
+    dataProvider.startBatch();
+  }
+
+  /**
+   * Ends processing a batch of values from the calling thread.
+   */
+  public void endBatch() {
+    dataProvider.endBatch();
+  }
+
 }
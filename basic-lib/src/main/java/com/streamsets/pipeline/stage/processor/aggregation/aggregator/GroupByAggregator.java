@@ -15,7 +15,6 @@
  */
 package com.streamsets.pipeline.stage.processor.aggregation.aggregator;
 
-import com.google.common.collect.ImmutableMap;
 import com.streamsets.pipeline.api.impl.Utils;
 
 import java.util.HashMap;
@@ -224,8 +223,9 @@ public class GroupByAggregator<A extends SimpleAggregator, T> extends Aggregator
    * @param group the group-by element.
    * @param value the value to process.
    */
+  @SuppressWarnings("unchecked")
   public void process(String group, T value) {
-    getData().process(ImmutableMap.of(group, value));
+    processData(data -> ((Data) data).process(group, value));
   }
 
 }
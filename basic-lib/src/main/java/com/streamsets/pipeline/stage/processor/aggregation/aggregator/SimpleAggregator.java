@@ -35,7 +35,7 @@ public abstract class SimpleAggregator<A extends SimpleAggregator, T> extends Ag
    * @param value value to process.
    */
   public void process(T value) {
-    getData().process(value);
+    processData(data -> data.process(value));
   }
 
 }
@@ -26,6 +26,7 @@ import com.streamsets.pipeline.api.el.ELVars;
 import com.streamsets.pipeline.lib.el.ELUtils;
 import com.streamsets.pipeline.lib.el.RecordEL;
 import com.streamsets.pipeline.lib.el.TimeNowEL;
+import com.streamsets.pipeline.lib.util.FieldPathMatcher;
 import com.streamsets.pipeline.lib.util.FieldRegexUtil;
 
 import java.math.BigDecimal;
@@ -43,6 +44,7 @@ public class ExpressionProcessor extends SingleLaneRecordProcessor {
   private final List<HeaderAttributeConfig> headerAttributeConfigs;
   private final List<FieldAttributeConfig> fieldAttributeConfigs;
   private final Map<String, ?> memoizedVars = new HashMap<>();
+  private final Map<String, FieldPathMatcher> fieldToSetMatchers = new HashMap<>();
 
   private ELEval expressionEval;
   private ELVars expressionVars;
@@ -71,6 +73,10 @@ public class ExpressionProcessor extends SingleLaneRecordProcessor {
       ELUtils.validateExpression(expressionEval, expressionVars, expressionProcessorConfig.expression, getContext(),
         Groups.EXPRESSIONS.name(), "expressionProcessorConfigs", Errors.EXPR_00,
         Object.class, issues);
+      String fieldToSet = expressionProcessorConfig.fieldToSet;
+      if (fieldToSet != null && FieldRegexUtil.hasWildCards(fieldToSet)) {
+        fieldToSetMatchers.put(fieldToSet, FieldPathMatcher.create(fieldToSet));
+      }
     }
 
     if(headerAttributeConfigs != null && !headerAttributeConfigs.isEmpty()) {
@@ -141,7 +147,7 @@ public class ExpressionProcessor extends SingleLaneRecordProcessor {
       }
 
       if(FieldRegexUtil.hasWildCards(fieldToSet)) {
-        for(String field : FieldRegexUtil.getMatchingFieldPaths(fieldToSet, record.getEscapedFieldPaths())) {
+        for(String field : fieldToSetMatchers.get(fieldToSet).getMatchingFieldPaths(record.getEscapedFieldPaths())) {
           record.set(field, newField);
         }
       } else {
@@ -22,13 +22,15 @@ import com.streamsets.pipeline.api.el.ELEval;
 import com.streamsets.pipeline.api.el.ELVars;
 import com.streamsets.pipeline.api.impl.Utils;
 import com.streamsets.pipeline.lib.util.FieldPathExpressionUtil;
-import com.streamsets.pipeline.lib.util.FieldRegexUtil;
+import com.streamsets.pipeline.lib.util.FieldPathMatcher;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public class FieldFilterProcessor extends SingleLaneRecordProcessor {
@@ -37,6 +39,8 @@ public class FieldFilterProcessor extends SingleLaneRecordProcessor {
   private final List<String> fields;
   private ELEval fieldPathEval;
   private ELVars fieldPathVars;
+  // Parent paths of the fields to keep are the same for every record
+  private final Map<String, FieldPathMatcher> parentFieldMatchers = new HashMap<>();
 
 
   public FieldFilterProcessor(FilterOperation filterOperation, List<String> fields) {
@@ -102,7 +106,9 @@ public class FieldFilterProcessor extends SingleLaneRecordProcessor {
           //remove parent paths from the fieldsToRemove set
           //Note that parent names could contain wild card characters
           for(String parentField : parentFieldPaths) {
-            List<String> matchingFieldPaths = FieldRegexUtil.getMatchingFieldPaths(parentField, fieldPaths);
+            List<String> matchingFieldPaths = parentFieldMatchers
+                .computeIfAbsent(parentField, FieldPathMatcher::create)
+                .getMatchingFieldPaths(fieldPaths);
             fieldsToRemove.removeAll(matchingFieldPaths);
           }
 
@@ -33,8 +33,10 @@ import com.streamsets.pipeline.lib.util.FieldRegexUtil;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public class FieldHasherProcessor extends SingleLaneRecordProcessor {
@@ -49,6 +51,7 @@ public class FieldHasherProcessor extends SingleLaneRecordProcessor {
 
   private ELEval fieldPathEval;
   private ELVars fieldPathVars;
+  private final Map<HashType, HashFunction> hashFunctions = new EnumMap<>(HashType.class);
 
   public FieldHasherProcessor(
       HasherConfig hasherConfig,
@@ -149,6 +152,10 @@ public class FieldHasherProcessor extends SingleLaneRecordProcessor {
       );
     }
 
+    for (HashType hashType : HashType.values()) {
+      hashFunctions.put(hashType, HashingUtil.getHasher(hashType.getHashType()));
+    }
+
     fieldPathEval = getContext().createELEval("sourceFieldsToHash");
     fieldPathVars = getContext().createELVars();
 
@@ -351,13 +358,14 @@ public class FieldHasherProcessor extends SingleLaneRecordProcessor {
       boolean useSeparator
   ) throws StageException {
     try {
-      HashFunction hasher = HashingUtil.getHasher(hashType.getHashType());
-      HashingUtil.RecordFunnel recordFunnel = HashingUtil.getRecordFunnel(
+      // The field paths are already resolved, no need for a RecordFunnel matching them against the whole record
+      return HashingUtil.hashFields(
+          hashFunctions.get(hashType),
+          record,
           fieldsToHash,
           includeRecordHeader,
           useSeparator
-      );
-      return hasher.hashObject(record, recordFunnel).toString();
+      ).toString();
     } catch (IllegalArgumentException e) {
       throw new OnRecordErrorException(Errors.HASH_00, hashType.getDigest(), e.toString(), e);
     }
@@ -21,7 +21,9 @@ public enum HashType {
   MD5("MD5", HashingUtil.HashType.MD5),
   SHA1("SHA-1", HashingUtil.HashType.SHA1),
   SHA2("SHA-256", HashingUtil.HashType.SHA256),
-  MURMUR3_128("murmur3_128", HashingUtil.HashType.MURMUR3_128),;
+  MURMUR3_128("murmur3_128", HashingUtil.HashType.MURMUR3_128),
+  XXHASH64("xxHash64", HashingUtil.HashType.XXHASH64),
+  ;
 
   private String digest;
   private HashingUtil.HashType hashType;
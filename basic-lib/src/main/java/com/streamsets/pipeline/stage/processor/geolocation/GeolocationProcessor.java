@@ -18,12 +18,7 @@ package com.streamsets.pipeline.stage.processor.geolocation;
 import com.google.api.client.util.Sets;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Throwables;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
-import com.google.common.collect.Maps;
 import com.google.common.net.InetAddresses;
-import com.maxmind.geoip2.DatabaseReader;
 import com.maxmind.geoip2.exception.AddressNotFoundException;
 import com.maxmind.geoip2.exception.GeoIp2Exception;
 import com.maxmind.geoip2.model.AbstractResponse;
@@ -43,7 +38,6 @@ import com.streamsets.pipeline.api.base.SingleLaneRecordProcessor;
 import com.streamsets.pipeline.api.impl.Utils;
 
 import com.streamsets.pipeline.stage.common.DefaultErrorRecordHandler;
-import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -51,6 +45,7 @@ import java.io.File;
 import java.io.IOException;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -71,8 +66,7 @@ public class  GeolocationProcessor extends SingleLaneRecordProcessor {
   private final List<GeolocationDatabaseConfig> dbConfigs;
   private final List<GeolocationFieldConfig> configs;
   private final GeolocationMissingAddressAction missingAddressAction;
-  private Map<GeolocationDBType, DatabaseReader> readers = Maps.newHashMap();
-  private LoadingCache<Field, Map<GeolocationDBType, AbstractResponse>> responseCache;
+  private final Map<GeolocationDBType, SharedGeolocationDatabase> databases = new EnumMap<>(GeolocationDBType.class);
   private DefaultErrorRecordHandler errorRecordHandler;
 
   public GeolocationProcessor(
@@ -93,6 +87,17 @@ public class  GeolocationProcessor extends SingleLaneRecordProcessor {
     // Will be used to determine the full set of supported fields for the provided DBs
     Set<GeolocationField> supportedFields = Sets.newHashSet();
 
+    long cacheMaxMemory = getLongConfig(
+        SharedGeolocationDatabase.CACHE_MAX_MEMORY,
+        SharedGeolocationDatabase.CACHE_MAX_MEMORY_DEFAULT,
+        result
+    );
+    long refreshInterval = getLongConfig(
+        SharedGeolocationDatabase.REFRESH_INTERVAL,
+        SharedGeolocationDatabase.REFRESH_INTERVAL_DEFAULT,
+        result
+    );
+
     // Validate each database file
     for (GeolocationDatabaseConfig dbConfig : dbConfigs) {
       File database = new File(dbConfig.geoIP2DBFile);
@@ -107,38 +112,21 @@ public class  GeolocationProcessor extends SingleLaneRecordProcessor {
           database = new File(getContext().getResourcesDirectory(), dbConfig.geoIP2DBFile).getAbsoluteFile();
         }
         if (database.isFile()) {
+          SharedGeolocationDatabase sharedDatabase = null;
           try {
-            // The MaxMind APIs require making specific calls to get results for different databases. This unfortunately
-            // prevents much in the way of generalizing field retrieval, and forces us to have switch statements all over
-            // the place.
-            DatabaseReader reader = new DatabaseReader.Builder(database).build();
+            // Databases are shared by all processors using the same file, the known good address is looked up
+            // directly (bypassing the shared cache) to validate that the file can serve requested database type.
+            sharedDatabase = SharedGeolocationDatabase.acquire(database, cacheMaxMemory, refreshInterval);
             supportedFields.addAll(dbConfig.geoIP2DBType.supportedFields);
-            switch (dbConfig.geoIP2DBType) {
-              case COUNTRY:
-                reader.country(KNOWN_GOOD_ADDRESS);
-                break;
-              case CITY:
-                reader.city(KNOWN_GOOD_ADDRESS);
-                break;
-              case DOMAIN:
-                reader.domain(KNOWN_GOOD_ADDRESS);
-                break;
-              case ANONYMOUS_IP:
-                reader.anonymousIp(KNOWN_GOOD_ADDRESS);
-                break;
-              case ISP:
-                reader.isp(KNOWN_GOOD_ADDRESS);
-                break;
-              case CONNECTION_TYPE:
-                reader.connectionType(KNOWN_GOOD_ADDRESS);
-                break;
-              default:
-                throw new IllegalStateException(Utils.format("Unknown configuration value: ", dbConfig.geoIP2DBType));
-            }
+            sharedDatabase.query(dbConfig.geoIP2DBType, KNOWN_GOOD_ADDRESS);
 
-            // Store the reader for later -- currently only supports one database per type, but it's unclear if there's
-            // any reason to have more than one per type.
-            readers.put(dbConfig.geoIP2DBType, reader);
+            // Store the database for later -- currently only supports one database per type, but it's unclear if
+            // there's any reason to have more than one per type.
+            SharedGeolocationDatabase previous = databases.put(dbConfig.geoIP2DBType, sharedDatabase);
+            if (previous != null) {
+              previous.release();
+            }
+            sharedDatabase = null;
           } catch (IOException ex) {
             result.add(getContext().createConfigIssue("GEOLOCATION", "dbConfigs", Errors.GEOIP_01, database.getPath(),
                 ex));
@@ -151,6 +139,11 @@ public class  GeolocationProcessor extends SingleLaneRecordProcessor {
             result.add(getContext().createConfigIssue("GEOLOCATION", "dbConfigs", Errors.GEOIP_07,
                 ex));
             LOG.error(Utils.format(Errors.GEOIP_07.getMessage(), ex), ex);
+          } finally {
+            // Database that failed validation was not stored, so we have to give up our reference right away
+            if (sharedDatabase != null) {
+              sharedDatabase.release();
+            }
           }
         } else {
           result.add(getContext().createConfigIssue("GEOLOCATION", "dbConfigs", Errors.GEOIP_00, dbConfig.geoIP2DBFile));
@@ -176,55 +169,49 @@ public class  GeolocationProcessor extends SingleLaneRecordProcessor {
       }
     }
 
-    createResponseCache();
-
     return result;
   }
 
-  private void createResponseCache() {
-    responseCache = CacheBuilder.newBuilder().maximumSize(1000).build(
-        new CacheLoader<Field, Map<GeolocationDBType, AbstractResponse>>() {
-          @Override
-          public Map<GeolocationDBType, AbstractResponse> load(Field field) throws Exception {
-            Map<GeolocationDBType, AbstractResponse> responses = Maps.newHashMap();
-            // Each time we load an entry, we'll opportunistically just load that entry for all
-            // available databases.
-            for (Map.Entry<GeolocationDBType, DatabaseReader> entry : readers.entrySet()) {
-              DatabaseReader reader = Utils.checkNotNull(entry.getValue(), "DatabaseReader");
-              AbstractResponse resp = null;
-              switch (entry.getKey()) {
-                case COUNTRY:
-                  resp = reader.country(toAddress(field));
-                  break;
-                case CITY:
-                  resp = reader.city(toAddress(field));
-                  break;
-                case ANONYMOUS_IP:
-                  resp = reader.anonymousIp(toAddress(field));
-                  break;
-                case DOMAIN:
-                  resp = reader.domain(toAddress(field));
-                  break;
-                case ISP:
-                  resp = reader.isp(toAddress(field));
-                  break;
-                case CONNECTION_TYPE:
-                  resp =  reader.connectionType(toAddress(field));
-                  break;
-              }
-              responses.put(entry.getKey(), resp);
-            }
+  /**
+   * Returns value of a numeric stage property from sdc.properties, or the default if it's not set or invalid.
+   */
+  private long getLongConfig(String name, long defaultValue, List<ConfigIssue> issues) {
+    String value = getContext().getConfig(name);
+    if (value == null) {
+      return defaultValue;
+    }
+    try {
+      return Long.parseLong(value.trim());
+    } catch (NumberFormatException ex) {
+      issues.add(getContext().createConfigIssue("GEOLOCATION", "dbConfigs", Errors.GEOIP_14, value, name));
+      return defaultValue;
+    }
+  }
 
-            return responses;
-          }
-        });
+  /**
+   * Looks up the address in all configured databases.
+   */
+  private Map<GeolocationDBType, AbstractResponse> lookup(Field field) throws ExecutionException {
+    InetAddress address;
+    try {
+      address = toAddress(field);
+    } catch (UnknownHostException | OnRecordErrorException ex) {
+      throw new ExecutionException(ex);
+    }
+
+    Map<GeolocationDBType, AbstractResponse> responses = new EnumMap<>(GeolocationDBType.class);
+    for (Map.Entry<GeolocationDBType, SharedGeolocationDatabase> entry : databases.entrySet()) {
+      responses.put(entry.getKey(), entry.getValue().lookup(entry.getKey(), address));
+    }
+    return responses;
   }
 
   @Override
   public void destroy() {
-    for (DatabaseReader reader : readers.values()) {
-      IOUtils.closeQuietly(reader);
+    for (SharedGeolocationDatabase database : databases.values()) {
+      database.release();
     }
+    databases.clear();
     super.destroy();
   }
 
@@ -240,7 +227,7 @@ public class  GeolocationProcessor extends SingleLaneRecordProcessor {
         }
 
         try {
-          Map<GeolocationDBType, AbstractResponse> responses = responseCache.get(field);
+          Map<GeolocationDBType, AbstractResponse> responses = lookup(field);
           Location location = null;
           switch (config.targetType) {
             // Multiple databases support country name and ISO code, so we need to figure out which ones are available
@@ -0,0 +1,344 @@
+/*
+ * Copyright 2017 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.processor.geolocation;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Objects;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+import com.maxmind.db.Reader;
+import com.maxmind.geoip2.DatabaseReader;
+import com.maxmind.geoip2.exception.GeoIp2Exception;
+import com.maxmind.geoip2.model.AbstractResponse;
+import com.streamsets.pipeline.api.impl.Utils;
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * GeoIP2 database shared by all geolocation processors in this data collector that are configured with the same
+ * database file.
+ *
+ * The database is memory mapped once and reference counted - it's opened by the first processor that acquires it and
+ * closed when the last one releases it. All lookups go through one concurrent cache bounded by estimated memory usage
+ * rather than by number of entries. When the underlying file changes on disk, the database is transparently re-opened
+ * without the need to restart the pipelines that are using it.
+ *
+ * An update must replace the file atomically, i.e. write the new database next to it and rename it over the old one.
+ * The file is memory mapped, overwriting it in place changes the data under the open reader and lookups might fail or
+ * return garbage until the file is re-opened. The previous version stays mapped until the lookups using it complete.
+ */
+class SharedGeolocationDatabase {
+  private static final Logger LOG = LoggerFactory.getLogger(SharedGeolocationDatabase.class);
+
+  /**
+   * Memory budget in bytes of the lookup cache shared by all databases. The cache is created by the first processor
+   * that opens a database.
+   *
+   * Used in sdc.properties as stage config property.
+   */
+  static final String CACHE_MAX_MEMORY = "com.streamsets.pipeline.stage.processor.geolocation.cache.max_memory";
+  static final long CACHE_MAX_MEMORY_DEFAULT = 64 * 1024 * 1024;
+
+  /**
+   * How often in milliseconds we check whether the database file has changed on disk.
+   *
+   * Used in sdc.properties as stage config property.
+   */
+  static final String REFRESH_INTERVAL = "com.streamsets.pipeline.stage.processor.geolocation.refresh_interval_ms";
+  static final long REFRESH_INTERVAL_DEFAULT = 10000;
+
+  private static final Map<File, SharedGeolocationDatabase> DATABASES = new HashMap<>();
+
+  // guarded by DATABASES
+  private static Cache<CacheKey, AbstractResponse> responseCache;
+
+  private final File file;
+  private final long refreshInterval;
+  private final AtomicLong nextCheck;
+  private int references;
+  private volatile ReaderReference reader;
+  private long lastModified;
+  private long length;
+
+  private SharedGeolocationDatabase(File file, long refreshInterval) throws IOException {
+    this.file = file;
+    this.refreshInterval = refreshInterval;
+    this.nextCheck = new AtomicLong(System.currentTimeMillis() + refreshInterval);
+    this.lastModified = file.lastModified();
+    this.length = file.length();
+    this.reader = new ReaderReference(open(file));
+  }
+
+  /**
+   * Returns database for given file with the default cache size and refresh interval.
+   */
+  @VisibleForTesting
+  static SharedGeolocationDatabase acquire(File file) throws IOException {
+    return acquire(file, CACHE_MAX_MEMORY_DEFAULT, REFRESH_INTERVAL_DEFAULT);
+  }
+
+  /**
+   * Returns database for given file, opening it if this is the first reference to it. Every call must be paired with
+   * a call to {@link #release()}.
+   *
+   * @param cacheMaxMemory memory budget of the shared lookup cache, used only if the cache doesn't exist yet.
+   * @param refreshInterval how often the file is checked for changes, used only if the database is not open yet.
+   */
+  static SharedGeolocationDatabase acquire(File file, long cacheMaxMemory, long refreshInterval) throws IOException {
+    File canonicalFile = file.getCanonicalFile();
+    synchronized (DATABASES) {
+      if (responseCache == null) {
+        responseCache = CacheBuilder.newBuilder()
+            .maximumWeight(cacheMaxMemory)
+            .weigher(new Weigher<CacheKey, AbstractResponse>() {
+              @Override
+              public int weigh(CacheKey key, AbstractResponse value) {
+                return estimateSize(key.type);
+              }
+            })
+            .build();
+      }
+      SharedGeolocationDatabase database = DATABASES.get(canonicalFile);
+      if (database == null) {
+        database = new SharedGeolocationDatabase(canonicalFile, refreshInterval);
+        DATABASES.put(canonicalFile, database);
+        LOG.debug("Opened shared geolocation database '{}'", canonicalFile);
+      }
+      database.references++;
+      return database;
+    }
+  }
+
+  /**
+   * Releases one reference to this database, closing it when it was the last one.
+   */
+  void release() {
+    synchronized (DATABASES) {
+      Utils.checkState(references > 0, Utils.format("Database '{}' has been already released", file));
+      if (--references == 0) {
+        DATABASES.remove(file);
+        invalidateCache();
+        reader.release();
+        LOG.debug("Closed shared geolocation database '{}'", file);
+      }
+    }
+  }
+
+  @VisibleForTesting
+  DatabaseReader getReader() {
+    return reader.reader;
+  }
+
+  /**
+   * Returns response of given database type for the address, either from the shared cache or from the database.
+   */
+  AbstractResponse lookup(final GeolocationDBType type, final InetAddress address) throws ExecutionException {
+    long now = System.currentTimeMillis();
+    long check = nextCheck.get();
+    if (now >= check && nextCheck.compareAndSet(check, now + refreshInterval)) {
+      checkForUpdate();
+    }
+
+    return responseCache.get(
+        new CacheKey(this, reader.reader, type, address),
+        () -> query(type, address)
+    );
+  }
+
+  /**
+   * Single lookup in the current version of the database, bypassing the cache.
+   */
+  AbstractResponse query(GeolocationDBType type, InetAddress address) throws IOException, GeoIp2Exception {
+    ReaderReference current = retainReader();
+    try {
+      return query(current.reader, type, address);
+    } finally {
+      current.release();
+    }
+  }
+
+  /**
+   * Returns the current reader making sure it's not closed by a reload until released.
+   */
+  private ReaderReference retainReader() {
+    while (true) {
+      ReaderReference current = reader;
+      if (current.retain()) {
+        return current;
+      }
+      // the reader was closed by a reload in between, the new one is already in place unless we were released
+      Utils.checkState(current != reader, Utils.format("Database '{}' has been already released", file));
+    }
+  }
+
+  /**
+   * Re-opens the database if the file has been changed since it was opened. On failure (for example the new file is
+   * still being copied over) we keep using the current database and try again on the next check.
+   */
+  @VisibleForTesting
+  synchronized void checkForUpdate() {
+    long newLastModified = file.lastModified();
+    long newLength = file.length();
+    if (newLastModified == lastModified && newLength == length) {
+      return;
+    }
+
+    try {
+      ReaderReference oldReader = reader;
+      reader = new ReaderReference(open(file));
+      lastModified = newLastModified;
+      length = newLength;
+      invalidateCache();
+      // Lookups running concurrently in other pipelines might still be using the old reader, it's closed by the last
+      // one of them
+      oldReader.release();
+      LOG.info("Reloaded geolocation database '{}'", file);
+    } catch (IOException ex) {
+      LOG.warn("Can't reload geolocation database '{}', will keep using the previous version: {}", file, ex, ex);
+    }
+  }
+
+  /**
+   * Single lookup in the database. The MaxMind APIs require making specific calls to get results for different
+   * databases.
+   */
+  private static AbstractResponse query(DatabaseReader reader, GeolocationDBType type, InetAddress address)
+      throws IOException, GeoIp2Exception {
+    switch (type) {
+      case COUNTRY:
+        return reader.country(address);
+      case CITY:
+        return reader.city(address);
+      case ANONYMOUS_IP:
+        return reader.anonymousIp(address);
+      case DOMAIN:
+        return reader.domain(address);
+      case ISP:
+        return reader.isp(address);
+      case CONNECTION_TYPE:
+        return reader.connectionType(address);
+      default:
+        throw new IllegalStateException(Utils.format("Unknown configuration value: ", type));
+    }
+  }
+
+  @VisibleForTesting
+  static boolean isOpen(File file) throws IOException {
+    synchronized (DATABASES) {
+      return DATABASES.containsKey(file.getCanonicalFile());
+    }
+  }
+
+  private static DatabaseReader open(File file) throws IOException {
+    return new DatabaseReader.Builder(file).fileMode(Reader.FileMode.MEMORY_MAPPED).build();
+  }
+
+  private void invalidateCache() {
+    responseCache.asMap().keySet().removeIf(key -> key.database == this);
+  }
+
+  /**
+   * Rough estimate of the heap used by one cached response including the key, city responses carry names in all
+   * locales and are considerably bigger than the rest.
+   */
+  private static int estimateSize(GeolocationDBType type) {
+    switch (type) {
+      case CITY:
+        return 4096;
+      case COUNTRY:
+        return 1536;
+      default:
+        return 512;
+    }
+  }
+
+  /**
+   * Reader with the number of its users, the database itself holds one reference as long as the reader is current.
+   */
+  private static final class ReaderReference {
+    private final DatabaseReader reader;
+    private final AtomicInteger references;
+
+    ReaderReference(DatabaseReader reader) {
+      this.reader = reader;
+      this.references = new AtomicInteger(1);
+    }
+
+    /**
+     * Takes a reference to the reader, fails if the reader has been already closed.
+     */
+    boolean retain() {
+      while (true) {
+        int current = references.get();
+        if (current == 0) {
+          return false;
+        }
+        if (references.compareAndSet(current, current + 1)) {
+          return true;
+        }
+      }
+    }
+
+    void release() {
+      if (references.decrementAndGet() == 0) {
+        IOUtils.closeQuietly(reader);
+      }
+    }
+  }
+
+  private static final class CacheKey {
+    private final SharedGeolocationDatabase database;
+    private final DatabaseReader reader;
+    private final GeolocationDBType type;
+    private final InetAddress address;
+
+    CacheKey(SharedGeolocationDatabase database, DatabaseReader reader, GeolocationDBType type, InetAddress address) {
+      this.database = database;
+      this.reader = reader;
+      this.type = type;
+      this.address = address;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof CacheKey)) {
+        return false;
+      }
+      CacheKey other = (CacheKey) o;
+      // Reader identity makes sure that we never return responses from a previous version of the database
+      return reader == other.reader && type == other.type && address.equals(other.address);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(System.identityHashCode(reader), type, address);
+    }
+  }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2017 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.processor.selector;
+
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Conditions of the Stream Selector that compare a record field value or a record header attribute with a string
+ * literal, for example <code>${record:value('/type') == 'X'}</code>.
+ * <p/>
+ * All conditions comparing the same field (or attribute) are compiled into a single map from literal to lanes. For
+ * each record the value is read once and looked up in the map instead of evaluating every condition as EL.
+ * <p/>
+ * Only string and null values are resolved this way, for any other value the EL would coerce the operands and the
+ * caller must evaluate the conditions as EL to keep the exact same semantics (including errors). Conditions with a
+ * field path that does not parse are never compiled, so that the EL reports the error.
+ */
+class EqualityConditions {
+
+  private static final String LITERAL = "(?:'([^'\\\\]*)'|\"([^\"\\\\]*)\")";
+  private static final String FUNCTION = "record:(value|attribute)\\(\\s*" + LITERAL + "\\s*\\)";
+  private static final String OPERATOR = "(?:\\s*==\\s*|\\s+eq\\s+)";
+
+  // ${record:value('/a') == 'X'}
+  private static final Pattern FUNCTION_FIRST =
+      Pattern.compile("^\\$\\{\\s*" + FUNCTION + OPERATOR + LITERAL + "\\s*\\}$");
+  // ${'X' == record:value('/a')}
+  private static final Pattern LITERAL_FIRST =
+      Pattern.compile("^\\$\\{\\s*" + LITERAL + OPERATOR + FUNCTION + "\\s*\\}$");
+
+  /**
+   * Conditions of the lanes that compare the same field or attribute.
+   */
+  private static class Group {
+    private final boolean attribute;
+    private final String name;
+    private final Map<String, List<Integer>> lanesByLiteral = new HashMap<>();
+    private final List<Integer> lanes = new ArrayList<>();
+
+    private Group(boolean attribute, String name) {
+      this.attribute = attribute;
+      this.name = name;
+    }
+
+    private void add(String literal, int lane) {
+      lanesByLiteral.computeIfAbsent(literal, k -> new ArrayList<>()).add(lane);
+      lanes.add(lane);
+    }
+
+    private Object getValue(Record record) {
+      if (attribute) {
+        return record.getHeader().getAttribute(name);
+      }
+      Field field = record.get(name);
+      return (field == null) ? null : field.getValue();
+    }
+  }
+
+  private final Group[] groups;
+  private final Boolean[] matches;
+
+  /**
+   * Compiles the given conditions, the index of each condition is its lane index.
+   *
+   * @param conditions conditions of the non default lanes, in declared order.
+   * @param validationRecord record used to validate the field paths of the conditions.
+   */
+  EqualityConditions(String[] conditions, Record validationRecord) {
+    Map<String, Group> groupMap = new LinkedHashMap<>();
+    for (int lane = 0; lane < conditions.length; lane++) {
+      String condition = conditions[lane];
+      if (condition == null) {
+        continue;
+      }
+      String function;
+      String name;
+      String literal;
+      Matcher matcher = FUNCTION_FIRST.matcher(condition);
+      if (matcher.matches()) {
+        function = matcher.group(1);
+        name = firstNonNull(matcher.group(2), matcher.group(3));
+        literal = firstNonNull(matcher.group(4), matcher.group(5));
+      } else {
+        matcher = LITERAL_FIRST.matcher(condition);
+        if (!matcher.matches()) {
+          continue;
+        }
+        literal = firstNonNull(matcher.group(1), matcher.group(2));
+        function = matcher.group(3);
+        name = firstNonNull(matcher.group(4), matcher.group(5));
+      }
+      boolean attribute = "attribute".equals(function);
+      if (!attribute && !isValidFieldPath(validationRecord, name)) {
+        continue;
+      }
+      groupMap.computeIfAbsent(function + ":" + name, k -> new Group(attribute, name)).add(literal, lane);
+    }
+    groups = groupMap.values().toArray(new Group[groupMap.size()]);
+    matches = new Boolean[conditions.length];
+  }
+
+  private static boolean isValidFieldPath(Record record, String fieldPath) {
+    try {
+      record.get(fieldPath);
+      return true;
+    } catch (IllegalArgumentException ex) {
+      return false;
+    }
+  }
+
+  private static String firstNonNull(String a, String b) {
+    return (a != null) ? a : b;
+  }
+
+  /**
+   * Returns the number of conditions that were compiled.
+   */
+  int getCompiledCount() {
+    int count = 0;
+    for (Group group : groups) {
+      count += group.lanes.size();
+    }
+    return count;
+  }
+
+  /**
+   * Resolves the compiled conditions for a record, the results are available via {@link #matches(int)} until the
+   * next record is resolved. It never fails, conditions that can't be resolved are left to the EL.
+   */
+  void resolve(Record record) {
+    for (Group group : groups) {
+      Object value;
+      try {
+        value = group.getValue(record);
+      } catch (IllegalArgumentException ex) {
+        // evaluating the conditions as EL reports the error for the right condition
+        for (Integer lane : group.lanes) {
+          matches[lane] = null;
+        }
+        continue;
+      }
+      if (value == null || value instanceof String) {
+        for (Integer lane : group.lanes) {
+          matches[lane] = Boolean.FALSE;
+        }
+        if (value != null) {
+          List<Integer> matchingLanes = group.lanesByLiteral.get(value);
+          if (matchingLanes != null) {
+            for (Integer lane : matchingLanes) {
+              matches[lane] = Boolean.TRUE;
+            }
+          }
+        }
+      } else {
+        for (Integer lane : group.lanes) {
+          matches[lane] = null;
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns if the condition of the lane matched the last resolved record.
+   *
+   * @return <b>TRUE</b> or <b>FALSE</b> if it could be resolved, <b>NULL</b> if the condition was not compiled or the
+   * record value must be compared by evaluating the condition as EL.
+   */
+  Boolean matches(int lane) {
+    return matches[lane];
+  }
+
+}
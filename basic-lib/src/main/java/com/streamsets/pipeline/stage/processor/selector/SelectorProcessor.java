@@ -44,6 +44,7 @@ public class SelectorProcessor extends RecordProcessor {
   private ELEval predicateLanesEval;
   private ELVars variables;
   private String defaultLane;
+  private EqualityConditions equalityConditions;
 
   private ELEval createPredicateLanesEval(ELContext elContext) {
     return elContext.createELEval("lanePredicates");
@@ -81,6 +82,15 @@ public class SelectorProcessor extends RecordProcessor {
           }
         }
         defaultLane = predicateLanes[predicateLanes.length - 1][1];
+        if (issues.isEmpty()) {
+          String[] conditions = new String[predicateLanes.length - 1];
+          for (int i = 0; i < conditions.length; i++) {
+            conditions[i] = predicateLanes[i][0];
+          }
+          equalityConditions = new EqualityConditions(conditions, getContext().createRecord("forValidation"));
+          LOG.debug("Compiled {} of {} conditions into lookups", equalityConditions.getCompiledCount(),
+                    conditions.length);
+        }
       }
     }
     return issues;
@@ -110,16 +120,23 @@ public class SelectorProcessor extends RecordProcessor {
   protected void process(Record record, BatchMaker batchMaker) throws StageException {
     boolean matchedAtLeastOnePredicate = false;
     RecordEL.setRecordInContext(variables, record);
+    equalityConditions.resolve(record);
     for (int i = 0; i < predicateLanes.length - 1; i ++) {
       String[] pl = predicateLanes[i];
       try {
-        if (predicateLanesEval.eval(variables, pl[0], Boolean.class)) {
+        // Equality conditions are resolved by lookup, everything else (or values needing coercion) is evaluated
+        Boolean matches = equalityConditions.matches(i);
+        if (matches == null) {
+          matches = predicateLanesEval.eval(variables, pl[0], Boolean.class);
+        }
+        if (matches) {
           LOG.trace("Record '{}' satisfies condition '{}', going to '{}' output stream",
                     record.getHeader().getSourceId(), pl[0], pl[1]);
           batchMaker.addRecord(record, pl[1]);
           matchedAtLeastOnePredicate = true;
         }
-      } catch (ELEvalException ex) {
+      } catch (ELEvalException | IllegalArgumentException ex) {
+        // invalid field paths surface as IllegalArgumentException
         throw new OnRecordErrorException(Errors.SELECTOR_09, record.getHeader().getSourceId(), pl[0], ex.toString(),
                                          ex);
       }
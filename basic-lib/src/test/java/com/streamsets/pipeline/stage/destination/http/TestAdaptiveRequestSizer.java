@@ -0,0 +1,58 @@
+/*
+ * Copyright 2017 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.destination.http;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestAdaptiveRequestSizer {
+
+  @Test
+  public void testFixedSize() {
+    AdaptiveRequestSizer sizer = new AdaptiveRequestSizer(500, 0);
+    Assert.assertEquals(500, sizer.nextSize());
+    sizer.onRequestCompleted(500, 10000);
+    Assert.assertEquals(500, sizer.nextSize());
+
+    Assert.assertEquals(Integer.MAX_VALUE, new AdaptiveRequestSizer(0, 0).nextSize());
+  }
+
+  @Test
+  public void testAdaptsToThroughput() {
+    AdaptiveRequestSizer sizer = new AdaptiveRequestSizer(0, 100);
+    Assert.assertEquals(AdaptiveRequestSizer.INITIAL_ADAPTIVE_SIZE, sizer.nextSize());
+
+    // 100 records in 10 ms is 10 records per ms, so 1000 records take the 100 ms target
+    sizer.onRequestCompleted(100, 10);
+    Assert.assertEquals(1000, sizer.nextSize());
+
+    // slower requests shrink the next request
+    for (int i = 0; i < 50; i++) {
+      sizer.onRequestCompleted(1000, 1000);
+    }
+    Assert.assertEquals(100, sizer.nextSize());
+  }
+
+  @Test
+  public void testBoundedByMaxRecords() {
+    AdaptiveRequestSizer sizer = new AdaptiveRequestSizer(50, 100);
+    Assert.assertEquals(50, sizer.nextSize());
+    sizer.onRequestCompleted(50, 1);
+    Assert.assertEquals(50, sizer.nextSize());
+    sizer.onRequestCompleted(1, 100000);
+    Assert.assertTrue(sizer.nextSize() >= 1);
+  }
+}
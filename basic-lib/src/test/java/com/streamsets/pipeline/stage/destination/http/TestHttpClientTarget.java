@@ -46,7 +46,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.ServerSocket;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.zip.GZIPInputStream;
 
 public class TestHttpClientTarget extends AbstractHttpStageTest {
@@ -55,9 +58,17 @@ public class TestHttpClientTarget extends AbstractHttpStageTest {
   private static String requestPayload = null;
   private static boolean returnErrorResponse = false;
   private static String compressionType = null;
+  private static final AtomicInteger requestCount = new AtomicInteger();
+  private static int errorStatus;
+  // number of upcoming requests that fail with SERVICE_UNAVAILABLE
+  private static final AtomicInteger unavailableRequests = new AtomicInteger();
+  private static final List<String> requestPayloads = Collections.synchronizedList(new ArrayList<>());
 
   @Before
   public void setUp() throws Exception {
+    errorStatus = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+    unavailableRequests.set(0);
+    requestPayloads.clear();
     int port =  getFreePort();
     server = new Server(port);
     server.setHandler(new AbstractHandler() {
@@ -69,8 +80,13 @@ public class TestHttpClientTarget extends AbstractHttpStageTest {
           HttpServletResponse response
       ) throws IOException, ServletException {
         serverRequested = true;
+        requestCount.incrementAndGet();
         if (returnErrorResponse) {
-          response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+          response.sendError(errorStatus);
+          return;
+        }
+        if (unavailableRequests.getAndDecrement() > 0) {
+          response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
           return;
         }
 
@@ -82,6 +98,7 @@ public class TestHttpClientTarget extends AbstractHttpStageTest {
           is = new GZIPInputStream(is);
         }
         requestPayload = IOUtils.toString(is);
+        requestPayloads.add(requestPayload);
         response.setStatus(HttpServletResponse.SC_OK);
         baseRequest.setHandled(true);
       }
@@ -139,6 +156,70 @@ public class TestHttpClientTarget extends AbstractHttpStageTest {
     Assert.assertTrue(requestPayload.contains("a\nb\n"));
   }
 
+  @Test
+  public void testSplitBatchIntoRequests() throws Exception {
+    HttpClientTargetConfig config = getConf(server.getURI().toString());
+    config.singleRequestPerBatch = true;
+    config.maxRecordsPerRequest = 1;
+    config.maxConcurrentRequests = 2;
+    requestCount.set(0);
+    requestPayload = null;
+    returnErrorResponse = false;
+    testHttpTarget(config);
+    Assert.assertEquals(2, requestCount.get());
+    Assert.assertTrue("a\n".equals(requestPayload) || "b\n".equals(requestPayload));
+  }
+
+  @Test
+  public void testSplitBatchRetriesFailedRequests() throws Exception {
+    HttpClientTargetConfig config = getConf(server.getURI().toString());
+    config.singleRequestPerBatch = true;
+    config.maxRecordsPerRequest = 1;
+    config.maxRequestRetries = 2;
+    requestCount.set(0);
+    returnErrorResponse = true;
+    testErrorHandling(config);
+    // each of the two requests is sent once and retried twice
+    Assert.assertEquals(6, requestCount.get());
+  }
+
+  @Test
+  public void testSplitBatchDoesNotRetryClientErrors() throws Exception {
+    HttpClientTargetConfig config = getConf(server.getURI().toString());
+    config.singleRequestPerBatch = true;
+    config.maxRecordsPerRequest = 1;
+    config.maxRequestRetries = 2;
+    requestCount.set(0);
+    returnErrorResponse = true;
+    errorStatus = HttpServletResponse.SC_BAD_REQUEST;
+    testErrorHandling(config);
+    Assert.assertEquals(2, requestCount.get());
+  }
+
+  @Test
+  public void testSplitBatchRetryKeepsOrder() throws Exception {
+    HttpClientTargetConfig config = getConf(server.getURI().toString());
+    config.singleRequestPerBatch = true;
+    config.maxRecordsPerRequest = 1;
+    config.maxRequestRetries = 1;
+    requestCount.set(0);
+    returnErrorResponse = false;
+    unavailableRequests.set(1);
+    testHttpTarget(config);
+    Assert.assertEquals(3, requestCount.get());
+    Assert.assertEquals(Arrays.asList("a\n", "b\n"), requestPayloads);
+  }
+
+  @Test
+  public void testIsRetryable() {
+    Assert.assertTrue(HttpClientTarget.isRetryable(HttpServletResponse.SC_INTERNAL_SERVER_ERROR));
+    Assert.assertTrue(HttpClientTarget.isRetryable(HttpServletResponse.SC_SERVICE_UNAVAILABLE));
+    Assert.assertTrue(HttpClientTarget.isRetryable(HttpServletResponse.SC_REQUEST_TIMEOUT));
+    Assert.assertTrue(HttpClientTarget.isRetryable(429));
+    Assert.assertFalse(HttpClientTarget.isRetryable(HttpServletResponse.SC_BAD_REQUEST));
+    Assert.assertFalse(HttpClientTarget.isRetryable(HttpServletResponse.SC_NOT_FOUND));
+  }
+
   @Test
   public void testSingleRequestPerRecord() throws Exception {
     HttpClientTargetConfig config = getConf(server.getURI().toString());
@@ -15,9 +15,16 @@
  */
 package com.streamsets.pipeline.stage.origin.httpserver;
 
+import com.streamsets.pipeline.api.Config;
 import com.streamsets.pipeline.stage.util.tls.TlsConfigBeanUpgraderTestUtil;
+import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 public class TestHttpServerPushSourceUpgrader {
 
   @Test
@@ -28,4 +35,19 @@ public class TestHttpServerPushSourceUpgrader {
         10
     );
   }
+
+  @Test
+  public void testV10ToV11() throws Exception {
+    List<Config> configs = new ArrayList<>();
+    new HttpServerPushSourceUpgrader().upgrade("", "", "", 10, 11, configs);
+
+    Map<String, Object> upgraded = new HashMap<>();
+    for (Config config : configs) {
+      upgraded.put(config.getName(), config.getValue());
+    }
+    Assert.assertEquals(3, upgraded.size());
+    Assert.assertEquals(false, upgraded.get("coalesceRequests"));
+    Assert.assertEquals(1000, upgraded.get("coalesceMaxBatchSize"));
+    Assert.assertEquals(100, upgraded.get("coalesceMaxWaitTime"));
+  }
 }
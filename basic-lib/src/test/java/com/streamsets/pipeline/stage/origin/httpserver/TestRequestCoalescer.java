@@ -0,0 +1,96 @@
+/*
+ * Copyright 2017 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.origin.httpserver;
+
+import com.streamsets.pipeline.api.BatchContext;
+import com.streamsets.pipeline.api.BatchMaker;
+import com.streamsets.pipeline.api.PushSource;
+import com.streamsets.pipeline.api.Record;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestRequestCoalescer {
+
+  private static PushSource.Context createContext(List<Integer> batchSizes, boolean result) {
+    PushSource.Context context = Mockito.mock(PushSource.Context.class);
+    Mockito.when(context.startBatch()).thenAnswer(invocation -> {
+      AtomicInteger count = new AtomicInteger();
+      BatchMaker batchMaker = Mockito.mock(BatchMaker.class);
+      Mockito.doAnswer(i -> count.incrementAndGet()).when(batchMaker).addRecord(Mockito.any(Record.class));
+      BatchContext batchContext = Mockito.mock(BatchContext.class);
+      Mockito.when(batchContext.getBatchMaker()).thenReturn(batchMaker);
+      Mockito.when(context.processBatch(batchContext)).thenAnswer(i -> {
+        synchronized (batchSizes) {
+          batchSizes.add(count.get());
+        }
+        return result;
+      });
+      return batchContext;
+    });
+    return context;
+  }
+
+  @Test
+  public void testCoalesceConcurrentRequests() throws Exception {
+    List<Integer> batchSizes = new ArrayList<>();
+    RequestCoalescer coalescer = new RequestCoalescer(createContext(batchSizes, true), 10, 60000);
+
+    ExecutorService executor = Executors.newFixedThreadPool(10);
+    try {
+      List<Future<Boolean>> futures = new ArrayList<>();
+      for (int i = 0; i < 10; i++) {
+        futures.add(executor.submit(() -> coalescer.process(Collections.singletonList(Mockito.mock(Record.class)))));
+      }
+      for (Future<Boolean> future : futures) {
+        Assert.assertTrue(future.get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    // the batch is processed as soon as it is full, long before the wait time elapses
+    Assert.assertEquals(Collections.singletonList(10), batchSizes);
+  }
+
+  @Test
+  public void testWaitTimeBoundsBatch() throws Exception {
+    List<Integer> batchSizes = new ArrayList<>();
+    RequestCoalescer coalescer = new RequestCoalescer(createContext(batchSizes, false), 1000, 10);
+
+    Assert.assertFalse(coalescer.process(Collections.singletonList(Mockito.mock(Record.class))));
+    Assert.assertFalse(coalescer.process(Collections.emptyList()));
+    Assert.assertEquals(2, batchSizes.size());
+    Assert.assertEquals(1, (int) batchSizes.get(0));
+    Assert.assertEquals(0, (int) batchSizes.get(1));
+  }
+
+  @Test(expected = IOException.class)
+  public void testProcessBatchFailure() throws Exception {
+    PushSource.Context context = Mockito.mock(PushSource.Context.class);
+    Mockito.when(context.startBatch()).thenThrow(new IllegalStateException("stopped"));
+    new RequestCoalescer(context, 1, 0).process(Collections.singletonList(Mockito.mock(Record.class)));
+  }
+}
@@ -41,4 +41,22 @@ public class TestAggregationProcessorUpgrader {
     );
     Assert.assertEquals(true, config.getValue());
   }
+
+  @Test
+  public void testUpgradeV2toV3PerRunner() throws Exception {
+    List<Config> configs = new ArrayList<>();
+    AggregationProcessorUpgrader aggregationProcessorUpgrader = new AggregationProcessorUpgrader();
+    aggregationProcessorUpgrader.upgrade("a", "b", "c", 2, 3, configs);
+
+    Assert.assertEquals(1, configs.size());
+    Config config = configs.get(0);
+    Assert.assertEquals(
+        AggregationProcessorUpgrader.JOINER.join(
+            AggregationProcessorUpgrader.CONFIG,
+            AggregationProcessorUpgrader.PER_RUNNER_PARTIAL_AGGREGATION
+        ),
+        config.getName()
+    );
+    Assert.assertEquals(false, config.getValue());
+  }
 }
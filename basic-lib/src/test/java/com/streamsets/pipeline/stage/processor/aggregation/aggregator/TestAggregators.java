@@ -20,6 +20,8 @@ import com.streamsets.pipeline.stage.processor.aggregation.WindowType;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Map;
+
 public class TestAggregators {
 
   @Test
@@ -55,4 +57,141 @@ public class TestAggregators {
 
     aggregators.stop();
   }
+
+  @Test
+  public void testPartialAggregation() throws Exception {
+    Aggregators aggregators = new Aggregators(2, WindowType.ROLLING, true);
+    CountAggregator count = aggregators.createSimple("count", CountAggregator.class);
+    GroupByAggregator<CountAggregator, Long> groupBy =
+        aggregators.createGroupBy("gbCount", CountAggregator.class);
+    Assert.assertTrue(aggregators.getDataProvider().isPartialAggregation());
+
+    aggregators.start(1L);
+    Runnable runner = () -> {
+      for (int i = 0; i < 1000; i++) {
+        count.process(1L);
+        groupBy.process((i % 2 == 0) ? "even" : "odd", 1L);
+      }
+    };
+    Thread t1 = new Thread(runner);
+    Thread t2 = new Thread(runner);
+    t1.start();
+    t2.start();
+    t1.join();
+    t2.join();
+
+    // live value merges the partials of both runners
+    Assert.assertEquals((Long) 2000L, count.get());
+    Assert.assertEquals(ImmutableMap.of("even", 1000L, "odd", 1000L), groupBy.get());
+    // reading does not alter the aggregation
+    Assert.assertEquals((Long) 2000L, count.get());
+
+    Map<Aggregator, AggregatorData> closed = aggregators.roll(2L);
+    Assert.assertEquals(2000L, closed.get(count).get());
+    Assert.assertEquals(ImmutableMap.of("even", 1000L, "odd", 1000L), closed.get(groupBy).get());
+    Assert.assertEquals((Long) 0L, count.get());
+    Assert.assertEquals(ImmutableMap.of(), groupBy.get());
+
+    count.process(3L);
+    Map<Aggregator, AggregatorData> stopped = aggregators.stop();
+    Assert.assertEquals(3L, stopped.get(count).get());
+  }
+
+  @Test
+  public void testPartialAggregationConcurrentWithRoll() throws Exception {
+    Aggregators aggregators = new Aggregators(2, WindowType.ROLLING, true);
+    CountAggregator count = aggregators.createSimple("count", CountAggregator.class);
+    aggregators.start(1L);
+
+    int values = 200000;
+    Runnable runner = () -> {
+      for (int i = 0; i < values; i++) {
+        count.process(1L);
+      }
+    };
+    Thread t1 = new Thread(runner);
+    Thread t2 = new Thread(runner);
+    t1.start();
+    t2.start();
+
+    // values processed while a window rolls must end up in exactly one window
+    long total = 0;
+    long window = 2L;
+    while (t1.isAlive() || t2.isAlive()) {
+      total += (Long) aggregators.roll(window++).get(count).get();
+    }
+    t1.join();
+    t2.join();
+    total += (Long) aggregators.stop().get(count).get();
+    Assert.assertEquals(2L * values, total);
+  }
+
+  @Test
+  public void testPartialAggregationBatchesConcurrentWithRoll() throws Exception {
+    Aggregators aggregators = new Aggregators(2, WindowType.ROLLING, true);
+    CountAggregator count = aggregators.createSimple("count", CountAggregator.class);
+    aggregators.start(1L);
+
+    int batches = 2000;
+    int batchSize = 100;
+    Runnable runner = () -> {
+      for (int i = 0; i < batches; i++) {
+        aggregators.startBatch();
+        try {
+          for (int j = 0; j < batchSize; j++) {
+            count.process(1L);
+          }
+        } finally {
+          aggregators.endBatch();
+        }
+      }
+    };
+    Thread t1 = new Thread(runner);
+    Thread t2 = new Thread(runner);
+    t1.start();
+    t2.start();
+
+    // a batch processed while a window rolls must end up in exactly one window
+    long total = 0;
+    long window = 2L;
+    while (t1.isAlive() || t2.isAlive()) {
+      long windowCount = (Long) aggregators.roll(window++).get(count).get();
+      Assert.assertEquals(0, windowCount % batchSize);
+      total += windowCount;
+    }
+    t1.join();
+    t2.join();
+    total += (Long) aggregators.stop().get(count).get();
+    Assert.assertEquals(2L * batches * batchSize, total);
+  }
+
+  @Test
+  public void testPartialAggregationSnapshot() throws Exception {
+    Aggregators aggregators = new Aggregators(2, WindowType.ROLLING, true);
+    CountAggregator count = aggregators.createSimple("count", CountAggregator.class);
+    AggregatorDataProvider provider = aggregators.getDataProvider();
+    aggregators.start(1L);
+
+    aggregators.startBatch();
+    count.process(1L);
+    count.process(1L);
+    aggregators.endBatch();
+
+    // the snapshot is reused until a batch completes or the window rolls
+    Map<Aggregator, AggregatorData> snapshot = provider.get();
+    Assert.assertEquals(2L, snapshot.get(count).get());
+    Assert.assertSame(snapshot, provider.get());
+
+    aggregators.startBatch();
+    count.process(1L);
+    aggregators.endBatch();
+    Assert.assertNotSame(snapshot, provider.get());
+    Assert.assertEquals((Long) 3L, count.get());
+
+    snapshot = provider.get();
+    aggregators.roll(2L);
+    Assert.assertNotSame(snapshot, provider.get());
+    Assert.assertEquals((Long) 0L, count.get());
+    aggregators.stop();
+  }
 }
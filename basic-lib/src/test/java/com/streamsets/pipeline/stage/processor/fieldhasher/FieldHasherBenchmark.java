@@ -0,0 +1,107 @@
+/*
+ * Copyright 2017 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.processor.fieldhasher;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.HashFunction;
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.lib.hashing.HashingUtil;
+import com.streamsets.pipeline.sdk.RecordCreator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro benchmark of hashing a single field of each type with every {@link HashType}, comparing the record funnel
+ * (which matches the paths against all field paths of the record) with hashing the already resolved field paths.
+ *
+ * It's not a unit test, run it with:
+ * <pre>
+ *   mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.streamsets.pipeline.stage.processor.fieldhasher.FieldHasherBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldHasherBenchmark {
+
+  @Param({"MD5", "SHA1", "SHA2", "MURMUR3_128", "XXHASH64"})
+  public HashType hashType;
+
+  @Param({"/string", "/long", "/decimal", "/bytes"})
+  public String fieldPath;
+
+  private Record record;
+  private HashFunction hashFunction;
+  private List<String> fieldsToHash;
+
+  @Setup
+  public void setup() {
+    Map<String, Field> map = new LinkedHashMap<>();
+    map.put("string", Field.create("The quick brown fox jumps over the lazy dog"));
+    map.put("long", Field.create(1234567890123L));
+    map.put("decimal", Field.create(new BigDecimal("12345.6789")));
+    map.put("bytes", Field.create(new byte[256]));
+    for (int i = 0; i < 20; i++) {
+      map.put("other" + i, Field.create(i));
+    }
+    record = RecordCreator.create("s", "s:1");
+    record.set(Field.create(map));
+    hashFunction = HashingUtil.getHasher(hashType.getHashType());
+    fieldsToHash = ImmutableList.of(fieldPath);
+  }
+
+  @Benchmark
+  public String recordFunnel() {
+    Collection<String> fields = fieldsToHash;
+    return HashingUtil.getHasher(hashType.getHashType())
+        .hashObject(record, HashingUtil.getRecordFunnel(fields, false, true))
+        .toString();
+  }
+
+  @Benchmark
+  public String resolvedFields() {
+    return HashingUtil.hashFields(hashFunction, record, fieldsToHash, false, true).toString();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(FieldHasherBenchmark.class.getSimpleName()).build()).run();
+  }
+
+}
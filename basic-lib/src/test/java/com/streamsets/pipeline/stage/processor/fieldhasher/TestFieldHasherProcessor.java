@@ -385,6 +385,35 @@ public class TestFieldHasherProcessor {
     }
   }
 
+  @Test
+  public void testNonCryptographicHashes() throws StageException {
+    for (HashType hashType : ImmutableList.of(HashType.MURMUR3_128, HashType.XXHASH64)) {
+      HasherConfig hasherConfig = createInPlaceHasherProcessor(ImmutableList.of("/name", "/age"), hashType);
+      FieldHasherProcessor processor = new FieldHasherProcessor(hasherConfig, OnStagePreConditionFailure.CONTINUE);
+
+      ProcessorRunner runner = new ProcessorRunner.Builder(FieldHasherDProcessor.class, processor)
+          .addOutputLane("a").build();
+      runner.runInit();
+
+      try {
+        Map<String, Field> map = new LinkedHashMap<>();
+        map.put("name", Field.create("streamsets"));
+        map.put("age", Field.create(21));
+        Record record = RecordCreator.create("s", "s:1");
+        record.set(Field.create(map));
+
+        StageRunner.Output output = runner.runProcess(ImmutableList.of(record));
+        Assert.assertEquals(0, runner.getErrorRecords().size());
+
+        Map<String, Field> result = output.getRecords().get("a").get(0).get().getValueAsMap();
+        Assert.assertEquals(computeHash(Field.Type.STRING, "streamsets", hashType), result.get("name").getValue());
+        Assert.assertEquals(computeHash(Field.Type.INTEGER, 21, hashType), result.get("age").getValue());
+      } finally {
+        runner.runDestroy();
+      }
+    }
+  }
+
   @Test
   public void testStringFieldWithToError() throws StageException {
     HasherConfig hasherConfig = createInPlaceHasherProcessor(ImmutableList.of("/name"), HashType.SHA2);
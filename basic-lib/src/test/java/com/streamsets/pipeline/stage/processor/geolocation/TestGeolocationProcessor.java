@@ -143,6 +143,29 @@ public class TestGeolocationProcessor {
         String.valueOf(configErrors.get(0)).contains(Errors.GEOIP_12.name()));
   }
 
+  @Test
+  public void testInvalidSdcConfiguration() throws Exception {
+    GeolocationFieldConfig config = new GeolocationFieldConfig();
+    config.inputFieldName = "/ipAsInt";
+    config.outputFieldName = "/intIpCountry";
+    config.targetType = GeolocationField.COUNTRY_NAME;
+
+    GeolocationDatabaseConfig dbConfig = new GeolocationDatabaseConfig();
+    dbConfig.geoIP2DBFile = countryDb.getAbsolutePath();
+    dbConfig.geoIP2DBType = GeolocationDBType.COUNTRY;
+
+    ProcessorRunner runner = new ProcessorRunner.Builder(GeolocationDProcessor.class)
+        .addConfiguration("fieldTypeConverterConfigs", ImmutableList.of(config))
+        .addConfiguration("dbConfigs", ImmutableList.of(dbConfig))
+        .addConfiguration("missingAddressAction", GeolocationMissingAddressAction.REPLACE_WITH_NULLS)
+        .addStageSdcConfiguration(SharedGeolocationDatabase.REFRESH_INTERVAL, "10s")
+        .addOutputLane("a").build();
+    List<Stage.ConfigIssue> configErrors = runner.runValidateConfigs();
+    Assert.assertEquals(String.valueOf(configErrors), 1, configErrors.size());
+    Assert.assertTrue(String.valueOf(configErrors.get(0)),
+        String.valueOf(configErrors.get(0)).contains(Errors.GEOIP_14.name()));
+  }
+
   @Test
   public void testLookup() throws Exception {
     List<GeolocationFieldConfig> configs = new ArrayList<>();
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2017 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.processor.geolocation;
+
+import com.google.common.io.Files;
+import com.google.common.io.Resources;
+import com.maxmind.geoip2.DatabaseReader;
+import com.maxmind.geoip2.model.CityResponse;
+import com.maxmind.geoip2.model.CountryResponse;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+
+public class TestSharedGeolocationDatabase {
+
+  private File tempDir;
+  private File databaseFile;
+
+  @Before
+  public void setup() throws Exception {
+    tempDir = Files.createTempDir();
+    databaseFile = new File(tempDir, "GeoLite2.mmdb");
+    copy("GeoLite2-Country.mmdb", databaseFile);
+  }
+
+  @After
+  public void tearDown() {
+    if (tempDir != null) {
+      FileUtils.deleteQuietly(tempDir);
+    }
+  }
+
+  private static void copy(String resource, File target) throws Exception {
+    try (OutputStream out = new FileOutputStream(target)) {
+      Resources.copy(Resources.getResource(resource), out);
+    }
+  }
+
+  @Test
+  public void testReferenceCounting() throws Exception {
+    SharedGeolocationDatabase first = SharedGeolocationDatabase.acquire(databaseFile);
+    SharedGeolocationDatabase second = SharedGeolocationDatabase.acquire(
+        new File(tempDir, "../" + tempDir.getName() + "/GeoLite2.mmdb")
+    );
+    Assert.assertSame(first, second);
+    Assert.assertTrue(SharedGeolocationDatabase.isOpen(databaseFile));
+
+    first.release();
+    Assert.assertTrue(SharedGeolocationDatabase.isOpen(databaseFile));
+    second.release();
+    Assert.assertFalse(SharedGeolocationDatabase.isOpen(databaseFile));
+
+    SharedGeolocationDatabase third = SharedGeolocationDatabase.acquire(databaseFile);
+    Assert.assertNotSame(first, third);
+    third.release();
+  }
+
+  @Test
+  public void testLookupIsCached() throws Exception {
+    SharedGeolocationDatabase database = SharedGeolocationDatabase.acquire(databaseFile);
+    try {
+      InetAddress address = InetAddress.getByName("128.101.101.101");
+      CountryResponse response = (CountryResponse) database.lookup(GeolocationDBType.COUNTRY, address);
+      Assert.assertEquals("US", response.getCountry().getIsoCode());
+      Assert.assertSame(response, database.lookup(GeolocationDBType.COUNTRY, address));
+    } finally {
+      database.release();
+    }
+  }
+
+  @Test
+  public void testReloadOnChange() throws Exception {
+    SharedGeolocationDatabase database = SharedGeolocationDatabase.acquire(databaseFile);
+    try {
+      InetAddress address = InetAddress.getByName("128.101.101.101");
+      DatabaseReader reader = database.getReader();
+      try {
+        database.lookup(GeolocationDBType.CITY, address);
+        Assert.fail("Country database should not serve city lookups");
+      } catch (Exception ex) {
+        // Expected
+      }
+
+      // Unchanged file is not re-opened
+      database.checkForUpdate();
+      Assert.assertSame(reader, database.getReader());
+
+      // Replace the file the same way as an update would, i.e. copy next to it and rename over
+      File newFile = new File(tempDir, "GeoLite2.mmdb.tmp");
+      copy("GeoLite2-City.mmdb", newFile);
+      Assert.assertTrue(newFile.setLastModified(databaseFile.lastModified() + 60000));
+      Assert.assertTrue(newFile.renameTo(databaseFile));
+
+      database.checkForUpdate();
+      Assert.assertNotSame(reader, database.getReader());
+      CityResponse response = (CityResponse) database.lookup(GeolocationDBType.CITY, address);
+      Assert.assertEquals("Minneapolis", response.getCity().getName());
+
+      // the previous version is closed as no lookup is using it anymore
+      try {
+        reader.country(address);
+        Assert.fail("Previous version of the database should have been closed");
+      } catch (Exception ex) {
+        // Expected
+      }
+    } finally {
+      database.release();
+    }
+  }
+}
@@ -27,6 +27,7 @@ import com.streamsets.pipeline.sdk.RecordCreator;
 import com.streamsets.pipeline.sdk.StageRunner;
 import org.junit.Assert;
 import org.junit.Test;
+import org.mockito.Mockito;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -249,4 +250,92 @@ public class TestSelectorProcessor {
     }
   }
 
+  @Test
+  public void testSelectEqualityConditions() throws Exception {
+    ProcessorRunner runner = new ProcessorRunner.Builder(SelectorDProcessor.class)
+        .setOnRecordError(OnRecordError.DISCARD)
+        .addConfiguration("lanePredicates", createLanePredicates(
+            "a", "${record:value('/type') == 'x'}",
+            "b", "${'y' == record:value('/type')}",
+            "c", "${record:value('/size') > 10}",
+            "d", "${record:attribute('origin') eq \"s1\"}",
+            "e", "${record:value(\"/type\") == 'x'}",
+            "f", "default"))
+        .addOutputLane("a")
+        .addOutputLane("b")
+        .addOutputLane("c")
+        .addOutputLane("d")
+        .addOutputLane("e")
+        .addOutputLane("f")
+        .build();
+
+    runner.runInit();
+    try {
+      Record r0 = createRecord("r0", Field.create("x"), 1, null);
+      Record r1 = createRecord("r1", Field.create("y"), 20, "s1");
+      Record r2 = createRecord("r2", Field.create("z"), 1, "s2");
+      Record r3 = createRecord("r3", Field.create(Field.Type.STRING, null), 1, null);
+      // not a string, the condition must be evaluated (and coerced) by the EL
+      Record r4 = createRecord("r4", Field.create('y'), 1, null);
+      List<Record> input = ImmutableList.of(r0, r1, r2, r3, r4);
+      StageRunner.Output output = runner.runProcess(input);
+      Assert.assertEquals(ImmutableList.of(r0.getHeader().getSourceId()), getSourceIds(output, "a"));
+      Assert.assertEquals(
+          ImmutableList.of(r1.getHeader().getSourceId(), r4.getHeader().getSourceId()),
+          getSourceIds(output, "b")
+      );
+      Assert.assertEquals(ImmutableList.of(r1.getHeader().getSourceId()), getSourceIds(output, "c"));
+      Assert.assertEquals(ImmutableList.of(r1.getHeader().getSourceId()), getSourceIds(output, "d"));
+      Assert.assertEquals(ImmutableList.of(r0.getHeader().getSourceId()), getSourceIds(output, "e"));
+      Assert.assertEquals(
+          ImmutableList.of(r2.getHeader().getSourceId(), r3.getHeader().getSourceId()),
+          getSourceIds(output, "f")
+      );
+    } finally {
+      runner.runDestroy();
+    }
+  }
+
+  @Test
+  public void testEqualityConditionsInvalidFieldPath() throws Exception {
+    EqualityConditions conditions = new EqualityConditions(
+        new String[] {"${record:value('type') == 'x'}", "${record:value('/type') == 'x'}"},
+        RecordCreator.create()
+    );
+    // the invalid field path is left to the EL
+    Assert.assertEquals(1, conditions.getCompiledCount());
+
+    Record record = createRecord("r0", Field.create("x"), 1, null);
+    conditions.resolve(record);
+    Assert.assertNull(conditions.matches(0));
+    Assert.assertTrue(conditions.matches(1));
+
+    // failing to read the value at runtime falls back to the EL as well
+    Record failing = Mockito.mock(Record.class);
+    Mockito.when(failing.get("/type")).thenThrow(new IllegalArgumentException("Invalid fieldPath"));
+    conditions.resolve(failing);
+    Assert.assertNull(conditions.matches(0));
+    Assert.assertNull(conditions.matches(1));
+  }
+
+  private static Record createRecord(String id, Field type, int size, String origin) {
+    Record record = RecordCreator.create("s", id);
+    Map<String, Field> map = new HashMap<>();
+    map.put("type", type);
+    map.put("size", Field.create(size));
+    record.set(Field.create(map));
+    if (origin != null) {
+      record.getHeader().setAttribute("origin", origin);
+    }
+    return record;
+  }
+
+  private static List<String> getSourceIds(StageRunner.Output output, String lane) {
+    List<String> ids = new ArrayList<>();
+    for (Record record : output.getRecords().get(lane)) {
+      ids.add(record.getHeader().getSourceId());
+    }
+    return ids;
+  }
+
 }
@@ -23,14 +23,19 @@ import com.datastax.driver.core.CodecRegistry;
 import com.datastax.driver.core.ColumnMetadata;
 import com.datastax.driver.core.KeyspaceMetadata;
 import com.datastax.driver.core.PlainTextAuthProvider;
+import com.datastax.driver.core.ProtocolVersion;
 import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ResultSetFuture;
 import com.datastax.driver.core.Session;
+import com.datastax.driver.core.Statement;
 import com.datastax.driver.core.TableMetadata;
 import com.datastax.driver.core.TypeCodec;
 import com.datastax.driver.core.exceptions.AuthenticationException;
 import com.datastax.driver.core.exceptions.CodecNotFoundException;
+import com.datastax.driver.core.exceptions.DriverException;
 import com.datastax.driver.core.exceptions.InvalidTypeException;
 import com.datastax.driver.core.exceptions.NoHostAvailableException;
+import com.datastax.driver.core.exceptions.QueryValidationException;
 import com.datastax.driver.dse.auth.DseGSSAPIAuthProvider;
 import com.datastax.driver.dse.auth.DsePlainTextAuthProvider;
 import com.google.common.base.Function;
@@ -41,6 +46,7 @@ import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.streamsets.pipeline.api.Batch;
 import com.streamsets.pipeline.api.Field;
 import com.streamsets.pipeline.api.Record;
@@ -60,18 +66,21 @@ import javax.annotation.Nullable;
 import javax.security.auth.Subject;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
 import java.security.AccessControlContext;
 import java.security.AccessController;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
 import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.Semaphore;
 import java.util.stream.Collectors;
 
 /**
@@ -282,8 +291,121 @@ public class CassandraTarget extends BaseTarget {
   }
 
   @Override
-  @SuppressWarnings("unchecked")
   public void write(Batch batch) throws StageException {
+    if (conf.asyncWrites) {
+      writeAsync(batch);
+    } else {
+      writeBatched(batch);
+    }
+  }
+
+  /**
+   * Statements (and their records) of a batch that belong to the same partition.
+   */
+  private static class PartitionGroup {
+    private final List<BoundStatement> statements = new ArrayList<>();
+    private final List<Record> records = new ArrayList<>();
+  }
+
+  /**
+   * Asynchronous request in flight and the records it writes.
+   */
+  private static class PendingRequest {
+    private final ResultSetFuture future;
+    private final List<Record> records;
+
+    private PendingRequest(ResultSetFuture future, List<Record> records) {
+      this.future = future;
+      this.records = records;
+    }
+  }
+
+  /**
+   * Writes the batch grouping the statements by partition (routing key). Each group is sent as a single partition
+   * batch (or as a plain statement if it has only one) with executeAsync, the driver routes it to a replica of the
+   * partition. At most maxConcurrentRequests requests are in flight.
+   *
+   * Requests rejected because of their data (invalid query) send their records to error. Any other driver failure
+   * (timeouts, unavailable replicas, no host available) fails the batch like it does for synchronous writes, once all
+   * requests in flight completed.
+   */
+  private void writeAsync(Batch batch) throws StageException {
+    ProtocolVersion protocolVersion = cluster.getConfiguration().getProtocolOptions().getProtocolVersion();
+    CodecRegistry codecRegistry = cluster.getConfiguration().getCodecRegistry();
+
+    // statements without routing key get their own group
+    Map<Object, PartitionGroup> partitions = new LinkedHashMap<>();
+    Iterator<Record> records = batch.getRecords();
+    while (records.hasNext()) {
+      Record record = records.next();
+      BoundStatement boundStmt = recordToBoundStatement(record);
+      if (boundStmt != null) {
+        ByteBuffer routingKey = boundStmt.getRoutingKey(protocolVersion, codecRegistry);
+        PartitionGroup group = partitions.computeIfAbsent(
+            (routingKey != null) ? routingKey : new Object(),
+            key -> new PartitionGroup()
+        );
+        group.statements.add(boundStmt);
+        group.records.add(record);
+      }
+    }
+
+    Semaphore inFlight = new Semaphore(conf.maxConcurrentRequests);
+    List<PendingRequest> pendingRequests = new ArrayList<>();
+    try {
+      for (PartitionGroup group : partitions.values()) {
+        List<List<BoundStatement>> statementChunks = Lists.partition(group.statements, conf.maxBatchSize);
+        List<List<Record>> recordChunks = Lists.partition(group.records, conf.maxBatchSize);
+        for (int i = 0; i < statementChunks.size(); i++) {
+          List<BoundStatement> chunk = statementChunks.get(i);
+          Statement statement;
+          if (chunk.size() == 1) {
+            statement = chunk.get(0);
+          } else {
+            statement = new BatchStatement(conf.batchType).addAll(chunk);
+          }
+          inFlight.acquire();
+          ResultSetFuture future = session.executeAsync(statement);
+          future.addListener(inFlight::release, MoreExecutors.directExecutor());
+          pendingRequests.add(new PendingRequest(future, recordChunks.get(i)));
+        }
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new StageException(Errors.CASSANDRA_07, ex.toString(), ex);
+    }
+
+    DriverException failure = null;
+    for (PendingRequest request : pendingRequests) {
+      try {
+        request.future.getUninterruptibly();
+      } catch (QueryValidationException ex) {
+        LOG.debug(Errors.CASSANDRA_07.getMessage(), ex.toString(), ex);
+        for (Record record : request.records) {
+          errorRecordHandler.onError(
+              new OnRecordErrorException(
+                  record,
+                  Errors.CASSANDRA_09,
+                  record.getHeader().getSourceId(),
+                  ex.toString(),
+                  ex
+              )
+          );
+        }
+      } catch (DriverException ex) {
+        if (failure == null) {
+          failure = ex;
+        }
+      }
+    }
+    if (failure != null) {
+      LOG.error(Errors.CASSANDRA_07.getMessage(), failure.toString(), failure);
+      throw new StageException(Errors.CASSANDRA_07, failure.toString(), failure);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void writeBatched(Batch batch) throws StageException {
     // The batch holding the current batch to INSERT.
     BatchStatement batchedStatement = new BatchStatement(conf.batchType);
 
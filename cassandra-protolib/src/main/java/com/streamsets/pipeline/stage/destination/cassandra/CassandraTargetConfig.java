@@ -106,6 +106,30 @@ public class CassandraTargetConfig {
   )
   public int maxBatchSize = 65535;
 
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.BOOLEAN,
+      defaultValue = "false",
+      label = "Token Aware Asynchronous Writes",
+      description = "Groups statements by partition and sends them asynchronously, each request is routed to a " +
+          "replica of its partition. Avoids batches spanning several partitions.",
+      displayPosition = 75
+  )
+  public boolean asyncWrites = false;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      defaultValue = "32",
+      min = 1,
+      label = "Max Concurrent Requests",
+      description = "Maximum number of asynchronous requests in flight.",
+      displayPosition = 76,
+      dependsOn = "asyncWrites",
+      triggeredByValue = "true"
+  )
+  public int maxConcurrentRequests = 32;
+
   @ConfigDef(
       required = true,
       type = ConfigDef.Type.STRING,
@@ -15,6 +15,7 @@
  */
 package com.streamsets.pipeline.stage.destination.cassandra;
 
+import com.datastax.driver.core.BatchStatement;
 import com.datastax.driver.core.Cluster;
 import com.datastax.driver.core.LocalDate;
 import com.datastax.driver.core.ProtocolVersion;
@@ -217,6 +218,60 @@ public class TestCassandraTarget {
     Assert.assertEquals(SAMPLE_UUID, row.getUUID("unique_id").toString());
   }
 
+  @Test
+  public void testAsyncWrites() throws InterruptedException, StageException {
+    final String tableName = "test.trips";
+    List<CassandraFieldMappingConfig> fieldMappings = ImmutableList.of(
+        new CassandraFieldMappingConfig("[0]", "driver_id"),
+        new CassandraFieldMappingConfig("[1]", "trip_id"),
+        new CassandraFieldMappingConfig("[2]", "time")
+    );
+
+    CassandraTargetConfig conf = new CassandraTargetConfig();
+    conf.contactPoints.add("localhost");
+    conf.port = CASSANDRA_NATIVE_PORT;
+    conf.protocolVersion = ProtocolVersion.V4;
+    conf.authProviderOption = AuthProviderOption.NONE;
+    conf.compression = CassandraCompressionCodec.NONE;
+    conf.columnNames = fieldMappings;
+    conf.qualifiedTableName = tableName;
+    conf.batchType = BatchStatement.Type.UNLOGGED;
+    conf.maxBatchSize = 3;
+    conf.asyncWrites = true;
+    conf.maxConcurrentRequests = 2;
+
+    Target target = new CassandraTarget(conf);
+    TargetRunner targetRunner = new TargetRunner.Builder(CassandraDTarget.class, target).build();
+
+    // 10 partitions (drivers) with 10 rows (trips) each, interleaved
+    List<Record> records = new ArrayList<>();
+    for (int trip = 0; trip < 10; trip++) {
+      for (int driver = 0; driver < 10; driver++) {
+        Record record = RecordCreator.create();
+        List<Field> fields = new ArrayList<>();
+        fields.add(Field.create(driver));
+        fields.add(Field.create(trip));
+        fields.add(Field.create(driver * trip));
+        record.set(Field.create(fields));
+        records.add(record);
+      }
+    }
+
+    targetRunner.runInit();
+    targetRunner.runWrite(records);
+
+    Assert.assertTrue(targetRunner.getErrorRecords().isEmpty());
+    Assert.assertTrue(targetRunner.getErrors().isEmpty());
+
+    targetRunner.runDestroy();
+
+    List<Row> allRows = session.execute("SELECT * FROM test.trips").all();
+    Assert.assertEquals(100, allRows.size());
+    for (Row row : allRows) {
+      Assert.assertEquals(row.getInt("driver_id") * row.getInt("trip_id"), row.getInt("time"));
+    }
+  }
+
   @Test
   public void testCollectionTypes() throws InterruptedException, StageException {
     final String tableName = "test.collections";
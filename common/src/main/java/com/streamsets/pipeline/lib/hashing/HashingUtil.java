@@ -16,7 +16,9 @@
 package com.streamsets.pipeline.lib.hashing;
 
 import com.google.common.hash.Funnel;
+import com.google.common.hash.HashCode;
 import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
 import com.google.common.hash.Hashing;
 import com.google.common.hash.PrimitiveSink;
 import com.streamsets.pipeline.api.Field;
@@ -48,6 +50,7 @@ public final class HashingUtil {
     ADLER32,
     CRC32,
     CRC32C,
+    XXHASH64,
     ;
   }
 
@@ -73,6 +76,8 @@ public final class HashingUtil {
         return Hashing.crc32();
       case CRC32C:
         return Hashing.crc32c();
+      case XXHASH64:
+        return XxHash64HashFunction.INSTANCE;
       default:
         throw new IllegalArgumentException(Utils.format("Unsupported Hashing Algorithm: {}", hashType.name()));
     }
@@ -127,81 +132,117 @@ public final class HashingUtil {
               Utils.format("Field Path {}  does not exist in the record", path)
           );
         }
-        if (field.getValue() != null) {
-          switch (field.getType()) {
-            case BOOLEAN:
-              sink.putBoolean(field.getValueAsBoolean());
-              break;
-            case CHAR:
-              sink.putChar(field.getValueAsChar());
-              break;
-            case BYTE:
-              sink.putByte(field.getValueAsByte());
-              break;
-            case SHORT:
-              sink.putShort(field.getValueAsShort());
-              break;
-            case INTEGER:
-              sink.putInt(field.getValueAsInteger());
-              break;
-            case LONG:
-              sink.putLong(field.getValueAsLong());
-              break;
-            case FLOAT:
-              sink.putFloat(field.getValueAsFloat());
-              break;
-            case DOUBLE:
-              sink.putDouble(field.getValueAsDouble());
-              break;
-            case DATE:
-              sink.putLong(field.getValueAsDate().getTime());
-              break;
-            case TIME:
-              sink.putLong(field.getValueAsTime().getTime());
-              break;
-            case DATETIME:
-              sink.putLong(field.getValueAsDatetime().getTime());
-              break;
-
-            case DECIMAL:
-            case STRING:
-              sink.putString(field.getValueAsString(), Charset.defaultCharset());
-              break;
-
-            case BYTE_ARRAY:
-              sink.putBytes(field.getValueAsByteArray());
-              break;
-            case FILE_REF:
-              throw new IllegalStateException(
-                  Utils.format(
-                      "Hashing not supported for field: {} of type {}",
-                      path,
-                      field.getType()
-                  )
-              );
-            default:
-              break;
-          }
-        } else {
-          sink.putBoolean(true);
-        }
-        if(useSeparators) {
-          sink.putByte((byte) 0);
-        }
+        funnelField(path, field, useSeparators, sink);
       }
 
       if (this.includeRecordHeader) {
-        for (String attrName : record.getHeader().getAttributeNames()) {
-          String headerAttr = record.getHeader().getAttribute(attrName);
-          if (headerAttr != null) {
-            sink.putString(headerAttr, Charset.defaultCharset());
-          } else {
-            sink.putBoolean(true);
-          }
-          if(useSeparators) {
-            sink.putByte((byte) 0);
-          }
-        }
+        funnelRecordHeader(record, useSeparators, sink);
+      }
+    }
+  }
+
+  /**
+   * Hashes the given field paths of the record, in the given order, exactly as {@link RecordFunnel} does. The paths
+   * must be actual field paths of the record, they are not matched against the record's field paths (which is what
+   * makes the funnel expensive when the paths are already known).
+   */
+  public static HashCode hashFields(
+      HashFunction hashFunction,
+      Record record,
+      Collection<String> fieldPaths,
+      boolean includeRecordHeader,
+      boolean useSeparators
+  ) {
+    Hasher hasher = hashFunction.newHasher();
+    for (String path : fieldPaths) {
+      Field field = record.get(path);
+      if (field == null) {
+        throw new IllegalArgumentException(
+            Utils.format("Field Path {}  does not exist in the record", path)
+        );
+      }
+      funnelField(path, field, useSeparators, hasher);
+    }
+    if (includeRecordHeader) {
+      funnelRecordHeader(record, useSeparators, hasher);
+    }
+    return hasher.hash();
+  }
+
+  private static void funnelField(String path, Field field, boolean useSeparators, PrimitiveSink sink) {
+    if (field.getValue() != null) {
+      switch (field.getType()) {
+        case BOOLEAN:
+          sink.putBoolean(field.getValueAsBoolean());
+          break;
+        case CHAR:
+          sink.putChar(field.getValueAsChar());
+          break;
+        case BYTE:
+          sink.putByte(field.getValueAsByte());
+          break;
+        case SHORT:
+          sink.putShort(field.getValueAsShort());
+          break;
+        case INTEGER:
+          sink.putInt(field.getValueAsInteger());
+          break;
+        case LONG:
+          sink.putLong(field.getValueAsLong());
+          break;
+        case FLOAT:
+          sink.putFloat(field.getValueAsFloat());
+          break;
+        case DOUBLE:
+          sink.putDouble(field.getValueAsDouble());
+          break;
+        case DATE:
+          sink.putLong(field.getValueAsDate().getTime());
+          break;
+        case TIME:
+          sink.putLong(field.getValueAsTime().getTime());
+          break;
+        case DATETIME:
+          sink.putLong(field.getValueAsDatetime().getTime());
+          break;
+
+        case DECIMAL:
+        case STRING:
+          sink.putString(field.getValueAsString(), Charset.defaultCharset());
+          break;
+
+        case BYTE_ARRAY:
+          sink.putBytes(field.getValueAsByteArray());
+          break;
+        case FILE_REF:
+          throw new IllegalStateException(
+              Utils.format(
+                  "Hashing not supported for field: {} of type {}",
+                  path,
+                  field.getType()
+              )
+          );
+        default:
+          break;
+      }
+    } else {
+      sink.putBoolean(true);
+    }
+    if(useSeparators) {
+      sink.putByte((byte) 0);
+    }
+  }
+
+  private static void funnelRecordHeader(Record record, boolean useSeparators, PrimitiveSink sink) {
+    for (String attrName : record.getHeader().getAttributeNames()) {
+      String headerAttr = record.getHeader().getAttribute(attrName);
+      if (headerAttr != null) {
+        sink.putString(headerAttr, Charset.defaultCharset());
+      } else {
+        sink.putBoolean(true);
+      }
+      if(useSeparators) {
+        sink.putByte((byte) 0);
       }
     }
   }
@@ -0,0 +1,301 @@
+/*
+ * Copyright 2017 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.hashing;
+
+import com.google.common.hash.Funnel;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Non cryptographic 64 bit xxHash (XXH64, seed 0) exposed as a Guava {@link HashFunction}.
+ *
+ * Values put into the hasher are encoded the same way as Guava hashers do (little endian primitives, chars as two
+ * bytes), hence funnels produce the same byte sequence as for the other hash functions.
+ */
+final class XxHash64HashFunction implements HashFunction {
+
+  static final HashFunction INSTANCE = new XxHash64HashFunction();
+
+  private static final long PRIME1 = 0x9E3779B185EBCA87L;
+  private static final long PRIME2 = 0xC2B2AE3D27D4EB4FL;
+  private static final long PRIME3 = 0x165667B19E3779F9L;
+  private static final long PRIME4 = 0x85EBCA77C2B2AE63L;
+  private static final long PRIME5 = 0x27D4EB2F165667C5L;
+
+  private static final int DEFAULT_CAPACITY = 64;
+
+  private XxHash64HashFunction() {
+  }
+
+  @Override
+  public Hasher newHasher() {
+    return new XxHash64Hasher(DEFAULT_CAPACITY);
+  }
+
+  @Override
+  public Hasher newHasher(int expectedInputSize) {
+    return new XxHash64Hasher(Math.max(expectedInputSize, 8));
+  }
+
+  @Override
+  public HashCode hashInt(int input) {
+    return newHasher(4).putInt(input).hash();
+  }
+
+  @Override
+  public HashCode hashLong(long input) {
+    return newHasher(8).putLong(input).hash();
+  }
+
+  @Override
+  public HashCode hashBytes(byte[] input) {
+    return hashBytes(input, 0, input.length);
+  }
+
+  @Override
+  public HashCode hashBytes(byte[] input, int off, int len) {
+    return HashCode.fromLong(hash(input, off, len));
+  }
+
+  @Override
+  public HashCode hashUnencodedChars(CharSequence input) {
+    return newHasher(input.length() * 2).putUnencodedChars(input).hash();
+  }
+
+  @Override
+  public HashCode hashString(CharSequence input, Charset charset) {
+    return hashBytes(input.toString().getBytes(charset));
+  }
+
+  @Override
+  public <T> HashCode hashObject(T instance, Funnel<? super T> funnel) {
+    return newHasher().putObject(instance, funnel).hash();
+  }
+
+  @Override
+  public int bits() {
+    return 64;
+  }
+
+  @Override
+  public String toString() {
+    return "Hashing.xxHash64()";
+  }
+
+  static long hash(byte[] data, int off, int len) {
+    int end = off + len;
+    int pos = off;
+    long h;
+    if (len >= 32) {
+      long v1 = PRIME1 + PRIME2;
+      long v2 = PRIME2;
+      long v3 = 0;
+      long v4 = -PRIME1;
+      int limit = end - 32;
+      do {
+        v1 = round(v1, getLong(data, pos));
+        v2 = round(v2, getLong(data, pos + 8));
+        v3 = round(v3, getLong(data, pos + 16));
+        v4 = round(v4, getLong(data, pos + 24));
+        pos += 32;
+      } while (pos <= limit);
+      h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+      h = mergeRound(h, v1);
+      h = mergeRound(h, v2);
+      h = mergeRound(h, v3);
+      h = mergeRound(h, v4);
+    } else {
+      h = PRIME5;
+    }
+    h += len;
+
+    while (pos + 8 <= end) {
+      h ^= round(0, getLong(data, pos));
+      h = Long.rotateLeft(h, 27) * PRIME1 + PRIME4;
+      pos += 8;
+    }
+    if (pos + 4 <= end) {
+      h ^= (getInt(data, pos) & 0xFFFFFFFFL) * PRIME1;
+      h = Long.rotateLeft(h, 23) * PRIME2 + PRIME3;
+      pos += 4;
+    }
+    while (pos < end) {
+      h ^= (data[pos] & 0xFF) * PRIME5;
+      h = Long.rotateLeft(h, 11) * PRIME1;
+      pos++;
+    }
+
+    h ^= h >>> 33;
+    h *= PRIME2;
+    h ^= h >>> 29;
+    h *= PRIME3;
+    h ^= h >>> 32;
+    return h;
+  }
+
+  private static long round(long acc, long input) {
+    acc += input * PRIME2;
+    acc = Long.rotateLeft(acc, 31);
+    return acc * PRIME1;
+  }
+
+  private static long mergeRound(long acc, long val) {
+    acc ^= round(0, val);
+    return acc * PRIME1 + PRIME4;
+  }
+
+  private static long getLong(byte[] data, int pos) {
+    return (data[pos] & 0xFFL)
+        | (data[pos + 1] & 0xFFL) << 8
+        | (data[pos + 2] & 0xFFL) << 16
+        | (data[pos + 3] & 0xFFL) << 24
+        | (data[pos + 4] & 0xFFL) << 32
+        | (data[pos + 5] & 0xFFL) << 40
+        | (data[pos + 6] & 0xFFL) << 48
+        | (data[pos + 7] & 0xFFL) << 56;
+  }
+
+  private static int getInt(byte[] data, int pos) {
+    return (data[pos] & 0xFF)
+        | (data[pos + 1] & 0xFF) << 8
+        | (data[pos + 2] & 0xFF) << 16
+        | (data[pos + 3] & 0xFF) << 24;
+  }
+
+  /**
+   * Collects the input in a growing buffer, the hash is computed at once when requested.
+   */
+  private static final class XxHash64Hasher implements Hasher {
+    private byte[] buffer;
+    private int size;
+    private boolean done;
+
+    private XxHash64Hasher(int capacity) {
+      buffer = new byte[capacity];
+    }
+
+    private void ensureCapacity(int extra) {
+      if (done) {
+        throw new IllegalStateException("The hash was already computed");
+      }
+      if (size + extra > buffer.length) {
+        buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+      }
+    }
+
+    private Hasher putLittleEndian(long value, int bytes) {
+      ensureCapacity(bytes);
+      for (int i = 0; i < bytes; i++) {
+        buffer[size++] = (byte) (value >>> (i * 8));
+      }
+      return this;
+    }
+
+    @Override
+    public Hasher putByte(byte b) {
+      ensureCapacity(1);
+      buffer[size++] = b;
+      return this;
+    }
+
+    @Override
+    public Hasher putBytes(byte[] bytes) {
+      return putBytes(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public Hasher putBytes(byte[] bytes, int off, int len) {
+      ensureCapacity(len);
+      System.arraycopy(bytes, off, buffer, size, len);
+      size += len;
+      return this;
+    }
+
+    @Override
+    public Hasher putShort(short s) {
+      return putLittleEndian(s, 2);
+    }
+
+    @Override
+    public Hasher putInt(int i) {
+      return putLittleEndian(i, 4);
+    }
+
+    @Override
+    public Hasher putLong(long l) {
+      return putLittleEndian(l, 8);
+    }
+
+    @Override
+    public Hasher putFloat(float f) {
+      return putInt(Float.floatToRawIntBits(f));
+    }
+
+    @Override
+    public Hasher putDouble(double d) {
+      return putLong(Double.doubleToRawLongBits(d));
+    }
+
+    @Override
+    public Hasher putBoolean(boolean b) {
+      return putByte(b ? (byte) 1 : (byte) 0);
+    }
+
+    @Override
+    public Hasher putChar(char c) {
+      return putLittleEndian(c, 2);
+    }
+
+    @Override
+    public Hasher putUnencodedChars(CharSequence charSequence) {
+      ensureCapacity(charSequence.length() * 2);
+      for (int i = 0; i < charSequence.length(); i++) {
+        putChar(charSequence.charAt(i));
+      }
+      return this;
+    }
+
+    @Override
+    public Hasher putString(CharSequence charSequence, Charset charset) {
+      return putBytes(charSequence.toString().getBytes(charset));
+    }
+
+    @Override
+    public <T> Hasher putObject(T instance, Funnel<? super T> funnel) {
+      funnel.funnel(instance, this);
+      return this;
+    }
+
+    @Override
+    public HashCode hash() {
+      if (done) {
+        throw new IllegalStateException("The hash was already computed");
+      }
+      done = true;
+      return HashCode.fromLong(XxHash64HashFunction.hash(buffer, 0, size));
+    }
+
+    @Override
+    @Deprecated
+    public int hashCode() {
+      return hash().asInt();
+    }
+  }
+}
@@ -15,11 +15,12 @@
  */
 package com.streamsets.pipeline.lib.parser.shaded.org.aicer.grok.util;
 
-import com.streamsets.pipeline.lib.parser.shaded.com.google.code.regexp.MatchResult;
-import com.streamsets.pipeline.lib.parser.shaded.com.google.code.regexp.Matcher;
+import com.streamsets.pipeline.api.Field;
 import com.streamsets.pipeline.lib.parser.shaded.com.google.code.regexp.Pattern;
 import com.streamsets.pipeline.lib.parser.shaded.org.aicer.grok.dictionary.GrokDictionary;
 
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -30,12 +31,24 @@ import java.util.Map;
 public final class Grok {
 
   private final Pattern compiledPattern;
+  private final java.util.regex.Pattern standardPattern;
+  // Names of the capture groups and their indexes in the standard pattern, resolved once at compile time
+  private final String[] groupNames;
+  private final int[] groupIndexes;
 
   /**
    * Constructor
    */
   public Grok(final Pattern compiledPattern) {
-     this.compiledPattern = compiledPattern;
+    this.compiledPattern = compiledPattern;
+    this.standardPattern = compiledPattern.pattern();
+    List<String> names = compiledPattern.groupNames();
+    this.groupNames = names.toArray(new String[names.size()]);
+    this.groupIndexes = new int[groupNames.length];
+    for (int i = 0; i < groupNames.length; i++) {
+      // capture groups start at 1 in the matcher while the pattern index is 0-based
+      groupIndexes[i] = compiledPattern.indexOf(groupNames[i]) + 1;
+    }
   }
 
   /**
@@ -45,17 +58,44 @@ public final class Grok {
    * @return A map of group names mapped to their extracted values or null if there are no matches
    */
   public Map<String, String> extractNamedGroups(final CharSequence rawData) {
-    Matcher matcher = compiledPattern.matcher(rawData);
+    java.util.regex.Matcher matcher = standardPattern.matcher(rawData);
     if (matcher.find()) {
-      MatchResult r = matcher.toMatchResult();
-      if (r != null && r.namedGroups() != null) {
-        return r.namedGroups();
+      Map<String, String> result = new LinkedHashMap<>(mapCapacity());
+      for (int i = 0; i < groupNames.length; i++) {
+        result.put(groupNames[i], groupIndexes[i] > 0 ? matcher.group(groupIndexes[i]) : null);
       }
+      return result;
     }
 
     return null;
   }
 
+  /**
+   * Extracts named groups from the raw data directly as fields.
+   *
+   * The input is matched only once and the captured values are converted to {@link Field}s without building an
+   * intermediate map of strings.
+   *
+   * @param rawData
+   * @return A map of group names mapped to string fields or null if there are no matches
+   */
+  public Map<String, Field> extractFields(final CharSequence rawData) {
+    java.util.regex.Matcher matcher = standardPattern.matcher(rawData);
+    if (matcher.find()) {
+      Map<String, Field> result = new LinkedHashMap<>(mapCapacity());
+      for (int i = 0; i < groupNames.length; i++) {
+        result.put(groupNames[i], Field.create(groupIndexes[i] > 0 ? matcher.group(groupIndexes[i]) : null));
+      }
+      return result;
+    }
+
+    return null;
+  }
+
+  private int mapCapacity() {
+    return groupNames.length * 4 / 3 + 1;
+  }
+
   private static final void displayResults(final Map<String, String> results) {
     if (results != null) {
       for(Map.Entry<String, String> entry : results.entrySet()) {
@@ -78,9 +78,11 @@ public class FieldPathExpressionUtil {
       Record record
   ) throws ELEvalException {
     RecordEL.setRecordInContext(elVars, record);
+    // The expression is the same for all paths, so it's parsed only once
+    List<PathElement> matcherPathElements = PathElement.parse(fieldExpression, false, true);
     List<String> matchingPaths = new LinkedList<>();
     for (String fieldPath : record.getEscapedFieldPaths()) {
-      if (pathMatches(record, fieldPath, fieldExpression, elEval, elVars)) {
+      if (pathMatches(record, fieldPath, matcherPathElements, elEval, elVars)) {
         matchingPaths.add(fieldPath);
       }
     }
@@ -92,7 +94,7 @@ public class FieldPathExpressionUtil {
    *
    * @param record the record which contains the specified field
    * @param fieldPath the path to the specified field
-   * @param fieldExpression the field expression to evaluate against the specified record/field
+   * @param matcherPathElements the parsed field expression to evaluate against the specified record/field
    * @param elEval the {@link ELEval} instance in which to evaluate the expression
    * @param elVars the {@link ELVars} instance to use when evaluating the expression
    * @return true if the expression matches the field, false otherwise
@@ -101,12 +103,11 @@ public class FieldPathExpressionUtil {
   private static boolean pathMatches(
       Record record,
       String fieldPath,
-      String fieldExpression,
+      List<PathElement> matcherPathElements,
       ELEval elEval,
       ELVars elVars
   ) throws ELEvalException {
     List<PathElement> actualPathElements = PathElement.parse(fieldPath, true);
-    List<PathElement> matcherPathElements = PathElement.parse(fieldExpression, false, true);
 
     Iterator<PathElement> currentPathIter = actualPathElements.iterator();
     Iterator<PathElement> matcherPathIter = matcherPathElements.iterator();
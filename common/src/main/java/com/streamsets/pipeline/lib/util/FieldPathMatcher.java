@@ -0,0 +1,148 @@
+/*
+ * Copyright 2017 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Wildcard field path expression compiled once into a regular expression.
+ *
+ * The literal beginning of the expression (up to the first wildcard) is kept aside, paths that don't start with it
+ * are skipped without running the regular expression. Matchers returned by {@link #compile(String)} hold no per
+ * record state, so they are shared by all callers using the same expression.
+ *
+ * Stages that resolve the same expression for every record can keep their own matcher from {@link #create(String)}.
+ * Records processed by one stage usually share the same structure ("shape"), so such matcher remembers the matching
+ * paths for the few most recently seen shapes. A record with a known shape is then resolved with a single hash lookup
+ * instead of matching the regular expression against each of its paths. The cache belongs to the matcher and
+ * therefore to the stage instance, it is never shared with other stages or pipelines.
+ */
+public class FieldPathMatcher {
+
+  // Number of distinct expressions for which we keep compiled matchers
+  private static final int MATCHER_CACHE_SIZE = 1000;
+  // Number of distinct record shapes remembered by a matcher from create()
+  private static final int SHAPE_CACHE_SIZE = 16;
+
+  private static final LoadingCache<String, FieldPathMatcher> MATCHERS = CacheBuilder.newBuilder()
+      .maximumSize(MATCHER_CACHE_SIZE)
+      .build(new CacheLoader<String, FieldPathMatcher>() {
+        @Override
+        public FieldPathMatcher load(String fieldPath) throws Exception {
+          return new FieldPathMatcher(fieldPath, false);
+        }
+      });
+
+  private final String fieldPath;
+  private final Pattern pattern;
+  private final String prefix;
+  private final Cache<List<String>, List<String>> shapes;
+
+  private FieldPathMatcher(String fieldPath, boolean cacheShapes) {
+    this.fieldPath = fieldPath;
+    if (FieldRegexUtil.hasWildCards(fieldPath)) {
+      //Any reference to array index brackets [ ] must be escaped in the regex
+      //Reference to * in map must be replaced by regex that matches a field name
+      //Reference to * in array index must be replaced by \d+
+      this.pattern = Pattern.compile(FieldRegexUtil.transformFieldPathRegex(fieldPath));
+      this.prefix = literalPrefix(fieldPath);
+      this.shapes = cacheShapes ? CacheBuilder.newBuilder().maximumSize(SHAPE_CACHE_SIZE).build() : null;
+    } else {
+      this.pattern = null;
+      this.prefix = null;
+      this.shapes = null;
+    }
+  }
+  // Beginning of the expression that is matched literally by its regular expression
+  private static String literalPrefix(String fieldPath) {
+    int end = 0;
+    while (end < fieldPath.length()) {
+      char c = fieldPath.charAt(end);
+      if (c != '/' && c != '_' && !Character.isLetterOrDigit(c)) {
+        break;
+      }
+      end++;
+    }
+    return fieldPath.substring(0, end);
+  }
+
+  /**
+   * Returns matcher for given field path expression, matchers are shared by all callers using the same expression.
+   */
+  public static FieldPathMatcher compile(String fieldPath) {
+    return MATCHERS.getUnchecked(fieldPath);
+  }
+
+  /**
+   * Returns new matcher for given field path expression that remembers matches per record shape. It is meant to be
+   * kept by a stage for an expression from its configuration.
+   */
+  public static FieldPathMatcher create(String fieldPath) {
+    return new FieldPathMatcher(fieldPath, true);
+  }
+
+  public String getFieldPath() {
+    return fieldPath;
+  }
+
+  public boolean hasWildCards() {
+    return pattern != null;
+  }
+
+  /**
+   * Returns all paths from given set that match this expression, in the iteration order of the set. Expression
+   * without wild cards is returned as is, regardless whether it exists in the set or not. The returned list can be
+   * freely modified by the caller.
+   */
+  public List<String> getMatchingFieldPaths(Set<String> fieldPaths) {
+    if (pattern == null) {
+      List<String> matchingFieldPaths = new ArrayList<>();
+      matchingFieldPaths.add(fieldPath);
+      return matchingFieldPaths;
+    }
+    if (shapes == null) {
+      return match(fieldPaths);
+    }
+    // The shape is keyed by the paths in iteration order, so that a hit returns them in the caller's order. The key
+    // is our own copy as callers are free to modify their set later on.
+    List<String> shape = new ArrayList<>(fieldPaths);
+    List<String> matchingFieldPaths = shapes.getIfPresent(shape);
+    if (matchingFieldPaths == null) {
+      matchingFieldPaths = Collections.unmodifiableList(match(shape));
+      shapes.put(shape, matchingFieldPaths);
+    }
+    return new ArrayList<>(matchingFieldPaths);
+  }
+
+  private List<String> match(Iterable<String> fieldPaths) {
+    List<String> matchingFieldPaths = new ArrayList<>();
+    for (String existingFieldPath : fieldPaths) {
+      if (existingFieldPath.startsWith(prefix) && pattern.matcher(existingFieldPath).matches()) {
+        matchingFieldPaths.add(existingFieldPath);
+      }
+    }
+    return matchingFieldPaths;
+  }
+}
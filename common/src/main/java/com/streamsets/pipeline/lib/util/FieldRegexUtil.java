@@ -17,7 +17,6 @@ package com.streamsets.pipeline.lib.util;
 
 import com.streamsets.datacollector.record.PathElement;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
@@ -56,26 +55,15 @@ public class FieldRegexUtil {
     return false;
   }
 
+  /**
+   * Returns all paths from given set that match the (possibly wild carded) field path, in the iteration order of the
+   * set. The expression is compiled only once, see {@link FieldPathMatcher}.
+   */
   public static List<String> getMatchingFieldPaths(String fieldPath, Set<String> fieldPaths) {
     if(!hasWildCards(fieldPath)) {
       return Arrays.asList(fieldPath);
     }
-    //Any reference to array index brackets [ ] must be escaped in the regex
-    //Reference to * in map must be replaced by regex that matches a field name
-    //Reference to * in array index must be replaced by \d+
-
-
-    fieldPath = transformFieldPathRegex(fieldPath);
-
-    Pattern pattern = Pattern.compile(fieldPath);
-    List<String> matchingFieldPaths = new ArrayList<>();
-    for(String existingFieldPath : fieldPaths) {
-      Matcher matcher = pattern.matcher(existingFieldPath);
-      if(matcher.matches()) {
-        matchingFieldPaths.add(existingFieldPath);
-      }
-    }
-    return matchingFieldPaths;
+    return FieldPathMatcher.compile(fieldPath).getMatchingFieldPaths(fieldPaths);
   }
 
   public static String transformFieldPathRegex(String fieldPath) {
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2017 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.hashing;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+public class TestXxHash64HashFunction {
+
+  private static long xxHash64(String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    return XxHash64HashFunction.hash(bytes, 0, bytes.length);
+  }
+
+  @Test
+  public void testKnownValues() {
+    Assert.assertEquals(0xEF46DB3751D8E999L, xxHash64(""));
+    Assert.assertEquals(0xD24EC4F1A98C6E5BL, xxHash64("a"));
+    Assert.assertEquals(0x44BC2CF5AD770999L, xxHash64("abc"));
+    Assert.assertEquals(0xFBCEA83C8A378BF1L, xxHash64("Nobody inspects the spammish repetition"));
+  }
+
+  @Test
+  public void testHasherEncoding() {
+    HashFunction hashFunction = HashingUtil.getHasher(HashingUtil.HashType.XXHASH64);
+    Assert.assertEquals(64, hashFunction.bits());
+
+    ByteBuffer expected = ByteBuffer.allocate(23).order(ByteOrder.LITTLE_ENDIAN);
+    expected.putInt(42).putLong(-7L).putChar('x').put((byte) 1).putDouble(1.5);
+    Assert.assertEquals(
+        hashFunction.hashBytes(expected.array()),
+        hashFunction.newHasher().putInt(42).putLong(-7L).putChar('x').putBoolean(true).putDouble(1.5).hash()
+    );
+
+    // same encoding as Guava hashers, so funnels produce the same bytes
+    String value = "The quick brown fox jumps over the lazy dog, many times over to go beyond the buffer size";
+    Assert.assertEquals(
+        hashFunction.hashBytes(value.getBytes(StandardCharsets.UTF_8)),
+        hashFunction.newHasher(1).putString(value, StandardCharsets.UTF_8).hash()
+    );
+    Assert.assertNotEquals(
+        Hashing.murmur3_128().hashString(value, StandardCharsets.UTF_8).toString(),
+        hashFunction.hashString(value, StandardCharsets.UTF_8).toString()
+    );
+  }
+}
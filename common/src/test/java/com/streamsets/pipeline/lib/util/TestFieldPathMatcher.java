@@ -0,0 +1,117 @@
+/*
+ * Copyright 2017 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.util;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Set;
+
+public class TestFieldPathMatcher {
+
+  @Test
+  public void testCompileIsShared() {
+    FieldPathMatcher matcher = FieldPathMatcher.compile("/map/*/field");
+    Assert.assertSame(matcher, FieldPathMatcher.compile("/map/*/field"));
+    Assert.assertTrue(matcher.hasWildCards());
+    Assert.assertFalse(FieldPathMatcher.compile("/map/a").hasWildCards());
+  }
+
+  @Test
+  public void testMatching() {
+    Set<String> paths = Sets.newLinkedHashSet(ImmutableList.of(
+        "",
+        "/map",
+        "/map/a",
+        "/map/a/field",
+        "/map/b",
+        "/map/b/field",
+        "/list",
+        "/list[0]",
+        "/list[1]"
+    ));
+
+    Assert.assertEquals(
+        ImmutableList.of("/map/a/field", "/map/b/field"),
+        FieldPathMatcher.compile("/map/*/field").getMatchingFieldPaths(paths)
+    );
+    Assert.assertEquals(
+        ImmutableList.of("/list[0]", "/list[1]"),
+        FieldPathMatcher.compile("/list[*]").getMatchingFieldPaths(paths)
+    );
+    // Path without wild cards is returned even when it doesn't exist
+    Assert.assertEquals(
+        ImmutableList.of("/missing"),
+        FieldPathMatcher.compile("/missing").getMatchingFieldPaths(paths)
+    );
+  }
+
+  @Test
+  public void testCallerOrder() {
+    FieldPathMatcher matcher = FieldPathMatcher.compile("/*");
+    Set<String> paths = Sets.newLinkedHashSet(ImmutableList.of("", "/b", "/a", "/c"));
+    Assert.assertEquals(ImmutableList.of("/b", "/a", "/c"), matcher.getMatchingFieldPaths(paths));
+
+    // Same paths in a different order
+    paths = Sets.newLinkedHashSet(ImmutableList.of("", "/c", "/a", "/b"));
+    List<String> matching = matcher.getMatchingFieldPaths(paths);
+    Assert.assertEquals(ImmutableList.of("/c", "/a", "/b"), matching);
+
+    // Modifying returned list must not affect results for subsequent records
+    matching.clear();
+    Assert.assertEquals(3, matcher.getMatchingFieldPaths(paths).size());
+  }
+
+  @Test
+  public void testShapeCache() {
+    FieldPathMatcher matcher = FieldPathMatcher.create("/*");
+    Assert.assertNotSame(matcher, FieldPathMatcher.create("/*"));
+    Assert.assertNotSame(matcher, FieldPathMatcher.compile("/*"));
+
+    Set<String> paths = Sets.newLinkedHashSet(ImmutableList.of("", "/b", "/a", "/c"));
+    Assert.assertEquals(ImmutableList.of("/b", "/a", "/c"), matcher.getMatchingFieldPaths(paths));
+    // Same shape is resolved from the cache
+    Assert.assertEquals(ImmutableList.of("/b", "/a", "/c"), matcher.getMatchingFieldPaths(paths));
+
+    // Same paths in a different order are returned in the caller's order
+    Set<String> reordered = Sets.newLinkedHashSet(ImmutableList.of("", "/c", "/a", "/b"));
+    Assert.assertEquals(ImmutableList.of("/c", "/a", "/b"), matcher.getMatchingFieldPaths(reordered));
+
+    // Modifying the caller's set or the returned list must not affect the cached shape
+    List<String> matching = matcher.getMatchingFieldPaths(paths);
+    matching.clear();
+    paths.add("/d");
+    Assert.assertEquals(ImmutableList.of("/b", "/a", "/c", "/d"), matcher.getMatchingFieldPaths(paths));
+    paths.remove("/d");
+    Assert.assertEquals(ImmutableList.of("/b", "/a", "/c"), matcher.getMatchingFieldPaths(paths));
+
+    // Path without wild cards is returned even when it doesn't exist
+    Assert.assertEquals(ImmutableList.of("/missing"), FieldPathMatcher.create("/missing").getMatchingFieldPaths(paths));
+  }
+
+  @Test
+  public void testRegexCharactersInPrefix() {
+    Set<String> paths = Sets.newLinkedHashSet(ImmutableList.of("", "/a.b", "/a.b/c", "/axb", "/axb/c"));
+    // The prefix is only the literal part, the dot still matches any character
+    Assert.assertEquals(
+        ImmutableList.of("/a.b/c", "/axb/c"),
+        FieldPathMatcher.compile("/a.b/*").getMatchingFieldPaths(paths)
+    );
+  }
+}
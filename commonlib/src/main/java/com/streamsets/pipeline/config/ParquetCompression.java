@@ -0,0 +1,48 @@
+/*
+ * Copyright 2017 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.config;
+
+import com.streamsets.pipeline.api.GenerateResourceBundle;
+import com.streamsets.pipeline.api.Label;
+
+@GenerateResourceBundle
+public enum ParquetCompression implements Label {
+  UNCOMPRESSED("None", "UNCOMPRESSED"),
+  SNAPPY("Snappy", "SNAPPY"),
+  GZIP("Gzip", "GZIP"),
+  ;
+
+  private final String label;
+  private final String codecName;
+
+  ParquetCompression(String label, String codecName) {
+    this.label = label;
+    this.codecName = codecName;
+  }
+
+  @Override
+  public String getLabel() {
+    return label;
+  }
+
+  /**
+   * Name of the corresponding parquet CompressionCodecName constant.
+   */
+  public String getCodecName() {
+    return codecName;
+  }
+
+}
@@ -36,6 +36,7 @@ public abstract class DataFactory {
     private final Map<String, Object> configs;
     private final int overRunLimit;
     private final int stringBuilderPoolSize;
+    private final boolean backgroundDecompression;
 
     Settings(
         ProtoConfigurableEntity.Context context,
@@ -48,7 +49,8 @@ public abstract class DataFactory {
         Map<String, Object> configs,
         int overRunLimit,
         boolean removeCtrlChars,
-        int stringBuilderPoolSize
+        int stringBuilderPoolSize,
+        boolean backgroundDecompression
     ) {
       this.context = context;
       this.format = format;
@@ -61,6 +63,7 @@ public abstract class DataFactory {
       this.configs = ImmutableMap.copyOf(configs);
       this.overRunLimit = overRunLimit;
       this.stringBuilderPoolSize = stringBuilderPoolSize;
+      this.backgroundDecompression = backgroundDecompression;
     }
 
     public ProtoConfigurableEntity.Context getContext() {
@@ -95,6 +98,10 @@ public abstract class DataFactory {
       return stringBuilderPoolSize;
     }
 
+    public boolean getBackgroundDecompression() {
+      return backgroundDecompression;
+    }
+
     @SuppressWarnings("unchecked")
     public <T extends Enum> T getMode(Class<T> klass) {
       return (T) modes.get(klass);
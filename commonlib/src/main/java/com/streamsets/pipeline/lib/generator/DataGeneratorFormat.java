@@ -22,6 +22,7 @@ import com.streamsets.pipeline.lib.generator.avro.AvroDataGeneratorFactory;
 import com.streamsets.pipeline.lib.generator.binary.BinaryDataGeneratorFactory;
 import com.streamsets.pipeline.lib.generator.delimited.DelimitedDataGeneratorFactory;
 import com.streamsets.pipeline.lib.generator.json.JsonDataGeneratorFactory;
+import com.streamsets.pipeline.lib.generator.parquet.ParquetDataGeneratorFactory;
 import com.streamsets.pipeline.lib.generator.protobuf.ProtobufDataGeneratorFactory;
 import com.streamsets.pipeline.lib.generator.sdcrecord.SdcRecordDataGeneratorFactory;
 import com.streamsets.pipeline.lib.generator.text.TextDataGeneratorFactory;
@@ -46,6 +47,7 @@ public enum DataGeneratorFormat implements DataFormat<DataGeneratorFactory> {
   BINARY(BinaryDataGeneratorFactory.class, BinaryDataGeneratorFactory.MODES, BinaryDataGeneratorFactory.CONFIGS),
   PROTOBUF(ProtobufDataGeneratorFactory.class, ProtobufDataGeneratorFactory.MODES, ProtobufDataGeneratorFactory.CONFIGS),
   WHOLE_FILE(WholeFileDataGeneratorFactory.class, WholeFileDataGeneratorFactory.MODES, WholeFileDataGeneratorFactory.CONFIGS),
+  PARQUET(ParquetDataGeneratorFactory.class, ParquetDataGeneratorFactory.MODES, ParquetDataGeneratorFactory.CONFIGS),
   ;
 
   private final Class<? extends DataGeneratorFactory> klass;
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2017 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.generator.parquet;
+
+import com.google.common.collect.ImmutableSet;
+import com.streamsets.pipeline.config.ParquetCompression;
+import com.streamsets.pipeline.config.ParquetSchemaSource;
+import com.streamsets.pipeline.lib.generator.DataGenerator;
+import com.streamsets.pipeline.lib.generator.DataGeneratorFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Factory holding the configuration for Parquet output.
+ *
+ * Parquet files are written with a footer that requires random access to the file, hence the actual generator can't
+ * be created on top of an arbitrary output stream. File based destinations (that know the path of the file that they
+ * are writing) create the writer themselves using the configuration exposed by this factory.
+ */
+public class ParquetDataGeneratorFactory extends DataGeneratorFactory {
+
+  public static final String SCHEMA_SOURCE_KEY = "parquetSchemaSource";
+  public static final String SCHEMA_KEY = "parquetSchema";
+  public static final String COMPRESSION_KEY = "parquetCompression";
+  public static final String DICTIONARY_ENCODING_KEY = "parquetDictionaryEncoding";
+  public static final String PAGE_SIZE_KEY = "parquetPageSize";
+  public static final String ROW_GROUP_SIZE_KEY = "parquetRowGroupSize";
+
+  public static final int PAGE_SIZE_DEFAULT = 1024 * 1024;
+  public static final int ROW_GROUP_SIZE_DEFAULT = 128 * 1024 * 1024;
+
+  public static final Map<String, Object> CONFIGS;
+
+  static {
+    Map<String, Object> configs = new HashMap<>();
+    configs.put(SCHEMA_SOURCE_KEY, ParquetSchemaSource.INFER);
+    configs.put(SCHEMA_KEY, "");
+    configs.put(COMPRESSION_KEY, ParquetCompression.SNAPPY);
+    configs.put(DICTIONARY_ENCODING_KEY, true);
+    configs.put(PAGE_SIZE_KEY, PAGE_SIZE_DEFAULT);
+    configs.put(ROW_GROUP_SIZE_KEY, ROW_GROUP_SIZE_DEFAULT);
+    CONFIGS = Collections.unmodifiableMap(configs);
+  }
+
+  @SuppressWarnings("unchecked")
+  public static final Set<Class<? extends Enum>> MODES = (Set) ImmutableSet.of(); // NOSONAR
+
+  public ParquetDataGeneratorFactory(Settings settings) {
+    super(settings);
+  }
+
+  public ParquetSchemaSource getSchemaSource() {
+    return (ParquetSchemaSource) getSettings().getConfig(SCHEMA_SOURCE_KEY);
+  }
+
+  public String getSchema() {
+    return getSettings().getConfig(SCHEMA_KEY);
+  }
+
+  public ParquetCompression getCompression() {
+    return (ParquetCompression) getSettings().getConfig(COMPRESSION_KEY);
+  }
+
+  public boolean isDictionaryEncoding() {
+    return (boolean) getSettings().getConfig(DICTIONARY_ENCODING_KEY);
+  }
+
+  public int getPageSize() {
+    return (int) getSettings().getConfig(PAGE_SIZE_KEY);
+  }
+
+  public int getRowGroupSize() {
+    return (int) getSettings().getConfig(ROW_GROUP_SIZE_KEY);
+  }
+
+  @Override
+  public DataGenerator getGenerator(OutputStream os) throws IOException {
+    throw new IOException("Parquet data format can only be written by file based destinations");
+  }
+}
@@ -25,6 +25,7 @@ import com.streamsets.pipeline.lib.generator.StreamCloseEventHandler;
 import com.streamsets.pipeline.lib.io.fileref.FileRefUtil;
 import org.apache.commons.io.IOUtils;
 
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -34,6 +35,9 @@ import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
 
 final class WholeFileDataGenerator implements DataGenerator {
+  // Upper bound of a single transfer so that metrics and rate limiting are updated regularly
+  private static final int MAX_TRANSFER_CHUNK_SIZE = 8 * 1024 * 1024;
+
   private final ProtoConfigurableEntity.Context context;
   private final OutputStream outputStream;
   private final boolean includeChecksumInTheEvents;
@@ -80,18 +84,27 @@ final class WholeFileDataGenerator implements DataGenerator {
     int bufferSize = fileRef.getBufferSize();
     boolean canUseDirectByteBuffer = fileRef.getSupportedStreamClasses().contains(ReadableByteChannel.class);
     if (canUseDirectByteBuffer) {
-      //Don't have to close this here, because generate.close will call output stream close
-      WritableByteChannel writableByteChannel = Channels.newChannel(outputStream); //NOSONAR
       try (ReadableByteChannel readableByteChannel = getReadableStream(fileRef, ReadableByteChannel.class)){
-        ByteBuffer buffer = ByteBuffer.allocateDirect(bufferSize);
-        while ((readableByteChannel.read(buffer)) > 0) {
-          //Flip to use the buffer from 0 to position.
-          buffer.flip();
-          while (buffer.hasRemaining()) {
-            writableByteChannel.write(buffer);
+        if (outputStream instanceof FileOutputStream && FileRefUtil.isTransferSupported(readableByteChannel)) {
+          // Local file to local file, let the kernel copy the bytes
+          FileRefUtil.transfer(
+              readableByteChannel,
+              ((FileOutputStream) outputStream).getChannel(),
+              Math.min(bufferSize, MAX_TRANSFER_CHUNK_SIZE)
+          );
+        } else {
+          //Don't have to close this here, because generate.close will call output stream close
+          WritableByteChannel writableByteChannel = Channels.newChannel(outputStream); //NOSONAR
+          ByteBuffer buffer = ByteBuffer.allocateDirect(bufferSize);
+          while ((readableByteChannel.read(buffer)) > 0) {
+            //Flip to use the buffer from 0 to position.
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+              writableByteChannel.write(buffer);
+            }
+            //Compact the buffer for reuse.
+            buffer.clear();
           }
-          //Compact the buffer for reuse.
-          buffer.clear();
         }
       }
     } else {
@@ -20,7 +20,9 @@ import com.streamsets.pipeline.api.impl.Utils;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 
 public abstract class AbstractWrapperStream<T extends AutoCloseable> extends InputStream implements ReadableByteChannel {
   private final T stream;
@@ -106,6 +108,27 @@ public abstract class AbstractWrapperStream<T extends AutoCloseable> extends Inp
     return ((ReadableByteChannel)stream).isOpen();
   }
 
+  /**
+   * Whether the bytes can be moved by {@link #transferTo(long, WritableByteChannel)}, i.e. the innermost stream
+   * is a {@link FileChannel} and no wrapper needs to see the actual bytes.
+   */
+  boolean isTransferSupported() {
+    return FileRefUtil.isTransferSupported(stream);
+  }
+
+  /**
+   * Transfers up to count bytes from the current position of the underlying {@link FileChannel} to the target,
+   * advancing the position accordingly.
+   * @return the number of bytes transferred or -1 if the end of the stream was reached.
+   */
+  long transferTo(long count, WritableByteChannel target) throws IOException {
+    if (stream instanceof AbstractWrapperStream) {
+      return ((AbstractWrapperStream<?>) stream).transferTo(count, target);
+    }
+    checkState(FileChannel.class);
+    return FileRefUtil.transferTo((FileChannel) stream, count, target);
+  }
+
   @Override
   public void close() throws IOException {
     try {
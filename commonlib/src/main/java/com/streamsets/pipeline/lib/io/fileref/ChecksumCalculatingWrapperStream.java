@@ -88,6 +88,12 @@ class ChecksumCalculatingWrapperStream<T extends AutoCloseable> extends Abstract
     return bytesRead;
   }
 
+  @Override
+  boolean isTransferSupported() {
+    // The checksum has to be computed over the actual bytes
+    return false;
+  }
+
   @Override
   public int read(byte[] b) throws IOException {
     int bytesRead = super.read(b);
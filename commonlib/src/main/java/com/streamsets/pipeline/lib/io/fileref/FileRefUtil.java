@@ -37,6 +37,8 @@ import com.streamsets.pipeline.lib.generator.StreamCloseEventHandler;
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
@@ -218,6 +220,52 @@ public final class FileRefUtil {
     return stream;
   }
 
+  /**
+   * Whether the given stream (as returned by {@link #getReadableStream}) can be copied by {@link #transfer} without
+   * moving the bytes through a user space buffer. This is the case when the file ref is backed by a local
+   * {@link FileChannel} and no checksum needs to be calculated or verified. Metrics and rate limits are still honored
+   * as they are updated for each transferred chunk.
+   */
+  public static boolean isTransferSupported(AutoCloseable stream) {
+    if (stream instanceof AbstractWrapperStream) {
+      return ((AbstractWrapperStream<?>) stream).isTransferSupported();
+    }
+    return stream instanceof FileChannel;
+  }
+
+  /**
+   * Copies the whole stream to the given target channel using {@link FileChannel#transferTo}, in chunks of at most
+   * chunkSize bytes. The stream must support transfer, see {@link #isTransferSupported(AutoCloseable)}.
+   * @return the number of bytes copied.
+   */
+  public static long transfer(AutoCloseable stream, WritableByteChannel target, int chunkSize) throws IOException {
+    Utils.checkArgument(isTransferSupported(stream), "Stream does not support transfer");
+    Utils.checkArgument(chunkSize > 0, "Chunk size should be greater than 0");
+    long total = 0;
+    long transferred;
+    while ((transferred = transferChunk(stream, chunkSize, target)) >= 0) {
+      total += transferred;
+    }
+    return total;
+  }
+
+  private static long transferChunk(AutoCloseable stream, int chunkSize, WritableByteChannel target) throws IOException {
+    if (stream instanceof AbstractWrapperStream) {
+      return ((AbstractWrapperStream<?>) stream).transferTo(chunkSize, target);
+    }
+    return transferTo((FileChannel) stream, chunkSize, target);
+  }
+
+  static long transferTo(FileChannel channel, long count, WritableByteChannel target) throws IOException {
+    long position = channel.position();
+    if (position >= channel.size()) {
+      return -1;
+    }
+    long transferred = channel.transferTo(position, count, target);
+    channel.position(position + transferred);
+    return transferred;
+  }
+
   public static void validateWholeFileRecord(Record record) {
     Set<String> fieldPathsInRecord = record.getEscapedFieldPaths();
     Utils.checkArgument(
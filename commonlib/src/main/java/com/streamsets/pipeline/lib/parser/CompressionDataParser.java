@@ -16,6 +16,7 @@
 package com.streamsets.pipeline.lib.parser;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.ext.DataCollectorServices;
 import com.streamsets.pipeline.api.ext.json.JsonMapper;
@@ -37,6 +38,8 @@ import java.nio.file.PathMatcher;
 import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class CompressionDataParser extends AbstractDataParser {
 
@@ -51,11 +54,14 @@ public class CompressionDataParser extends AbstractDataParser {
   private final Compression compression;
   private final String compressionFilePattern;
   private final DataParserFactory dataParserFactory;
+  private final boolean backgroundDecompression;
 
   private String offset;
   private DataParser parser;
   private boolean eof = false;
   private CompressionInput compressionInput;
+  private ExecutorService decompressionExecutor;
+  private ReadAheadInputStream readAheadInputStream;
 
   public CompressionDataParser(
       String id,
@@ -64,6 +70,18 @@ public class CompressionDataParser extends AbstractDataParser {
       Compression compression,
       String compressionFilePattern,
       DataParserFactory dataParserFactory
+  ) {
+    this(id, is, offset, compression, compressionFilePattern, dataParserFactory, false);
+  }
+
+  public CompressionDataParser(
+      String id,
+      InputStream is,
+      String offset,
+      Compression compression,
+      String compressionFilePattern,
+      DataParserFactory dataParserFactory,
+      boolean backgroundDecompression
   ) {
     this.id = id;
     this.is = is;
@@ -71,6 +89,7 @@ public class CompressionDataParser extends AbstractDataParser {
     this.compression = compression;
     this.compressionFilePattern = compressionFilePattern;
     this.dataParserFactory = dataParserFactory;
+    this.backgroundDecompression = backgroundDecompression && compression != null && compression != Compression.NONE;
   }
 
   @Override
@@ -88,6 +107,11 @@ public class CompressionDataParser extends AbstractDataParser {
       if (parser == null) {
         InputStream nextInputStream = compressionInput.getNextInputStream();
         if (nextInputStream != null) {
+          if (backgroundDecompression) {
+            // decompress (and extract the archive entry) while the data is being parsed
+            readAheadInputStream = new ReadAheadInputStream(nextInputStream, getDecompressionExecutor());
+            nextInputStream = readAheadInputStream;
+          }
           parser = dataParserFactory.getParser(id, new NonClosingProxyInputStream(nextInputStream), offset);
         } else {
           //reached end of compression/archive stream
@@ -100,6 +124,7 @@ public class CompressionDataParser extends AbstractDataParser {
         if (record == null) {
           parser.close();
           parser = null;
+          closeReadAhead();
           // for subsequent entries offset always starts at ZERO
           offset = ZERO;
         } else {
@@ -127,6 +152,11 @@ public class CompressionDataParser extends AbstractDataParser {
       parser.close();
       parser = null;
     }
+    closeReadAhead();
+    if (decompressionExecutor != null) {
+      decompressionExecutor.shutdownNow();
+      decompressionExecutor = null;
+    }
     if(compressionInput != null) {
       compressionInput.close();
       compressionInput = null;
@@ -134,6 +164,23 @@ public class CompressionDataParser extends AbstractDataParser {
     is.close();
   }
 
+  private ExecutorService getDecompressionExecutor() {
+    if (decompressionExecutor == null) {
+      decompressionExecutor = Executors.newSingleThreadExecutor(
+          new ThreadFactoryBuilder().setNameFormat("Decompression-" + id + "-%d").setDaemon(true).build()
+      );
+    }
+    return decompressionExecutor;
+  }
+
+  // Waits for the background thread to be done with the current stream before the next one is requested
+  private void closeReadAhead() throws IOException {
+    if (readAheadInputStream != null) {
+      readAheadInputStream.close();
+      readAheadInputStream = null;
+    }
+  }
+
   /**
    * Wrapper Input Stream that does nothing on calling close().
    */
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2017 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Input stream that reads the wrapped stream ahead on a background thread.
+ *
+ * Used to decompress (and extract archive entries) on a different thread than the one parsing the data. The bytes
+ * are exactly the bytes of the wrapped stream, hence the offsets reported by the parsers are not affected. The
+ * wrapped stream is never closed, closing this stream only waits until the background thread stops reading it so
+ * that it can be safely used again (e.g. to move to the next entry of an archive).
+ */
+class ReadAheadInputStream extends InputStream {
+
+  static final int CHUNK_SIZE = 64 * 1024;
+  static final int CHUNKS = 16;
+
+  private static final ByteBuffer EOF = ByteBuffer.allocate(0);
+  private static final long POLL_TIMEOUT_MILLIS = 100;
+
+  private final InputStream in;
+  private final BlockingQueue<ByteBuffer> filled;
+  private final BlockingQueue<byte[]> free;
+  private final Future<?> future;
+  private volatile boolean closed;
+  private volatile IOException error;
+  private ByteBuffer current;
+
+  ReadAheadInputStream(InputStream in, ExecutorService executor) {
+    this(in, executor, CHUNK_SIZE, CHUNKS);
+  }
+
+  ReadAheadInputStream(InputStream in, ExecutorService executor, int chunkSize, int chunks) {
+    this.in = in;
+    filled = new ArrayBlockingQueue<>(chunks + 1);
+    // one extra buffer for the chunk being read by the consumer
+    free = new ArrayBlockingQueue<>(chunks + 1);
+    for (int i = 0; i <= chunks; i++) {
+      free.add(new byte[chunkSize]);
+    }
+    future = executor.submit(new Runnable() {
+      @Override
+      public void run() {
+        readAhead();
+      }
+    });
+  }
+
+  private void readAhead() {
+    try {
+      boolean eof = false;
+      while (!eof && !closed) {
+        byte[] buffer = free.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        if (buffer == null) {
+          continue;
+        }
+        int len = 0;
+        while (len < buffer.length) {
+          int read = in.read(buffer, len, buffer.length - len);
+          if (read == -1) {
+            eof = true;
+            break;
+          }
+          len += read;
+        }
+        if (len > 0) {
+          publish(ByteBuffer.wrap(buffer, 0, len));
+        }
+      }
+    } catch (IOException ex) {
+      error = ex;
+    } catch (InterruptedException ex) {
+      error = new InterruptedIOException("Interrupted while reading ahead");
+      Thread.currentThread().interrupt();
+    } catch (Throwable ex) {
+      // decompressors report corrupted data with unchecked exceptions, the consumer must not wait forever
+      error = new IOException("Error while reading ahead: " + ex, ex);
+    } finally {
+      try {
+        publish(EOF);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  // The wrapped stream must not be interrupted while reading (interruptible channels get closed), instead the
+  // background thread polls the closed flag while waiting for the consumer.
+  private void publish(ByteBuffer chunk) throws InterruptedException {
+    while (!closed && !filled.offer(chunk, POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+      // wait for the consumer
+    }
+  }
+
+  private boolean nextChunk() throws IOException {
+    if (current == EOF) {
+      return false;
+    }
+    if (current != null) {
+      if (current.hasRemaining()) {
+        return true;
+      }
+      free.add(current.array());
+    }
+    try {
+      current = filled.take();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for data");
+    }
+    if (current == EOF) {
+      if (error != null) {
+        throw error;
+      }
+      return false;
+    }
+    return true;
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (!nextChunk()) {
+      return -1;
+    }
+    return current.get() & 0xFF;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    if (!nextChunk()) {
+      return -1;
+    }
+    int read = Math.min(len, current.remaining());
+    current.get(b, off, read);
+    return read;
+  }
+
+  @Override
+  public int available() {
+    return current == null || current == EOF ? 0 : current.remaining();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (!closed) {
+      closed = true;
+      filled.clear();
+      try {
+        future.get();
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while stopping read ahead");
+      } catch (ExecutionException ex) {
+        throw new IOException(ex.getCause());
+      }
+      current = EOF;
+    }
+  }
+}
@@ -23,7 +23,6 @@ import com.streamsets.pipeline.lib.parser.shaded.org.aicer.grok.util.Grok;
 import org.apache.commons.pool2.impl.GenericObjectPool;
 
 import java.io.IOException;
-import java.util.LinkedHashMap;
 import java.util.Map;
 
 public class GrokParser extends LogCharDataParser {
@@ -51,15 +50,11 @@ public class GrokParser extends LogCharDataParser {
 
   @Override
   public Map<String, Field> parseLogLine(StringBuilder logLine) throws DataParserException {
-    Map<String, String> namedGroupToValuesMap = compiledPattern.extractNamedGroups(logLine.toString());
-    if(namedGroupToValuesMap == null) {
+    Map<String, Field> map = compiledPattern.extractFields(logLine);
+    if(map == null) {
       //Did not match
       handleNoMatch(logLine.toString());
     }
-    Map<String, Field> map = new LinkedHashMap<>();
-    for(Map.Entry<String, String> e : namedGroupToValuesMap.entrySet()) {
-      map.put(e.getKey(), Field.create(e.getValue()));
-    }
     return map;
   }
 
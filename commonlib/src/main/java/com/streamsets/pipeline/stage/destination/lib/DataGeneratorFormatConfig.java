@@ -38,6 +38,10 @@ import com.streamsets.pipeline.config.DestinationAvroSchemaSource;
 import com.streamsets.pipeline.config.DestinationAvroSchemaSourceChooserValues;
 import com.streamsets.pipeline.config.JsonMode;
 import com.streamsets.pipeline.config.JsonModeChooserValues;
+import com.streamsets.pipeline.config.ParquetCompression;
+import com.streamsets.pipeline.config.ParquetCompressionChooserValues;
+import com.streamsets.pipeline.config.ParquetSchemaSource;
+import com.streamsets.pipeline.config.ParquetSchemaSourceChooserValues;
 import com.streamsets.pipeline.config.TextFieldMissingAction;
 import com.streamsets.pipeline.config.TextFieldMissingActionChooserValues;
 import com.streamsets.pipeline.config.WholeFileExistsAction;
@@ -49,6 +53,7 @@ import com.streamsets.pipeline.lib.generator.DataGeneratorFactory;
 import com.streamsets.pipeline.lib.generator.DataGeneratorFactoryBuilder;
 import com.streamsets.pipeline.lib.generator.binary.BinaryDataGeneratorFactory;
 import com.streamsets.pipeline.lib.generator.delimited.DelimitedDataGeneratorFactory;
+import com.streamsets.pipeline.lib.generator.parquet.ParquetDataGeneratorFactory;
 import com.streamsets.pipeline.lib.generator.text.TextDataGeneratorFactory;
 import com.streamsets.pipeline.lib.generator.wholefile.WholeFileDataGeneratorFactory;
 import com.streamsets.pipeline.lib.generator.xml.XmlDataGeneratorFactory;
@@ -579,6 +584,93 @@ public class DataGeneratorFormatConfig implements DataFormatConfig {
   )
   public String xmlSchema = "";
 
+  /** For Parquet Content **/
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.MODEL,
+      defaultValue = "INFER",
+      label = "Parquet Schema Location",
+      description = "Where to load the Avro schema describing the Parquet files from. When inferred, the schema is " +
+          "derived from the first record written to each file.",
+      displayPosition = 600,
+      group = "DATA_FORMAT",
+      dependsOn = "dataFormat^",
+      triggeredByValue = "PARQUET"
+  )
+  @ValueChooserModel(ParquetSchemaSourceChooserValues.class)
+  public ParquetSchemaSource parquetSchemaSource = ParquetSchemaSource.INFER;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.TEXT,
+      label = "Parquet Schema",
+      description = "Avro schema describing the Parquet files. Optionally use the runtime:loadResource function to " +
+          "use a schema stored in a file",
+      displayPosition = 610,
+      group = "DATA_FORMAT",
+      dependencies = {
+          @Dependency(configName = "dataFormat^", triggeredByValues = "PARQUET"),
+          @Dependency(configName = "parquetSchemaSource", triggeredByValues = "INLINE")
+      },
+      mode = ConfigDef.Mode.JSON
+  )
+  public String parquetSchema;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.MODEL,
+      defaultValue = "SNAPPY",
+      label = "Parquet Compression Codec",
+      displayPosition = 620,
+      group = "DATA_FORMAT",
+      dependsOn = "dataFormat^",
+      triggeredByValue = "PARQUET"
+  )
+  @ValueChooserModel(ParquetCompressionChooserValues.class)
+  public ParquetCompression parquetCompression = ParquetCompression.SNAPPY;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.BOOLEAN,
+      defaultValue = "true",
+      label = "Dictionary Encoding",
+      description = "Use dictionary encoding for columns with a low number of distinct values.",
+      displayPosition = 630,
+      group = "DATA_FORMAT",
+      dependsOn = "dataFormat^",
+      triggeredByValue = "PARQUET"
+  )
+  public boolean parquetDictionaryEncoding = true;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      defaultValue = "1048576",
+      label = "Page Size (bytes)",
+      description = "Size of a Parquet page, the smallest unit that must be read fully to access a single value.",
+      displayPosition = 640,
+      group = "DATA_FORMAT",
+      dependsOn = "dataFormat^",
+      triggeredByValue = "PARQUET",
+      min = 1024
+  )
+  public int parquetPageSize = ParquetDataGeneratorFactory.PAGE_SIZE_DEFAULT;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      defaultValue = "134217728",
+      label = "Row Group Size (bytes)",
+      description = "Size of a Parquet row group, the amount of data buffered in memory before being written out.",
+      displayPosition = 650,
+      group = "DATA_FORMAT",
+      dependsOn = "dataFormat^",
+      triggeredByValue = "PARQUET",
+      min = 1024
+  )
+  public int parquetRowGroupSize = ParquetDataGeneratorFactory.ROW_GROUP_SIZE_DEFAULT;
+
   /**
    * Indicates whether delimiter must be written after each protobuf message.
    * By default messages are always written with a delimiter.
@@ -626,6 +718,9 @@ public class DataGeneratorFormatConfig implements DataFormatConfig {
       case WHOLE_FILE:
         valid = validateWholeFileFormat(context, configPrefix, issues);
         break;
+      case PARQUET:
+        valid = validateParquetFormat(context, configPrefix, issues);
+        break;
       default:
         issues.add(context.createConfigIssue(groupName, configPrefix, DataFormatErrors.DATA_FORMAT_04, dataFormat));
         valid = false;
@@ -701,6 +796,14 @@ public class DataGeneratorFormatConfig implements DataFormatConfig {
         builder.setConfig(XmlDataGeneratorFactory.SCHEMA_VALIDATION, xmlValidateSchema);
         builder.setConfig(XmlDataGeneratorFactory.SCHEMAS, ImmutableList.of(xmlSchema));
         break;
+      case PARQUET:
+        builder.setConfig(ParquetDataGeneratorFactory.SCHEMA_SOURCE_KEY, parquetSchemaSource);
+        builder.setConfig(ParquetDataGeneratorFactory.SCHEMA_KEY, parquetSchema == null ? "" : parquetSchema);
+        builder.setConfig(ParquetDataGeneratorFactory.COMPRESSION_KEY, parquetCompression);
+        builder.setConfig(ParquetDataGeneratorFactory.DICTIONARY_ENCODING_KEY, parquetDictionaryEncoding);
+        builder.setConfig(ParquetDataGeneratorFactory.PAGE_SIZE_KEY, parquetPageSize);
+        builder.setConfig(ParquetDataGeneratorFactory.ROW_GROUP_SIZE_KEY, parquetRowGroupSize);
+        break;
       case SDC_JSON:
       default:
         // no action needed
@@ -883,4 +986,40 @@ public class DataGeneratorFormatConfig implements DataFormatConfig {
     }
     return valid;
   }
+
+  private boolean validateParquetFormat(
+      ProtoConfigurableEntity.Context context,
+      String configPrefix,
+      List<Stage.ConfigIssue> issues
+  ) {
+    boolean valid = true;
+    if (parquetSchemaSource == ParquetSchemaSource.INLINE) {
+      if (isEmpty(parquetSchema)) {
+        issues.add(
+            context.createConfigIssue(
+                DataFormatGroups.DATA_FORMAT.name(),
+                configPrefix + ".parquetSchema",
+                DataFormatErrors.DATA_FORMAT_200
+            )
+        );
+        valid = false;
+      } else {
+        try {
+          AvroTypeUtil.parseSchema(parquetSchema);
+        } catch (Exception e) {
+          issues.add(
+              context.createConfigIssue(
+                  DataFormatGroups.DATA_FORMAT.name(),
+                  configPrefix + ".parquetSchema",
+                  DataFormatErrors.DATA_FORMAT_300,
+                  e.toString(),
+                  e
+              )
+          );
+          valid = false;
+        }
+      }
+    }
+    return valid;
+  }
 }
@@ -134,6 +134,20 @@ public class DataParserFormatConfig implements DataFormatConfig {
   )
   public String filePatternInArchive = "*";
 
+  @ConfigDef(
+      required = false,
+      type = ConfigDef.Type.BOOLEAN,
+      label = "Decompress in Background",
+      description = "Decompresses the data and extracts archive entries on a separate thread while the data is " +
+          "being parsed",
+      defaultValue = "false",
+      displayPosition = 4,
+      group = "DATA_FORMAT",
+      dependsOn = "compression",
+      triggeredByValue = {"COMPRESSED_FILE", "ARCHIVE", "COMPRESSED_ARCHIVE"}
+  )
+  public boolean backgroundDecompression = false;
+
   /* Charset Related -- Shown last */
   @ConfigDef(
       required = true,
@@ -1416,6 +1430,7 @@ public class DataParserFormatConfig implements DataFormatConfig {
     builder.setRemoveCtrlChars(removeCtrlChars);
     builder.setCompression(compression);
     builder.setFilePatternInArchive(filePatternInArchive);
+    builder.setBackgroundDecompression(backgroundDecompression);
 
     switch (dataFormat) {
       case TEXT:
@@ -42,6 +42,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.ReadableByteChannel;
 import java.util.Map;
 import java.util.UUID;
 
@@ -90,6 +91,47 @@ public class TestWholeFileDataGenerator {
     targetFileInputStream.close();
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testFileTransferMetrics() throws Exception {
+    OutputStream os = new FileOutputStream(getTargetFilePath());
+    DataGeneratorFactory factory =
+        new DataGeneratorFactoryBuilder(context, DataGeneratorFormat.WHOLE_FILE).build();
+    try (DataGenerator gen = factory.getGenerator(os)) {
+      gen.write(createRecord(null, null));
+    }
+    // Bytes moved by channel transfer are still accounted
+    Assert.assertEquals(
+        FileRefTestUtil.TEXT.getBytes().length,
+        context.getMeter(FileRefUtil.TRANSFER_THROUGHPUT_METER).getCount()
+    );
+    Map<String, Object> gauge = (Map<String, Object>) context.getGauge(FileRefUtil.GAUGE_NAME).getValue();
+    Assert.assertEquals(1L, gauge.get(FileRefUtil.COMPLETED_FILE_COUNT));
+  }
+
+  @Test
+  public void testTransferSupport() throws Exception {
+    FileRef fileRef = FileRefTestUtil.getLocalFileRef(testDir, true, null, null);
+    try (ReadableByteChannel channel = FileRefUtil.getReadableStream(
+        context, fileRef, ReadableByteChannel.class, false, null, null)) {
+      Assert.assertTrue(FileRefUtil.isTransferSupported(channel));
+    }
+    try (InputStream stream = FileRefUtil.getReadableStream(context, fileRef, InputStream.class, false, null, null)) {
+      Assert.assertFalse(FileRefUtil.isTransferSupported(stream));
+    }
+
+    // Checksum has to see the bytes
+    fileRef = FileRefTestUtil.getLocalFileRef(testDir, true, "checksum", HashingUtil.HashType.MD5);
+    ReadableByteChannel channel = FileRefUtil.getReadableStream(
+        context, fileRef, ReadableByteChannel.class, false, null, null);
+    Assert.assertFalse(FileRefUtil.isTransferSupported(channel));
+    try {
+      channel.close();
+    } catch (IOException e) {
+      // Expected, nothing was read so the checksum does not match
+    }
+  }
+
   private void testInvalidRecord(String fieldPathToBeRemoved) throws Exception {
     Record record = createRecord(null, null);
     record.delete(fieldPathToBeRemoved);
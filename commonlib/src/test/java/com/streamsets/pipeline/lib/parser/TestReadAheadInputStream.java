@@ -0,0 +1,161 @@
+/*
+ * Copyright 2017 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.parser;
+
+import com.streamsets.pipeline.api.OnRecordError;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.config.Compression;
+import com.streamsets.pipeline.sdk.ContextInfoCreator;
+import org.apache.commons.compress.compressors.CompressorOutputStream;
+import org.apache.commons.compress.compressors.CompressorStreamFactory;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class TestReadAheadInputStream {
+
+  private ExecutorService executor;
+
+  @Before
+  public void setUp() {
+    executor = Executors.newSingleThreadExecutor();
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void testReadAhead() throws Exception {
+    byte[] data = new byte[100 * 1000 + 7];
+    new Random(0).nextBytes(data);
+
+    ReadAheadInputStream is = new ReadAheadInputStream(new ByteArrayInputStream(data), executor, 1000, 4);
+    byte[] read = IOUtils.toByteArray(is);
+    Assert.assertArrayEquals(data, read);
+    Assert.assertEquals(-1, is.read());
+    is.close();
+  }
+
+  @Test
+  public void testCloseBeforeEnd() throws Exception {
+    byte[] data = new byte[100 * 1000];
+    new Random(0).nextBytes(data);
+    ByteArrayInputStream in = new ByteArrayInputStream(data);
+
+    ReadAheadInputStream is = new ReadAheadInputStream(in, executor, 1000, 4);
+    Assert.assertEquals(data[0] & 0xFF, is.read());
+    is.close();
+    Assert.assertEquals(-1, is.read());
+
+    // the wrapped stream is not closed and is not read anymore
+    int available = in.available();
+    Assert.assertTrue(available > 0);
+    Thread.sleep(200);
+    Assert.assertEquals(available, in.available());
+  }
+
+  @Test(expected = IOException.class)
+  public void testError() throws Exception {
+    InputStream failing = new InputStream() {
+      @Override
+      public int read() throws IOException {
+        throw new IOException("Fail");
+      }
+    };
+    try (ReadAheadInputStream is = new ReadAheadInputStream(failing, executor, 1000, 4)) {
+      is.read();
+    }
+  }
+
+  @Test(timeout = 10000)
+  public void testUncheckedError() throws Exception {
+    byte[] data = new byte[5000];
+    new Random(0).nextBytes(data);
+    // decompressor that fails on corrupted data in the middle of the stream
+    InputStream decompressor = new InputStream() {
+      private final InputStream in = new ByteArrayInputStream(data);
+
+      @Override
+      public int read() throws IOException {
+        if (in.available() <= data.length / 2) {
+          throw new IllegalArgumentException("Corrupted block");
+        }
+        return in.read();
+      }
+    };
+    try (ReadAheadInputStream is = new ReadAheadInputStream(decompressor, executor, 1000, 4)) {
+      IOUtils.toByteArray(is);
+      Assert.fail("Expected the error of the decompressor to be reported");
+    } catch (IOException ex) {
+      Assert.assertTrue(ex.getCause() instanceof IllegalArgumentException);
+    }
+  }
+
+  @Test
+  public void testCompressionDataParser() throws Exception {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 10000; i++) {
+      sb.append("line").append(i).append('\n');
+    }
+    ByteArrayOutputStream bOut = new ByteArrayOutputStream();
+    CompressorOutputStream cOut = new CompressorStreamFactory().createCompressorOutputStream("gz", bOut);
+    cOut.write(sb.toString().getBytes());
+    cOut.close();
+    byte[] compressed = bOut.toByteArray();
+
+    List<String> expected = parse(compressed, false);
+    Assert.assertEquals(10000 * 2 + 1, expected.size());
+    Assert.assertEquals(expected, parse(compressed, true));
+  }
+
+  // Returns all parsed lines and offsets
+  private List<String> parse(byte[] compressed, boolean backgroundDecompression) throws Exception {
+    DataParserFactory factory = new DataParserFactoryBuilder(
+        ContextInfoCreator.createSourceContext("i", false, OnRecordError.TO_ERROR, Collections.<String>emptyList()),
+        DataParserFormat.TEXT
+    ).setMaxDataLen(1000)
+        .setCompression(Compression.COMPRESSED_FILE)
+        .setBackgroundDecompression(backgroundDecompression)
+        .build();
+
+    List<String> result = new ArrayList<>();
+    try (DataParser parser = factory.getParser("id", new ByteArrayInputStream(compressed), "0")) {
+      Record record = parser.parse();
+      while (record != null) {
+        result.add(record.get("/text").getValueAsString());
+        result.add(parser.getOffset());
+        record = parser.parse();
+      }
+      result.add(parser.getOffset());
+    }
+    return result;
+  }
+}
@@ -15,12 +15,14 @@
  */
 package com.streamsets.pipeline.lib.parser.log;
 
+import com.streamsets.pipeline.api.Field;
 import com.streamsets.pipeline.lib.parser.DataParserException;
 import com.streamsets.pipeline.lib.parser.shaded.org.aicer.grok.dictionary.GrokDictionary;
 import com.streamsets.pipeline.lib.parser.shaded.org.aicer.grok.util.Grok;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Map;
 
 public class TestApacheAccessLogHelper {
@@ -147,6 +149,25 @@ public class TestApacheAccessLogHelper {
 
   }
 
+  @Test
+  public void testExtractFields() throws DataParserException {
+    GrokDictionary grokDictionary = createGrokDictionary();
+
+    Grok grok = grokDictionary.compileExpression(
+      ApacheCustomLogHelper.translateApacheLayoutToGrok(NCSA_COMBINED_LOG_FORMAT));
+
+    Map<String, String> namedGroupToValuesMap = grok.extractNamedGroups(NCSA_COMBINED_LOG_FORMAT_LOG_LINE);
+    Map<String, Field> fields = grok.extractFields(new StringBuilder(NCSA_COMBINED_LOG_FORMAT_LOG_LINE));
+
+    Assert.assertEquals(new ArrayList<>(namedGroupToValuesMap.keySet()), new ArrayList<>(fields.keySet()));
+    for (Map.Entry<String, String> e : namedGroupToValuesMap.entrySet()) {
+      Assert.assertEquals(Field.create(e.getValue()), fields.get(e.getKey()));
+    }
+
+    Assert.assertNull(grok.extractNamedGroups("no match"));
+    Assert.assertNull(grok.extractFields("no match"));
+  }
+
   private GrokDictionary createGrokDictionary() {
     GrokDictionary grokDictionary = new GrokDictionary();
     //Add grok patterns and Java patterns by default
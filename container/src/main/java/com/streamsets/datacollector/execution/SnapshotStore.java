@@ -15,6 +15,7 @@
  */
 package com.streamsets.datacollector.execution;
 
+import com.streamsets.datacollector.execution.snapshot.common.SnapshotBatchEncoder;
 import com.streamsets.datacollector.runner.StageOutput;
 import com.streamsets.datacollector.util.PipelineException;
 
@@ -38,6 +39,14 @@ public interface SnapshotStore {
       List<List<StageOutput>> snapshotBatches
   ) throws PipelineException;
 
+  // starts a new batch at the end of the data of a snapshot in progress, the returned encoder writes the stage outputs
+  // to the store as the stages complete and must be committed (or discarded) when the batch is done.
+  // unlike save() the batches are not kept in memory, they are streamed to the store as they are captured.
+  public SnapshotBatchEncoder appendBatch(String name, String rev, String id, long maxBytes) throws PipelineException;
+
+  // marks a snapshot whose data was written using appendBatch() as completed and updates the snapshot info.
+  public SnapshotInfo complete(String name, String rev, String id, long batchNumber) throws PipelineException;
+
   // Updates the label of snapshot by updating the Snapshot Info
   public SnapshotInfo updateLabel(String name, String rev, String id, String snapshotLabel) throws PipelineException;
 
@@ -49,9 +49,11 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class DataRuleEvaluator {
 
@@ -60,6 +62,9 @@ public class DataRuleEvaluator {
 
   private static final Map<String,Map<String, List<String>>> DATA_RULES_EL_DEFS = createDataRulesElDefs();
 
+  private static final Map<String, ELEvaluator> CONDITION_EVALUATORS = new ConcurrentHashMap<>();
+  private static volatile ELEvaluator alertTextEvaluator;
+
   public static final String PIPELINE_CONTEXT = "PIPELINE";
   public static final String RULE_ID_CONTEXT = "RULE_ID";
 
@@ -138,130 +143,222 @@ public class DataRuleEvaluator {
       Map<String, EvictingQueue<SampledRecord>> ruleToSampledRecordsMap) {
 
     if (dataRuleDefinition.isEnabled() && sampleRecords != null && sampleRecords.size() > 0) {
+      ELVariables elVars = createELVariables();
+      Evaluation evaluation = new Evaluation(sampleRecords.size());
+      for (int i = 0; i < sampleRecords.size(); i++) {
+        evaluateRecord(elVars, sampleRecords.get(i), i, evaluation, null);
+      }
+      applyEvaluation(sampleRecords, evaluation, lane, ruleToSampledRecordsMap);
+    }
+  }
 
-      // initializing the ElVar context for the duration of the rule evalution to be able to have a 'rule' context
-      // for the alert:info() EL.
-      ELVariables elVars = new ELVariables();
-      elVars.addContextVariable(PIPELINE_CONTEXT, pipelineELContext);
-      elVars.addContextVariable(RULE_ID_CONTEXT, dataRuleDefinition.getId());
-
-      //cache all sampled records for this data rule definition in an evicting queue
-      EvictingQueue<SampledRecord> sampledRecords = ruleToSampledRecordsMap.get(dataRuleDefinition.getId());
-      if (sampledRecords == null) {
-        int maxSize = configuration.get(
-            Constants.SAMPLED_RECORDS_MAX_CACHE_SIZE_KEY,
-            Constants.SAMPLED_RECORDS_MAX_CACHE_SIZE_DEFAULT);
-        int size = dataRuleDefinition.getSamplingRecordsToRetain();
-        if (size > maxSize) {
-          size = maxSize;
-        }
-        sampledRecords = EvictingQueue.create(size);
-        ruleToSampledRecordsMap.put(dataRuleDefinition.getId(), sampledRecords);
+  /**
+   * Evaluates all given rules of one lane in a single pass over the sampled records.
+   *
+   * Rules of a lane sample the same record instances, so every record is visited once for all the rules that sampled
+   * it, and rules with identical conditions share a single evaluation of that condition per record. Drift rules keep
+   * state between records and are therefore evaluated on their own, in the order of their samples.
+   */
+  public static void evaluateRules(
+      List<DataRuleEvaluator> evaluators,
+      Map<String, List<Record>> ruleIdToSampledRecords,
+      String lane,
+      Map<String, EvictingQueue<SampledRecord>> ruleToSampledRecordsMap
+  ) {
+    List<DataRuleEvaluator> active = new ArrayList<>(evaluators.size());
+    List<ELVariables> variables = new ArrayList<>(evaluators.size());
+    List<Evaluation> evaluations = new ArrayList<>(evaluators.size());
+    // For every distinct record the (rule, sample index) pairs it has to be evaluated for
+    Map<Record, List<int[]>> occurrences = new IdentityHashMap<>();
+    List<Record> records = new ArrayList<>();
+
+    for (DataRuleEvaluator evaluator : evaluators) {
+      List<Record> samples = ruleIdToSampledRecords.get(evaluator.dataRuleDefinition.getId());
+      if (!evaluator.dataRuleDefinition.isEnabled() || samples == null || samples.isEmpty()) {
+        continue;
       }
-      //Meter
-      //evaluate sample set of records for condition
-      int matchingRecordCount = 0;
-      int evaluatedRecordCount = 0;
-      List<String> alertTextForMatchRecords = new ArrayList<>();
-      for (Record r : sampleRecords) {
-        evaluatedRecordCount++;
-        //evaluate
-        boolean success = evaluate(elVars, r, dataRuleDefinition.getCondition(), dataRuleDefinition.getId());
-        if (success) {
-          alertTextForMatchRecords.add(resolveAlertText(elVars, r, dataRuleDefinition));
-          sampledRecords.add(new SampledRecord(r, true));
-          matchingRecordCount++;
+      int rule = active.size();
+      ELVariables elVars = evaluator.createELVariables();
+      Evaluation evaluation = new Evaluation(samples.size());
+      active.add(evaluator);
+      variables.add(elVars);
+      evaluations.add(evaluation);
+
+      for (int i = 0; i < samples.size(); i++) {
+        if (evaluator.isStateful()) {
+          evaluator.evaluateRecord(elVars, samples.get(i), i, evaluation, null);
         } else {
-          sampledRecords.add(new SampledRecord(r, false));
+          List<int[]> recordOccurrences = occurrences.get(samples.get(i));
+          if (recordOccurrences == null) {
+            recordOccurrences = new ArrayList<>();
+            occurrences.put(samples.get(i), recordOccurrences);
+            records.add(samples.get(i));
+          }
+          recordOccurrences.add(new int[]{rule, i});
         }
       }
+    }
 
-      if (dataRuleDefinition.isAlertEnabled()) {
-        //Keep the counters and meters ready before execution
-        //batch record counter - cummulative sum of records per batch
-        Counter evaluatedRecordCounter =
-            MetricsConfigurator.getCounter(metrics, LaneResolver.getPostFixedLaneForObserver(
-                lane));
-        if (evaluatedRecordCounter == null) {
-          evaluatedRecordCounter = MetricsConfigurator.createCounter(metrics, LaneResolver.getPostFixedLaneForObserver(
-              lane), name, rev);
-          if (metricRegistryJson != null) {
-            CounterJson counterJson =
-              metricRegistryJson.getCounters().get(
-                LaneResolver.getPostFixedLaneForObserver(lane) + MetricsConfigurator.COUNTER_SUFFIX);
-            evaluatedRecordCounter.inc(counterJson.getCount());
-          }
+    Map<String, Boolean> conditionResults = new HashMap<>();
+    for (Record record : records) {
+      conditionResults.clear();
+      for (int[] occurrence : occurrences.get(record)) {
+        int rule = occurrence[0];
+        active.get(rule).evaluateRecord(
+            variables.get(rule),
+            record,
+            occurrence[1],
+            evaluations.get(rule),
+            conditionResults
+        );
+      }
+    }
+
+    for (int rule = 0; rule < active.size(); rule++) {
+      DataRuleEvaluator evaluator = active.get(rule);
+      evaluator.applyEvaluation(
+          ruleIdToSampledRecords.get(evaluator.dataRuleDefinition.getId()),
+          evaluations.get(rule),
+          lane,
+          ruleToSampledRecordsMap
+      );
+    }
+  }
+
+  private ELVariables createELVariables() {
+    // initializing the ElVar context for the duration of the rule evalution to be able to have a 'rule' context
+    // for the alert:info() EL.
+    ELVariables elVars = new ELVariables();
+    elVars.addContextVariable(PIPELINE_CONTEXT, pipelineELContext);
+    elVars.addContextVariable(RULE_ID_CONTEXT, dataRuleDefinition.getId());
+    return elVars;
+  }
+
+  private boolean isStateful() {
+    return dataRuleDefinition instanceof DriftRuleDefinition;
+  }
+
+  /**
+   * Evaluates the condition on one sampled record. The alert text is resolved right away as drift conditions set the
+   * alert:info() of the record they have just evaluated.
+   *
+   * @param conditionResults results of the conditions already evaluated on this record, null to not share them
+   */
+  private void evaluateRecord(
+      ELVariables elVars,
+      Record record,
+      int index,
+      Evaluation evaluation,
+      Map<String, Boolean> conditionResults
+  ) {
+    String condition = dataRuleDefinition.getCondition();
+    Boolean success = conditionResults == null ? null : conditionResults.get(condition);
+    if (success == null) {
+      success = evaluate(elVars, record, condition, dataRuleDefinition.getId());
+      if (conditionResults != null) {
+        conditionResults.put(condition, success);
+      }
+    }
+    evaluation.matches[index] = success;
+    if (success) {
+      evaluation.alertTexts[index] = resolveAlertText(elVars, record, dataRuleDefinition);
+    }
+  }
+
+  private void applyEvaluation(
+      List<Record> sampleRecords,
+      Evaluation evaluation,
+      String lane,
+      Map<String, EvictingQueue<SampledRecord>> ruleToSampledRecordsMap
+  ) {
+    //cache all sampled records for this data rule definition in an evicting queue
+    EvictingQueue<SampledRecord> sampledRecords = ruleToSampledRecordsMap.get(dataRuleDefinition.getId());
+    if (sampledRecords == null) {
+      int maxSize = configuration.get(
+          Constants.SAMPLED_RECORDS_MAX_CACHE_SIZE_KEY,
+          Constants.SAMPLED_RECORDS_MAX_CACHE_SIZE_DEFAULT);
+      int size = dataRuleDefinition.getSamplingRecordsToRetain();
+      if (size > maxSize) {
+        size = maxSize;
+      }
+      sampledRecords = EvictingQueue.create(size);
+      ruleToSampledRecordsMap.put(dataRuleDefinition.getId(), sampledRecords);
+    }
+    //Meter
+    //evaluate sample set of records for condition
+    int matchingRecordCount = 0;
+    int evaluatedRecordCount = 0;
+    List<String> alertTextForMatchRecords = new ArrayList<>();
+    for (int i = 0; i < sampleRecords.size(); i++) {
+      Record r = sampleRecords.get(i);
+      evaluatedRecordCount++;
+      if (evaluation.matches[i]) {
+        alertTextForMatchRecords.add(evaluation.alertTexts[i]);
+        sampledRecords.add(new SampledRecord(r, true));
+        matchingRecordCount++;
+      } else {
+        sampledRecords.add(new SampledRecord(r, false));
+      }
+    }
+
+    if (dataRuleDefinition.isAlertEnabled()) {
+      //Keep the counters and meters ready before execution
+      //batch record counter - cummulative sum of records per batch
+      Counter evaluatedRecordCounter =
+          MetricsConfigurator.getCounter(metrics, LaneResolver.getPostFixedLaneForObserver(
+              lane));
+      if (evaluatedRecordCounter == null) {
+        evaluatedRecordCounter = MetricsConfigurator.createCounter(metrics, LaneResolver.getPostFixedLaneForObserver(
+            lane), name, rev);
+        if (metricRegistryJson != null) {
+          CounterJson counterJson =
+            metricRegistryJson.getCounters().get(
+              LaneResolver.getPostFixedLaneForObserver(lane) + MetricsConfigurator.COUNTER_SUFFIX);
+          evaluatedRecordCounter.inc(counterJson.getCount());
         }
-        //counter for the matching records - cummulative sum of records that match criteria
-        Counter matchingRecordCounter =
-            MetricsConfigurator.getCounter(metrics, USER_PREFIX + dataRuleDefinition.getId());
-        if (matchingRecordCounter == null) {
-          matchingRecordCounter =
-            MetricsConfigurator.createCounter(metrics, USER_PREFIX + dataRuleDefinition.getId(), name, rev);
-          if (metricRegistryJson != null) {
-            CounterJson counterJson =
-              metricRegistryJson.getCounters().get(
-                USER_PREFIX + dataRuleDefinition.getId() + MetricsConfigurator.COUNTER_SUFFIX);
-            matchingRecordCounter.inc(counterJson.getCount());
-          }
+      }
+      //counter for the matching records - cummulative sum of records that match criteria
+      Counter matchingRecordCounter =
+          MetricsConfigurator.getCounter(metrics, USER_PREFIX + dataRuleDefinition.getId());
+      if (matchingRecordCounter == null) {
+        matchingRecordCounter =
+          MetricsConfigurator.createCounter(metrics, USER_PREFIX + dataRuleDefinition.getId(), name, rev);
+        if (metricRegistryJson != null) {
+          CounterJson counterJson =
+            metricRegistryJson.getCounters().get(
+              USER_PREFIX + dataRuleDefinition.getId() + MetricsConfigurator.COUNTER_SUFFIX);
+          matchingRecordCounter.inc(counterJson.getCount());
         }
+      }
 
-        evaluatedRecordCounter.inc(evaluatedRecordCount);
-        matchingRecordCounter.inc(matchingRecordCount);
+      evaluatedRecordCounter.inc(evaluatedRecordCount);
+      matchingRecordCounter.inc(matchingRecordCount);
 
-        double threshold;
-        try {
-          threshold = Double.parseDouble(dataRuleDefinition.getThresholdValue());
-        } catch (NumberFormatException e) {
-          //Soft error for now as we don't want this alert to stop other rules
-          LOG.error("Error interpreting threshold '{}' as a number", dataRuleDefinition.getThresholdValue(), e);
-          return;
-        }
-        switch (dataRuleDefinition.getThresholdType()) {
-          case COUNT:
-            if (matchingRecordCounter.getCount() > threshold) {
-              if (dataRuleDefinition instanceof DriftRuleDefinition) {
-                if (isStatAggregationEnabled()) {
-                  createAndEnqueDataRuleRecord(dataRuleDefinition, evaluatedRecordCount, matchingRecordCount, alertTextForMatchRecords);
-                } else {
-                  for (String alertText : alertTextForMatchRecords) {
-                    alertManager.alert(
-                        matchingRecordCounter.getCount(),
-                        ruleDefinitionsConfigBean,
-                        AlertManagerHelper.cloneRuleWithResolvedAlertText(dataRuleDefinition, alertText)
-                    );
-                  }
-                }
-              } else if (dataRuleDefinition instanceof DataRuleDefinition) {
-                if (isStatAggregationEnabled()) {
-                  createAndEnqueDataRuleRecord(
-                      dataRuleDefinition,
-                      evaluatedRecordCount,
-                      matchingRecordCount,
-                      alertTextForMatchRecords
-                  );
-                } else {
+      double threshold;
+      try {
+        threshold = Double.parseDouble(dataRuleDefinition.getThresholdValue());
+      } catch (NumberFormatException e) {
+        //Soft error for now as we don't want this alert to stop other rules
+        LOG.error("Error interpreting threshold '{}' as a number", dataRuleDefinition.getThresholdValue(), e);
+        return;
+      }
+      switch (dataRuleDefinition.getThresholdType()) {
+        case COUNT:
+          if (matchingRecordCounter.getCount() > threshold) {
+            if (dataRuleDefinition instanceof DriftRuleDefinition) {
+              if (isStatAggregationEnabled()) {
+                createAndEnqueDataRuleRecord(dataRuleDefinition, evaluatedRecordCount, matchingRecordCount, alertTextForMatchRecords);
+              } else {
+                for (String alertText : alertTextForMatchRecords) {
                   alertManager.alert(
                       matchingRecordCounter.getCount(),
                       ruleDefinitionsConfigBean,
-                      AlertManagerHelper.cloneRuleWithResolvedAlertText(
-                          dataRuleDefinition,
-                          alertTextForMatchRecords.get(0)
-                      )
+                      AlertManagerHelper.cloneRuleWithResolvedAlertText(dataRuleDefinition, alertText)
                   );
                 }
-              } else {
-                throw new RuntimeException(Utils.format(
-                    "Unexpected RuleDefinition class '{}'",
-                    dataRuleDefinition.getClass().getName()
-                ));
               }
-            }
-            break;
-          case PERCENTAGE:
-            if ((matchingRecordCounter.getCount() * 100.0 / evaluatedRecordCounter.getCount()) > threshold
-                && evaluatedRecordCounter.getCount() >= dataRuleDefinition.getMinVolume()) {
-              if(isStatAggregationEnabled()) {
+            } else if (dataRuleDefinition instanceof DataRuleDefinition) {
+              if (isStatAggregationEnabled()) {
                 createAndEnqueDataRuleRecord(
                     dataRuleDefinition,
                     evaluatedRecordCount,
@@ -270,38 +367,60 @@ public class DataRuleEvaluator {
                 );
               } else {
                 alertManager.alert(
-                  matchingRecordCounter.getCount(),
-                  ruleDefinitionsConfigBean,
-                  AlertManagerHelper.cloneRuleWithResolvedAlertText(
-                      dataRuleDefinition,
-                      alertTextForMatchRecords.get(0)
-                  )
+                    matchingRecordCounter.getCount(),
+                    ruleDefinitionsConfigBean,
+                    AlertManagerHelper.cloneRuleWithResolvedAlertText(
+                        dataRuleDefinition,
+                        alertTextForMatchRecords.get(0)
+                    )
                 );
               }
+            } else {
+              throw new RuntimeException(Utils.format(
+                  "Unexpected RuleDefinition class '{}'",
+                  dataRuleDefinition.getClass().getName()
+              ));
             }
-            break;
-        }
+          }
+          break;
+        case PERCENTAGE:
+          if ((matchingRecordCounter.getCount() * 100.0 / evaluatedRecordCounter.getCount()) > threshold
+              && evaluatedRecordCounter.getCount() >= dataRuleDefinition.getMinVolume()) {
+            if(isStatAggregationEnabled()) {
+              createAndEnqueDataRuleRecord(
+                  dataRuleDefinition,
+                  evaluatedRecordCount,
+                  matchingRecordCount,
+                  alertTextForMatchRecords
+              );
+            } else {
+              alertManager.alert(
+                matchingRecordCounter.getCount(),
+                ruleDefinitionsConfigBean,
+                AlertManagerHelper.cloneRuleWithResolvedAlertText(
+                    dataRuleDefinition,
+                    alertTextForMatchRecords.get(0)
+                )
+              );
+            }
+          }
+          break;
       }
+    }
 
-      if (dataRuleDefinition.isMeterEnabled() && matchingRecordCount > 0) {
-        Meter meter = MetricsConfigurator.getMeter(metrics, USER_PREFIX + dataRuleDefinition.getId());
-        if (meter == null) {
-          meter = MetricsConfigurator.createMeter(metrics, USER_PREFIX + dataRuleDefinition.getId(), name ,rev);
-        }
-        meter.mark(matchingRecordCount);
+    if (dataRuleDefinition.isMeterEnabled() && matchingRecordCount > 0) {
+      Meter meter = MetricsConfigurator.getMeter(metrics, USER_PREFIX + dataRuleDefinition.getId());
+      if (meter == null) {
+        meter = MetricsConfigurator.createMeter(metrics, USER_PREFIX + dataRuleDefinition.getId(), name ,rev);
       }
+      meter.mark(matchingRecordCount);
     }
   }
 
   @VisibleForTesting
   boolean evaluate(ELVariables elVars, Record record, String el, String id) {
     try {
-      return AlertsUtil.evaluateRecord(
-        record,
-        el,
-        elVars,
-        new ELEvaluator("el",false, RuleELRegistry.getRuleELs(dataRuleDefinition.getFamily()))
-      );
+      return AlertsUtil.evaluateRecord(record, el, elVars, getConditionEvaluator(dataRuleDefinition.getFamily()));
     } catch (ObserverException e) {
       //A faulty condition should not take down rest of the alerts with it.
       //Log and it and continue for now
@@ -322,10 +441,9 @@ public class DataRuleEvaluator {
         alertText = "";
       }
 
-      ELEvaluator elEval = new ELEvaluator("alertInfo",false, RuleELRegistry.getRuleELs(RuleELRegistry.ALERT));
       RecordEL.setRecordInContext(elVars, record);
 
-      return elEval.eval(elVars, alertText, String.class);
+      return getAlertTextEvaluator().eval(elVars, alertText, String.class);
 
     } catch (ELEvalException e) {
       //A faulty el alerttext should not take down rest of the alerts with it.
@@ -344,6 +462,25 @@ public class DataRuleEvaluator {
     }
   }
 
+  // Evaluators only depend on the EL family, creating them extracts all EL definitions so they are shared
+  private static ELEvaluator getConditionEvaluator(String family) {
+    ELEvaluator evaluator = CONDITION_EVALUATORS.get(family);
+    if (evaluator == null) {
+      evaluator = new ELEvaluator("el", false, RuleELRegistry.getRuleELs(family));
+      CONDITION_EVALUATORS.putIfAbsent(family, evaluator);
+    }
+    return evaluator;
+  }
+
+  private static ELEvaluator getAlertTextEvaluator() {
+    ELEvaluator evaluator = alertTextEvaluator;
+    if (evaluator == null) {
+      evaluator = new ELEvaluator("alertInfo", false, RuleELRegistry.getRuleELs(RuleELRegistry.ALERT));
+      alertTextEvaluator = evaluator;
+    }
+    return evaluator;
+  }
+
   @VisibleForTesting
   DataRuleDefinition getDataRuleDefinition() {
     return dataRuleDefinition;
@@ -377,4 +514,17 @@ public class DataRuleEvaluator {
     return null != statsQueue;
   }
 
+  /**
+   * Results of the rule's condition for each of its sampled records.
+   */
+  private static class Evaluation {
+    private final boolean[] matches;
+    private final String[] alertTexts;
+
+    private Evaluation(int size) {
+      matches = new boolean[size];
+      alertTexts = new String[size];
+    }
+  }
+
 }
@@ -24,6 +24,15 @@ public class ExecutorConstants {
   public static final int RUNNER_THREAD_POOL_SIZE_DEFAULT = 50;
   public static final int RUNNER_THREAD_POOL_SIZE_MULTIPLIER = 10;
 
+  public static final String RUNNER_COOPERATIVE_ENABLED_KEY = "runner.cooperative.enabled";
+  public static final boolean RUNNER_COOPERATIVE_ENABLED_DEFAULT = false;
+  public static final String RUNNER_COOPERATIVE_THREAD_POOL_SIZE_KEY = "runner.cooperative.thread.pool.size";
+  public static final int RUNNER_COOPERATIVE_THREAD_POOL_SIZE_DEFAULT = 10;
+  public static final String RUNNER_COOPERATIVE_MIN_BACKOFF_KEY = "runner.cooperative.backoff.min.ms";
+  public static final long RUNNER_COOPERATIVE_MIN_BACKOFF_DEFAULT = 10;
+  public static final String RUNNER_COOPERATIVE_MAX_BACKOFF_KEY = "runner.cooperative.backoff.max.ms";
+  public static final long RUNNER_COOPERATIVE_MAX_BACKOFF_DEFAULT = 1000;
+
   public static final String RUNNER_STOP_THREAD_POOL_SIZE_KEY = "runner_stop.thread.pool.size";
   public static final String RUNNER_STOP_THREAD_POOL_KEEP_ALIVE_TIME_KEY = "runner_stop.thread.pool.size";
   public static final int RUNNER_STOP_THREAD_POOL_KEEP_ALIVE_TIME_DEFAULT = 5;
@@ -16,6 +16,7 @@
 package com.streamsets.datacollector.execution.executor;
 
 import com.streamsets.datacollector.execution.common.ExecutorConstants;
+import com.streamsets.datacollector.execution.runner.common.CooperativeScheduler;
 import com.streamsets.datacollector.main.RuntimeInfo;
 import com.streamsets.datacollector.main.RuntimeModule;
 import com.streamsets.datacollector.metrics.MetricSafeScheduledExecutorService;
@@ -37,10 +38,12 @@ import java.util.concurrent.TimeUnit;
  *   <li><code>preview.thread.pool.size</code></li>
  *   <li><code>runner.thread.pool.size</code></li>
  * </ul>
+ * It also provides the shared {@link CooperativeScheduler} that is used when
+ * <code>runner.cooperative.enabled</code> is set.
  * The default size for both the pools are 10.
  *
  */
-@Module(injects = SafeScheduledExecutorService.class, library = true, includes = {RuntimeModule.class})
+@Module(injects = {SafeScheduledExecutorService.class, CooperativeScheduler.class}, library = true, includes = {RuntimeModule.class})
 public class ExecutorModule {
 
   @Provides @Singleton @Named("previewExecutor")
@@ -67,6 +70,32 @@ public class ExecutorModule {
     );
   }
 
+  @Provides @Singleton
+  public CooperativeScheduler provideCooperativeScheduler(
+    Configuration configuration,
+    RuntimeInfo runtimeInfo
+  ) {
+    return new CooperativeScheduler(
+      configuration.get(
+        ExecutorConstants.RUNNER_COOPERATIVE_ENABLED_KEY,
+        ExecutorConstants.RUNNER_COOPERATIVE_ENABLED_DEFAULT
+      ),
+      configuration.get(
+        ExecutorConstants.RUNNER_COOPERATIVE_THREAD_POOL_SIZE_KEY,
+        ExecutorConstants.RUNNER_COOPERATIVE_THREAD_POOL_SIZE_DEFAULT
+      ),
+      configuration.get(
+        ExecutorConstants.RUNNER_COOPERATIVE_MIN_BACKOFF_KEY,
+        ExecutorConstants.RUNNER_COOPERATIVE_MIN_BACKOFF_DEFAULT
+      ),
+      configuration.get(
+        ExecutorConstants.RUNNER_COOPERATIVE_MAX_BACKOFF_KEY,
+        ExecutorConstants.RUNNER_COOPERATIVE_MAX_BACKOFF_DEFAULT
+      ),
+      runtimeInfo.getMetrics()
+    );
+  }
+
   @Provides @Singleton @Named("runnerStopExecutor")
   public SafeScheduledExecutorService provideRunnerStopExecutor(
     Configuration configuration,
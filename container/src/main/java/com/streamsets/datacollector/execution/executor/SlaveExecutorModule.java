@@ -15,6 +15,8 @@
  */
 package com.streamsets.datacollector.execution.executor;
 
+import com.streamsets.datacollector.execution.runner.common.CooperativeScheduler;
+import com.streamsets.datacollector.main.RuntimeInfo;
 import com.streamsets.datacollector.main.SlaveRuntimeModule;
 import com.streamsets.datacollector.util.Configuration;
 import com.streamsets.dc.execution.manager.standalone.ResourceManager;
@@ -28,7 +30,7 @@ import javax.inject.Singleton;
 /**
  * Provides separate singleton instances of SafeScheduledExecutorService for running pipelines in cluster mode.
  */
-@Module(injects = SafeScheduledExecutorService.class, library = true, includes = {SlaveRuntimeModule.class})
+@Module(injects = {SafeScheduledExecutorService.class, CooperativeScheduler.class}, library = true, includes = {SlaveRuntimeModule.class})
 public class SlaveExecutorModule {
 
   @Provides
@@ -41,6 +43,13 @@ public class SlaveExecutorModule {
     );
   }
 
+  @Provides
+  @Singleton
+  public CooperativeScheduler provideCooperativeScheduler(RuntimeInfo runtimeInfo) {
+    // Slave runs exactly one pipeline and hence there is nothing to share the threads with
+    return new CooperativeScheduler(false, 0, 0, 0, runtimeInfo.getMetrics());
+  }
+
   @Provides
   @Singleton
   @Named("runnerStopExecutor")
@@ -33,6 +33,7 @@ import com.streamsets.datacollector.execution.StateEventListener;
 import com.streamsets.datacollector.execution.manager.PipelineManagerException;
 import com.streamsets.datacollector.execution.manager.PreviewerProvider;
 import com.streamsets.datacollector.execution.manager.RunnerProvider;
+import com.streamsets.datacollector.execution.runner.common.CooperativeScheduler;
 import com.streamsets.datacollector.main.RuntimeInfo;
 import com.streamsets.datacollector.metrics.MetricsCache;
 import com.streamsets.datacollector.metrics.MetricsConfigurator;
@@ -58,8 +59,11 @@ import org.slf4j.LoggerFactory;
 import javax.inject.Inject;
 import javax.inject.Named;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
@@ -78,6 +82,7 @@ public class StandaloneAndClusterPipelineManager extends AbstractTask implements
   @Inject @Named("previewExecutor") SafeScheduledExecutorService previewExecutor;
   @Inject @Named("runnerExecutor") SafeScheduledExecutorService runnerExecutor;
   @Inject @Named("managerExecutor") SafeScheduledExecutorService managerExecutor;
+  @Inject CooperativeScheduler cooperativeScheduler;
   @Inject RunnerProvider runnerProvider;
   @Inject PreviewerProvider previewerProvider;
   @Inject ResourceManager resourceManager;
@@ -91,6 +96,15 @@ public class StandaloneAndClusterPipelineManager extends AbstractTask implements
   static final String RUNNER_EXPIRY_INITIAL_DELAY = "runner.expiry.initial.delay";
   static final boolean DEFAULT_RUNNER_RESTART_PIPELINES = true;
   static final String RUNNER_RESTART_PIPELINES = "runner.boot.pipeline.restart";
+  static final int DEFAULT_RUNNER_RESTART_PIPELINES_THREADS = 8;
+  static final String RUNNER_RESTART_PIPELINES_THREADS = "runner.boot.pipeline.restart.threads";
+  // Keys of the start up gauge
+  static final String KEY_STARTUP_PIPELINES = "pipelines";
+  static final String KEY_STARTUP_ACTIVE_PIPELINES = "activePipelines";
+  static final String KEY_STARTUP_LOAD_PIPELINES_TIME = "loadPipelinesMillis";
+  static final String KEY_STARTUP_LOAD_STATES_TIME = "loadStatesMillis";
+  static final String KEY_STARTUP_RESTART_PIPELINES_TIME = "restartPipelinesMillis";
+  static final String KEY_STARTUP_TOTAL_TIME = "totalMillis";
   private final long runnerExpiryInterval;
   private final long runnerExpiryInitialDelay;
   private ScheduledFuture<?> runnerExpiryFuture;
@@ -226,43 +240,87 @@ public class StandaloneAndClusterPipelineManager extends AbstractTask implements
     // lead to troubles.
     boolean restartPipelines = configuration.get(RUNNER_RESTART_PIPELINES, DEFAULT_RUNNER_RESTART_PIPELINES);
 
+    // Time spent in the individual startup phases is exposed in a gauge
+    Map<String, Object> startupGauge = MetricsConfigurator.createFrameworkGauge(
+      runtimeInfo.getMetrics(),
+      "manager-startup",
+      "runtime",
+      null
+    ).getValue();
+    long startTime = System.currentTimeMillis();
+
     List<PipelineInfo> pipelineInfoList;
     try {
       pipelineInfoList = pipelineStore.getPipelines();
     } catch (PipelineStoreException ex) {
       throw new RuntimeException("Cannot load the list of pipelines from StateStore", ex);
     }
-    for (PipelineInfo pipelineInfo : pipelineInfoList) {
-      String name = pipelineInfo.getPipelineId();
-      String rev = pipelineInfo.getLastRev();
-      try {
-        if (isRemotePipeline(name, rev) && !runtimeInfo.isDPMEnabled()) {
-          LOG.info(Utils.format("Not activating remote pipeline'{}:{}' as DPM is disabled ", name, rev));
-          continue;
-        }
-        PipelineState pipelineState = pipelineStateStore.getState(name, rev);
-        // Create runner if active
-        if (pipelineState.getStatus().isActive()) {
-          ExecutionMode executionMode = pipelineState.getExecutionMode();
-          Runner runner = getRunner(name, rev, executionMode);
-          runner.prepareForDataCollectorStart(pipelineState.getUser());
-          if (restartPipelines && runner.getState().getStatus() == PipelineStatus.DISCONNECTED) {
-            runnerCache.put(getNameAndRevString(name, rev), new RunnerInfo(runner, executionMode));
-            try {
-              String user = pipelineState.getUser();
-              // we need to skip enforcement user groups in scope.
-              GroupsInScope.executeIgnoreGroups(() -> {
-                runner.onDataCollectorStart(user);
-                return null;
-              });
-            } catch (Exception ex) {
-              ExceptionUtils.throwUndeclared(ex.getCause());
-            }
+    long loadStatesTime = System.currentTimeMillis();
+    startupGauge.put(KEY_STARTUP_PIPELINES, pipelineInfoList.size());
+    startupGauge.put(KEY_STARTUP_LOAD_PIPELINES_TIME, loadStatesTime - startTime);
+
+    int startupThreads = Math.max(1, configuration.get(RUNNER_RESTART_PIPELINES_THREADS,
+        DEFAULT_RUNNER_RESTART_PIPELINES_THREADS));
+    SafeScheduledExecutorService startupExecutor = new SafeScheduledExecutorService(
+        startupThreads,
+        "PipelineManagerStartup"
+    );
+    try {
+      // Reading state files is I/O bound, so we read all of them in parallel upfront
+      Map<PipelineInfo, Future<PipelineState>> states = new LinkedHashMap<>();
+      for (PipelineInfo pipelineInfo : pipelineInfoList) {
+        states.put(pipelineInfo, startupExecutor.submit(
+            () -> pipelineStateStore.getState(pipelineInfo.getPipelineId(), pipelineInfo.getLastRev())
+        ));
+      }
+      Map<PipelineInfo, PipelineState> activePipelines = new LinkedHashMap<>();
+      for (Map.Entry<PipelineInfo, Future<PipelineState>> entry : states.entrySet()) {
+        String name = entry.getKey().getPipelineId();
+        String rev = entry.getKey().getLastRev();
+        try {
+          PipelineState pipelineState = entry.getValue().get();
+          if (isRemotePipeline(pipelineState) && !runtimeInfo.isDPMEnabled()) {
+            LOG.info(Utils.format("Not activating remote pipeline'{}:{}' as DPM is disabled ", name, rev));
+            continue;
+          }
+          if (pipelineState.getStatus().isActive()) {
+            activePipelines.put(entry.getKey(), pipelineState);
           }
+        } catch (ExecutionException ex) {
+          LOG.error(Utils.format("Error while processing pipeline '{}::{}'", name, rev), ex.getCause());
         }
-      } catch (Exception ex) {
-        LOG.error(Utils.format("Error while processing pipeline '{}::{}'", name, rev), ex);
       }
+      long restartTime = System.currentTimeMillis();
+      startupGauge.put(KEY_STARTUP_ACTIVE_PIPELINES, activePipelines.size());
+      startupGauge.put(KEY_STARTUP_LOAD_STATES_TIME, restartTime - loadStatesTime);
+
+      // Create runners for active pipelines, bounded number of them is prepared and restarted at the same time
+      List<Future<?>> restarts = new ArrayList<>();
+      for (Map.Entry<PipelineInfo, PipelineState> entry : activePipelines.entrySet()) {
+        String name = entry.getKey().getPipelineId();
+        String rev = entry.getKey().getLastRev();
+        restarts.add(startupExecutor.submit(() -> startRunner(name, rev, entry.getValue(), restartPipelines)));
+      }
+      for (Future<?> restart : restarts) {
+        restart.get();
+      }
+      long endTime = System.currentTimeMillis();
+      startupGauge.put(KEY_STARTUP_RESTART_PIPELINES_TIME, endTime - restartTime);
+      startupGauge.put(KEY_STARTUP_TOTAL_TIME, endTime - startTime);
+      LOG.info(
+          "Processed {} pipelines ({} active) on start up in {} ms",
+          pipelineInfoList.size(),
+          activePipelines.size(),
+          endTime - startTime
+      );
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while starting pipelines", ex);
+    } catch (ExecutionException ex) {
+      // startRunner() handles all errors on its own
+      throw new RuntimeException("Unexpected error while starting pipelines", ex.getCause());
+    } finally {
+      startupExecutor.shutdownNow();
     }
 
     runnerExpiryFuture = managerExecutor.scheduleAtFixedRate(new Runnable() {
@@ -283,6 +341,29 @@ public class StandaloneAndClusterPipelineManager extends AbstractTask implements
     }, runnerExpiryInitialDelay, runnerExpiryInterval, TimeUnit.MILLISECONDS);
   }
 
+  private void startRunner(String name, String rev, PipelineState pipelineState, boolean restartPipelines) {
+    try {
+      ExecutionMode executionMode = pipelineState.getExecutionMode();
+      Runner runner = getRunner(name, rev, executionMode);
+      runner.prepareForDataCollectorStart(pipelineState.getUser());
+      if (restartPipelines && runner.getState().getStatus() == PipelineStatus.DISCONNECTED) {
+        runnerCache.put(getNameAndRevString(name, rev), new RunnerInfo(runner, executionMode));
+        try {
+          String user = pipelineState.getUser();
+          // we need to skip enforcement user groups in scope.
+          GroupsInScope.executeIgnoreGroups(() -> {
+            runner.onDataCollectorStart(user);
+            return null;
+          });
+        } catch (Exception ex) {
+          ExceptionUtils.throwUndeclared(ex.getCause());
+        }
+      }
+    } catch (Exception ex) {
+      LOG.error(Utils.format("Error while processing pipeline '{}::{}'", name, rev), ex);
+    }
+  }
+
   @VisibleForTesting
   boolean isRunnerPresent(String name, String rev) {
      return runnerCache.getIfPresent(getNameAndRevString(name, rev)) != null;
@@ -326,6 +407,8 @@ public class StandaloneAndClusterPipelineManager extends AbstractTask implements
     }
     previewerCache.invalidateAll();
     runnerExpiryFuture.cancel(true);
+    // All pipelines are stopped at this point
+    cooperativeScheduler.shutdown();
     LOG.info("Stopped Production Pipeline Manager");
   }
 
@@ -342,7 +425,11 @@ public class StandaloneAndClusterPipelineManager extends AbstractTask implements
 
   @Override
   public boolean isRemotePipeline(String name, String rev) throws PipelineStoreException {
-    Object isRemote = pipelineStateStore.getState(name, rev).getAttributes().get(RemoteDataCollector.IS_REMOTE_PIPELINE);
+    return isRemotePipeline(pipelineStateStore.getState(name, rev));
+  }
+
+  private static boolean isRemotePipeline(PipelineState pipelineState) {
+    Object isRemote = pipelineState.getAttributes().get(RemoteDataCollector.IS_REMOTE_PIPELINE);
     // remote attribute will be null for pipelines with version earlier than 1.3
     return (isRemote == null) ? false : (boolean) isRemote;
   }
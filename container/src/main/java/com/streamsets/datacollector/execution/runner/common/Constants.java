@@ -35,10 +35,20 @@ public class Constants {
   public static final int MAX_ERROR_RECORDS_PER_STAGE_DEFAULT = 100;
   public static final String MAX_PIPELINE_ERRORS_KEY = "production.maxPipelineErrors";
   public static final int MAX_PIPELINE_ERRORS_DEFAULT = 100;
+  public static final String ERROR_RECORDS_ASYNC_KEY = "production.errorRecords.async";
+  public static final boolean ERROR_RECORDS_ASYNC_DEFAULT = false;
+  public static final String ERROR_RECORDS_ASYNC_BUFFER_SIZE_KEY = "production.errorRecords.async.bufferSize";
+  public static final int ERROR_RECORDS_ASYNC_BUFFER_SIZE_DEFAULT = 10000;
+  public static final String ERROR_RECORDS_ASYNC_MAX_BATCH_SIZE_KEY = "production.errorRecords.async.maxBatchSize";
+  public static final int ERROR_RECORDS_ASYNC_MAX_BATCH_SIZE_DEFAULT = 1000;
   public static final String OBSERVER_QUEUE_SIZE_KEY = "observer.queue.size";
   public static final int OBSERVER_QUEUE_SIZE_DEFAULT = 100;
   public static final String SNAPSHOT_MAX_BATCH_SIZE_KEY = "snapshot.maxBatchSize";
   public static final int SNAPSHOT_MAX_BATCH_SIZE_DEFAULT = 10;
+  public static final String SNAPSHOT_STREAMING_KEY = "snapshot.streaming";
+  public static final boolean SNAPSHOT_STREAMING_DEFAULT = false;
+  public static final String SNAPSHOT_MAX_SIZE_MB_KEY = "snapshot.maxSizeMB";
+  public static final int SNAPSHOT_MAX_SIZE_MB_DEFAULT = 100;
   public static final int SAMPLED_RECORDS_MAX_CACHE_SIZE_DEFAULT = 100;
   public static final String SAMPLED_RECORDS_MAX_CACHE_SIZE_KEY = "observer.sampled.records.cache.size";
   public static final String MAX_OBSERVER_REQUEST_OFFER_WAIT_TIME_MS_KEY = "observer.queue.offer.max.wait.time.ms";
@@ -0,0 +1,311 @@
+/*
+ * Copyright 2017 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.execution.runner.common;
+
+import com.codahale.metrics.MetricRegistry;
+import com.streamsets.datacollector.metrics.MetricSafeScheduledExecutorService;
+import com.streamsets.datacollector.metrics.MetricsConfigurator;
+import com.streamsets.pipeline.lib.executor.SafeScheduledExecutorService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Shared scheduler for pipelines running in cooperative mode.
+ *
+ * Rather than owning a thread for its whole life, a cooperative pipeline is executed one batch at a time on a fixed
+ * pool of threads shared by all such pipelines. A task that did useful work is put back at the end of the queue right
+ * away (round robin), a task that was idle (e.g. origin returned empty batch) is re-scheduled with exponential backoff
+ * bounded by the configured minimum and maximum.
+ */
+public class CooperativeScheduler {
+
+  private static final Logger LOG = LoggerFactory.getLogger(CooperativeScheduler.class);
+
+  // Gauge with all "latest" values that are interesting
+  static final String KEY_THREADS = "threads";
+  static final String KEY_SCHEDULED = "scheduled";
+  static final String KEY_SLEEPING = "sleeping";
+  static final String KEY_BATCHES = "batches";
+  static final String KEY_IDLE_BATCHES = "idleBatches";
+  static final String KEY_RUN_TIME = "runTimeMillis";
+
+  /**
+   * Unit of work that can be executed by the scheduler.
+   */
+  public interface Task {
+
+    /**
+     * Name under which the task's steps are executed (used for the thread name).
+     */
+    String getName();
+
+    /**
+     * Run one step of the task (one batch).
+     *
+     * @return true if the step did some work, false if it was idle and the task can back off.
+     */
+    boolean runStep() throws Exception;
+
+    /**
+     * Whether the task has finished and should not be scheduled anymore.
+     */
+    boolean isDone();
+
+    /**
+     * Called exactly once when the task is done, either gracefully (error is null) or because a step failed.
+     */
+    void onDone(Throwable error);
+  }
+
+  /**
+   * Handle to a task that was scheduled.
+   */
+  public interface Handle {
+
+    /**
+     * Cancel the task. No further steps will be executed and {@link Task#onDone(Throwable)} is called as soon as the
+     * currently running step (if any) returns. This method never blocks.
+     */
+    void cancel();
+  }
+
+  private final boolean enabled;
+  private final int threads;
+  private final long minBackoff;
+  private final long maxBackoff;
+  private final MetricRegistry metrics;
+  private volatile SafeScheduledExecutorService executor;
+  private final Map<String, Object> gaugeMap;
+
+  public CooperativeScheduler(
+      boolean enabled,
+      int threads,
+      long minBackoff,
+      long maxBackoff,
+      MetricRegistry metrics
+  ) {
+    this.enabled = enabled;
+    this.threads = threads;
+    this.minBackoff = Math.max(1, minBackoff);
+    this.maxBackoff = Math.max(this.minBackoff, maxBackoff);
+    this.metrics = metrics;
+
+    this.gaugeMap = MetricsConfigurator.createFrameworkGauge(
+      metrics,
+      "cooperative-scheduler",
+      "runtime",
+      null
+    ).getValue();
+    this.gaugeMap.put(KEY_THREADS, threads);
+    this.gaugeMap.put(KEY_SCHEDULED, new AtomicLong(0));
+    this.gaugeMap.put(KEY_SLEEPING, new AtomicLong(0));
+    this.gaugeMap.put(KEY_BATCHES, new AtomicLong(0));
+    this.gaugeMap.put(KEY_IDLE_BATCHES, new AtomicLong(0));
+    this.gaugeMap.put(KEY_RUN_TIME, new AtomicLong(0));
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Schedule given task, it's first step will be executed as soon as there is an available thread.
+   */
+  public Handle schedule(Task task) {
+    if (!enabled) {
+      throw new IllegalStateException("Cooperative scheduler is not enabled");
+    }
+    counter(KEY_SCHEDULED).incrementAndGet();
+    Step step = new Step(task);
+    getExecutor().submit(step);
+    return step;
+  }
+
+  /**
+   * Stops all threads of the scheduler, called when the data collector is shutting down (after all pipelines were
+   * stopped).
+   */
+  public void shutdown() {
+    synchronized (this) {
+      if (executor != null) {
+        LOG.debug("Shutting down cooperative scheduler");
+        executor.shutdownNow();
+      }
+    }
+  }
+
+  private SafeScheduledExecutorService getExecutor() {
+    // The threads are only created when the first cooperative pipeline is started
+    if (executor == null) {
+      synchronized (this) {
+        if (executor == null) {
+          executor = new MetricSafeScheduledExecutorService(threads, "cooperativeRunner", metrics);
+        }
+      }
+    }
+    return executor;
+  }
+
+  /**
+   * Number of steps waiting in the executor's queue (either for a thread or for their backoff to expire).
+   */
+  int getQueuedSteps() {
+    return executor == null ? 0 : executor.getQueue().size();
+  }
+
+  private AtomicLong counter(String key) {
+    return (AtomicLong) gaugeMap.get(key);
+  }
+
+  private class Step implements Runnable, Handle {
+    private final Task task;
+    // Held for the whole duration of a step, so that the task is never finished while a step is running
+    private final ReentrantLock lock;
+    private volatile boolean cancelled;
+    private boolean sleeping;
+    private boolean finished;
+    private long backoff;
+    // Pending wake up of a sleeping task
+    private volatile ScheduledFuture<?> wakeUp;
+
+    Step(Task task) {
+      this.task = task;
+      this.lock = new ReentrantLock();
+      this.backoff = 0;
+    }
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+      LOG.debug("Task {} was cancelled", task.getName());
+      cancelWakeUp();
+      // If a step is running, it will notice the cancellation as soon as it returns. Otherwise the task is sleeping
+      // or waiting in the queue and is finished right away instead of waiting for its next turn.
+      try {
+        getExecutor().submit(() -> {
+          if (lock.tryLock()) {
+            try {
+              done(null);
+            } finally {
+              lock.unlock();
+            }
+          }
+        });
+      } catch (RejectedExecutionException e) {
+        LOG.warn("Can't finish cancelled task {} as the scheduler was shut down", task.getName());
+      }
+    }
+
+    @Override
+    public void run() {
+      lock.lock();
+      try {
+        runStep();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private void runStep() {
+      if (finished) {
+        return;
+      }
+      if (sleeping) {
+        sleeping = false;
+        wakeUp = null;
+        counter(KEY_SLEEPING).decrementAndGet();
+      }
+
+      if (cancelled || task.isDone()) {
+        done(null);
+        return;
+      }
+
+      boolean busy;
+      String originalName = Thread.currentThread().getName();
+      Thread.currentThread().setName(originalName + "-" + task.getName());
+      long start = System.currentTimeMillis();
+      try {
+        busy = task.runStep();
+      } catch (Throwable e) {
+        done(e);
+        return;
+      } finally {
+        counter(KEY_RUN_TIME).addAndGet(System.currentTimeMillis() - start);
+        counter(KEY_BATCHES).incrementAndGet();
+        Thread.currentThread().setName(originalName);
+        // Force quit interrupts the thread running the step, make sure that it doesn't leak to the next task
+        Thread.interrupted();
+      }
+
+      if (cancelled || task.isDone()) {
+        done(null);
+        return;
+      }
+
+      try {
+        if (busy) {
+          backoff = 0;
+          getExecutor().submit(this);
+        } else {
+          counter(KEY_IDLE_BATCHES).incrementAndGet();
+          backoff = backoff == 0 ? minBackoff : Math.min(backoff * 2, maxBackoff);
+          LOG.trace("Task {} was idle, backing off for {} ms", task.getName(), backoff);
+          wakeUp = getExecutor().schedule(this, backoff, TimeUnit.MILLISECONDS);
+          sleeping = true;
+          counter(KEY_SLEEPING).incrementAndGet();
+          // The finisher submitted by cancel() might have been turned away by the lock while this step was running
+          if (cancelled) {
+            done(null);
+          }
+        }
+      } catch (RejectedExecutionException e) {
+        LOG.warn("Can't re-schedule task {} as the scheduler was shut down", task.getName());
+        done(e);
+      }
+    }
+
+    // Must be called with the lock held
+    private void done(Throwable error) {
+      if (finished) {
+        return;
+      }
+      finished = true;
+      cancelWakeUp();
+      if (sleeping) {
+        sleeping = false;
+        counter(KEY_SLEEPING).decrementAndGet();
+      }
+      counter(KEY_SCHEDULED).decrementAndGet();
+      task.onDone(error);
+    }
+
+    private void cancelWakeUp() {
+      ScheduledFuture<?> future = wakeUp;
+      if (future != null && future.cancel(false)) {
+        // Cancelled futures stay in the executor's queue until their delay expires unless purged
+        getExecutor().purge();
+      }
+    }
+  }
+}
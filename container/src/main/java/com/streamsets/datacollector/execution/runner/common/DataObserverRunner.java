@@ -86,24 +86,28 @@ public class DataObserverRunner {
 
     //This is the map of ruleId vs sampled records
     Map<String, Map<String, List<Record>>> snapshot = dataRulesEvaluationRequest.getSnapshot();
+    RuleDefinitionsConfigBean ruleDefinitionsConfigBean = null;
     for(Map.Entry<String, Map<String, List<Record>>> e : snapshot.entrySet()) {
       String lane = e.getKey();
       Map<String, List<Record>> ruleIdToSampledRecords = e.getValue();
       List<DataRuleDefinition> dataRuleDefinitions = rulesConfigurationChangeRequest.getLaneToDataRuleMap().get(lane);
 
       if (dataRuleDefinitions != null) {
+        List<DataRuleEvaluator> dataRuleEvaluators = new ArrayList<>(dataRuleDefinitions.size());
         for (DataRuleDefinition dataRuleDefinition : dataRuleDefinitions) {
           //sampled records for that rule
           List<Record> sampledRecords = ruleIdToSampledRecords.get(dataRuleDefinition.getId());
           if(dataRuleDefinition.isEnabled()  && sampledRecords != null && sampledRecords.size() > 0) {
             //evaluate rule only if it is enabled and there are sampled records.
-            RuleDefinitionsConfigBean ruleDefinitionsConfigBean = PipelineBeanCreator.get()
-                .createRuleDefinitionsConfigBean(
-                    rulesConfigurationChangeRequest.getRuleDefinitions(),
-                    new ArrayList<Issue>(),
-                    resolvedParameters
-                );
-            DataRuleEvaluator dataRuleEvaluator = new DataRuleEvaluator(
+            if (ruleDefinitionsConfigBean == null) {
+              ruleDefinitionsConfigBean = PipelineBeanCreator.get()
+                  .createRuleDefinitionsConfigBean(
+                      rulesConfigurationChangeRequest.getRuleDefinitions(),
+                      new ArrayList<Issue>(),
+                      resolvedParameters
+                  );
+            }
+            dataRuleEvaluators.add(new DataRuleEvaluator(
                 name,
                 rev,
                 metrics,
@@ -114,8 +118,7 @@ public class DataObserverRunner {
                 configuration,
                 metricRegistryJson,
                 startsAggregatorQueue
-            );
-            dataRuleEvaluator.evaluateRule(sampledRecords, lane, ruleToSampledRecordsMap);
+            ));
           } else if (!dataRuleDefinition.isEnabled()) {
             //If data rule is disabled, clear the sampled records for that rule
             EvictingQueue<SampledRecord> records = ruleToSampledRecordsMap.get(dataRuleDefinition.getId());
@@ -124,6 +127,8 @@ public class DataObserverRunner {
             }
           }
         }
+        //all rules of the lane are evaluated in one pass over the sampled records
+        DataRuleEvaluator.evaluateRules(dataRuleEvaluators, ruleIdToSampledRecords, lane, ruleToSampledRecordsMap);
       }
     }
   }
@@ -29,6 +29,7 @@ import com.streamsets.datacollector.util.PipelineException;
 import com.streamsets.datacollector.validation.Issue;
 import com.streamsets.datacollector.validation.Issues;
 import com.streamsets.pipeline.api.ExecutionMode;
+import com.streamsets.pipeline.api.PushSource;
 import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.StageException;
 import com.streamsets.pipeline.api.impl.ClusterSource;
@@ -53,6 +54,21 @@ public class ProductionPipeline {
   private final boolean isExecutingInSlave;
   private final boolean shouldRetry;
   private boolean executionFailed;
+  // State of the cooperative execution (when started through start() rather then run())
+  private RunState cooperativeState;
+
+  /**
+   * Book keeping about the run that is needed to determine the terminal state of the pipeline.
+   */
+  private static class RunState {
+    boolean running = false;
+    boolean finishing = false;
+    boolean errorWhileInitializing = false;
+    boolean errorWhileRunning = false;
+    boolean errorWhileDestroying = false;
+    boolean isRecoverable = true;
+    String runningErrorMsg = null;
+  }
 
   public ProductionPipeline(String name, String rev, PipelineConfiguration pipelineConf,
                             Configuration conf, Pipeline pipeline, boolean shouldRetry) {
@@ -81,120 +97,200 @@ public class ProductionPipeline {
   }
 
   public void run() throws StageException, PipelineRuntimeException {
-    boolean finishing = false;
-    boolean errorWhileInitializing = false;
-    boolean errorWhileRunning = false;
-    boolean errorWhileDestroying = false;
-    boolean isRecoverable = true;
-    executionFailed = false;
-    String runningErrorMsg = null;
+    RunState state = new RunState();
     try {
       try {
-        LOG.debug("Initializing");
-        List<Issue> issues = null;
+        initialize(state);
         try {
-          issues = getPipeline().init(true);
+          transitionToRunning(state);
+          pipeline.run();
+          finishRunning(state);
         } catch (Throwable e) {
-          if (!wasStopped()) {
-            runningErrorMsg = e.toString();
-            LOG.warn("Error while starting: {}", e.toString(), e);
-            errorWhileInitializing = true;
-            stateChanged(PipelineStatus.STARTING_ERROR, e.toString(), null);
-          }
-          throw new PipelineRuntimeException(ContainerError.CONTAINER_0702, e.toString(), e);
-        }
-        if (issues.isEmpty()) {
-          try {
-            Map<String, Object> attributes = new HashMap<>();
-            attributes.put(RUNTIME_PARAMETERS_ATTR, pipeline.getRuntimeParameters());
-            stateChanged(PipelineStatus.RUNNING, null, attributes);
-            LOG.debug("Running");
-            pipeline.run();
-            if (!wasStopped()) {
-              LOG.debug("Finishing");
-              stateChanged(PipelineStatus.FINISHING, null, null);
-              finishing = true;
-            }
-          } catch (Throwable e) {
-            if (!wasStopped()) {
-              runningErrorMsg = e.toString();
-              LOG.warn("Error while running: {}", runningErrorMsg, e);
-              stateChanged(PipelineStatus.RUNNING_ERROR, runningErrorMsg, null);
-              errorWhileRunning = true;
-              isRecoverable = isRecoverableThrowable(e);
-            }
-            throw e;
-          }
-        } else {
-          LOG.debug("Stopped due to validation error");
-          PipelineRuntimeException e = new PipelineRuntimeException(ContainerError.CONTAINER_0800, name,
-            issues.get(0).getMessage());
-          Map<String, Object> attributes = new HashMap<>();
-          attributes.put("issues", new IssuesJson(new Issues(issues)));
-          // We need to store the error in runningErrorMsg, so that it gets propagated to START_ERROR terminal state
-          runningErrorMsg = issues.get(0).getMessage();
-          stateChanged(PipelineStatus.STARTING_ERROR, runningErrorMsg, attributes);
-          errorWhileInitializing = true;
-          getPipeline().errorNotification(e);
+          failRunning(state, e);
           throw e;
         }
       } finally {
-        LOG.debug("Destroying");
+        destroy(state);
+      }
+    } finally {
+      MetricsConfigurator.cleanUpJmxMetrics(name, rev);
+    }
+  }
 
-        try {
-          // Determine the reason why we got all the way here
-          PipelineStopReason stopReason;
-          if(errorWhileRunning) {
-            stopReason = PipelineStopReason.FAILURE;
-          } else if(wasStopped()) {
-            stopReason = PipelineStopReason.USER_ACTION;
-          } else {
-            stopReason = PipelineStopReason.FINISHED;
-          }
-          // Destroy the pipeline
-          pipeline.destroy(true, stopReason);
-        } catch (Throwable e) {
-          LOG.warn("Error while calling destroy: " + e.toString(), e);
-          stateChanged(PipelineStatus.STOPPING_ERROR, e.toString(), null);
-          errorWhileDestroying = true;
-          // If this is the first error that happened during the execution, persist the reasoning in the message, otherwise
-          // keep the original message so that terminal state have the original error rather then any subsequent one.
-          if(runningErrorMsg == null) {
-            runningErrorMsg = e.toString();
-          }
-          throw e;
-        } finally {
-          if(errorWhileInitializing || errorWhileRunning || errorWhileDestroying) {
-            // In case of any error, persist that information
-            executionFailed = true;
-
-            // If there was any problem, we will consider retry
-            if (shouldRetry && !pipeline.shouldStopOnStageError() && !isExecutingInSlave && isRecoverable && !wasStopped()) {
-              stateChanged(PipelineStatus.RETRY, runningErrorMsg, null);
-            } else if(errorWhileInitializing) {
-              stateChanged(PipelineStatus.START_ERROR, runningErrorMsg, null);
-            } else if(errorWhileRunning) {
-              stateChanged(PipelineStatus.RUN_ERROR, runningErrorMsg, null);
-            } else if(errorWhileDestroying) {
-              stateChanged(PipelineStatus.STOP_ERROR, runningErrorMsg, null);
-            }
-          } else if(finishing) {
-            // Graceful shutdown
-            LOG.debug("Finished");
-            stateChanged(PipelineStatus.FINISHED, null, null);
-          }
-
-          if (isExecutingInSlave) {
-            LOG.debug("Calling cluster source post destroy");
-            ((ClusterSource) pipeline.getSource()).postDestroy();
-          }
+  /**
+   * Returns true if this pipeline can be executed cooperatively - e.g. one batch at a time by a shared scheduler.
+   *
+   * Push origins own the threads that are generating batches and hence can't be executed this way.
+   */
+  public boolean isCooperativeExecutionSupported() {
+    return !(pipeline.getSource() instanceof PushSource);
+  }
+
+  /**
+   * First phase of cooperative execution: initialize the pipeline and transition it to RUNNING. Subsequently caller
+   * is expected to call runBatch() until isFinished() returns true or until runBatch() throws an exception and then
+   * call finish() - even when this method has thrown an exception.
+   */
+  public void start() throws StageException, PipelineRuntimeException {
+    cooperativeState = new RunState();
+    initialize(cooperativeState);
+    try {
+      transitionToRunning(cooperativeState);
+      pipeline.startCooperativeRun();
+    } catch (Throwable e) {
+      failRunning(cooperativeState, e);
+      throw e;
+    }
+  }
+
+  /**
+   * Run one batch of a cooperatively executed pipeline.
+   *
+   * @return true if the origin produced any records
+   */
+  public boolean runBatch() throws StageException, PipelineRuntimeException {
+    try {
+      return pipelineRunner.runCooperativeBatch();
+    } catch (Throwable e) {
+      failRunning(cooperativeState, e);
+      throw e;
+    }
+  }
+
+  public boolean isFinished() {
+    return pipelineRunner.isPollSourceFinished();
+  }
+
+  /**
+   * Last phase of cooperative execution, destroys the pipeline and transitions it to the terminal state.
+   */
+  public void finish() throws StageException, PipelineRuntimeException {
+    pipelineRunner.setConstantsInContext();
+    try {
+      try {
+        if (cooperativeState.running) {
+          finishRunning(cooperativeState);
         }
+      } finally {
+        pipeline.finishCooperativeRun();
+        destroy(cooperativeState);
       }
     } finally {
       MetricsConfigurator.cleanUpJmxMetrics(name, rev);
     }
   }
 
+  private void initialize(RunState state) throws PipelineRuntimeException {
+    executionFailed = false;
+    LOG.debug("Initializing");
+    List<Issue> issues = null;
+    try {
+      issues = getPipeline().init(true);
+    } catch (Throwable e) {
+      if (!wasStopped()) {
+        state.runningErrorMsg = e.toString();
+        LOG.warn("Error while starting: {}", e.toString(), e);
+        state.errorWhileInitializing = true;
+        stateChanged(PipelineStatus.STARTING_ERROR, e.toString(), null);
+      }
+      throw new PipelineRuntimeException(ContainerError.CONTAINER_0702, e.toString(), e);
+    }
+    if (!issues.isEmpty()) {
+      LOG.debug("Stopped due to validation error");
+      PipelineRuntimeException e = new PipelineRuntimeException(ContainerError.CONTAINER_0800, name,
+        issues.get(0).getMessage());
+      Map<String, Object> attributes = new HashMap<>();
+      attributes.put("issues", new IssuesJson(new Issues(issues)));
+      // We need to store the error in runningErrorMsg, so that it gets propagated to START_ERROR terminal state
+      state.runningErrorMsg = issues.get(0).getMessage();
+      stateChanged(PipelineStatus.STARTING_ERROR, state.runningErrorMsg, attributes);
+      state.errorWhileInitializing = true;
+      getPipeline().errorNotification(e);
+      throw e;
+    }
+  }
+
+  private void transitionToRunning(RunState state) throws PipelineRuntimeException {
+    Map<String, Object> attributes = new HashMap<>();
+    attributes.put(RUNTIME_PARAMETERS_ATTR, pipeline.getRuntimeParameters());
+    stateChanged(PipelineStatus.RUNNING, null, attributes);
+    state.running = true;
+    LOG.debug("Running");
+  }
+
+  private void finishRunning(RunState state) throws PipelineRuntimeException {
+    state.running = false;
+    if (!wasStopped()) {
+      LOG.debug("Finishing");
+      stateChanged(PipelineStatus.FINISHING, null, null);
+      state.finishing = true;
+    }
+  }
+
+  private void failRunning(RunState state, Throwable e) throws PipelineRuntimeException {
+    state.running = false;
+    if (!wasStopped()) {
+      state.runningErrorMsg = e.toString();
+      LOG.warn("Error while running: {}", state.runningErrorMsg, e);
+      stateChanged(PipelineStatus.RUNNING_ERROR, state.runningErrorMsg, null);
+      state.errorWhileRunning = true;
+      state.isRecoverable = isRecoverableThrowable(e);
+    }
+  }
+
+  private void destroy(RunState state) throws StageException, PipelineRuntimeException {
+    LOG.debug("Destroying");
+
+    try {
+      // Determine the reason why we got all the way here
+      PipelineStopReason stopReason;
+      if(state.errorWhileRunning) {
+        stopReason = PipelineStopReason.FAILURE;
+      } else if(wasStopped()) {
+        stopReason = PipelineStopReason.USER_ACTION;
+      } else {
+        stopReason = PipelineStopReason.FINISHED;
+      }
+      // Destroy the pipeline
+      pipeline.destroy(true, stopReason);
+    } catch (Throwable e) {
+      LOG.warn("Error while calling destroy: " + e.toString(), e);
+      stateChanged(PipelineStatus.STOPPING_ERROR, e.toString(), null);
+      state.errorWhileDestroying = true;
+      // If this is the first error that happened during the execution, persist the reasoning in the message, otherwise
+      // keep the original message so that terminal state have the original error rather then any subsequent one.
+      if(state.runningErrorMsg == null) {
+        state.runningErrorMsg = e.toString();
+      }
+      throw e;
+    } finally {
+      if(state.errorWhileInitializing || state.errorWhileRunning || state.errorWhileDestroying) {
+        // In case of any error, persist that information
+        executionFailed = true;
+
+        // If there was any problem, we will consider retry
+        if (shouldRetry && !pipeline.shouldStopOnStageError() && !isExecutingInSlave && state.isRecoverable && !wasStopped()) {
+          stateChanged(PipelineStatus.RETRY, state.runningErrorMsg, null);
+        } else if(state.errorWhileInitializing) {
+          stateChanged(PipelineStatus.START_ERROR, state.runningErrorMsg, null);
+        } else if(state.errorWhileRunning) {
+          stateChanged(PipelineStatus.RUN_ERROR, state.runningErrorMsg, null);
+        } else if(state.errorWhileDestroying) {
+          stateChanged(PipelineStatus.STOP_ERROR, state.runningErrorMsg, null);
+        }
+      } else if(state.finishing) {
+        // Graceful shutdown
+        LOG.debug("Finished");
+        stateChanged(PipelineStatus.FINISHED, null, null);
+      }
+
+      if (isExecutingInSlave) {
+        LOG.debug("Calling cluster source post destroy");
+        ((ClusterSource) pipeline.getSource()).postDestroy();
+      }
+    }
+  }
+
   /**
    * Does it make sense to re-run the pipeline (if allowed) after
    * given Throwable was thrown while running the pipeline.
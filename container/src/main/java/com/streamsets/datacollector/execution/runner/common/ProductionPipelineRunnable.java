@@ -43,10 +43,20 @@ public class ProductionPipelineRunnable implements Runnable {
   private final List<Future<?>> relatedTasks;
   private volatile boolean isStopped = false;
   private final CountDownLatch countDownLatch;
+  private final CooperativeScheduler cooperativeScheduler;
+  private volatile CooperativeScheduler.Handle cooperativeHandle;
 
   public ProductionPipelineRunnable(ThreadHealthReporter threadHealthReporter,
                                     StandaloneRunner runner, ProductionPipeline pipeline,
                                     String name, String rev, List<Future<?>> relatedTasks) {
+    this(threadHealthReporter, runner, pipeline, name, rev, relatedTasks, null);
+  }
+
+  public ProductionPipelineRunnable(ThreadHealthReporter threadHealthReporter,
+                                    StandaloneRunner runner, ProductionPipeline pipeline,
+                                    String name, String rev, List<Future<?>> relatedTasks,
+                                    CooperativeScheduler cooperativeScheduler) {
+    this.cooperativeScheduler = cooperativeScheduler;
     this.runner = runner;
     this.pipeline = pipeline;
     this.rev = rev;
@@ -61,14 +71,13 @@ public class ProductionPipelineRunnable implements Runnable {
     if (isStopped) {
       throw new IllegalStateException(Utils.format("Pipeline is stopped, cannot start the pipeline '{}::{}'", name, rev));
     }
+    if (isCooperative()) {
+      runCooperatively();
+      return;
+    }
     String originalThreadName = Thread.currentThread().getName();
     try {
-      PipelineInfo info = pipeline.getPipelineConf().getInfo();
-      if(info != null) {
-        Thread.currentThread().setName(Utils.format("{}-{}-{}", RUNNABLE_NAME, info.getPipelineId(), info.getTitle()));
-      } else {
-        Thread.currentThread().setName(Utils.format("{}-UNKNOWN_ID-{}", RUNNABLE_NAME, name));
-      }
+      Thread.currentThread().setName(getThreadName());
       try {
         runningThread = Thread.currentThread();
         pipeline.run();
@@ -93,6 +102,110 @@ public class ProductionPipelineRunnable implements Runnable {
     }
   }
 
+  /**
+   * Returns true if the pipeline is executed by the shared cooperative scheduler rather then by the calling thread.
+   */
+  public boolean isCooperative() {
+    return cooperativeScheduler != null
+      && cooperativeScheduler.isEnabled()
+      && pipeline.isCooperativeExecutionSupported();
+  }
+
+  /**
+   * Initializes the pipeline on the calling thread and hands the batches over to the cooperative scheduler. Unlike
+   * the regular execution this method returns as soon as the pipeline is running so that the thread can be reused.
+   */
+  private void runCooperatively() {
+    String originalThreadName = Thread.currentThread().getName();
+    boolean started = false;
+    try {
+      Thread.currentThread().setName(getThreadName());
+      runningThread = Thread.currentThread();
+      pipeline.start();
+      started = true;
+    } catch (Exception e) {
+      if(!pipeline.wasStopped()) {
+        LOG.error("An exception occurred while starting the pipeline, {}", e.toString(), e);
+      }
+    } catch (Error e) {
+      LOG.error("A JVM error occurred while starting the pipeline, {}", e.toString(), e);
+      finishCooperatively();
+      throw e;
+    } finally {
+      runningThread = null;
+      PipelineEL.unsetConstantsInContext();
+      Thread.currentThread().setName(originalThreadName);
+    }
+
+    if (started) {
+      LOG.debug("Handing pipeline '{}::{}' over to the cooperative scheduler", name, rev);
+      cooperativeHandle = cooperativeScheduler.schedule(new CooperativeTask());
+    } else {
+      finishCooperatively();
+    }
+  }
+
+  private void finishCooperatively() {
+    try {
+      runningThread = Thread.currentThread();
+      pipeline.finish();
+    } catch (Exception e) {
+      if(!pipeline.wasStopped()) {
+        LOG.error("An exception occurred while running the pipeline, {}", e.toString(), e);
+      }
+    } catch (Error e) {
+      LOG.error("A JVM error occurred while running the pipeline, {}", e.toString(), e);
+      throw e;
+    } finally {
+      runningThread = null;
+      cancelTask();
+      PipelineEL.unsetConstantsInContext();
+      postStop();
+      countDownLatch.countDown();
+    }
+  }
+
+  private class CooperativeTask implements CooperativeScheduler.Task {
+
+    @Override
+    public String getName() {
+      return RUNNABLE_NAME + "-" + name;
+    }
+
+    @Override
+    public boolean runStep() throws Exception {
+      runningThread = Thread.currentThread();
+      try {
+        return pipeline.runBatch();
+      } finally {
+        runningThread = null;
+      }
+    }
+
+    @Override
+    public boolean isDone() {
+      return isStopped || pipeline.isFinished();
+    }
+
+    @Override
+    public void onDone(Throwable error) {
+      // The error was already recorded in the pipeline state by ProductionPipeline.runBatch()
+      if (error != null && !pipeline.wasStopped()) {
+        LOG.error("An exception occurred while running the pipeline, {}", error.toString(), error);
+      }
+      finishCooperatively();
+    }
+  }
+
+  private String getThreadName() {
+    PipelineInfo info = pipeline.getPipelineConf().getInfo();
+    if(info != null) {
+      return Utils.format("{}-{}-{}", RUNNABLE_NAME, info.getPipelineId(), info.getTitle());
+    } else {
+      return Utils.format("{}-UNKNOWN_ID-{}", RUNNABLE_NAME, name);
+    }
+  }
+
   public void stop(boolean nodeProcessShutdown) throws PipelineException {
     this.isStopped = true;
     this.nodeProcessShutdown = nodeProcessShutdown;
@@ -115,6 +228,10 @@ public class ProductionPipelineRunnable implements Runnable {
    */
   public void forceQuit() {
     synchronized (relatedTasks){
+      if (cooperativeHandle != null) {
+        // No further batches will be executed, the pipeline is destroyed once the current batch (if any) returns
+        cooperativeHandle.cancel();
+      }
       if (runningThread != null) {
         runningThread.interrupt();
         runningThread = null;
@@ -36,6 +36,7 @@ import com.streamsets.datacollector.config.StageType;
 import com.streamsets.datacollector.creation.PipelineConfigBean;
 import com.streamsets.datacollector.el.PipelineEL;
 import com.streamsets.datacollector.execution.SnapshotStore;
+import com.streamsets.datacollector.execution.snapshot.common.SnapshotBatchEncoder;
 import com.streamsets.datacollector.main.RuntimeInfo;
 import com.streamsets.datacollector.metrics.MetricsConfigurator;
 import com.streamsets.datacollector.restapi.bean.CounterJson;
@@ -89,6 +90,7 @@ import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import javax.inject.Named;
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -172,6 +174,12 @@ public class ProductionPipelineRunner implements PipelineRunner, PushSourceConte
   private long lastMemoryLimitNotification;
   private ThreadHealthReporter threadHealthReporter;
   private final List<List<StageOutput>> capturedBatches = new ArrayList<>();
+  /*streaming snapshots encode and append each batch to the store rather than keeping all batches in memory*/
+  private final boolean streamingSnapshot;
+  private final long snapshotMaxBytes;
+  private volatile long capturedSnapshotBytes;
+  /*batches of a streaming snapshot are appended to the same file, only one batch at a time can be captured*/
+  private boolean snapshotBatchInProgress;
   private PipeContext pipeContext = null;
   private PipelineConfigBean pipelineConfigBean = null;
   private PipelineConfiguration pipelineConfiguration = null;
@@ -195,6 +203,11 @@ public class ProductionPipelineRunner implements PipelineRunner, PushSourceConte
     this.pipelineName = pipelineName;
     this.revision = revision;
     this.supportBundleManager = supportBundleManager;
+    this.streamingSnapshot = configuration.get(Constants.SNAPSHOT_STREAMING_KEY, Constants.SNAPSHOT_STREAMING_DEFAULT);
+    this.snapshotMaxBytes = configuration.get(
+        Constants.SNAPSHOT_MAX_SIZE_MB_KEY,
+        Constants.SNAPSHOT_MAX_SIZE_MB_DEFAULT
+    ) * 1024L * 1024L;
     stageToErrorRecordsMap = new HashMap<>();
     stageToErrorMessagesMap = new HashMap<>();
     this.errorListeners = new ArrayList<>();
@@ -360,11 +373,7 @@ public class ProductionPipelineRunner implements PipelineRunner, PushSourceConte
     BadRecordsHandler badRecordsHandler,
     StatsAggregationHandler statsAggregationHandler
   ) throws StageException, PipelineRuntimeException {
-    this.originPipe = originPipe;
-    this.pipes = pipes;
-    this.badRecordsHandler = badRecordsHandler;
-    this.statsAggregationHandler = statsAggregationHandler;
-    this.runnerPool = new RunnerPool<>(pipes, pipeContext.getRuntimeStats(), runnersHistogram);
+    prepare(originPipe, pipes, badRecordsHandler, statsAggregationHandler);
 
     try {
       if (originPipe.getStage().getStage() instanceof PushSource) {
@@ -374,18 +383,39 @@ public class ProductionPipelineRunner implements PipelineRunner, PushSourceConte
       }
 
     } catch (Throwable throwable) {
-      LOG.error("Pipeline execution failed", throwable);
-      sendPipelineErrorNotificationRequest(throwable);
-      errorNotification(originPipe, pipes, throwable);
+      throw handleExecutionFailure(throwable);
+    }
+  }
 
-      if(supportBundleManager != null) {
-        supportBundleManager.uploadNewBundleOnError();
-      }
+  /**
+   * Prepare the runner for execution of given pipes without actually running anything. Cooperative execution calls
+   * this method and then drives the batches one by one through runCooperativeBatch().
+   */
+  public void prepare(
+    SourcePipe originPipe,
+    List<PipeRunner> pipes,
+    BadRecordsHandler badRecordsHandler,
+    StatsAggregationHandler statsAggregationHandler
+  ) {
+    this.originPipe = originPipe;
+    this.pipes = pipes;
+    this.badRecordsHandler = badRecordsHandler;
+    this.statsAggregationHandler = statsAggregationHandler;
+    this.runnerPool = new RunnerPool<>(pipes, pipeContext.getRuntimeStats(), runnersHistogram);
+  }
 
-      Throwables.propagateIfInstanceOf(throwable, StageException.class);
-      Throwables.propagateIfInstanceOf(throwable, PipelineRuntimeException.class);
-      Throwables.propagate(throwable);
+  private RuntimeException handleExecutionFailure(Throwable throwable) throws StageException, PipelineRuntimeException {
+    LOG.error("Pipeline execution failed", throwable);
+    sendPipelineErrorNotificationRequest(throwable);
+    errorNotification(originPipe, pipes, throwable);
+
+    if(supportBundleManager != null) {
+      supportBundleManager.uploadNewBundleOnError();
     }
+
+    Throwables.propagateIfInstanceOf(throwable, StageException.class);
+    Throwables.propagateIfInstanceOf(throwable, PipelineRuntimeException.class);
+    return Throwables.propagate(throwable);
   }
 
   private void runPushSource() throws StageException, PipelineRuntimeException {
@@ -413,7 +443,18 @@ public class ProductionPipelineRunner implements PipelineRunner, PushSourceConte
   private FullPipeBatch createFullPipeBatch(String entityName, String previousOffset) {
     FullPipeBatch pipeBatch;
     if(batchesToCapture > 0) {
-      pipeBatch = new FullPipeBatch(entityName, previousOffset, snapshotBatchSize, true);
+      if (streamingSnapshot) {
+        SnapshotBatchEncoder snapshotBatch = startSnapshotBatch();
+        if (snapshotBatch != null) {
+          pipeBatch = new FullPipeBatch(entityName, previousOffset, snapshotBatchSize, snapshotBatch);
+        } else {
+          // another batch is being captured
+          int batchSize = configuration.get(Constants.MAX_BATCH_SIZE_KEY, Constants.MAX_BATCH_SIZE_DEFAULT);
+          pipeBatch = new FullPipeBatch(entityName, previousOffset, batchSize, false);
+        }
+      } else {
+        pipeBatch = new FullPipeBatch(entityName, previousOffset, snapshotBatchSize, true);
+      }
     } else {
       pipeBatch = new FullPipeBatch(entityName, previousOffset, configuration.get(Constants.MAX_BATCH_SIZE_KEY, Constants.MAX_BATCH_SIZE_DEFAULT), false);
     }
@@ -422,6 +463,47 @@ public class ProductionPipelineRunner implements PipelineRunner, PushSourceConte
     return pipeBatch;
   }
 
+  /**
+   * Starts capturing the next batch of a streaming snapshot, returns null if no batch should be captured (e.g. because
+   * another pipeline runner is capturing a batch right now).
+   */
+  private synchronized SnapshotBatchEncoder startSnapshotBatch() {
+    if (batchesToCapture <= 0 || snapshotBatchInProgress) {
+      return null;
+    }
+    try {
+      SnapshotBatchEncoder snapshotBatch = snapshotStore.appendBatch(
+          pipelineName,
+          revision,
+          snapshotName,
+          snapshotMaxBytes - capturedSnapshotBytes
+      );
+      snapshotBatchInProgress = true;
+      return snapshotBatch;
+    } catch (PipelineException|PipelineRuntimeException ex) {
+      LOG.error("Can't capture snapshot '{}', cancelling it: {}", snapshotName, ex.toString(), ex);
+      batchesToCapture = 0;
+      snapshotBatchSize = 0;
+      capturedSnapshotBytes = 0;
+      return null;
+    }
+  }
+
+  /**
+   * Removes the batch being captured from a streaming snapshot when the batch can't be completed.
+   */
+  private synchronized void discardSnapshotBatch(FullPipeBatch pipeBatch) {
+    SnapshotBatchEncoder snapshotBatch = pipeBatch.getSnapshotBatchEncoder();
+    if (snapshotBatch != null) {
+      snapshotBatchInProgress = false;
+      try {
+        snapshotBatch.discard();
+      } catch (IOException ex) {
+        LOG.error("Can't discard batch of snapshot '{}': {}", snapshotName, ex.toString(), ex);
+      }
+    }
+  }
+
   @Override
   public BatchContext startBatch() {
     // Pick up any recent changes done to the rule definitions
@@ -435,7 +517,7 @@ public class ProductionPipelineRunner implements PipelineRunner, PushSourceConte
     originPipe.prepareBatchContext(batchContext);
 
     // Since the origin owns the threads in PushSource, need to re-populate the PipelineEL on every batch
-    PipelineEL.setConstantsInContext(pipelineConfiguration, originPipe.getStage().getContext().getUserContext());
+    setConstantsInContext();
 
     // Run batch listeners
     for (BatchListener batchListener : batchListenerList) {
@@ -476,6 +558,7 @@ public class ProductionPipelineRunner implements PipelineRunner, PushSourceConte
       LOG.error("Can't process batch", e);
 
       // We try to create partial batch on processing failure
+      discardSnapshotBatch(batchContext.getPipeBatch());
       createFailureBatch(batchContext.getPipeBatch());
 
       // We got exception while executing pipeline which is a signal that we should stop processing
@@ -515,62 +598,103 @@ public class ProductionPipelineRunner implements PipelineRunner, PushSourceConte
   }
 
   public void runPollSource() throws StageException, PipelineException {
-    while (!offsetTracker.isFinished() && !stop && !finished) {
-      if (threadHealthReporter != null) {
-        threadHealthReporter.reportHealth(ProductionPipelineRunnable.RUNNABLE_NAME, -1, System.currentTimeMillis());
-      }
+    while (!isPollSourceFinished()) {
+      runPollBatch();
+    }
+  }
 
-      for (BatchListener batchListener : batchListenerList) {
-        batchListener.preBatch();
-      }
+  /**
+   * Returns true if poll origin should not produce any further batches.
+   */
+  public boolean isPollSourceFinished() {
+    return offsetTracker.isFinished() || stop || finished;
+  }
 
-      if(observer != null) {
-        observer.reconfigure();
-      }
+  /**
+   * Run exactly one batch of a poll origin, this is the unit of work for cooperative execution.
+   *
+   * Since the batches can be executed by different threads, the PipelineEL constants are populated for each batch.
+   *
+   * @return true if the origin produced any records (including error records) in this batch
+   */
+  public boolean runCooperativeBatch() throws StageException, PipelineRuntimeException {
+    setConstantsInContext();
+    try {
+      return runPollBatch() > 0;
+    } catch (Throwable throwable) {
+      throw handleExecutionFailure(throwable);
+    } finally {
+      PipelineEL.unsetConstantsInContext();
+    }
+  }
 
-      // Start of the batch execution
-      long start = System.currentTimeMillis();
-      FullPipeBatch pipeBatch = createFullPipeBatch(Source.POLL_SOURCE_OFFSET_KEY, offsetTracker.getOffsets().get(Source.POLL_SOURCE_OFFSET_KEY));
+  /**
+   * Populate the PipelineEL constants for the current thread.
+   */
+  public void setConstantsInContext() {
+    if(originPipe != null) {
+      PipelineEL.setConstantsInContext(pipelineConfiguration, originPipe.getStage().getContext().getUserContext());
+    }
+  }
+
+  private int runPollBatch() throws StageException, PipelineException {
+    if (threadHealthReporter != null) {
+      threadHealthReporter.reportHealth(ProductionPipelineRunnable.RUNNABLE_NAME, -1, System.currentTimeMillis());
+    }
 
-      // Run origin
-      Map<String, Long> memoryConsumedByStage = new HashMap<>();
-      Map<String, Object> stageBatchMetrics = new HashMap<>();
-      processPipe(
-        originPipe,
+    for (BatchListener batchListener : batchListenerList) {
+      batchListener.preBatch();
+    }
+
+    if(observer != null) {
+      observer.reconfigure();
+    }
+
+    // Start of the batch execution
+    long start = System.currentTimeMillis();
+    FullPipeBatch pipeBatch = createFullPipeBatch(Source.POLL_SOURCE_OFFSET_KEY, offsetTracker.getOffsets().get(Source.POLL_SOURCE_OFFSET_KEY));
+
+    // Run origin
+    Map<String, Long> memoryConsumedByStage = new HashMap<>();
+    Map<String, Object> stageBatchMetrics = new HashMap<>();
+    processPipe(
+      originPipe,
+      pipeBatch,
+      false,
+      null,
+      null,
+      memoryConsumedByStage,
+      stageBatchMetrics
+    );
+
+    // Since the origin already run, the FullPipeBatch will have a new offset
+    String newOffset = pipeBatch.getNewOffset();
+
+    try {
+      // Run rest of the pipeline
+      runSourceLessBatch(
+        start,
         pipeBatch,
-        false,
-        null,
-        null,
+        Source.POLL_SOURCE_OFFSET_KEY,
+        newOffset,
         memoryConsumedByStage,
         stageBatchMetrics
       );
+    } catch (Throwable t) {
+      // We try to create partial batch on processing failure
+      discardSnapshotBatch(pipeBatch);
+      createFailureBatch(pipeBatch);
 
-      // Since the origin already run, the FullPipeBatch will have a new offset
-      String newOffset = pipeBatch.getNewOffset();
-
-      try {
-        // Run rest of the pipeline
-        runSourceLessBatch(
-          start,
-          pipeBatch,
-          Source.POLL_SOURCE_OFFSET_KEY,
-          newOffset,
-          memoryConsumedByStage,
-          stageBatchMetrics
-        );
-      } catch (Throwable t) {
-        // We try to create partial batch on processing failure
-        createFailureBatch(pipeBatch);
-
-        Throwables.propagateIfInstanceOf(t, StageException.class);
-        Throwables.propagateIfInstanceOf(t, PipelineRuntimeException.class);
-        Throwables.propagate(t);
-      }
+      Throwables.propagateIfInstanceOf(t, StageException.class);
+      Throwables.propagateIfInstanceOf(t, PipelineRuntimeException.class);
+      Throwables.propagate(t);
+    }
 
-      for (BatchListener batchListener : batchListenerList) {
-        batchListener.postBatch();
-      }
+    for (BatchListener batchListener : batchListenerList) {
+      batchListener.postBatch();
     }
+
+    return pipeBatch.getInputRecords();
   }
 
   @Override
@@ -727,6 +851,7 @@ public class ProductionPipelineRunner implements PipelineRunner, PushSourceConte
       this.snapshotBatchSize = 0;
       this.batchesToCapture = 0;
       capturedBatches.clear();
+      capturedSnapshotBytes = 0;
     }
   }
 
@@ -841,6 +966,39 @@ public class ProductionPipelineRunner implements PipelineRunner, PushSourceConte
     }
 
     synchronized (this) {
+      SnapshotBatchEncoder snapshotBatch = pipeBatch.getSnapshotBatchEncoder();
+      if (snapshotBatch != null && (batchesToCapture <= 0 || !snapshotBatch.hasRecords())) {
+        // snapshot was cancelled meanwhile or the batch is empty
+        discardSnapshotBatch(pipeBatch);
+      } else if (snapshotBatch != null) {
+        snapshotBatchInProgress = false;
+        try {
+          capturedSnapshotBytes = snapshotBatch.commit();
+        } catch (IOException ex) {
+          throw new PipelineRuntimeException(
+              ContainerError.CONTAINER_0603,
+              snapshotName,
+              pipelineName,
+              revision,
+              ex.toString(),
+              ex
+          );
+        }
+        batchesToCapture--;
+        if (snapshotBatch.isTruncated() || capturedSnapshotBytes >= snapshotMaxBytes) {
+          LOG.warn(
+              "Snapshot '{}' reached the maximum size of {} bytes, completing it with the batches captured so far",
+              snapshotName,
+              snapshotMaxBytes
+          );
+          batchesToCapture = 0;
+        }
+        if (batchesToCapture == 0) {
+          snapshotBatchSize = 0;
+          capturedSnapshotBytes = 0;
+          snapshotStore.complete(pipelineName, revision, snapshotName, batchCountMeter.getCount());
+        }
+      }
       List<StageOutput> snapshot = pipeBatch.getSnapshotsOfAllStagesOutput();
       if( batchesToCapture > 0 && isSnapshotOutputUsable(pipeBatch.getSnapshotsOfAllStagesOutput())) {
         if (!snapshot.isEmpty()) {
@@ -46,7 +46,9 @@ import com.streamsets.datacollector.execution.StateListener;
 import com.streamsets.datacollector.execution.alerts.AlertInfo;
 import com.streamsets.datacollector.execution.metrics.MetricsEventRunnable;
 import com.streamsets.datacollector.execution.runner.RetryUtils;
+import com.streamsets.datacollector.execution.common.ExecutorConstants;
 import com.streamsets.datacollector.execution.runner.common.Constants;
+import com.streamsets.datacollector.execution.runner.common.CooperativeScheduler;
 import com.streamsets.datacollector.execution.runner.common.DataObserverRunnable;
 import com.streamsets.datacollector.execution.runner.common.MetricObserverRunnable;
 import com.streamsets.datacollector.execution.runner.common.PipelineRunnerException;
@@ -135,6 +137,9 @@ public class StandaloneRunner extends AbstractRunner implements StateListener {
     PipelineStatus.FINISHING
   );
 
+  // How often is the data observer drained for cooperatively executed pipelines
+  private static final long COOPERATIVE_OBSERVER_DELAY = 100;
+
   @Inject PipelineStoreTask pipelineStoreTask;
   @Inject PipelineStateStore pipelineStateStore;
   @Inject SnapshotStore snapshotStore;
@@ -161,6 +166,8 @@ public class StandaloneRunner extends AbstractRunner implements StateListener {
   private UpdateChecker updateChecker;
   private volatile String metricsForRetry;
   private final List<ErrorListener> errorListeners;
+  // Resources reserved in the ResourceManager for the current run
+  private volatile ThreadUsage threadUsage = ThreadUsage.STANDALONE;
 
   private static final Map<PipelineStatus, Set<PipelineStatus>> VALID_TRANSITIONS =
     new ImmutableMap.Builder<PipelineStatus, Set<PipelineStatus>>()
@@ -688,7 +695,7 @@ public class StandaloneRunner extends AbstractRunner implements StateListener {
     eventListenerManager.broadcastStateChange(
         fromState,
         pipelineState,
-        ThreadUsage.STANDALONE,
+        threadUsage,
         OffsetFileUtil.getOffsets(runtimeInfo, name, rev)
     );
   }
@@ -726,9 +733,13 @@ public class StandaloneRunner extends AbstractRunner implements StateListener {
     checkState(VALID_TRANSITIONS.get(fromState.getStatus()).contains(PipelineStatus.STARTING), ContainerError.CONTAINER_0102,
         fromState.getStatus(), PipelineStatus.STARTING);
 
-    if(!resourceManager.requestRunnerResources(ThreadUsage.STANDALONE)) {
+    // Cooperative execution doesn't pin the runner thread for the duration of the pipeline and hence needs to reserve
+    // only resources for the periodic tasks. Pipelines that can't run cooperatively will upgrade the reservation.
+    ThreadUsage requestedUsage = isCooperativeExecutionEnabled() ? ThreadUsage.STANDALONE_COOPERATIVE : ThreadUsage.STANDALONE;
+    if(!resourceManager.requestRunnerResources(requestedUsage)) {
       throw new PipelineRunnerException(ContainerError.CONTAINER_0166, name);
     }
+    threadUsage = requestedUsage;
     LOG.info("Preparing to start pipeline '{}::{}'", name, rev);
     validateAndSetStateTransition(user, PipelineStatus.STARTING, null, attributes);
     token = UUID.randomUUID().toString();
@@ -899,7 +910,27 @@ public class StandaloneRunner extends AbstractRunner implements StateListener {
 
         observerRunnable.setRequestQueue(productionObserveRequests);
         observerRunnable.setStatsQueue(statsQueue);
-        Future<?> observerFuture = runnerExecutor.submit(observerRunnable);
+        CooperativeScheduler cooperativeScheduler = null;
+        if (threadUsage == ThreadUsage.STANDALONE_COOPERATIVE) {
+          if (prodPipeline.isCooperativeExecutionSupported()) {
+            cooperativeScheduler = objectGraph.get(CooperativeScheduler.class);
+          } else {
+            LOG.info("Pipeline '{}::{}' has push origin and can't be executed cooperatively", name, rev);
+            if (!resourceManager.exchangeRunnerResources(ThreadUsage.STANDALONE_COOPERATIVE, ThreadUsage.STANDALONE)) {
+              throw new PipelineRunnerException(ContainerError.CONTAINER_0166, name);
+            }
+            threadUsage = ThreadUsage.STANDALONE;
+          }
+        }
+
+        Future<?> observerFuture;
+        if (cooperativeScheduler != null) {
+          // Rather then blocking a thread on the request queue, drain it periodically
+          observerFuture = runnerExecutor.scheduleWithFixedDelay(observerRunnable::drain, 0,
+              COOPERATIVE_OBSERVER_DELAY, TimeUnit.MILLISECONDS);
+        } else {
+          observerFuture = runnerExecutor.submit(observerRunnable);
+        }
 
         List<Future<?>> list;
         if (metricsFuture != null) {
@@ -909,7 +940,15 @@ public class StandaloneRunner extends AbstractRunner implements StateListener {
         } else {
           list = ImmutableList.of(configLoaderFuture, observerFuture, metricObserverFuture, updateCheckerFuture);
         }
-        pipelineRunnable = new ProductionPipelineRunnable(threadHealthReporter, this, prodPipeline, name, rev, list);
+        pipelineRunnable = new ProductionPipelineRunnable(
+            threadHealthReporter,
+            this,
+            prodPipeline,
+            name,
+            rev,
+            list,
+            cooperativeScheduler
+        );
       } catch (Exception e) {
         validateAndSetStateTransition(user, PipelineStatus.START_ERROR, e.toString(), null);
         throw e;
@@ -934,6 +973,13 @@ public class StandaloneRunner extends AbstractRunner implements StateListener {
     }
   }
 
+  private boolean isCooperativeExecutionEnabled() {
+    return configuration.get(
+        ExecutorConstants.RUNNER_COOPERATIVE_ENABLED_KEY,
+        ExecutorConstants.RUNNER_COOPERATIVE_ENABLED_DEFAULT
+    );
+  }
+
   private boolean isStatsAggregationEnabled(PipelineConfiguration pipelineConfiguration) throws PipelineStoreException {
     boolean isEnabled = false;
     StageConfiguration statsAggregatorStage = pipelineConfiguration.getStatsAggregatorStage();
@@ -21,6 +21,7 @@ import com.google.common.cache.LoadingCache;
 import com.streamsets.datacollector.execution.Snapshot;
 import com.streamsets.datacollector.execution.SnapshotInfo;
 import com.streamsets.datacollector.execution.SnapshotStore;
+import com.streamsets.datacollector.execution.snapshot.common.SnapshotBatchEncoder;
 import com.streamsets.datacollector.runner.StageOutput;
 import com.streamsets.datacollector.util.ContainerError;
 import com.streamsets.datacollector.util.LockCache;
@@ -87,6 +88,21 @@ public class CacheSnapshotStore implements SnapshotStore {
     }
   }
 
+  @Override
+  public SnapshotBatchEncoder appendBatch(String name, String rev, String id, long maxBytes)
+      throws PipelineException {
+    return snapshotStore.appendBatch(name, rev, id, maxBytes);
+  }
+
+  @Override
+  public SnapshotInfo complete(String name, String rev, String id, long batchNumber) throws PipelineException {
+    synchronized (lockCache.getLock(name)) {
+      SnapshotInfo updatedSnapshotInfo = snapshotStore.complete(name, rev, id, batchNumber);
+      snapshotStateCache.put(getCacheKey(name, rev, id), updatedSnapshotInfo);
+      return updatedSnapshotInfo;
+    }
+  }
+
   @Override
   public SnapshotInfo updateLabel(String name, String rev, String id, String snapshotLabel) throws PipelineException {
     return snapshotStore.updateLabel(name, rev, id, snapshotLabel);
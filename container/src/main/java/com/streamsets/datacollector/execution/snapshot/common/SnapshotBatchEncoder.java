@@ -0,0 +1,227 @@
+/*
+ * Copyright 2017 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.execution.snapshot.common;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.io.Output;
+import com.streamsets.datacollector.runner.StageOutput;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.impl.ErrorMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes the output of all stages of one batch, one stage at a time as the stage completes, in the compact binary
+ * snapshot format. Records are Kryo encoded straight to the end of the snapshot data file, so neither a copy of the
+ * records nor the encoded batch is kept in memory (only the Kryo output buffer).
+ *
+ * The batch becomes part of the snapshot with {@link #commit()}. A batch without any record on the output lanes, or
+ * a batch that is abandoned with {@link #discard()} (e.g. because it failed), is cut off the file again.
+ *
+ * Every container (batch, stage, lanes, record list, error list) is written as a {@link #ITEM} (or {@link #NULL})
+ * marker, followed by its entries each prefixed by {@link #ITEM}, terminated by {@link #END}. This allows to stop
+ * writing records at any point once the size limit is reached and still produce a well formed batch. The format is
+ * read back by {@link SnapshotJsonInputStream}.
+ */
+public class SnapshotBatchEncoder {
+  private static final Logger LOG = LoggerFactory.getLogger(SnapshotBatchEncoder.class);
+
+  static final byte END = 0;
+  static final byte ITEM = 1;
+  static final byte NULL = 2;
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final File file;
+  private final long maxBytes;
+  private final FileChannel channel;
+  private final long start;
+  private final Kryo kryo;
+  private final Output output;
+  private int records;
+  private int written;
+  private boolean truncated;
+  private boolean failed;
+
+  /**
+   * Starts a new batch at the end of the given snapshot data file.
+   *
+   * @param maxBytes size of the encoded batch after which no more records are written, the first record is always
+   * written.
+   */
+  public SnapshotBatchEncoder(File file, long maxBytes) throws IOException {
+    this.file = file;
+    this.maxBytes = maxBytes;
+    channel = FileChannel.open(
+        file.toPath(),
+        StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE,
+        StandardOpenOption.APPEND
+    );
+    start = channel.size();
+    kryo = new Kryo();
+    output = new Output(Channels.newOutputStream(channel), BUFFER_SIZE);
+    output.writeByte(ITEM);
+  }
+
+  /**
+   * Encodes the output of a stage, records must not be modified while being written.
+   *
+   * Failure to write the snapshot does not fail the batch, the batch is only left out of the snapshot on commit.
+   */
+  public void write(StageOutput stageOutput) {
+    if (failed) {
+      return;
+    }
+    try {
+      writeStageOutput(stageOutput);
+    } catch (KryoException ex) {
+      LOG.error("Can't write snapshot data to '{}': {}", file, ex.toString(), ex);
+      failed = true;
+    }
+  }
+
+  private void writeStageOutput(StageOutput stageOutput) {
+    output.writeByte(ITEM);
+    output.writeString(stageOutput.getInstanceName());
+    Map<String, List<Record>> lanes = stageOutput.getOutput();
+    if (lanes == null) {
+      output.writeByte(NULL);
+    } else {
+      output.writeByte(ITEM);
+      for (Map.Entry<String, List<Record>> entry : lanes.entrySet()) {
+        output.writeByte(ITEM);
+        output.writeString(entry.getKey());
+        // only records on output lanes make a batch worth keeping in the snapshot
+        records += writeRecords(entry.getValue());
+      }
+      output.writeByte(END);
+    }
+    writeRecords(stageOutput.getErrorRecords());
+    writeErrors(stageOutput.getStageErrors());
+    writeRecords(stageOutput.getEventRecords());
+  }
+
+  private int writeRecords(List<Record> list) {
+    int count = 0;
+    if (list == null) {
+      output.writeByte(NULL);
+    } else {
+      output.writeByte(ITEM);
+      for (Record record : list) {
+        if (written > 0 && output.total() >= maxBytes) {
+          truncated = true;
+          break;
+        }
+        output.writeByte(ITEM);
+        kryo.writeClassAndObject(output, record);
+        written++;
+        count++;
+      }
+      output.writeByte(END);
+    }
+    return count;
+  }
+
+  private void writeErrors(List<ErrorMessage> errors) {
+    if (errors == null) {
+      output.writeByte(NULL);
+    } else {
+      output.writeByte(ITEM);
+      for (ErrorMessage error : errors) {
+        output.writeByte(ITEM);
+        output.writeString(error.getErrorCode());
+        output.writeLong(error.getTimestamp());
+        output.writeString(error.getNonLocalized());
+        output.writeString(error.getLocalized());
+        output.writeString(error.getErrorStackTrace());
+      }
+      output.writeByte(END);
+    }
+  }
+
+  /**
+   * Returns if any record was written to the output lanes of the stages.
+   */
+  public boolean hasRecords() {
+    return records > 0;
+  }
+
+  /**
+   * Returns if records were dropped because the size limit was reached.
+   */
+  public boolean isTruncated() {
+    return truncated;
+  }
+
+  /**
+   * Returns number of bytes of the batch written so far.
+   */
+  public long size() {
+    return output.total();
+  }
+
+  /**
+   * Completes the batch and closes the file. A batch without records (or whose writing failed) is cut off the file.
+   *
+   * @return size of the snapshot data file.
+   */
+  public long commit() throws IOException {
+    if (!channel.isOpen()) {
+      return file.length();
+    }
+    if (!failed && records > 0) {
+      try {
+        output.writeByte(END);
+        output.flush();
+      } catch (KryoException ex) {
+        LOG.error("Can't write snapshot data to '{}': {}", file, ex.toString(), ex);
+        failed = true;
+      }
+    }
+    if (failed || records == 0) {
+      discard();
+    } else {
+      channel.force(false);
+      channel.close();
+    }
+    return file.length();
+  }
+
+  /**
+   * Removes the batch from the file and closes it, does nothing if the batch was already committed or discarded.
+   */
+  public void discard() throws IOException {
+    if (!channel.isOpen()) {
+      return;
+    }
+    try {
+      channel.truncate(start);
+    } finally {
+      channel.close();
+    }
+  }
+
+}
@@ -30,11 +30,21 @@ public class SnapshotImpl implements Snapshot, Closeable {
 
   private SnapshotInfo snapshotInfo;
   private File snapshotFile;
+  private final boolean binary;
   private InputStream output;
 
   public SnapshotImpl(SnapshotInfo snapshotInfo, File snapshotFile) {
+    this(snapshotInfo, snapshotFile, false);
+  }
+
+  /**
+   * @param binary if the snapshot file is in the binary format of {@link SnapshotBatchEncoder}, the output is then
+   * converted to JSON lazily as it is read.
+   */
+  public SnapshotImpl(SnapshotInfo snapshotInfo, File snapshotFile, boolean binary) {
     this.snapshotInfo = snapshotInfo;
     this.snapshotFile = snapshotFile;
+    this.binary = binary;
   }
 
   @Override
@@ -47,6 +57,9 @@ public class SnapshotImpl implements Snapshot, Closeable {
     if(snapshotFile != null) {
       try {
         output = new FileInputStream(snapshotFile);
+        if (binary) {
+          output = new SnapshotJsonInputStream(output);
+        }
         return output;
       } catch (Exception ex) {
         throw new PipelineRuntimeException(ContainerError.CONTAINER_0600, snapshotInfo.getId(), snapshotInfo.getName(),
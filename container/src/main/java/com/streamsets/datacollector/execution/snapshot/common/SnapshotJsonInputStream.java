@@ -0,0 +1,211 @@
+/*
+ * Copyright 2017 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.execution.snapshot.common;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.io.Input;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.streamsets.datacollector.json.ObjectMapperFactory;
+import com.streamsets.datacollector.restapi.bean.BeanHelper;
+import com.streamsets.datacollector.restapi.bean.RecordJson;
+import com.streamsets.pipeline.api.Record;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exposes a snapshot written in the binary format of {@link SnapshotBatchEncoder} as the JSON representation of
+ * {@link com.streamsets.datacollector.restapi.bean.SnapshotDataJson}.
+ *
+ * The binary data is converted lazily one stage output at a time while the stream is read, so only the output of a
+ * single stage of a single batch is in memory regardless of the size of the snapshot.
+ */
+public class SnapshotJsonInputStream extends InputStream {
+  private static final Logger LOG = LoggerFactory.getLogger(SnapshotJsonInputStream.class);
+
+  private static class Buffer extends ByteArrayOutputStream {
+    byte[] getBuffer() {
+      return buf;
+    }
+  }
+
+  private final Input input;
+  private final Kryo kryo;
+  private final ObjectMapper json;
+  private final Buffer buffer;
+  private final JsonGenerator generator;
+  private int bufferPos;
+  private boolean started;
+  private boolean inBatch;
+  private boolean finished;
+
+  public SnapshotJsonInputStream(InputStream inputStream) throws IOException {
+    input = new Input(inputStream);
+    kryo = new Kryo();
+    json = ObjectMapperFactory.get();
+    buffer = new Buffer();
+    generator = json.getFactory().createGenerator(buffer);
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (!fill()) {
+      return -1;
+    }
+    return buffer.getBuffer()[bufferPos++] & 0xFF;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    if (!fill()) {
+      return -1;
+    }
+    int count = Math.min(len, buffer.size() - bufferPos);
+    System.arraycopy(buffer.getBuffer(), bufferPos, b, off, count);
+    bufferPos += count;
+    return count;
+  }
+
+  // Converts binary data until there is JSON to be read, returns false at the end of the snapshot
+  private boolean fill() throws IOException {
+    while (bufferPos >= buffer.size()) {
+      if (finished) {
+        return false;
+      }
+      buffer.reset();
+      bufferPos = 0;
+      convertNext();
+      generator.flush();
+    }
+    return true;
+  }
+
+  private void convertNext() throws IOException {
+    if (!started) {
+      started = true;
+      generator.writeStartObject();
+      generator.writeFieldName("snapshotBatches");
+      generator.writeStartArray();
+      return;
+    }
+    try {
+      if (!inBatch) {
+        if (input.eof()) {
+          finish();
+        } else {
+          input.readByte();
+          inBatch = true;
+          generator.writeStartArray();
+        }
+      } else if (input.readByte() == SnapshotBatchEncoder.END) {
+        inBatch = false;
+        generator.writeEndArray();
+      } else {
+        writeStageOutput();
+      }
+    } catch (KryoException ex) {
+      // The last batch is incomplete (e.g. SDC died while writing it), expose the complete part of the snapshot
+      LOG.warn("Snapshot data is incomplete: {}", ex.toString(), ex);
+      finish();
+    }
+  }
+
+  private void finish() throws IOException {
+    if (inBatch) {
+      generator.writeEndArray();
+      inBatch = false;
+    }
+    generator.writeEndArray();
+    generator.writeEndObject();
+    generator.close();
+    finished = true;
+  }
+
+  private void writeStageOutput() throws IOException {
+    // Decode the whole stage output first so that a truncated stage never produces partial JSON
+    String instanceName = input.readString();
+    Map<String, List<RecordJson>> output = null;
+    if (input.readByte() == SnapshotBatchEncoder.ITEM) {
+      output = new LinkedHashMap<>();
+      while (input.readByte() == SnapshotBatchEncoder.ITEM) {
+        String lane = input.readString();
+        output.put(lane, readRecords());
+      }
+    }
+    List<RecordJson> errorRecords = readRecords();
+    List<Map<String, Object>> stageErrors = readErrors();
+    List<RecordJson> eventRecords = readRecords();
+
+    generator.writeStartObject();
+    generator.writeStringField("instanceName", instanceName);
+    generator.writeFieldName("output");
+    json.writeValue(generator, output);
+    generator.writeFieldName("errorRecords");
+    json.writeValue(generator, errorRecords);
+    generator.writeFieldName("stageErrors");
+    json.writeValue(generator, stageErrors);
+    generator.writeFieldName("eventRecords");
+    json.writeValue(generator, eventRecords);
+    generator.writeEndObject();
+  }
+
+  private List<RecordJson> readRecords() {
+    List<RecordJson> records = null;
+    if (input.readByte() == SnapshotBatchEncoder.ITEM) {
+      records = new ArrayList<>();
+      while (input.readByte() == SnapshotBatchEncoder.ITEM) {
+        records.add(BeanHelper.wrapRecord((Record) kryo.readClassAndObject(input)));
+      }
+    }
+    return records;
+  }
+
+  private List<Map<String, Object>> readErrors() {
+    List<Map<String, Object>> errors = null;
+    if (input.readByte() == SnapshotBatchEncoder.ITEM) {
+      errors = new ArrayList<>();
+      while (input.readByte() == SnapshotBatchEncoder.ITEM) {
+        // same properties as ErrorMessageJson
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("errorCode", input.readString());
+        error.put("timestamp", input.readLong());
+        error.put("nonLocalized", input.readString());
+        error.put("localized", input.readString());
+        error.put("errorStackTrace", input.readString());
+        errors.add(error);
+      }
+    }
+    return errors;
+  }
+
+  @Override
+  public void close() throws IOException {
+    input.close();
+  }
+
+}
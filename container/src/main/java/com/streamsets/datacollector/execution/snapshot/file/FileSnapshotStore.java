@@ -19,6 +19,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.streamsets.datacollector.execution.Snapshot;
 import com.streamsets.datacollector.execution.SnapshotInfo;
 import com.streamsets.datacollector.execution.SnapshotStore;
+import com.streamsets.datacollector.execution.snapshot.common.SnapshotBatchEncoder;
 import com.streamsets.datacollector.execution.snapshot.common.SnapshotData;
 import com.streamsets.datacollector.execution.snapshot.common.SnapshotImpl;
 import com.streamsets.datacollector.execution.snapshot.common.SnapshotInfoImpl;
@@ -49,6 +50,7 @@ import java.util.List;
 
 public class FileSnapshotStore implements SnapshotStore {
   private static final String SNAPSHOT_FILE_NAME = "snapshot.json";
+  private static final String SNAPSHOT_BINARY_FILE_NAME = "snapshot.bin";
   private static final String INFO_FILE_NAME = "info.json";
   private final LockCache<String> lockCache;
   private final RuntimeInfo runtimeInfo;
@@ -65,6 +67,11 @@ public class FileSnapshotStore implements SnapshotStore {
   public SnapshotInfo create(String user, String name, String rev, String id, String label) throws PipelineException {
     synchronized (lockCache.getLock(name)) {
       PipelineDirectoryUtil.createPipelineSnapshotDir(runtimeInfo, name, rev, id);
+      // data of a previous snapshot with the same id must not be appended to
+      File binaryData = getPipelineSnapshotBinaryFile(name, rev, id);
+      if (binaryData.exists() && !binaryData.delete()) {
+        throw new PipelineRuntimeException(ContainerError.CONTAINER_0601, id, name, rev);
+      }
       SnapshotInfo snapshotInfo = new SnapshotInfoImpl(user, id, label, name, rev, System.currentTimeMillis(), true, 0);
       persistSnapshotInfo(snapshotInfo);
       return snapshotInfo;
@@ -85,22 +92,54 @@ public class FileSnapshotStore implements SnapshotStore {
         throw new PipelineException(ContainerError.CONTAINER_0605);
       }
       persistSnapshot(name, rev, id, snapshotBatches);
-      SnapshotInfo updatedSnapshotInfo =
-        new SnapshotInfoImpl(
-            existingInfo.getUser(),
-            id,
-            existingInfo.getLabel(),
-            name,
-            rev,
-            System.currentTimeMillis(),
-            false,
-            batchNumber
-        );
-      persistSnapshotInfo(updatedSnapshotInfo);
-      return updatedSnapshotInfo;
+      return persistCompletedSnapshotInfo(existingInfo, batchNumber);
+    }
+  }
+
+  @Override
+  public SnapshotBatchEncoder appendBatch(String name, String rev, String id, long maxBytes)
+      throws PipelineException {
+    synchronized (lockCache.getLock(name)) {
+      SnapshotInfo existingInfo = getInfo(name, rev, id);
+      if (existingInfo == null) {
+        throw new PipelineException(ContainerError.CONTAINER_0605);
+      }
+      try {
+        return new SnapshotBatchEncoder(getPipelineSnapshotBinaryFile(name, rev, id), maxBytes);
+      } catch (IOException e) {
+        throw new PipelineRuntimeException(ContainerError.CONTAINER_0603, id, name, rev, e.toString(), e);
+      }
     }
   }
 
+  @Override
+  public SnapshotInfo complete(String name, String rev, String id, long batchNumber) throws PipelineException {
+    synchronized (lockCache.getLock(name)) {
+      SnapshotInfo existingInfo = getInfo(name, rev, id);
+      if (existingInfo == null) {
+        throw new PipelineException(ContainerError.CONTAINER_0605);
+      }
+      return persistCompletedSnapshotInfo(existingInfo, batchNumber);
+    }
+  }
+
+  private SnapshotInfo persistCompletedSnapshotInfo(SnapshotInfo existingInfo, long batchNumber)
+      throws PipelineRuntimeException {
+    SnapshotInfo updatedSnapshotInfo =
+      new SnapshotInfoImpl(
+          existingInfo.getUser(),
+          existingInfo.getId(),
+          existingInfo.getLabel(),
+          existingInfo.getName(),
+          existingInfo.getRev(),
+          System.currentTimeMillis(),
+          false,
+          batchNumber
+      );
+    persistSnapshotInfo(updatedSnapshotInfo);
+    return updatedSnapshotInfo;
+  }
+
   @Override
   public SnapshotInfo updateLabel(String name, String rev, String id, String snapshotLabel) throws PipelineException {
     synchronized (lockCache.getLock(name)) {
@@ -128,6 +167,10 @@ public class FileSnapshotStore implements SnapshotStore {
   public Snapshot get(String name, String rev, String id) throws PipelineException {
     synchronized (lockCache.getLock(name)) {
       SnapshotInfo info = getInfo(name, rev, id);
+      File binaryData = getPipelineSnapshotBinaryFile(name, rev, id);
+      if (binaryData.exists()) {
+        return new SnapshotImpl(info, binaryData, true);
+      }
       File data = getData(name, rev, id);
       return new SnapshotImpl(info, data);
     }
@@ -204,6 +247,11 @@ public class FileSnapshotStore implements SnapshotStore {
       SNAPSHOT_FILE_NAME);
   }
 
+  private File getPipelineSnapshotBinaryFile(String pipelineName, String rev, String snapshotName) {
+    return new File(PipelineDirectoryUtil.getPipelineSnapshotDir(runtimeInfo, pipelineName, rev, snapshotName),
+      SNAPSHOT_BINARY_FILE_NAME);
+  }
+
   private File getPipelineSnapshotInfoFile(String name, String rev, String id) {
     return new File(PipelineDirectoryUtil.getPipelineSnapshotDir(runtimeInfo, name, rev, id),
       INFO_FILE_NAME);
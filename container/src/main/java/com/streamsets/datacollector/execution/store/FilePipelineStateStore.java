@@ -15,9 +15,7 @@
  */
 package com.streamsets.datacollector.execution.store;
 
-import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.streamsets.datacollector.event.handler.remote.RemoteDataCollector;
 import com.streamsets.datacollector.execution.PipelineState;
@@ -25,6 +23,7 @@ import com.streamsets.datacollector.execution.PipelineStateStore;
 import com.streamsets.datacollector.execution.PipelineStatus;
 import com.streamsets.datacollector.execution.manager.PipelineStateImpl;
 import com.streamsets.datacollector.io.DataStore;
+import com.streamsets.datacollector.io.ReverseLineReader;
 import com.streamsets.datacollector.json.ObjectMapperFactory;
 import com.streamsets.datacollector.main.RuntimeInfo;
 import com.streamsets.datacollector.restapi.bean.BeanHelper;
@@ -44,12 +43,11 @@ import org.slf4j.LoggerFactory;
 import javax.inject.Inject;
 
 import java.io.File;
-import java.io.FileReader;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.io.Reader;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -61,6 +59,8 @@ public class FilePipelineStateStore implements PipelineStateStore {
   public static final String STATE_FILE = "pipelineState.json";
   public static final String STATE_FILE_HISTORY = "pipelineStateHistory.json";
   public static final String STATE = "state";
+  // Number of latest states returned when the whole history is not requested
+  private static final int HISTORY_LIMIT = 100;
   private static final Logger LOG = LoggerFactory.getLogger(FilePipelineStateStore.class);
 
   @Inject
@@ -170,19 +170,24 @@ public class FilePipelineStateStore implements PipelineStateStore {
     if (!pipelineDirExists(pipelineName, rev) || !pipelineStateHistoryFileExists(pipelineName, rev)) {
       return Collections.emptyList();
     }
-    try (Reader reader = new FileReader(getPipelineStateHistoryFile(pipelineName, rev))){
+    // History file contains all states with the latest one at the end. Reading it from the end means that only the
+    // states that are actually returned are read and parsed.
+    int limit = fromBeginning ? Integer.MAX_VALUE : HISTORY_LIMIT;
+    List<PipelineStateJson> pipelineStateJsons = new ArrayList<>();
+    try (ReverseLineReader reader = new ReverseLineReader(getPipelineStateHistoryFile(pipelineName, rev))) {
       ObjectMapper objectMapper = ObjectMapperFactory.get();
-      JsonParser jsonParser = objectMapper.getFactory().createParser(reader);
-      MappingIterator<PipelineStateJson> pipelineStateMappingIterator =
-        objectMapper.readValues(jsonParser, PipelineStateJson.class);
-      List<PipelineStateJson> pipelineStateJsons = pipelineStateMappingIterator.readAll();
-      Collections.reverse(pipelineStateJsons);
-      if (fromBeginning) {
-        return BeanHelper.unwrapPipelineStatesNewAPI(pipelineStateJsons);
-      } else {
-        int toIndex = pipelineStateJsons.size() > 100 ? 100 : pipelineStateJsons.size();
-        return BeanHelper.unwrapPipelineStatesNewAPI(pipelineStateJsons.subList(0, toIndex));
+      List<String> lines = new ArrayList<>();
+      String line;
+      while (pipelineStateJsons.size() < limit && (line = reader.readLine()) != null) {
+        lines.add(line);
+        // Every state starts on a new line with an opening brace, the rest of a (pretty printed) state is indented
+        if (line.startsWith("{")) {
+          Collections.reverse(lines);
+          pipelineStateJsons.add(objectMapper.readValue(String.join("\n", lines), PipelineStateJson.class));
+          lines.clear();
+        }
       }
+      return BeanHelper.unwrapPipelineStatesNewAPI(pipelineStateJsons);
     } catch (IOException e) {
       throw new PipelineStoreException(ContainerError.CONTAINER_0115, pipelineName, rev, e.toString(), e);
     }
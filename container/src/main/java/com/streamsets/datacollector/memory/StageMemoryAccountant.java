@@ -0,0 +1,213 @@
+/*
+ * Copyright 2017 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.memory;
+
+import com.codahale.metrics.Counter;
+import com.google.common.annotations.VisibleForTesting;
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Low overhead alternative to the {@link MemoryUsageCollector}.
+ * <p/>
+ * Rather than walking the stage object graph, the memory consumed by a stage is estimated from the bytes allocated by
+ * the thread while the stage processes a batch (smoothed across batches) plus an estimate of the size of the records
+ * the stage produced and that are held in the pipe batch until the batch completes.
+ * <p/>
+ * The estimate is reported into the same memoryConsumed counter (in MB) used by the memory limit enforcement. When
+ * several runners run the same stage, each one adds its own share to the counter.
+ */
+public class StageMemoryAccountant {
+  private static final Logger LOG = LoggerFactory.getLogger(StageMemoryAccountant.class);
+
+  public static final String MODE_KEY = "monitor.memory.mode";
+  public static final String MODE_OBJECT_GRAPH = "object-graph";
+  public static final String MODE_ALLOCATION = "allocation";
+  public static final String MODE_DEFAULT = MODE_OBJECT_GRAPH;
+
+  // rough JVM sizes (64 bits with compressed oops) used for estimating record sizes
+  static final int RECORD_OVERHEAD = 256;
+  static final int FIELD_OVERHEAD = 32;
+  static final int STRING_OVERHEAD = 40;
+  static final int ARRAY_OVERHEAD = 16;
+  static final int ENTRY_OVERHEAD = 32;
+  static final int REFERENCE_SIZE = 8;
+  static final int BOXED_SIZE = 16;
+
+  // number of records sampled per lane for estimating the size of a lane
+  static final int SAMPLE_SIZE = 8;
+
+  // weight of the last batch in the smoothed allocation
+  static final double ALLOCATION_WEIGHT = 0.2;
+
+  private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN = getThreadMXBean();
+
+  private static com.sun.management.ThreadMXBean getThreadMXBean() {
+    ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (bean instanceof com.sun.management.ThreadMXBean) {
+      com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+      try {
+        if (sunBean.isThreadAllocatedMemorySupported()) {
+          if (!sunBean.isThreadAllocatedMemoryEnabled()) {
+            sunBean.setThreadAllocatedMemoryEnabled(true);
+          }
+          return sunBean;
+        }
+      } catch (UnsupportedOperationException | SecurityException ex) {
+        LOG.warn("Thread allocated memory is not available: {}", ex.toString(), ex);
+      }
+    }
+    return null;
+  }
+
+  private final Counter memoryConsumed;
+  private double smoothedAllocation;
+  private long lastAllocation;
+  private long reportedMb;
+
+  public StageMemoryAccountant(Counter memoryConsumed) {
+    this.memoryConsumed = memoryConsumed;
+  }
+
+  /**
+   * Indicates if per thread allocated bytes are available in this JVM, if not only records are accounted.
+   */
+  public static boolean isAllocationSupported() {
+    return THREAD_MX_BEAN != null;
+  }
+
+  /**
+   * Returns the bytes allocated so far by the current thread, to be passed to {@link #processed(long)}.
+   */
+  public long getAllocatedBytes() {
+    return (THREAD_MX_BEAN != null) ? THREAD_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId()) : 0;
+  }
+
+  /**
+   * Records the bytes the current thread allocated while the stage was processing the batch.
+   *
+   * @param allocatedBytesBefore value of {@link #getAllocatedBytes()} before the stage started processing.
+   */
+  public void processed(long allocatedBytesBefore) {
+    lastAllocation = Math.max(0, getAllocatedBytes() - allocatedBytesBefore);
+  }
+
+  /**
+   * Updates the memoryConsumed counter with the estimate of the batch the stage just completed.
+   *
+   * @param stageOutput records produced by the stage, held in the pipe batch by downstream stages.
+   * @return the estimated memory consumed by the stage, in bytes.
+   */
+  public long batchCompleted(Map<String, List<Record>> stageOutput) {
+    long recordBytes = 0;
+    for (List<Record> records : stageOutput.values()) {
+      recordBytes += estimateRecordsSize(records);
+    }
+    // the allocation not ending up in the output records approximates the working memory of the stage
+    long workingBytes = Math.max(0, lastAllocation - recordBytes);
+    smoothedAllocation = ALLOCATION_WEIGHT * workingBytes + (1 - ALLOCATION_WEIGHT) * smoothedAllocation;
+    lastAllocation = 0;
+
+    long consumed = recordBytes + (long) smoothedAllocation;
+    long consumedMb = consumed / 1000000;
+    memoryConsumed.inc(consumedMb - reportedMb);
+    reportedMb = consumedMb;
+    return consumed;
+  }
+
+  /**
+   * Removes this accountant's share from the memoryConsumed counter.
+   */
+  public void reset() {
+    memoryConsumed.dec(reportedMb);
+    reportedMb = 0;
+    smoothedAllocation = 0;
+    lastAllocation = 0;
+  }
+
+  /**
+   * Estimates the size of a list of records by sampling up to {@link #SAMPLE_SIZE} evenly spread records.
+   */
+  @VisibleForTesting
+  static long estimateRecordsSize(List<Record> records) {
+    int size = records.size();
+    if (size == 0) {
+      return 0;
+    }
+    int samples = Math.min(size, SAMPLE_SIZE);
+    int step = size / samples;
+    long sampled = 0;
+    for (int i = 0; i < samples; i++) {
+      sampled += estimateRecordSize(records.get(i * step));
+    }
+    return (long) ARRAY_OVERHEAD + (long) size * REFERENCE_SIZE + sampled * size / samples;
+  }
+
+  @VisibleForTesting
+  static long estimateRecordSize(Record record) {
+    return RECORD_OVERHEAD + estimateFieldSize(record.get());
+  }
+
+  @VisibleForTesting
+  static long estimateFieldSize(Field field) {
+    if (field == null) {
+      return 0;
+    }
+    long size = FIELD_OVERHEAD;
+    Object value = field.getValue();
+    if (value == null) {
+      return size;
+    }
+    switch (field.getType()) {
+      case STRING:
+        size += estimateStringSize((String) value);
+        break;
+      case BYTE_ARRAY:
+        size += ARRAY_OVERHEAD + ((byte[]) value).length;
+        break;
+      case MAP:
+      case LIST_MAP:
+        Map<String, Field> map = field.getValueAsMap();
+        size += ARRAY_OVERHEAD + (long) map.size() * REFERENCE_SIZE;
+        for (Map.Entry<String, Field> entry : map.entrySet()) {
+          size += ENTRY_OVERHEAD + estimateStringSize(entry.getKey()) + estimateFieldSize(entry.getValue());
+        }
+        break;
+      case LIST:
+        List<Field> list = field.getValueAsList();
+        size += ARRAY_OVERHEAD + (long) list.size() * REFERENCE_SIZE;
+        for (Field element : list) {
+          size += estimateFieldSize(element);
+        }
+        break;
+      default:
+        size += BOXED_SIZE;
+    }
+    return size;
+  }
+
+  private static long estimateStringSize(String value) {
+    return (value == null) ? 0 : STRING_OVERHEAD + 2L * value.length();
+  }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2017 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.record;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Handle to an already parsed field path.
+ *
+ * Code accessing the same field path for every record should obtain the handle once (e.g. during init) and use the
+ * {@link RecordImpl} methods accepting it, so that the path is not tokenized on every call.
+ */
+public final class FieldPath {
+
+  private final String path;
+  private final List<PathElement> elements;
+
+  private FieldPath(String path, List<PathElement> elements) {
+    this.path = path;
+    this.elements = elements;
+  }
+
+  /**
+   * Parses the given single quote escaped field path.
+   *
+   * @throws IllegalArgumentException if the field path is not valid
+   */
+  public static FieldPath of(String fieldPath) {
+    Preconditions.checkNotNull(fieldPath, "fieldPath cannot be null");
+    return new FieldPath(fieldPath, Collections.unmodifiableList(PathElement.parse(fieldPath, true)));
+  }
+
+  public String getPath() {
+    return path;
+  }
+
+  List<PathElement> getElements() {
+    return elements;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return this == o || (o instanceof FieldPath && path.equals(((FieldPath) o).path));
+  }
+
+  @Override
+  public int hashCode() {
+    return path.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return path;
+  }
+
+}
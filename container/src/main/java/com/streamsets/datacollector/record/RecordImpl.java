@@ -271,7 +271,7 @@ public class RecordImpl implements Record, Cloneable {
     return PathElement.parse(fieldPath, true);
   }
 
-  private List<Field> get(List<PathElement> elements) {
+  private List<Field> getFields(List<PathElement> elements) {
     List<Field> fields = new ArrayList<>(elements.size());
     if (value != null) {
       Field current = value;
@@ -321,16 +321,30 @@ public class RecordImpl implements Record, Cloneable {
 
   @Override
   public Field get(String fieldPath) {
-    List<PathElement> elements = parse(fieldPath);
-    List<Field> fields = get(elements);
+    return getField(parse(fieldPath));
+  }
+
+  public Field get(FieldPath fieldPath) {
+    return getField(fieldPath.getElements());
+  }
+
+  private Field getField(List<PathElement> elements) {
+    List<Field> fields = getFields(elements);
     return (elements.size() == fields.size()) ? fields.get(fields.size() - 1) : null;
   }
 
 
   @Override
   public Field delete(String fieldPath) {
-    List<PathElement> elements = parse(fieldPath);
-    List<Field> fields = get(elements);
+    return deleteField(parse(fieldPath));
+  }
+
+  public Field delete(FieldPath fieldPath) {
+    return deleteField(fieldPath.getElements());
+  }
+
+  private Field deleteField(List<PathElement> elements) {
+    List<Field> fields = getFields(elements);
     Field deleted = null;
     int fieldPos = fields.size();
     if (elements.size() == fieldPos) {
@@ -361,9 +375,15 @@ public class RecordImpl implements Record, Cloneable {
 
   @Override
   public boolean has(String fieldPath) {
-    List<PathElement> elements = parse(fieldPath);
-    List<Field> fields = get(elements);
-    return (elements.size() == fields.size());
+    return hasField(parse(fieldPath));
+  }
+
+  public boolean has(FieldPath fieldPath) {
+    return hasField(fieldPath.getElements());
+  }
+
+  private boolean hasField(List<PathElement> elements) {
+    return (elements.size() == getFields(elements).size());
   }
 
   @Override
@@ -512,13 +532,20 @@ public class RecordImpl implements Record, Cloneable {
 
   @Override
   public Field set(String fieldPath, Field newField) {
+    return setField(fieldPath, parse(fieldPath), newField);
+  }
+
+  public Field set(FieldPath fieldPath, Field newField) {
+    return setField(fieldPath.getPath(), fieldPath.getElements(), newField);
+  }
+
+  private Field setField(String fieldPath, List<PathElement> elements, Field newField) {
     //get all the elements present in the fieldPath, including the newest element
     //For example, if the existing record has /a/b/c and the argument fieldPath is /a/b/d the parser returns three
     // elements - a, b and d
-    List<PathElement> elements = parse(fieldPath);
     //return all *existing* fields form the list of elements
     //In the above case it is going to return only field a and field b. Field d does not exist.
-    List<Field> fields = get(elements);
+    List<Field> fields = getFields(elements);
     Field fieldToReplace;
     int fieldPos = fields.size();
     if (elements.size() == fieldPos) {
@@ -19,6 +19,7 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.util.concurrent.RateLimiter;
 import com.streamsets.datacollector.config.StageType;
+import com.streamsets.datacollector.execution.snapshot.common.SnapshotBatchEncoder;
 import com.streamsets.datacollector.record.RecordImpl;
 import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.impl.Utils;
@@ -42,6 +43,7 @@ public class FullPipeBatch implements PipeBatch {
   private final Map<String, List<Record>> fullPayload;
   private final Set<String> processedStages;
   private final List<StageOutput> stageOutputSnapshot;
+  private final SnapshotBatchEncoder snapshotBatchEncoder;
   private final ErrorSink errorSink;
   private final EventSink eventSink;
   private final ProcessedSink processedSink;
@@ -51,12 +53,31 @@ public class FullPipeBatch implements PipeBatch {
   private RateLimiter rateLimiter;
 
   public FullPipeBatch(String sourceEntity, String lastOffset, int batchSize, boolean snapshotStagesOutput) {
+    this(sourceEntity, lastOffset, batchSize, snapshotStagesOutput, null);
+  }
+
+  /**
+   * Creates a batch whose stages output is encoded to the given encoder as each stage completes, rather than keeping
+   * a copy of all records in memory.
+   */
+  public FullPipeBatch(String sourceEntity, String lastOffset, int batchSize, SnapshotBatchEncoder snapshotEncoder) {
+    this(sourceEntity, lastOffset, batchSize, false, snapshotEncoder);
+  }
+
+  private FullPipeBatch(
+      String sourceEntity,
+      String lastOffset,
+      int batchSize,
+      boolean snapshotStagesOutput,
+      SnapshotBatchEncoder snapshotBatchEncoder
+  ) {
     this.sourceEntity = sourceEntity;
     this.lastOffset = lastOffset;
     this.batchSize = batchSize;
     fullPayload = new HashMap<>();
     processedStages = new HashSet<>();
     stageOutputSnapshot = (snapshotStagesOutput) ? new ArrayList<StageOutput>() : null;
+    this.snapshotBatchEncoder = snapshotBatchEncoder;
     errorSink = new ErrorSink();
     eventSink = new EventSink();
     processedSink = new ProcessedSink();
@@ -150,6 +171,11 @@ public class FullPipeBatch implements PipeBatch {
       String instanceName = pipe.getStage().getInfo().getInstanceName();
       stageOutputSnapshot.add(new StageOutput(instanceName, batchMaker.getStageOutputSnapshot(), errorSink, eventSink));
     }
+    if (snapshotBatchEncoder != null) {
+      // Records are encoded before any following stage gets a chance to modify them
+      String instanceName = pipe.getStage().getInfo().getInstanceName();
+      snapshotBatchEncoder.write(new StageOutput(instanceName, stageOutput, errorSink, eventSink));
+    }
     if (pipe.getStage().getDefinition().getType().isOneOf(StageType.TARGET, StageType.EXECUTOR)) {
       outputRecords -= errorSink.getErrorRecords(pipe.getStage().getInfo().getInstanceName()).size();
     }
@@ -215,6 +241,9 @@ public class FullPipeBatch implements PipeBatch {
           stageOutput.getEventRecords()
       ));
     }
+    if (snapshotBatchEncoder != null) {
+      snapshotBatchEncoder.write(stageOutput);
+    }
   }
 
   @Override
@@ -222,6 +251,13 @@ public class FullPipeBatch implements PipeBatch {
     return stageOutputSnapshot;
   }
 
+  /**
+   * Returns the encoder of the stages output if this batch is captured by a streaming snapshot, null otherwise.
+   */
+  public SnapshotBatchEncoder getSnapshotBatchEncoder() {
+    return snapshotBatchEncoder;
+  }
+
   @Override
   public List<StageOutput> createFailureSnapshot() {
     // Stage name -> (Lane name -> Records)
@@ -330,7 +366,7 @@ public class FullPipeBatch implements PipeBatch {
       lastOffset,
       newOffset,
       batchSize,
-      stageOutputSnapshot != null,
+      stageOutputSnapshot != null || snapshotBatchEncoder != null,
       errorSink.size()
     );
   }
@@ -27,7 +27,9 @@ import com.streamsets.datacollector.creation.PipelineStageBeans;
 import com.streamsets.datacollector.creation.ServiceBean;
 import com.streamsets.datacollector.creation.StageBean;
 import com.streamsets.datacollector.email.EmailSender;
+import com.streamsets.datacollector.execution.runner.common.Constants;
 import com.streamsets.datacollector.execution.runner.common.PipelineStopReason;
+import com.streamsets.datacollector.execution.runner.common.ProductionPipelineRunner;
 import com.streamsets.datacollector.lineage.LineageEventImpl;
 import com.streamsets.datacollector.lineage.LineagePublisherDelegator;
 import com.streamsets.datacollector.lineage.LineagePublisherTask;
@@ -38,6 +40,7 @@ import com.streamsets.datacollector.runner.production.StatsAggregationHandler;
 import com.streamsets.datacollector.stagelibrary.StageLibraryTask;
 import com.streamsets.datacollector.util.Configuration;
 import com.streamsets.datacollector.util.ContainerError;
+import com.streamsets.datacollector.util.PipelineDirectoryUtil;
 import com.streamsets.datacollector.validation.Issue;
 import com.streamsets.datacollector.validation.IssueCreator;
 import com.streamsets.pipeline.api.Config;
@@ -57,6 +60,7 @@ import com.streamsets.pipeline.api.lineage.LineageEventType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -74,6 +78,7 @@ public class Pipeline {
   private static final String MAX_RUNNERS_CONFIG_KEY = "pipeline.max.runners.count";
   private static final int MAX_RUNNERS_DEFAULT = 50;
   private static final String FRAMEWORK_NAME = "Framework";
+  private static final String ERROR_RECORDS_SPOOL_DIR = "errorRecords";
 
   private final PipelineBean pipelineBean;
   private final String name;
@@ -519,6 +524,20 @@ public class Pipeline {
     }
   }
 
+  /**
+   * Start cooperative execution - the runner is only prepared and batches are driven by the caller through
+   * ProductionPipelineRunner.runCooperativeBatch() until finishCooperativeRun() is called.
+   */
+  public void startCooperativeRun() {
+    this.running = true;
+    runner.setObserver(observer);
+    ((ProductionPipelineRunner)runner).prepare(originPipe, pipes, badRecordsHandler, statsAggregationHandler);
+  }
+
+  public void finishCooperativeRun() {
+    this.running = false;
+  }
+
   public boolean isRunning() {
     return running;
   }
@@ -659,11 +678,28 @@ public class Pipeline {
           startTime,
           lineagePublisherTask
         );
+        // Preview never commits offsets, so there is nothing to gain from writing error records in background
+        boolean asyncErrorRecords = !runner.isPreview() && configuration.get(
+          Constants.ERROR_RECORDS_ASYNC_KEY,
+          Constants.ERROR_RECORDS_ASYNC_DEFAULT
+        );
         BadRecordsHandler badRecordsHandler = new BadRecordsHandler(
           pipelineBean.getConfig().errorRecordPolicy,
           runner.getRuntimeInfo(),
           errorStage,
-          pipelineName
+          pipelineName,
+          asyncErrorRecords ? new File(
+            PipelineDirectoryUtil.getPipelineDir(runner.getRuntimeInfo(), pipelineName, rev),
+            ERROR_RECORDS_SPOOL_DIR
+          ) : null,
+          configuration.get(
+            Constants.ERROR_RECORDS_ASYNC_BUFFER_SIZE_KEY,
+            Constants.ERROR_RECORDS_ASYNC_BUFFER_SIZE_DEFAULT
+          ),
+          configuration.get(
+            Constants.ERROR_RECORDS_ASYNC_MAX_BATCH_SIZE_KEY,
+            Constants.ERROR_RECORDS_ASYNC_MAX_BATCH_SIZE_DEFAULT
+          )
         );
 
         // And finally Stats aggregation
@@ -16,6 +16,8 @@
 package com.streamsets.datacollector.runner;
 
 import com.google.common.base.Preconditions;
+import com.streamsets.datacollector.record.FieldPath;
+import com.streamsets.datacollector.record.RecordImpl;
 import com.streamsets.datacollector.util.ContainerError;
 import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.impl.ErrorMessage;
@@ -25,10 +27,25 @@ import java.util.List;
 
 public class RequiredFieldsPredicate implements FilterRecordBatch.Predicate {
   private final List<String> requiredFields;
+  // Required fields are checked on every record, so they are parsed only once. Null for paths that can't be parsed,
+  // those are checked through the record's String based method that reports the error.
+  private final List<FieldPath> requiredFieldPaths;
   private final List<String> missingFields;
 
   public RequiredFieldsPredicate(List<String> requiredFields) {
     this.requiredFields = requiredFields;
+    requiredFieldPaths = new ArrayList<>();
+    if (requiredFields != null) {
+      for (String field : requiredFields) {
+        FieldPath fieldPath;
+        try {
+          fieldPath = FieldPath.of(field);
+        } catch (IllegalArgumentException ex) {
+          fieldPath = null;
+        }
+        requiredFieldPaths.add(fieldPath);
+      }
+    }
     missingFields = new ArrayList<>();
   }
 
@@ -37,9 +54,9 @@ public class RequiredFieldsPredicate implements FilterRecordBatch.Predicate {
     boolean eval = true;
     if (requiredFields != null && !requiredFields.isEmpty()) {
       missingFields.clear();
-      for (String field : requiredFields) {
-        if (!record.has(field)) {
-          missingFields.add(field);
+      for (int i = 0; i < requiredFields.size(); i++) {
+        if (!has(record, i)) {
+          missingFields.add(requiredFields.get(i));
         }
       }
       eval = missingFields.isEmpty();
@@ -47,6 +64,14 @@ public class RequiredFieldsPredicate implements FilterRecordBatch.Predicate {
     return eval;
   }
 
+  private boolean has(Record record, int index) {
+    FieldPath fieldPath = requiredFieldPaths.get(index);
+    if (fieldPath != null && record instanceof RecordImpl) {
+      return ((RecordImpl) record).has(fieldPath);
+    }
+    return record.has(requiredFields.get(index));
+  }
+
   @Override
   public ErrorMessage getRejectedMessage() {
     Preconditions.checkState(!missingFields.isEmpty(), "Called for record that passed the predicate check");
@@ -26,6 +26,7 @@ import com.streamsets.datacollector.config.StageType;
 import com.streamsets.datacollector.memory.MemoryMonitor;
 import com.streamsets.datacollector.memory.MemoryUsageCollector;
 import com.streamsets.datacollector.memory.MemoryUsageCollectorResourceBundle;
+import com.streamsets.datacollector.memory.StageMemoryAccountant;
 import com.streamsets.datacollector.metrics.MetricsConfigurator;
 import com.streamsets.datacollector.restapi.bean.CounterJson;
 import com.streamsets.datacollector.restapi.bean.HistogramJson;
@@ -73,6 +74,7 @@ public class StagePipe extends Pipe<StagePipe.Context> {
   private final Configuration configuration;
   private final MetricRegistryJson metricRegistryJson;
   private Map<String, Object> batchMetrics;
+  private StageMemoryAccountant memoryAccountant;
   FilterRecordBatch.Predicate[] predicates;
 
   @VisibleForTesting
@@ -185,11 +187,21 @@ public class StagePipe extends Pipe<StagePipe.Context> {
       }
       this.context = pipeContext;
       if (configuration.get("monitor.memory", false)) {
-        LOG.info("Starting memory collector for {}", getStage().getInfo().getInstanceName());
-        scheduledExecutorService.submit(
-          new MemoryMonitor(memoryConsumedCounter, () -> new MemoryUsageCollector.Builder()
-            .setMemoryUsageCollectorResourceBundle(memoryUsageCollectorResourceBundle)
-            .setStageRuntime(getStage()).build()));
+        String mode = configuration.get(StageMemoryAccountant.MODE_KEY, StageMemoryAccountant.MODE_DEFAULT);
+        if (StageMemoryAccountant.MODE_ALLOCATION.equals(mode)) {
+          LOG.info(
+              "Starting memory accounting for {}, thread allocation supported: {}",
+              getStage().getInfo().getInstanceName(),
+              StageMemoryAccountant.isAllocationSupported()
+          );
+          memoryAccountant = new StageMemoryAccountant(memoryConsumedCounter);
+        } else {
+          LOG.info("Starting memory collector for {}", getStage().getInfo().getInstanceName());
+          scheduledExecutorService.submit(
+            new MemoryMonitor(memoryConsumedCounter, () -> new MemoryUsageCollector.Builder()
+              .setMemoryUsageCollectorResourceBundle(memoryUsageCollectorResourceBundle)
+              .setStageRuntime(getStage()).build()));
+        }
       }
       createRuntimeStatsGauge(metrics);
 
@@ -216,6 +228,7 @@ public class StagePipe extends Pipe<StagePipe.Context> {
     Batch batch = new FilterRecordBatch(batchImpl, predicates, getStage().getContext());
 
     long start = System.currentTimeMillis();
+    long allocatedBytes = (memoryAccountant != null) ? memoryAccountant.getAllocatedBytes() : 0;
     String newOffset = getStage().execute(
         previousOffset,
         pipeBatch.getBatchSize(),
@@ -225,6 +238,9 @@ public class StagePipe extends Pipe<StagePipe.Context> {
         eventSink,
         processedSink
     );
+    if (memoryAccountant != null) {
+      memoryAccountant.processed(allocatedBytes);
+    }
     if (isSource()) {
       pipeBatch.setNewOffset(newOffset);
     }
@@ -302,6 +318,10 @@ public class StagePipe extends Pipe<StagePipe.Context> {
     batchMetrics.put(AggregatorUtil.STAGE_ERROR, stageErrorsCount);
     batchMetrics.put(AggregatorUtil.OUTPUT_RECORDS_PER_LANE, outputRecordsPerLane);
 
+    if (memoryAccountant != null) {
+      memoryAccountant.batchCompleted(batchMaker.getStageOutput());
+    }
+
     pipeBatch.completeStage(batchMaker);
 
     // In this is source pipe, update source-specific metrics
@@ -329,6 +349,9 @@ public class StagePipe extends Pipe<StagePipe.Context> {
     ProcessedSink processedSink = pipeBatch.getProcessedSink();
 
     getStage().destroy(errorSink, eventSink, processedSink);
+    if (memoryAccountant != null) {
+      memoryAccountant.reset();
+    }
 
     pipeBatch.completeStage(this);
   }
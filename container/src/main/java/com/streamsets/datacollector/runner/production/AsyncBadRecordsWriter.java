@@ -0,0 +1,299 @@
+/*
+ * Copyright 2017 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.runner.production;
+
+import com.streamsets.datacollector.record.io.SdcJsonRecordReader;
+import com.streamsets.datacollector.record.io.SdcJsonRecordWriter;
+import com.streamsets.datacollector.util.ContainerError;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.StageException;
+import com.streamsets.pipeline.api.ext.RecordReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Writes error records to the error stage on a background thread.
+ *
+ * Error records of each pipeline batch are first spooled into a segment file in a local directory (and synced to disk)
+ * and only then handed over to the background thread, so they survive a crash of the data collector even though the
+ * batch offset was already committed. Segments left behind by a previous run are replayed first, a segment is deleted
+ * once its records were written to the error stage - this gives at-least-once delivery to the error stage.
+ *
+ * The background thread merges consecutive segments into error stage batches of up to the configured size. When the
+ * spool holds more records than its limit, records are written directly on the caller thread rather than waiting for
+ * the background thread. A failure of the error stage is reported to the next caller.
+ */
+class AsyncBadRecordsWriter {
+  private static final Logger LOG = LoggerFactory.getLogger(AsyncBadRecordsWriter.class);
+  private static final long POLL_MILLIS = 100;
+  // Segment file name is <sequence>-<number of records>
+  private static final Pattern SEGMENT_NAME = Pattern.compile("(\\d+)-(\\d+)\\.spool");
+  private static final String TMP_SUFFIX = ".tmp";
+
+  /**
+   * Destination of the batches assembled by the writer.
+   */
+  interface Sink {
+    void write(String sourceEntity, String sourceOffset, List<Record> records) throws StageException;
+  }
+
+  private final String name;
+  private final File spoolDir;
+  private final int maxSpooledRecords;
+  private final int maxBatchSize;
+  private final Sink sink;
+  private final PriorityBlockingQueue<Segment> segments;
+  private final AtomicLong sequence;
+  private final AtomicLong spooledRecords;
+  private volatile boolean stopped;
+  private volatile StageException failure;
+  private Thread thread;
+
+  AsyncBadRecordsWriter(String name, File spoolDir, int maxSpooledRecords, int maxBatchSize, Sink sink) {
+    this.name = name;
+    this.spoolDir = spoolDir;
+    this.maxSpooledRecords = maxSpooledRecords;
+    this.maxBatchSize = Math.max(1, maxBatchSize);
+    this.sink = sink;
+    this.segments = new PriorityBlockingQueue<>();
+    this.sequence = new AtomicLong();
+    this.spooledRecords = new AtomicLong();
+  }
+
+  /**
+   * Picks up segments left behind by a previous run and starts the background thread.
+   */
+  synchronized void start() throws IOException {
+    if (thread != null) {
+      return;
+    }
+    if (!spoolDir.isDirectory() && !spoolDir.mkdirs()) {
+      throw new IOException("Could not create error records spool directory " + spoolDir);
+    }
+    File[] files = spoolDir.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        Matcher matcher = SEGMENT_NAME.matcher(file.getName());
+        if (matcher.matches()) {
+          Segment segment = new Segment(file, Long.parseLong(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+          segments.add(segment);
+          spooledRecords.addAndGet(segment.count);
+          sequence.set(Math.max(sequence.get(), segment.sequence + 1));
+        } else if (file.getName().endsWith(TMP_SUFFIX)) {
+          // Crashed before the segment was complete, its batch was never committed
+          Files.delete(file.toPath());
+        }
+      }
+    }
+    if (!segments.isEmpty()) {
+      LOG.info(
+          "Replaying {} error records of pipeline '{}' spooled by the previous run",
+          spooledRecords.get(),
+          name
+      );
+    }
+    thread = new Thread(this::run, "errorRecordsWriter-" + name);
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Spools given records, the call returns once the records are persisted on local disk.
+   */
+  void add(String sourceEntity, String sourceOffset, List<Record> records) throws StageException {
+    checkFailure();
+    if (stopped) {
+      throw new IllegalStateException("Error records writer has been stopped");
+    }
+    if (spooledRecords.get() + records.size() > maxSpooledRecords) {
+      LOG.debug("Error records spool of pipeline '{}' is full, writing records directly", name);
+      sink.write(sourceEntity, sourceOffset, records);
+      return;
+    }
+
+    long seq = sequence.getAndIncrement();
+    File file = new File(spoolDir, seq + "-" + records.size() + ".spool");
+    File tmpFile = new File(spoolDir, file.getName() + TMP_SUFFIX);
+    try {
+      try (FileOutputStream fileStream = new FileOutputStream(tmpFile)) {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileStream));
+        writeString(out, sourceEntity);
+        writeString(out, sourceOffset);
+        SdcJsonRecordWriter writer = new SdcJsonRecordWriter(out);
+        for (Record record : records) {
+          writer.write(record);
+        }
+        writer.flush();
+        fileStream.getFD().sync();
+      }
+      Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      throw new StageException(ContainerError.CONTAINER_0706, e.toString(), e);
+    }
+    spooledRecords.addAndGet(records.size());
+    segments.add(new Segment(file, seq, records.size()));
+  }
+
+  /**
+   * Stops the background thread and writes all spooled records on the caller thread.
+   */
+  void flush() throws StageException {
+    stopped = true;
+    Thread writer;
+    synchronized (this) {
+      writer = thread;
+    }
+    if (writer != null) {
+      try {
+        writer.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    checkFailure();
+    while (writeNextBatch()) {
+      // Drain the spool
+    }
+  }
+
+  long getSpooledRecords() {
+    return spooledRecords.get();
+  }
+
+  private void run() {
+    try {
+      while (!stopped) {
+        if (!writeNextBatch()) {
+          Thread.sleep(POLL_MILLIS);
+        }
+      }
+    } catch (InterruptedException e) {
+      LOG.warn("Error records writer of pipeline '{}' was interrupted", name);
+    } catch (StageException e) {
+      LOG.error("Error records writer of pipeline '{}' failed: {}", name, e.toString(), e);
+      failure = e;
+    } catch (RuntimeException e) {
+      LOG.error("Error records writer of pipeline '{}' failed: {}", name, e.toString(), e);
+      failure = new StageException(ContainerError.CONTAINER_0706, e.toString(), e);
+    }
+  }
+
+  /**
+   * Writes records of one or more consecutive segments to the error stage and deletes the segments afterwards.
+   *
+   * @return false if there was nothing to write
+   */
+  private boolean writeNextBatch() throws StageException {
+    List<Segment> batch = new ArrayList<>();
+    List<Record> records = new ArrayList<>();
+    String sourceEntity = null;
+    String sourceOffset = null;
+    try {
+      Segment segment;
+      // Records of a single segment are never split
+      while ((segment = segments.peek()) != null
+          && (batch.isEmpty() || records.size() + segment.count <= maxBatchSize)) {
+        segments.poll();
+        batch.add(segment);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(segment.file)))) {
+          sourceEntity = readString(in);
+          sourceOffset = readString(in);
+          RecordReader reader = new SdcJsonRecordReader(in, 0, -1);
+          Record record;
+          while ((record = reader.readRecord()) != null) {
+            records.add(record);
+          }
+        }
+      }
+    } catch (IOException e) {
+      throw new StageException(ContainerError.CONTAINER_0706, e.toString(), e);
+    }
+    if (batch.isEmpty()) {
+      return false;
+    }
+
+    sink.write(sourceEntity, sourceOffset, records);
+
+    for (Segment segment : batch) {
+      if (!segment.file.delete()) {
+        LOG.warn("Could not delete error records spool file {}", segment.file);
+      }
+      spooledRecords.addAndGet(-segment.count);
+    }
+    return true;
+  }
+
+  private void checkFailure() throws StageException {
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    if (value == null) {
+      out.writeInt(-1);
+    } else {
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      out.writeInt(bytes.length);
+      out.write(bytes);
+    }
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    if (length < 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static class Segment implements Comparable<Segment> {
+    private final File file;
+    private final long sequence;
+    private final int count;
+
+    private Segment(File file, long sequence, int count) {
+      this.file = file;
+      this.sequence = sequence;
+      this.count = count;
+    }
+
+    @Override
+    public int compareTo(Segment other) {
+      return Long.compare(sequence, other.sequence);
+    }
+  }
+}
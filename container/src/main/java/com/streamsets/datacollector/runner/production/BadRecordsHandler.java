@@ -22,10 +22,14 @@ import com.streamsets.datacollector.runner.BatchImpl;
 import com.streamsets.datacollector.runner.ErrorSink;
 import com.streamsets.datacollector.runner.StagePipe;
 import com.streamsets.datacollector.runner.StageRuntime;
+import com.streamsets.datacollector.util.ContainerError;
 import com.streamsets.datacollector.validation.Issue;
+import com.streamsets.datacollector.validation.IssueCreator;
 import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.StageException;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -35,17 +39,42 @@ public class BadRecordsHandler {
   private final RuntimeInfo runtimeInfo;
   private final String pipelineName;
   private final StageRuntime errorStage;
+  private final AsyncBadRecordsWriter asyncWriter;
 
   public BadRecordsHandler(
     ErrorRecordPolicy errorRecordPolicy,
     RuntimeInfo runtimeInfo,
     StageRuntime errorStage,
     String pipelineName
+  ) {
+    this(errorRecordPolicy, runtimeInfo, errorStage, pipelineName, null, 0, 0);
+  }
+
+  /**
+   * @param asyncSpoolDir when not null, error records are spooled (up to asyncBufferSize records) into this directory
+   * and written to the error stage by a background thread in batches of up to asyncMaxBatchSize records. Records
+   * spooled by a previous run are replayed when the handler is initialized.
+   */
+  public BadRecordsHandler(
+    ErrorRecordPolicy errorRecordPolicy,
+    RuntimeInfo runtimeInfo,
+    StageRuntime errorStage,
+    String pipelineName,
+    File asyncSpoolDir,
+    int asyncBufferSize,
+    int asyncMaxBatchSize
   ) {
     this.errorRecordPolicy = errorRecordPolicy;
     this.runtimeInfo = runtimeInfo;
     this.errorStage = errorStage;
     this.pipelineName = pipelineName;
+    this.asyncWriter = asyncSpoolDir == null ? null : new AsyncBadRecordsWriter(
+      pipelineName,
+      asyncSpoolDir,
+      asyncBufferSize,
+      asyncMaxBatchSize,
+      this::write
+    );
   }
 
   public String getInstanceName() {
@@ -53,7 +82,16 @@ public class BadRecordsHandler {
   }
 
   public List<Issue> init(StagePipe.Context context) {
-    return  errorStage.init();
+    List<Issue> issues = errorStage.init();
+    if (issues.isEmpty() && asyncWriter != null) {
+      try {
+        asyncWriter.start();
+      } catch (IOException ex) {
+        issues = new ArrayList<>(issues);
+        issues.add(IssueCreator.getStage(getInstanceName()).create(ContainerError.CONTAINER_0700, ex.toString()));
+      }
+    }
+    return issues;
   }
 
   public void handle(String sourceEntity, String sourceOffset, ErrorSink errorSink) throws StageException {
@@ -65,6 +103,14 @@ public class BadRecordsHandler {
       return;
     }
 
+    if (asyncWriter != null) {
+      asyncWriter.add(sourceEntity, sourceOffset, badRecords);
+    } else {
+      write(sourceEntity, sourceOffset, badRecords);
+    }
+  }
+
+  private void write(String sourceEntity, String sourceOffset, List<Record> badRecords) throws StageException {
     synchronized (errorStage) {
       errorStage.execute(
           sourceOffset,
@@ -84,8 +130,15 @@ public class BadRecordsHandler {
     }
   }
 
-  public void destroy() {
-    errorStage.getStage().destroy();
+  public void destroy() throws StageException {
+    try {
+      // Error records spooled for the background writer must reach the error stage before it's destroyed
+      if (asyncWriter != null) {
+        asyncWriter.flush();
+      }
+    } finally {
+      errorStage.getStage().destroy();
+    }
   }
 
   /**
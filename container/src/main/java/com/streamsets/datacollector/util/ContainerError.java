@@ -129,6 +129,7 @@ public enum ContainerError implements ErrorCode {
   CONTAINER_0703("Stats Aggregator stage initialization error: {}"),
   CONTAINER_0704("Can't create additional pipeline runners: {}"),
   CONTAINER_0705("Requested number of runners {} is higher than allowed maximum of {}"),
+  CONTAINER_0706("Error stage failed while writing error records in background: {}"),
 
   //Pipeline Lifecycle events
   CONTAINER_0790("Pipeline lifecycle event stage initialization error: {}"),
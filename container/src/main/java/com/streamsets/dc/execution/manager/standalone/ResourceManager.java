@@ -45,6 +45,21 @@ public class ResourceManager implements StateEventListener {
     }
   }
 
+  /**
+   * Replace existing reservation with a different one, returns false (and keeps the original reservation) if there
+   * is not enough capacity for the new one.
+   */
+  public boolean exchangeRunnerResources(ThreadUsage from, ThreadUsage to) {
+    synchronized(this) {
+      int newCapacity = to.reserve(from.release(currentCapacity));
+      if(newCapacity < 0) {
+        return false;
+      }
+      currentCapacity = newCapacity;
+      return true;
+    }
+  }
+
   @Override
   public void
     onStateChange(
@@ -18,6 +18,7 @@ package com.streamsets.dc.execution.manager.standalone;
 public enum ThreadUsage {
 
   STANDALONE(22), //2.2 * ExecutorConstants.RUNNER_THREAD_POOL_SIZE_MULTIPLIER
+  STANDALONE_COOPERATIVE(2), //0.2 * ExecutorConstants.RUNNER_THREAD_POOL_SIZE_MULTIPLIER
   CLUSTER(2), //0.2 * ExecutorConstants.RUNNER_THREAD_POOL_SIZE_MULTIPLIER
   SLAVE(22); //2.2 * ExecutorConstants.RUNNER_THREAD_POOL_SIZE_MULTIPLIER
 
@@ -289,6 +289,47 @@ public class TestDataRuleEvaluator {
       lane, new HashMap<String,EvictingQueue<SampledRecord>>());
   }
 
+  @Test
+  public void testEvaluateRulesOnSharedRecords() {
+    String lane = "testEvaluateRulesOnSharedRecords";
+    List<Record> records = TestUtil.createSnapshot(lane, "rule")
+      .get(LaneResolver.getPostFixedLaneForObserver(lane)).get("rule");
+
+    List<DataRuleEvaluator> evaluators = new ArrayList<>();
+    Map<String, List<Record>> ruleIdToSampledRecords = new HashMap<>();
+    String[] conditions = {
+      "${record:value(\"/name\")==null}",
+      "${record:value(\"/name\")==null}",
+      "${record:value(\"/zip\")==94102}"
+    };
+    for (int i = 0; i < conditions.length; i++) {
+      String id = lane + i;
+      DataRuleDefinition dataRuleDefinition = new DataRuleDefinition(id, id, lane, 100, 10, conditions[i], false, null,
+        ThresholdType.COUNT, "2", 5, true, false, true, System.currentTimeMillis());
+      evaluators.add(new DataRuleEvaluator("name", "0", metrics,
+        new AlertManager(PIPELINE_NAME, PIPELINE_TITLE, REVISION, null, metrics, runtimeInfo, new EventListenerManager()),
+        new RuleDefinitionsConfigBean(), new HashMap<String, Object>(), dataRuleDefinition, new Configuration(), null,
+        null));
+      // the last rule only sampled the first two records
+      ruleIdToSampledRecords.put(id, i == conditions.length - 1 ? records.subList(0, 2) : records);
+    }
+
+    Map<String, EvictingQueue<SampledRecord>> ruleToSampledRecordsMap = new HashMap<>();
+    DataRuleEvaluator.evaluateRules(evaluators, ruleIdToSampledRecords, lane, ruleToSampledRecordsMap);
+
+    Assert.assertEquals(3, MetricsConfigurator.getMeter(metrics, USER_PREFIX + lane + 0).getCount());
+    Assert.assertEquals(3, MetricsConfigurator.getMeter(metrics, USER_PREFIX + lane + 1).getCount());
+    Assert.assertEquals(2, MetricsConfigurator.getMeter(metrics, USER_PREFIX + lane + 2).getCount());
+
+    List<SampledRecord> sampled = new ArrayList<>(ruleToSampledRecordsMap.get(lane + 0));
+    Assert.assertEquals(records.size(), sampled.size());
+    for (int i = 0; i < records.size(); i++) {
+      Assert.assertSame(records.get(i), sampled.get(i).getRecord());
+      Assert.assertEquals(records.get(i).get("/name").getValue() == null, sampled.get(i).isMatchedCondition());
+    }
+    Assert.assertEquals(2, ruleToSampledRecordsMap.get(lane + 2).size());
+  }
+
   @Test
   public void testDriftEvaluationAndAlert() {
     DriftRuleDefinition def = new DriftRuleDefinition(
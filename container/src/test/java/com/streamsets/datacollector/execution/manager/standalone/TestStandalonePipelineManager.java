@@ -28,6 +28,7 @@ import com.streamsets.datacollector.execution.SnapshotStore;
 import com.streamsets.datacollector.execution.manager.PipelineManagerException;
 import com.streamsets.datacollector.execution.manager.PreviewerProvider;
 import com.streamsets.datacollector.execution.manager.RunnerProvider;
+import com.streamsets.datacollector.execution.runner.common.CooperativeScheduler;
 import com.streamsets.datacollector.execution.runner.provider.StandaloneAndClusterRunnerProviderImpl;
 import com.streamsets.datacollector.execution.runner.standalone.StandaloneRunner;
 import com.streamsets.datacollector.execution.snapshot.file.FileSnapshotStore;
@@ -39,6 +40,7 @@ import com.streamsets.datacollector.main.RuntimeInfo;
 import com.streamsets.datacollector.main.RuntimeModule;
 import com.streamsets.datacollector.main.StandaloneRuntimeInfo;
 import com.streamsets.datacollector.main.UserGroupManager;
+import com.streamsets.datacollector.metrics.MetricsConfigurator;
 import com.streamsets.datacollector.runner.MockStages;
 import com.streamsets.datacollector.stagelibrary.StageLibraryTask;
 import com.streamsets.datacollector.store.AclStoreTask;
@@ -72,6 +74,7 @@ import java.net.URL;
 import java.net.URLClassLoader;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.Callable;
 
@@ -91,6 +94,7 @@ public class TestStandalonePipelineManager {
   private PipelineStoreTask pipelineStoreTask;
   private Manager pipelineManager;
   private PipelineStateStore pipelineStateStore;
+  private RuntimeInfo runtimeInfo;
 
   @Module(
     injects = {
@@ -209,6 +213,11 @@ public class TestStandalonePipelineManager {
       return new SafeScheduledExecutorService(1, "supportBundleExecutor");
     }
 
+    @Provides @Singleton
+    public CooperativeScheduler provideCooperativeScheduler(RuntimeInfo runtimeInfo) {
+      return new CooperativeScheduler(false, 0, 0, 0, runtimeInfo.getMetrics());
+    }
+
     @Provides @Singleton
     public PreviewerProvider providePreviewerProvider() {
       return new PreviewerProvider() {
@@ -250,6 +259,7 @@ public class TestStandalonePipelineManager {
     ObjectGraph objectGraph = ObjectGraph.create(new TestPipelineManagerModule(expiry, initialThreadExpiryDelay));
     RuntimeInfo info = objectGraph.get(RuntimeInfo.class);
     info.setDPMEnabled(isDPMEnabled);
+    runtimeInfo = info;
     pipelineStoreTask = objectGraph.get(PipelineStoreTask.class);
     pipelineStateStore = objectGraph.get(PipelineStateStore.class);
     pipelineManager = new StandaloneAndClusterPipelineManager(objectGraph);
@@ -389,6 +399,35 @@ public class TestStandalonePipelineManager {
     assertFalse(((StandaloneAndClusterPipelineManager) pipelineManager).isRunnerPresent("aaaa", "0"));
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testStartupMetrics() throws Exception {
+    pipelineStoreTask.create("user", "aaaa", "label","blah", false, false);
+    pipelineStoreTask.create("user", "bbbb", "label","blah", false, false);
+    pipelineStateStore.saveState("user", "aaaa", "0", PipelineStatus.CONNECTING, "blah", null, ExecutionMode.STANDALONE, null, 0, 0);
+    pipelineManager.stop();
+    pipelineStoreTask.stop();
+
+    setUpManager(StandaloneAndClusterPipelineManager.DEFAULT_RUNNER_EXPIRY_INTERVAL,
+        StandaloneAndClusterPipelineManager.DEFAULT_RUNNER_EXPIRY_INITIAL_DELAY,
+        false);
+
+    // Runners are restarted before the manager finishes its start up
+    assertTrue(((StandaloneAndClusterPipelineManager) pipelineManager).isRunnerPresent("aaaa", "0"));
+    assertFalse(((StandaloneAndClusterPipelineManager) pipelineManager).isRunnerPresent("bbbb", "0"));
+
+    Map<String, Object> gauge = (Map<String, Object>) MetricsConfigurator.getGauge(
+        runtimeInfo.getMetrics(),
+        MetricsConfigurator.JMX_FRAMEWORK_PREFIX + "manager-startup.runtime.gauge"
+    ).getValue();
+    assertEquals(2, gauge.get(StandaloneAndClusterPipelineManager.KEY_STARTUP_PIPELINES));
+    assertEquals(1, gauge.get(StandaloneAndClusterPipelineManager.KEY_STARTUP_ACTIVE_PIPELINES));
+    assertTrue(gauge.containsKey(StandaloneAndClusterPipelineManager.KEY_STARTUP_LOAD_PIPELINES_TIME));
+    assertTrue(gauge.containsKey(StandaloneAndClusterPipelineManager.KEY_STARTUP_LOAD_STATES_TIME));
+    assertTrue(gauge.containsKey(StandaloneAndClusterPipelineManager.KEY_STARTUP_RESTART_PIPELINES_TIME));
+    assertTrue(gauge.containsKey(StandaloneAndClusterPipelineManager.KEY_STARTUP_TOTAL_TIME));
+  }
+
   @Test
   public void testExpiry() throws Exception {
     pipelineStoreTask.create("user", "aaaa", "label","blah", false, false);
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2017 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.execution.runner;
+
+import com.codahale.metrics.MetricRegistry;
+import com.streamsets.datacollector.execution.Manager;
+import com.streamsets.datacollector.execution.PipelineStatus;
+import com.streamsets.datacollector.execution.Runner;
+import com.streamsets.datacollector.execution.manager.standalone.StandaloneAndClusterPipelineManager;
+import com.streamsets.datacollector.execution.runner.common.AsyncRunner;
+import com.streamsets.datacollector.main.RuntimeInfo;
+import com.streamsets.datacollector.main.RuntimeModule;
+import com.streamsets.datacollector.main.StandaloneRuntimeInfo;
+import com.streamsets.datacollector.runner.MockStages;
+import com.streamsets.datacollector.runner.production.OffsetFileUtil;
+import com.streamsets.datacollector.util.PipelineDirectoryUtil;
+import com.streamsets.datacollector.util.TestUtil;
+import com.streamsets.pipeline.api.Batch;
+import com.streamsets.pipeline.api.BatchMaker;
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.Source;
+import com.streamsets.pipeline.api.StageException;
+import com.streamsets.pipeline.api.base.BaseSource;
+import com.streamsets.pipeline.api.base.BaseTarget;
+import com.streamsets.pipeline.api.base.SingleLaneRecordProcessor;
+import dagger.ObjectGraph;
+import org.apache.commons.io.FileUtils;
+import org.awaitility.Duration;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.streamsets.datacollector.util.AwaitConditionUtil.desiredPipelineState;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Runs the same lifecycle scenarios against both the regular (thread per pipeline) and cooperative execution.
+ */
+@RunWith(Parameterized.class)
+public class TestStandaloneRunnerExecution {
+
+  private static final String DATA_DIR_KEY = RuntimeModule.SDC_PROPERTY_PREFIX + RuntimeInfo.DATA_DIR;
+
+  @Parameterized.Parameters(name = "cooperative({0})")
+  public static Collection<Object[]> data() {
+    return Arrays.asList(new Object[][]{{false}, {true}});
+  }
+
+  private final boolean cooperative;
+  private File dataDir;
+  private Manager pipelineManager;
+
+  // State of the capture stages
+  private static final AtomicInteger batches = new AtomicInteger();
+  private static volatile int failOnBatch;
+  private static volatile boolean blockInProcessor;
+  private static volatile String sourceThreadName;
+
+  public TestStandaloneRunnerExecution(boolean cooperative) {
+    this.cooperative = cooperative;
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    dataDir = new File("target", UUID.randomUUID().toString()).getAbsoluteFile();
+    Assert.assertTrue(dataDir.mkdirs());
+    System.setProperty(DATA_DIR_KEY, dataDir.getAbsolutePath());
+
+    batches.set(0);
+    failOnBatch = -1;
+    blockInProcessor = false;
+    sourceThreadName = null;
+    captureStages();
+
+    TestUtil.COOPERATIVE_EXECUTION = cooperative;
+    RuntimeInfo info = new StandaloneRuntimeInfo(RuntimeModule.SDC_PROPERTY_PREFIX, new MetricRegistry(),
+        Arrays.asList(getClass().getClassLoader()));
+    Files.createDirectories(PipelineDirectoryUtil.getPipelineDir(info, TestUtil.MY_PIPELINE, "0").toPath());
+    OffsetFileUtil.saveOffsets(info, TestUtil.MY_PIPELINE, "0", Collections.singletonMap(Source.POLL_SOURCE_OFFSET_KEY, "dummy"));
+    ObjectGraph objectGraph = ObjectGraph.create(new TestUtil.TestPipelineManagerModule());
+    pipelineManager = new StandaloneAndClusterPipelineManager(objectGraph);
+    pipelineManager.init();
+    pipelineManager.run();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    blockInProcessor = false;
+    if (pipelineManager != null) {
+      pipelineManager.stop();
+    }
+    TestUtil.COOPERATIVE_EXECUTION = false;
+    System.getProperties().remove(DATA_DIR_KEY);
+    await().atMost(Duration.ONE_MINUTE).until(() -> FileUtils.deleteQuietly(dataDir));
+  }
+
+  private static void captureStages() {
+    MockStages.setSourceCapture(new BaseSource() {
+      @Override
+      public String produce(String lastSourceOffset, int maxBatchSize, BatchMaker batchMaker) throws StageException {
+        sourceThreadName = Thread.currentThread().getName();
+        batches.incrementAndGet();
+        Record record = getContext().createRecord("x");
+        record.set(Field.create(1));
+        batchMaker.addRecord(record);
+        return "1";
+      }
+    });
+    MockStages.setProcessorCapture(new SingleLaneRecordProcessor() {
+      @Override
+      protected void process(Record record, SingleLaneBatchMaker batchMaker) throws StageException {
+        if (batches.get() == failOnBatch) {
+          throw new RuntimeException("Failure in the middle of the batch");
+        }
+        while (blockInProcessor) {
+          try {
+            Thread.sleep(100);
+          } catch (InterruptedException e) {
+            break;
+          }
+        }
+        batchMaker.addRecord(record);
+      }
+    });
+    MockStages.setTargetCapture(new BaseTarget() {
+      @Override
+      public void write(Batch batch) throws StageException {
+      }
+    });
+  }
+
+  private void waitForState(Runner runner, PipelineStatus pipelineStatus) {
+    await().atMost(Duration.ONE_MINUTE).until(desiredPipelineState(runner, pipelineStatus));
+  }
+
+  private void assertExecutionMode() {
+    Assert.assertNotNull(sourceThreadName);
+    Assert.assertEquals(sourceThreadName, cooperative, sourceThreadName.contains("cooperativeRunner"));
+  }
+
+  @Test(timeout = 60000)
+  public void testStop() throws Exception {
+    Runner runner = pipelineManager.getRunner(TestUtil.MY_PIPELINE, "0");
+    runner.start("admin");
+    waitForState(runner, PipelineStatus.RUNNING);
+    await().atMost(Duration.ONE_MINUTE).until(() -> batches.get() > 5);
+    assertExecutionMode();
+
+    ((AsyncRunner)runner).getRunner().prepareForStop("admin");
+    ((AsyncRunner)runner).getRunner().stop("admin");
+    waitForState(runner, PipelineStatus.STOPPED);
+
+    // No more batches are executed once the pipeline is stopped
+    int executed = batches.get();
+    Thread.sleep(500);
+    Assert.assertEquals(executed, batches.get());
+  }
+
+  @Test(timeout = 60000)
+  public void testForceQuit() throws Exception {
+    Runner runner = pipelineManager.getRunner(TestUtil.MY_PIPELINE, "0");
+    runner.start("admin");
+    waitForState(runner, PipelineStatus.RUNNING);
+    await().atMost(Duration.ONE_MINUTE).until(() -> batches.get() > 2);
+    assertExecutionMode();
+
+    // Stop waits for the batch in progress that never finishes on its own
+    blockInProcessor = true;
+    int blockedBatch = batches.get() + 1;
+    await().atMost(Duration.ONE_MINUTE).until(() -> batches.get() >= blockedBatch);
+    ((AsyncRunner)runner).getRunner().prepareForStop("admin");
+    CompletableFuture<Void> stop = CompletableFuture.runAsync(() -> {
+      try {
+        ((AsyncRunner)runner).getRunner().stop("admin");
+      } catch (Exception e) {
+        throw new RuntimeException(e);
+      }
+    });
+    waitForState(runner, PipelineStatus.STOPPING);
+    Assert.assertFalse(stop.isDone());
+
+    ((AsyncRunner)runner).getRunner().forceQuit("admin");
+    waitForState(runner, PipelineStatus.STOPPED);
+    stop.get();
+
+    // The interrupted batch is the last one, nothing is scheduled after force quit
+    int executed = batches.get();
+    Thread.sleep(500);
+    Assert.assertEquals(executed, batches.get());
+  }
+
+  @Test(timeout = 60000)
+  public void testErrorInTheMiddleOfBatch() throws Exception {
+    failOnBatch = 3;
+    Runner runner = pipelineManager.getRunner(TestUtil.MY_PIPELINE, "0");
+    runner.start("admin");
+
+    // Depending on the pipeline configuration the failed pipeline is either retried or ends in error
+    await().atMost(Duration.ONE_MINUTE).until(() -> {
+      PipelineStatus status = runner.getState().getStatus();
+      return status == PipelineStatus.RETRY || status == PipelineStatus.RUN_ERROR;
+    });
+    assertExecutionMode();
+    String message = runner.getState().getMessage();
+    Assert.assertNotNull(message);
+    Assert.assertTrue(message, message.contains("Failure in the middle of the batch"));
+    Assert.assertTrue(batches.get() >= 3);
+  }
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright 2017 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.execution.runner.common;
+
+import com.codahale.metrics.MetricRegistry;
+import com.streamsets.datacollector.metrics.MetricsConfigurator;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+@SuppressWarnings("unchecked")
+public class TestCooperativeScheduler {
+
+  private MetricRegistry metrics;
+  private CooperativeScheduler scheduler;
+
+  @Before
+  public void setUp() {
+    metrics = new MetricRegistry();
+    scheduler = new CooperativeScheduler(true, 2, 1, 10, metrics);
+  }
+
+  @After
+  public void tearDown() {
+    scheduler.shutdown();
+  }
+
+  private static class CountingTask implements CooperativeScheduler.Task {
+    private final int busySteps;
+    private final int totalSteps;
+    private final CountDownLatch latch;
+    final AtomicInteger steps = new AtomicInteger(0);
+    final AtomicReference<Throwable> error = new AtomicReference<>();
+    final AtomicInteger doneCalls = new AtomicInteger(0);
+
+    CountingTask(int busySteps, int totalSteps, CountDownLatch latch) {
+      this.busySteps = busySteps;
+      this.totalSteps = totalSteps;
+      this.latch = latch;
+    }
+
+    @Override
+    public String getName() {
+      return "counting";
+    }
+
+    @Override
+    public boolean runStep() throws Exception {
+      return steps.incrementAndGet() <= busySteps;
+    }
+
+    @Override
+    public boolean isDone() {
+      return steps.get() >= totalSteps;
+    }
+
+    @Override
+    public void onDone(Throwable error) {
+      this.error.set(error);
+      doneCalls.incrementAndGet();
+      latch.countDown();
+    }
+  }
+
+  @Test
+  public void testMoreTasksThanThreads() throws Exception {
+    CountDownLatch latch = new CountDownLatch(10);
+    CountingTask[] tasks = new CountingTask[10];
+    for (int i = 0; i < tasks.length; i++) {
+      tasks[i] = new CountingTask(5, 8, latch);
+      scheduler.schedule(tasks[i]);
+    }
+
+    Assert.assertTrue(latch.await(30, TimeUnit.SECONDS));
+    for (CountingTask task : tasks) {
+      Assert.assertEquals(8, task.steps.get());
+      Assert.assertEquals(1, task.doneCalls.get());
+      Assert.assertNull(task.error.get());
+    }
+
+    Map<String, Object> gauge = (Map<String, Object>) MetricsConfigurator.getGauge(
+      metrics,
+      MetricsConfigurator.JMX_FRAMEWORK_PREFIX + "cooperative-scheduler.runtime.gauge"
+    ).getValue();
+    Assert.assertEquals(0L, ((AtomicLong)gauge.get(CooperativeScheduler.KEY_SCHEDULED)).get());
+    Assert.assertEquals(0L, ((AtomicLong)gauge.get(CooperativeScheduler.KEY_SLEEPING)).get());
+    Assert.assertEquals(80L, ((AtomicLong)gauge.get(CooperativeScheduler.KEY_BATCHES)).get());
+    Assert.assertEquals(20L, ((AtomicLong)gauge.get(CooperativeScheduler.KEY_IDLE_BATCHES)).get());
+  }
+
+  @Test
+  public void testFailingStep() throws Exception {
+    CountDownLatch latch = new CountDownLatch(1);
+    AtomicReference<Throwable> error = new AtomicReference<>();
+    scheduler.schedule(new CooperativeScheduler.Task() {
+      @Override
+      public String getName() {
+        return "failing";
+      }
+
+      @Override
+      public boolean runStep() throws Exception {
+        throw new IllegalStateException("Fail");
+      }
+
+      @Override
+      public boolean isDone() {
+        return false;
+      }
+
+      @Override
+      public void onDone(Throwable e) {
+        error.set(e);
+        latch.countDown();
+      }
+    });
+
+    Assert.assertTrue(latch.await(30, TimeUnit.SECONDS));
+    Assert.assertTrue(error.get() instanceof IllegalStateException);
+  }
+
+  @Test
+  public void testCancelSleepingTask() throws Exception {
+    // Long backoff so that the task is sleeping when it's cancelled
+    scheduler.shutdown();
+    metrics = new MetricRegistry();
+    scheduler = new CooperativeScheduler(true, 2, 60000, 60000, metrics);
+    CountDownLatch latch = new CountDownLatch(1);
+    CountingTask task = new CountingTask(0, Integer.MAX_VALUE, latch);
+    CooperativeScheduler.Handle handle = scheduler.schedule(task);
+
+    Map<String, Object> gauge = (Map<String, Object>) MetricsConfigurator.getGauge(
+      metrics,
+      MetricsConfigurator.JMX_FRAMEWORK_PREFIX + "cooperative-scheduler.runtime.gauge"
+    ).getValue();
+    while (((AtomicLong)gauge.get(CooperativeScheduler.KEY_SLEEPING)).get() == 0) {
+      Thread.sleep(10);
+    }
+
+    handle.cancel();
+    Assert.assertTrue(latch.await(30, TimeUnit.SECONDS));
+    Assert.assertEquals(1, task.steps.get());
+    Assert.assertEquals(1, task.doneCalls.get());
+    Assert.assertNull(task.error.get());
+    Assert.assertEquals(0L, ((AtomicLong)gauge.get(CooperativeScheduler.KEY_SCHEDULED)).get());
+    Assert.assertEquals(0L, ((AtomicLong)gauge.get(CooperativeScheduler.KEY_SLEEPING)).get());
+  }
+
+  @Test
+  public void testCancelBackingOffTask() throws Exception {
+    scheduler.shutdown();
+    metrics = new MetricRegistry();
+    scheduler = new CooperativeScheduler(true, 2, 60000, 60000, metrics);
+    CountDownLatch latch = new CountDownLatch(1);
+    CountingTask task = new CountingTask(0, Integer.MAX_VALUE, latch);
+    CooperativeScheduler.Handle handle = scheduler.schedule(task);
+
+    Map<String, Object> gauge = (Map<String, Object>) MetricsConfigurator.getGauge(
+      metrics,
+      MetricsConfigurator.JMX_FRAMEWORK_PREFIX + "cooperative-scheduler.runtime.gauge"
+    ).getValue();
+    while (((AtomicLong)gauge.get(CooperativeScheduler.KEY_SLEEPING)).get() == 0) {
+      Thread.sleep(10);
+    }
+    // Only the delayed wake up is waiting in the queue
+    Assert.assertEquals(1, scheduler.getQueuedSteps());
+
+    handle.cancel();
+    // Finished right away rather than after the backoff expires
+    Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+    Assert.assertEquals(1, task.doneCalls.get());
+    Assert.assertEquals(0, scheduler.getQueuedSteps());
+
+    // The wake up never fires
+    Thread.sleep(200);
+    Assert.assertEquals(1, task.steps.get());
+    Assert.assertEquals(1, task.doneCalls.get());
+  }
+
+  @Test
+  public void testCancelRunningTask() throws Exception {
+    CountDownLatch running = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(1);
+    AtomicInteger steps = new AtomicInteger();
+    AtomicInteger doneCalls = new AtomicInteger();
+    CooperativeScheduler.Handle handle = scheduler.schedule(new CooperativeScheduler.Task() {
+      @Override
+      public String getName() {
+        return "blocked";
+      }
+
+      @Override
+      public boolean runStep() throws Exception {
+        steps.incrementAndGet();
+        running.countDown();
+        try {
+          Thread.sleep(60000);
+        } catch (InterruptedException e) {
+          // Force quit
+        }
+        return true;
+      }
+
+      @Override
+      public boolean isDone() {
+        return false;
+      }
+
+      @Override
+      public void onDone(Throwable error) {
+        doneCalls.incrementAndGet();
+        done.countDown();
+      }
+    });
+
+    Assert.assertTrue(running.await(30, TimeUnit.SECONDS));
+    handle.cancel();
+    // The task is not finished while its step is still running
+    Assert.assertFalse(done.await(200, TimeUnit.MILLISECONDS));
+    Assert.assertEquals(0, doneCalls.get());
+
+    // Interrupt the step as force quit would do
+    scheduler.shutdown();
+    Assert.assertTrue(done.await(30, TimeUnit.SECONDS));
+    Assert.assertEquals(1, steps.get());
+    Assert.assertEquals(1, doneCalls.get());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testDisabled() {
+    CooperativeScheduler disabled = new CooperativeScheduler(false, 0, 0, 0, new MetricRegistry());
+    Assert.assertFalse(disabled.isEnabled());
+    disabled.schedule(new CountingTask(0, 0, new CountDownLatch(1)));
+  }
+}
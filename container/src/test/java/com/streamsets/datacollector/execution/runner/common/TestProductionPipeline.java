@@ -16,14 +16,17 @@
 package com.streamsets.datacollector.execution.runner.common;
 
 import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.streamsets.datacollector.config.MemoryLimitConfiguration;
 import com.streamsets.datacollector.config.MemoryLimitExceeded;
 import com.streamsets.datacollector.config.PipelineConfiguration;
 import com.streamsets.datacollector.execution.PipelineStatus;
+import com.streamsets.datacollector.execution.Snapshot;
 import com.streamsets.datacollector.execution.SnapshotStore;
 import com.streamsets.datacollector.execution.StateListener;
 import com.streamsets.datacollector.execution.snapshot.common.SnapshotInfoImpl;
 import com.streamsets.datacollector.execution.snapshot.file.FileSnapshotStore;
+import com.streamsets.datacollector.json.ObjectMapperFactory;
 import com.streamsets.datacollector.lineage.LineagePublisherTask;
 import com.streamsets.datacollector.main.RuntimeInfo;
 import com.streamsets.datacollector.main.RuntimeModule;
@@ -36,6 +39,7 @@ import com.streamsets.datacollector.runner.PipelineRuntimeException;
 import com.streamsets.datacollector.runner.SourceOffsetTracker;
 import com.streamsets.datacollector.util.Configuration;
 import com.streamsets.datacollector.util.ContainerError;
+import com.streamsets.datacollector.util.LockCache;
 import com.streamsets.datacollector.util.PipelineDirectoryUtil;
 import com.streamsets.datacollector.util.TestUtil;
 import com.streamsets.datacollector.validation.Issue;
@@ -68,6 +72,7 @@ import org.mockito.Mockito;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -388,14 +393,33 @@ public class TestProductionPipeline {
   }
 
   private ProductionPipeline createProductionPipeline(DeliveryGuarantee deliveryGuarantee, boolean captureNextBatch, long rateLimit, PipelineType type) throws Exception {
-    SourceOffsetTracker tracker = new TestUtil.SourceOffsetTrackerImpl(Collections.singletonMap(Source.POLL_SOURCE_OFFSET_KEY, "1"));
     SnapshotStore snapshotStore = Mockito.mock(FileSnapshotStore.class);
 
     Mockito.when(snapshotStore.getInfo(PIPELINE_NAME, REVISION, SNAPSHOT_NAME)).thenReturn(
         new SnapshotInfoImpl("user", "SNAPSHOT_NAME", "SNAPSHOT LABEL", PIPELINE_NAME, REVISION,
             System.currentTimeMillis(), false, 0));
+    ProductionPipeline pipeline = createProductionPipeline(
+        deliveryGuarantee,
+        new Configuration(),
+        snapshotStore,
+        rateLimit,
+        type
+    );
+    if (captureNextBatch) {
+      ((ProductionPipelineRunner) pipeline.getPipeline().getRunner()).capture("snapshot", 1, 1);
+    }
+    return pipeline;
+  }
+
+  private ProductionPipeline createProductionPipeline(
+      DeliveryGuarantee deliveryGuarantee,
+      Configuration config,
+      SnapshotStore snapshotStore,
+      long rateLimit,
+      PipelineType type
+  ) throws Exception {
+    SourceOffsetTracker tracker = new TestUtil.SourceOffsetTrackerImpl(Collections.singletonMap(Source.POLL_SOURCE_OFFSET_KEY, "1"));
     BlockingQueue<Object> productionObserveRequests = new ArrayBlockingQueue<>(100, true /* FIFO */);
-    Configuration config = new Configuration();
     config.set("monitor.memory", true);
     ProductionPipelineRunner runner = new ProductionPipelineRunner(
       PIPELINE_NAME,
@@ -445,10 +469,6 @@ public class TestProductionPipeline {
     );
     runner.setOffsetTracker(tracker);
 
-    if (captureNextBatch) {
-      runner.capture("snapshot", 1, 1);
-    }
-
     return pipeline;
   }
 
@@ -607,6 +627,97 @@ public class TestProductionPipeline {
   }
 
 
+  private static class FixedBatchesProducer extends BaseSource {
+    private final int batches;
+    private final int recordsPerBatch;
+    private final String value;
+    private int count;
+
+    FixedBatchesProducer(int batches, int recordsPerBatch, int valueLength) {
+      this.batches = batches;
+      this.recordsPerBatch = recordsPerBatch;
+      char[] chars = new char[valueLength];
+      Arrays.fill(chars, 'a');
+      value = new String(chars);
+    }
+
+    @Override
+    public String produce(String lastSourceOffset, int maxBatchSize, BatchMaker batchMaker) throws StageException {
+      if (count == batches) {
+        return null;
+      }
+      for (int i = 0; i < recordsPerBatch; i++) {
+        Record record = getContext().createRecord("b" + count + "r" + i);
+        record.set(Field.create(value));
+        batchMaker.addRecord(record);
+      }
+      count++;
+      return "o::" + count;
+    }
+  }
+
+  private JsonNode runStreamingSnapshot(
+      FixedBatchesProducer source,
+      int batchesToCapture,
+      int maxSizeMB
+  ) throws Exception {
+    MockStages.setSourceCapture(source);
+    Configuration config = new Configuration();
+    config.set(Constants.SNAPSHOT_STREAMING_KEY, true);
+    config.set(Constants.SNAPSHOT_MAX_SIZE_MB_KEY, maxSizeMB);
+    SnapshotStore snapshotStore = new FileSnapshotStore(runtimeInfo, new LockCache<String>());
+
+    ProductionPipeline pipeline = createProductionPipeline(
+        DeliveryGuarantee.AT_LEAST_ONCE,
+        config,
+        snapshotStore,
+        -1L,
+        PipelineType.DEFAULT
+    );
+    snapshotStore.create("user", PIPELINE_NAME, REVISION, SNAPSHOT_NAME, "label");
+    ((ProductionPipelineRunner) pipeline.getPipeline().getRunner()).capture(SNAPSHOT_NAME, 3, batchesToCapture);
+    pipeline.registerStatusListener(new MyStateListener());
+    pipeline.run();
+
+    Assert.assertFalse(snapshotStore.getInfo(PIPELINE_NAME, REVISION, SNAPSHOT_NAME).isInProgress());
+    Snapshot snapshot = snapshotStore.get(PIPELINE_NAME, REVISION, SNAPSHOT_NAME);
+    try (InputStream output = snapshot.getOutput()) {
+      return ObjectMapperFactory.get().readTree(output);
+    } finally {
+      snapshot.close();
+    }
+  }
+
+  @Test
+  public void testStreamingSnapshot() throws Exception {
+    JsonNode data = runStreamingSnapshot(new FixedBatchesProducer(3, 3, 10), 2, 100);
+
+    JsonNode batches = data.get("snapshotBatches");
+    Assert.assertEquals(2, batches.size());
+    for (int i = 0; i < batches.size(); i++) {
+      JsonNode source = batches.get(i).get(0);
+      Assert.assertEquals("s", source.get("instanceName").asText());
+      JsonNode records = source.get("output").get("s");
+      Assert.assertEquals(3, records.size());
+      for (int j = 0; j < records.size(); j++) {
+        Assert.assertEquals("b" + i + "r" + j, records.get(j).get("header").get("sourceId").asText());
+      }
+    }
+  }
+
+  @Test
+  public void testStreamingSnapshotTruncated() throws Exception {
+    // 3 records of 300KB fit in the 1MB snapshot, the second batch only gets the first one of its records
+    JsonNode data = runStreamingSnapshot(new FixedBatchesProducer(5, 3, 300 * 1024), 5, 1);
+
+    JsonNode batches = data.get("snapshotBatches");
+    Assert.assertEquals(2, batches.size());
+    Assert.assertEquals(3, batches.get(0).get(0).get("output").get("s").size());
+    JsonNode records = batches.get(1).get(0).get("output").get("s");
+    Assert.assertEquals(1, records.size());
+    Assert.assertEquals("b1r0", records.get(0).get("header").get("sourceId").asText());
+  }
+
   @Test
   public void testRateLimit() throws Exception {
     final TestProducer p = new TestProducer();
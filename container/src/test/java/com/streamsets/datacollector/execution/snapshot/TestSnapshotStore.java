@@ -15,9 +15,12 @@
  */
 package com.streamsets.datacollector.execution.snapshot;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.streamsets.datacollector.execution.Snapshot;
 import com.streamsets.datacollector.execution.SnapshotInfo;
 import com.streamsets.datacollector.execution.SnapshotStore;
+import com.streamsets.datacollector.execution.snapshot.common.SnapshotBatchEncoder;
+import com.streamsets.datacollector.json.ObjectMapperFactory;
 import com.streamsets.datacollector.record.RecordImpl;
 import com.streamsets.datacollector.runner.ErrorSink;
 import com.streamsets.datacollector.runner.EventSink;
@@ -216,6 +219,104 @@ public abstract class TestSnapshotStore {
 
   }
 
+  @Test
+  public void testAppendAndGet() throws Exception {
+    SnapshotInfo snapshotInfo = snapshotStore.create(USER, PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID, SNAPSHOT_LABEL);
+    Assert.assertTrue(snapshotInfo.isInProgress());
+
+    long size = 0;
+    for (List<StageOutput> batch : getSnapshotData()) {
+      SnapshotBatchEncoder encoder =
+          snapshotStore.appendBatch(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID, Long.MAX_VALUE);
+      for (StageOutput stageOutput : batch) {
+        encoder.write(stageOutput);
+      }
+      Assert.assertTrue(encoder.hasRecords());
+      long newSize = encoder.commit();
+      Assert.assertTrue(newSize > size);
+      size = newSize;
+    }
+    Assert.assertTrue(snapshotStore.getInfo(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID).isInProgress());
+
+    snapshotInfo = snapshotStore.complete(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID, 5);
+    Assert.assertFalse(snapshotInfo.isInProgress());
+    Assert.assertEquals(5, snapshotInfo.getBatchNumber());
+    Assert.assertFalse(snapshotStore.getInfo(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID).isInProgress());
+
+    Snapshot snapshot = snapshotStore.get(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID);
+    JsonNode data;
+    try (InputStream output = snapshot.getOutput()) {
+      data = ObjectMapperFactory.get().readTree(output);
+    }
+    JsonNode batches = data.get("snapshotBatches");
+    Assert.assertEquals(2, batches.size());
+    for (JsonNode batch : batches) {
+      Assert.assertEquals(2, batch.size());
+      Assert.assertEquals("source", batch.get(0).get("instanceName").asText());
+      Assert.assertEquals(2, batch.get(0).get("output").get("lane").size());
+      Assert.assertEquals("processor", batch.get(1).get("instanceName").asText());
+      Assert.assertEquals(1, batch.get(1).get("output").get("lane").size());
+      JsonNode record = batch.get(0).get("output").get("lane").get(1);
+      Assert.assertEquals("s:2", record.get("header").get("sourceId").asText());
+      Assert.assertEquals("INTEGER", record.get("value").get("type").asText());
+      Assert.assertTrue(batch.get(0).get("errorRecords").isArray());
+      Assert.assertTrue(batch.get(0).get("stageErrors").isNull());
+    }
+  }
+
+  @Test
+  public void testAppendSizeLimit() throws Exception {
+    snapshotStore.create(USER, PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID, SNAPSHOT_LABEL);
+
+    // only the first record fits
+    SnapshotBatchEncoder encoder = snapshotStore.appendBatch(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID, 1);
+    for (StageOutput stageOutput : createSnapshotData()) {
+      encoder.write(stageOutput);
+    }
+    Assert.assertTrue(encoder.hasRecords());
+    Assert.assertTrue(encoder.isTruncated());
+    encoder.commit();
+    snapshotStore.complete(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID, 1);
+
+    JsonNode data;
+    try (InputStream output = snapshotStore.get(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID).getOutput()) {
+      data = ObjectMapperFactory.get().readTree(output);
+    }
+    JsonNode batch = data.get("snapshotBatches").get(0);
+    Assert.assertEquals(2, batch.size());
+    Assert.assertEquals(1, batch.get(0).get("output").get("lane").size());
+    Assert.assertEquals(0, batch.get(1).get("output").get("lane").size());
+  }
+
+  @Test
+  public void testAppendDiscard() throws Exception {
+    snapshotStore.create(USER, PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID, SNAPSHOT_LABEL);
+
+    SnapshotBatchEncoder encoder = snapshotStore.appendBatch(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID, Long.MAX_VALUE);
+    for (StageOutput stageOutput : createSnapshotData()) {
+      encoder.write(stageOutput);
+    }
+    long size = encoder.commit();
+
+    // a failed batch leaves the batches committed before untouched
+    encoder = snapshotStore.appendBatch(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID, Long.MAX_VALUE);
+    encoder.write(createSnapshotData().get(0));
+    encoder.discard();
+    encoder.discard();
+
+    // as does a batch without records
+    encoder = snapshotStore.appendBatch(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID, Long.MAX_VALUE);
+    Assert.assertFalse(encoder.hasRecords());
+    Assert.assertEquals(size, encoder.commit());
+
+    snapshotStore.complete(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID, 3);
+    JsonNode data;
+    try (InputStream output = snapshotStore.get(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID).getOutput()) {
+      data = ObjectMapperFactory.get().readTree(output);
+    }
+    Assert.assertEquals(1, data.get("snapshotBatches").size());
+  }
+
   private List<List<StageOutput>> getSnapshotData() {
     List<List<StageOutput>> snapshotBatches = new ArrayList<>();
     snapshotBatches.add(createSnapshotData());
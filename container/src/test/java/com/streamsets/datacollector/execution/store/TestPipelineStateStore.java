@@ -16,15 +16,19 @@
 package com.streamsets.datacollector.execution.store;
 
 import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableList;
 import com.streamsets.datacollector.config.PipelineConfiguration;
 import com.streamsets.datacollector.event.handler.remote.RemoteDataCollector;
 import com.streamsets.datacollector.execution.PipelineState;
 import com.streamsets.datacollector.execution.PipelineStateStore;
 import com.streamsets.datacollector.execution.PipelineStatus;
+import com.streamsets.datacollector.execution.manager.PipelineStateImpl;
+import com.streamsets.datacollector.json.ObjectMapperFactory;
 import com.streamsets.datacollector.main.RuntimeInfo;
 import com.streamsets.datacollector.main.RuntimeModule;
 import com.streamsets.datacollector.main.SlaveRuntimeInfo;
+import com.streamsets.datacollector.restapi.bean.BeanHelper;
 import com.streamsets.datacollector.runner.MockStages;
 import com.streamsets.datacollector.stagelibrary.StageLibraryTask;
 import com.streamsets.datacollector.store.PipelineStoreException;
@@ -50,7 +54,9 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -234,6 +240,35 @@ public class TestPipelineStateStore {
     }
   }
 
+  @Test
+  public void stateHistoryIsReadFromEnd() throws Exception {
+    File pipelineDir = PipelineDirectoryUtil.getPipelineDir(runtimeInfo, "aaa", "0");
+    Files.createDirectories(pipelineDir.toPath());
+    StringBuilder history = new StringBuilder();
+    for (int i = 0; i < 150; i++) {
+      PipelineState state = new PipelineStateImpl("user1", "aaa", "0", PipelineStatus.RUNNING, "state-" + i,
+          i, new HashMap<String, Object>(), ExecutionMode.STANDALONE, null, 0, 0);
+      // Both pretty printed and single line states can be present in the file
+      ObjectMapper objectMapper = i % 2 == 0 ? ObjectMapperFactory.get() : ObjectMapperFactory.getOneLine();
+      history.append(objectMapper.writeValueAsString(BeanHelper.wrapPipelineState(state))).append("\n");
+    }
+    Files.write(
+        new File(pipelineDir, FilePipelineStateStore.STATE_FILE_HISTORY).toPath(),
+        history.toString().getBytes(StandardCharsets.UTF_8)
+    );
+
+    List<PipelineState> states = pipelineStateStore.getHistory("aaa", "0", false);
+    assertEquals(100, states.size());
+    for (int i = 0; i < states.size(); i++) {
+      assertEquals("state-" + (149 - i), states.get(i).getMessage());
+    }
+
+    states = pipelineStateStore.getHistory("aaa", "0", true);
+    assertEquals(150, states.size());
+    assertEquals("state-149", states.get(0).getMessage());
+    assertEquals("state-0", states.get(149).getMessage());
+  }
+
   @Test
   public void stateChangeExecutionMode() throws Exception {
     Files.createDirectories(PipelineDirectoryUtil.getPipelineDir(runtimeInfo, "aaa", "0").toPath());
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2017 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.memory;
+
+import com.codahale.metrics.Counter;
+import com.google.common.collect.ImmutableMap;
+import com.streamsets.datacollector.record.RecordImpl;
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TestStageMemoryAccountant {
+
+  private static Record createRecord(String value) {
+    Record record = new RecordImpl("s", "id", null, null);
+    Map<String, Field> map = new HashMap<>();
+    map.put("a", Field.create(value));
+    map.put("b", Field.create(1));
+    record.set(Field.create(map));
+    return record;
+  }
+
+  @Test
+  public void testEstimateFieldSize() {
+    Assert.assertEquals(0, StageMemoryAccountant.estimateFieldSize(null));
+    Assert.assertEquals(
+        StageMemoryAccountant.FIELD_OVERHEAD + StageMemoryAccountant.BOXED_SIZE,
+        StageMemoryAccountant.estimateFieldSize(Field.create(1L))
+    );
+    Assert.assertEquals(
+        StageMemoryAccountant.FIELD_OVERHEAD + StageMemoryAccountant.STRING_OVERHEAD + 6,
+        StageMemoryAccountant.estimateFieldSize(Field.create("abc"))
+    );
+    Assert.assertEquals(
+        StageMemoryAccountant.FIELD_OVERHEAD + StageMemoryAccountant.ARRAY_OVERHEAD + 10,
+        StageMemoryAccountant.estimateFieldSize(Field.create(new byte[10]))
+    );
+    // bigger values are bigger
+    Assert.assertTrue(
+        StageMemoryAccountant.estimateRecordSize(createRecord("aaaaaaaaaa")) >
+        StageMemoryAccountant.estimateRecordSize(createRecord("a"))
+    );
+  }
+
+  @Test
+  public void testEstimateRecordsSize() {
+    Assert.assertEquals(0, StageMemoryAccountant.estimateRecordsSize(Collections.<Record>emptyList()));
+
+    List<Record> records = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      records.add(createRecord("value"));
+    }
+    long recordSize = StageMemoryAccountant.estimateRecordSize(records.get(0));
+    Assert.assertEquals(
+        StageMemoryAccountant.ARRAY_OVERHEAD + 100 * (StageMemoryAccountant.REFERENCE_SIZE + recordSize),
+        StageMemoryAccountant.estimateRecordsSize(records)
+    );
+  }
+
+  @Test
+  public void testBatchCompleted() {
+    Counter counter = new Counter();
+    StageMemoryAccountant accountant = new StageMemoryAccountant(counter);
+
+    // ~4MB of records
+    List<Record> records = new ArrayList<>();
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 2000; i++) {
+      sb.append('x');
+    }
+    for (int i = 0; i < 1000; i++) {
+      records.add(createRecord(sb.toString()));
+    }
+    long allocated = accountant.getAllocatedBytes();
+    accountant.processed(allocated);
+    long consumed = accountant.batchCompleted(ImmutableMap.of("lane", records));
+    Assert.assertTrue(consumed >= StageMemoryAccountant.estimateRecordsSize(records));
+    Assert.assertEquals(consumed / 1000000, counter.getCount());
+
+    // a second runner adds its share to the same counter
+    StageMemoryAccountant other = new StageMemoryAccountant(counter);
+    long otherConsumed = other.batchCompleted(ImmutableMap.of("lane", records));
+    Assert.assertEquals(consumed / 1000000 + otherConsumed / 1000000, counter.getCount());
+
+    // empty batch releases the records share
+    accountant.batchCompleted(ImmutableMap.<String, List<Record>>of());
+    Assert.assertEquals(otherConsumed / 1000000, counter.getCount());
+
+    other.reset();
+    Assert.assertEquals(0, counter.getCount());
+  }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2017 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.record;
+
+import com.streamsets.pipeline.api.Field;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro benchmark of field path access on a record, comparing the String based methods that tokenize the path on
+ * every access with pre-parsed {@link FieldPath} handles.
+ *
+ * It's not a unit test, run it with:
+ * <pre>
+ *   mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.streamsets.datacollector.record.FieldPathBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldPathBenchmark {
+
+  private static final String PATH = "/a/b[3]/c";
+
+  private RecordImpl record;
+  private FieldPath handle;
+
+  @Setup
+  public void setup() {
+    Map<String, Field> c = new HashMap<>();
+    c.put("c", Field.create("value"));
+    List<Field> b = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      b.add(Field.create(new HashMap<>(c)));
+    }
+    Map<String, Field> a = new HashMap<>();
+    a.put("b", Field.create(b));
+    Map<String, Field> root = new HashMap<>();
+    root.put("a", Field.create(a));
+    record = new RecordImpl("stage", "source", null, null);
+    record.set(Field.create(root));
+    handle = FieldPath.of(PATH);
+  }
+
+  @Benchmark
+  public Object parse() {
+    return PathElement.parse(PATH, true);
+  }
+
+  @Benchmark
+  public Field getByPath() {
+    return record.get(PATH);
+  }
+
+  @Benchmark
+  public Field getByHandle() {
+    return record.get(handle);
+  }
+
+  @Benchmark
+  public Field setByPath() {
+    return record.set(PATH, Field.create("value"));
+  }
+
+  @Benchmark
+  public Field setByHandle() {
+    return record.set(handle, Field.create("value"));
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(FieldPathBenchmark.class.getSimpleName()).build()).run();
+  }
+
+}
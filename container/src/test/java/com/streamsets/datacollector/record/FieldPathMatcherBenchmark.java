@@ -0,0 +1,124 @@
+/*
+ * Copyright 2017 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.record;
+
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.lib.util.FieldPathMatcher;
+import com.streamsets.pipeline.lib.util.FieldRegexUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Micro benchmark of resolving a wildcard field path expression against a record, comparing compiling the expression
+ * for every record (the previous behavior) with the shared {@link FieldPathMatcher} and with a stage owned matcher that
+ * remembers matches per record shape. Collecting the record's paths is measured separately as it is paid by every
+ * caller regardless of the matching.
+ *
+ * It's not a unit test, run it with:
+ * <pre>
+ *   mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.streamsets.datacollector.record.FieldPathMatcherBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldPathMatcherBenchmark {
+
+  @Param({"/m3/*", "/*/f1", "/m1[*]"})
+  public String expression;
+
+  @Param({"5", "50"})
+  public int width;
+
+  private RecordImpl record;
+  private Set<String> fieldPaths;
+  private FieldPathMatcher shapeMatcher;
+
+  @Setup
+  public void setup() {
+    Map<String, Field> root = new LinkedHashMap<>();
+    for (int i = 0; i < width; i++) {
+      Map<String, Field> map = new LinkedHashMap<>();
+      List<Field> list = new ArrayList<>();
+      for (int j = 0; j < 5; j++) {
+        map.put("f" + j, Field.create("value" + j));
+        list.add(Field.create(j));
+      }
+      root.put("m" + i, Field.create(map));
+      root.put("l" + i, Field.create(list));
+    }
+    record = new RecordImpl("stage", "source", null, null);
+    record.set(Field.create(root));
+    fieldPaths = record.getEscapedFieldPaths();
+    shapeMatcher = FieldPathMatcher.create(expression);
+  }
+
+  @Benchmark
+  public Object escapedFieldPaths() {
+    return record.getEscapedFieldPaths();
+  }
+
+  @Benchmark
+  public Object compileEveryTime() {
+    Pattern pattern = Pattern.compile(FieldRegexUtil.transformFieldPathRegex(expression));
+    List<String> matching = new ArrayList<>();
+    for (String path : fieldPaths) {
+      if (pattern.matcher(path).matches()) {
+        matching.add(path);
+      }
+    }
+    return matching;
+  }
+
+  @Benchmark
+  public Object compiledMatcher() {
+    return FieldPathMatcher.compile(expression).getMatchingFieldPaths(fieldPaths);
+  }
+
+  @Benchmark
+  public Object shapeCachedMatcher() {
+    return shapeMatcher.getMatchingFieldPaths(fieldPaths);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(FieldPathMatcherBenchmark.class.getSimpleName()).build()).run();
+  }
+
+}
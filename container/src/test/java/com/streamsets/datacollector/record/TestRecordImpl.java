@@ -341,6 +341,36 @@ public class TestRecordImpl {
     Assert.assertEquals(Field.create(new ArrayList<Field>()), r.delete("/a" + escaped));
   }
 
+  @Test
+  public void testFieldPathHandle() {
+    RecordImpl r = new RecordImpl("stage", "source", null, null);
+    Map<String, Field> map = new HashMap<>();
+    map.put("a", Field.create(true));
+    r.set(Field.create(map));
+
+    FieldPath a = FieldPath.of("/a");
+    FieldPath b = FieldPath.of("/b");
+    Assert.assertEquals("/a", a.getPath());
+    Assert.assertEquals(FieldPath.of("/a"), a);
+
+    Assert.assertTrue(r.has(a));
+    Assert.assertEquals(true, r.get(a).getValueAsBoolean());
+    Assert.assertFalse(r.has(b));
+    Assert.assertNull(r.get(b));
+
+    Assert.assertNull(r.set(b, Field.create("Hello world")));
+    Assert.assertEquals("Hello world", r.get("/b").getValueAsString());
+    Assert.assertEquals("Hello world", r.delete(b).getValueAsString());
+    Assert.assertFalse(r.has("/b"));
+
+    try {
+      r.set(FieldPath.of("/b/c"), Field.create("Hello world"));
+      Assert.fail("IllegalArgumentException expected as /b does not exist");
+    } catch (IllegalArgumentException e) {
+      Assert.assertTrue(e.getMessage().contains("/b/c"));
+    }
+  }
+
   @Test
   public void testSetInMap() {
     // Root field is the list
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2017 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.runner;
+
+import com.google.common.collect.ImmutableList;
+import com.streamsets.datacollector.record.RecordImpl;
+import com.streamsets.datacollector.util.ContainerError;
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.impl.ErrorMessage;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class TestRequiredFieldsPredicate {
+
+  private static Record createRecord() {
+    Map<String, Field> map = new HashMap<>();
+    map.put("a", Field.create("A"));
+    map.put("b", Field.create(ImmutableList.of(Field.create(1))));
+    Record record = new RecordImpl("stage", "source", null, null);
+    record.set(Field.create(map));
+    return record;
+  }
+
+  @Test
+  public void testNoRequiredFields() {
+    Assert.assertTrue(new RequiredFieldsPredicate(null).evaluate(createRecord()));
+    Assert.assertTrue(new RequiredFieldsPredicate(Collections.emptyList()).evaluate(createRecord()));
+  }
+
+  @Test
+  public void testRequiredFields() {
+    FilterRecordBatch.Predicate predicate = new RequiredFieldsPredicate(ImmutableList.of("/a", "/b[0]"));
+    Assert.assertTrue(predicate.evaluate(createRecord()));
+
+    predicate = new RequiredFieldsPredicate(ImmutableList.of("/a", "/c", "/b[1]"));
+    Assert.assertFalse(predicate.evaluate(createRecord()));
+    ErrorMessage message = predicate.getRejectedMessage();
+    Assert.assertEquals(ContainerError.CONTAINER_0050.getCode(), message.getErrorCode());
+    Assert.assertTrue(message.toString().contains("/c"));
+    Assert.assertTrue(message.toString().contains("/b[1]"));
+  }
+
+  @Test
+  public void testRecordOtherThanRecordImpl() {
+    Record record = Mockito.mock(Record.class);
+    Mockito.when(record.has("/a")).thenReturn(true);
+    FilterRecordBatch.Predicate predicate = new RequiredFieldsPredicate(ImmutableList.of("/a"));
+    Assert.assertTrue(predicate.evaluate(record));
+    Mockito.verify(record).has("/a");
+  }
+}
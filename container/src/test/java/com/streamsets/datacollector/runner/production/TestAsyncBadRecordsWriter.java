@@ -0,0 +1,211 @@
+/*
+ * Copyright 2017 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.runner.production;
+
+import com.streamsets.datacollector.record.RecordImpl;
+import com.streamsets.datacollector.util.ContainerError;
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.StageException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class TestAsyncBadRecordsWriter {
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private File spoolDir;
+
+  @Before
+  public void setUp() throws Exception {
+    spoolDir = new File(tempFolder.getRoot(), "errorRecords");
+  }
+
+  private static List<Record> createRecords(int count) {
+    List<Record> records = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      Record record = new RecordImpl("s", "id" + i, null, null);
+      record.set(Field.create(i));
+      records.add(record);
+    }
+    return records;
+  }
+
+  private static AsyncBadRecordsWriter.Sink blockingSink(
+      CountDownLatch release,
+      List<Integer> batchSizes,
+      List<String> offsets
+  ) {
+    return (entity, offset, records) -> {
+      try {
+        release.await(10, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        throw new IllegalStateException(e);
+      }
+      batchSizes.add(records.size());
+      offsets.add(offset);
+    };
+  }
+
+  @Test
+  public void testBatchesAcrossPipelineBatches() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+    List<String> offsets = Collections.synchronizedList(new ArrayList<>());
+    AsyncBadRecordsWriter writer = new AsyncBadRecordsWriter(
+        "p",
+        spoolDir,
+        100,
+        10,
+        blockingSink(release, batchSizes, offsets)
+    );
+    writer.start();
+
+    // the first record is picked up by the writer which then blocks until released
+    writer.add("e", "o1", createRecords(1));
+    for (int i = 2; i <= 5; i++) {
+      writer.add("e", "o" + i, createRecords(3));
+    }
+    release.countDown();
+    writer.flush();
+
+    Assert.assertEquals(0, writer.getSpooledRecords());
+    int total = 0;
+    for (int size : batchSizes) {
+      Assert.assertTrue(size <= 10);
+      total += size;
+    }
+    Assert.assertEquals(13, total);
+    // later records were written together with records of other pipeline batches
+    Assert.assertTrue(batchSizes.size() < 5);
+    Assert.assertEquals("o5", offsets.get(offsets.size() - 1));
+    // all segments were deleted once written
+    Assert.assertEquals(0, spoolDir.listFiles().length);
+  }
+
+  @Test
+  public void testRecordsAreSpooledToDisk() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    AsyncBadRecordsWriter writer = new AsyncBadRecordsWriter(
+        "p",
+        spoolDir,
+        100,
+        10,
+        blockingSink(release, new ArrayList<>(), new ArrayList<>())
+    );
+    writer.start();
+
+    writer.add("e", "o1", createRecords(2));
+    writer.add("e", "o2", createRecords(3));
+    // records are on disk as soon as add() returns
+    Assert.assertEquals(5, writer.getSpooledRecords());
+    Assert.assertEquals(2, spoolDir.listFiles().length);
+
+    release.countDown();
+    writer.flush();
+    Assert.assertEquals(0, writer.getSpooledRecords());
+  }
+
+  @Test
+  public void testReplayAfterRestart() throws Exception {
+    // simulate a crash: records are spooled but the writer never gets to write them
+    Assert.assertTrue(spoolDir.mkdirs());
+    AsyncBadRecordsWriter crashed = new AsyncBadRecordsWriter("p", spoolDir, 100, 10, (entity, offset, records) -> {
+      throw new IllegalStateException("Must not be called");
+    });
+    crashed.add("e", "o1", createRecords(2));
+    crashed.add("e", "o2", createRecords(3));
+    // incomplete segment of a batch whose offset was never committed
+    Assert.assertTrue(new File(spoolDir, "2-4.spool.tmp").createNewFile());
+
+    List<Record> written = Collections.synchronizedList(new ArrayList<>());
+    List<String> offsets = Collections.synchronizedList(new ArrayList<>());
+    AsyncBadRecordsWriter writer = new AsyncBadRecordsWriter("p", spoolDir, 100, 10, (entity, offset, records) -> {
+      written.addAll(records);
+      offsets.add(offset);
+    });
+    writer.start();
+    writer.add("e", "o3", createRecords(1));
+    writer.flush();
+
+    Assert.assertEquals(6, written.size());
+    Assert.assertEquals(0, written.get(0).get().getValueAsInteger());
+    Assert.assertEquals(1, written.get(1).get().getValueAsInteger());
+    Assert.assertEquals(0, written.get(2).get().getValueAsInteger());
+    Assert.assertEquals(2, written.get(4).get().getValueAsInteger());
+    Assert.assertEquals("o3", offsets.get(offsets.size() - 1));
+    Assert.assertEquals(0, spoolDir.listFiles().length);
+  }
+
+  @Test
+  public void testFullSpoolWritesDirectly() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+    List<String> offsets = Collections.synchronizedList(new ArrayList<>());
+    AsyncBadRecordsWriter writer = new AsyncBadRecordsWriter("p", spoolDir, 2, 10, (entity, offset, records) -> {
+      if (!"direct".equals(offset)) {
+        try {
+          release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          throw new IllegalStateException(e);
+        }
+      }
+      batchSizes.add(records.size());
+      offsets.add(offset);
+    });
+    writer.start();
+
+    writer.add("e", "o1", createRecords(2));
+    // spool is full, the records are written on the caller thread without waiting for the background writer
+    writer.add("e", "direct", createRecords(1));
+    Assert.assertEquals(Collections.singletonList("direct"), offsets);
+    Assert.assertEquals(2, writer.getSpooledRecords());
+
+    release.countDown();
+    writer.flush();
+    Assert.assertEquals(0, writer.getSpooledRecords());
+    Assert.assertEquals(3, batchSizes.stream().mapToInt(Integer::intValue).sum());
+  }
+
+  @Test
+  public void testFailureIsReported() throws Exception {
+    AsyncBadRecordsWriter writer = new AsyncBadRecordsWriter("p", spoolDir, 10, 10, (entity, offset, records) -> {
+      throw new StageException(ContainerError.CONTAINER_0706, "failed");
+    });
+    writer.start();
+
+    writer.add("e", "o", createRecords(1));
+    try {
+      writer.flush();
+      Assert.fail("Expected failure of the error stage to be reported");
+    } catch (StageException e) {
+      Assert.assertEquals(ContainerError.CONTAINER_0706, e.getErrorCode());
+    }
+    // records that could not be written stay in the spool for the next run
+    Assert.assertEquals(1, spoolDir.listFiles().length);
+  }
+}
@@ -33,10 +33,12 @@ import com.streamsets.datacollector.execution.PreviewerListener;
 import com.streamsets.datacollector.execution.Runner;
 import com.streamsets.datacollector.execution.SnapshotStore;
 import com.streamsets.datacollector.execution.alerts.AlertManager;
+import com.streamsets.datacollector.execution.common.ExecutorConstants;
 import com.streamsets.datacollector.execution.manager.PreviewerProvider;
 import com.streamsets.datacollector.execution.manager.RunnerProvider;
 import com.streamsets.datacollector.execution.manager.standalone.StandaloneAndClusterPipelineManager;
 import com.streamsets.datacollector.execution.runner.common.AsyncRunner;
+import com.streamsets.datacollector.execution.runner.common.CooperativeScheduler;
 import com.streamsets.datacollector.execution.runner.common.DataObserverRunnable;
 import com.streamsets.datacollector.execution.runner.common.MetricObserverRunnable;
 import com.streamsets.datacollector.execution.runner.common.MetricsObserverRunner;
@@ -110,6 +112,7 @@ public class TestUtil {
   public static final String PIPELINE_REV = "2.0";
   public static final String ZERO_REV = "0";
   public volatile static boolean EMPTY_OFFSET = false;
+  public volatile static boolean COOPERATIVE_EXECUTION = false;
 
   public static class SourceOffsetTrackerImpl implements SourceOffsetTracker {
     private final Map<String, String> offsets;
@@ -485,6 +488,7 @@ public class TestUtil {
       Configuration conf = new Configuration();
       conf.set("mail.smtp.host", "localhost");
       conf.set("mail.smtp.port", getMailServer().getSmtp().getPort());
+      conf.set(ExecutorConstants.RUNNER_COOPERATIVE_ENABLED_KEY, COOPERATIVE_EXECUTION);
       return conf;
     }
 
@@ -539,6 +543,11 @@ public class TestUtil {
     public SafeScheduledExecutorService providSupportBundleExecutor() {
       return new SafeScheduledExecutorService(1, "supportBundleExecutor");
     }
+
+    @Provides @Singleton
+    public CooperativeScheduler provideCooperativeScheduler() {
+      return new CooperativeScheduler(COOPERATIVE_EXECUTION, 2, 1, 100, new MetricRegistry());
+    }
   }
 
   /*************** PipelineProvider ***************/
@@ -85,6 +85,8 @@ public class HBaseTarget extends BaseTarget {
   private ErrorRecordHandler errorRecordHandler;
   private ELEval timeDriverElEval;
   private Date batchTime;
+  // Table is kept open for the whole life of the pipeline and re-created only after failure
+  private HTable hTable;
 
   public HBaseTarget(
     HBaseConnectionConfig conf,
@@ -387,17 +389,20 @@ public class HBaseTarget extends BaseTarget {
   private void writeBatch(Batch batch) throws StageException {
     Iterator<Record> it = batch.getRecords();
     Map<String, Record> rowKeyToRecord = new HashMap<>();
-    try (HTable hTable = new HTable(hbaseConf, conf.tableName)) {
-      // Disable auto-flush to increase performance by reducing the number of RPCs.
-      // HTable is deprecated as of HBase 1.0 and replaced by Table which does not use autoFlush
-      hTable.setAutoFlushTo(false);
+    boolean completed = false;
+    try {
+      HTable table = getTable();
       while (it.hasNext()) {
         Record record = it.next();
-        doPut(rowKeyToRecord, hTable, record);
+        doPut(rowKeyToRecord, table, record);
       }
-      // This will flush the internal buffer
-      hTable.flushCommits();
+      // Puts that did not fill the write buffer yet are still pending, flushing them at the end of every batch makes
+      // sure that all records are committed before the batch is considered written
+      table.flushCommits();
+      completed = true;
     } catch (RetriesExhaustedWithDetailsException rex) {
+      // Failed mutations are cleared from the write buffer, so the table can still be used for subsequent batches
+      completed = true;
       LOG.debug("Got exception while flushing commits to HBase", rex);
       HBaseUtil.handleHBaseException(rex, null, rowKeyToRecord, errorRecordHandler);
     } catch (OnRecordErrorException ex) {
@@ -406,7 +411,50 @@ public class HBaseTarget extends BaseTarget {
     } catch (IOException ex) {
       LOG.debug("Got exception while flushing commits to HBase", ex);
       throw new StageException(Errors.HBASE_02, ex);
+    } finally {
+      if (!completed) {
+        // We don't know in what state the write buffer is, next batch will start with a fresh table
+        closeTable();
+      }
+    }
+  }
+
+  private HTable getTable() throws IOException {
+    if (hTable == null) {
+      hTable = new HTable(hbaseConf, conf.tableName);
+      // Disable auto-flush to increase performance by reducing the number of RPCs. The table keeps internal write
+      // buffer (hbase.client.write.buffer) that is sent to the region servers asynchronously whenever it fills up.
+      // HTable is deprecated as of HBase 1.0 and replaced by BufferedMutator, we however still support HBase 0.98.
+      hTable.setAutoFlushTo(false);
+    }
+    return hTable;
+  }
+
+  private void closeTable() {
+    if (hTable != null) {
+      try {
+        hTable.close();
+      } catch (IOException ex) {
+        LOG.warn("Error while closing HBase table '{}': {}", conf.tableName, ex.toString(), ex);
+      } finally {
+        hTable = null;
+      }
+    }
+  }
+
+  @Override
+  public void destroy() {
+    if (hTable != null) {
+      try {
+        HBaseUtil.getUGI().doAs((PrivilegedExceptionAction<Void>) () -> {
+          closeTable();
+          return null;
+        });
+      } catch (InterruptedException | IOException e) {
+        LOG.warn("Unexpected exception while closing HBase table: {}", e.toString(), e);
+      }
     }
+    super.destroy();
   }
 
   private void doPut(Map<String, Record> rowKeyToRecord, HTable hTable, Record record) throws
@@ -260,6 +260,42 @@ public class HBaseTargetIT {
 
   }
 
+  @Test(timeout = 60000)
+  public void testMultipleBatchesAreCommitted() throws Exception {
+    List<HBaseFieldMappingConfig> fieldMappings =
+        ImmutableList.of(new HBaseFieldMappingConfig("cf:a", "[1]", StorageType.TEXT));
+
+    TargetRunner targetRunner = buildRunner(fieldMappings, StorageType.TEXT, OnRecordError.DISCARD, "", false, "[0]", false, false);
+    targetRunner.runInit();
+    HTable htable = new HTable(conf, tableName);
+    try {
+      for (int batch = 0; batch < 3; batch++) {
+        List<Record> records = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+          Record record = RecordCreator.create();
+          record.set(Field.create(ImmutableList.of(
+              Field.create("multi_batch_" + batch + "_" + i),
+              Field.create("value_" + batch + "_" + i)
+          )));
+          records.add(record);
+        }
+        targetRunner.runWrite(records);
+
+        // All records of the batch must be in HBase once the batch is written, even though the table stays open
+        for (int i = 0; i < 10; i++) {
+          Result r = htable.get(new Get(Bytes.toBytes("multi_batch_" + batch + "_" + i)));
+          assertEquals(
+              "value_" + batch + "_" + i,
+              Bytes.toString(r.getValue(Bytes.toBytes(familyName), Bytes.toBytes("a")))
+          );
+        }
+      }
+    } finally {
+      htable.close();
+      targetRunner.runDestroy();
+    }
+  }
+
   @Test(timeout = 600000)
   public void testImplicitFieldMappingNullField() throws Exception {
     String rowKeyFieldPath = "/row_key";
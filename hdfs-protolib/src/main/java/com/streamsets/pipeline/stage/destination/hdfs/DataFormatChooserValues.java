@@ -26,6 +26,7 @@ public class DataFormatChooserValues extends BaseEnumChooserValues<DataFormat> {
       DataFormat.BINARY,
       DataFormat.DELIMITED,
       DataFormat.JSON,
+      DataFormat.PARQUET,
       DataFormat.PROTOBUF,
       DataFormat.TEXT,
       DataFormat.WHOLE_FILE
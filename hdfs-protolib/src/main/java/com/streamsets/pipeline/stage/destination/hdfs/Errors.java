@@ -93,6 +93,8 @@ public enum Errors implements ErrorCode {
   HADOOPFS_60("Invalid Data Format {}, should be {} for File Type {}."),
   HADOOPFS_61("You must specify at least one of Hadoop FS URI, Hadoop FS Configuration Directory or fs.defaultFS"),
   HADOOPFS_62("Can't resolve credential: {}"),
+  HADOOPFS_63("Can't write record '{}' as Parquet: {}"),
+  HADOOPFS_64("Parquet files are compressed by the data format, compression must be set to None"),
 
   ;
 
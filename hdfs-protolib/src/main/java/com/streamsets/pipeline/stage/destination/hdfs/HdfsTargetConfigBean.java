@@ -526,6 +526,10 @@ public class HdfsTargetConfigBean {
       fileNameEL = dataGeneratorFormatConfig.fileNameEL;
     }
 
+    if (dataFormat == DataFormat.PARQUET) {
+      validateStageForParquetFormat(context, issues);
+    }
+
     SequenceFile.CompressionType compressionType = (seqFileCompressionType != null)
       ? seqFileCompressionType.getType() : null;
     try {
@@ -1048,6 +1052,30 @@ public class HdfsTargetConfigBean {
     }
   }
 
+  protected void validateStageForParquetFormat(Stage.Context context, List<Stage.ConfigIssue> issues) {
+    if (fileType != HdfsFileType.TEXT) {
+      issues.add(
+          context.createConfigIssue(
+              Groups.OUTPUT_FILES.name(),
+              getTargetConfigBeanPrefix() + "fileType",
+              Errors.HADOOPFS_53,
+              fileType,
+              HdfsFileType.TEXT.getLabel(),
+              DataFormat.PARQUET.getLabel()
+          )
+      );
+    }
+    if (compression != CompressionMode.NONE) {
+      issues.add(
+          context.createConfigIssue(
+              Groups.OUTPUT_FILES.name(),
+              getTargetConfigBeanPrefix() + "compression",
+              Errors.HADOOPFS_64
+          )
+      );
+    }
+  }
+
   private boolean validateHadoopFS(Stage.Context context, List<Stage.ConfigIssue> issues) {
     hdfsConfiguration = getHadoopConfiguration(context, issues);
 
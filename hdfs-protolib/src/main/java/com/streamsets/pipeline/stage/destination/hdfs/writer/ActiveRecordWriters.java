@@ -176,6 +176,7 @@ public class ActiveRecordWriters {
     for (RecordWriter writer : writers.values()) {
       if (!writer.isClosed()) {
         try {
+          // Parquet files stay open across batches and are committed only when they roll, their flush is a no-op
           writer.flush();
         } catch (IOException ex) {
           String msg = Utils.format("Flush failed on file : '{}'", writer.getPath().toString());
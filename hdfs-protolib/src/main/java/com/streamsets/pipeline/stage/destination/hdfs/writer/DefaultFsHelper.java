@@ -94,7 +94,9 @@ final class DefaultFsHelper implements FsHelper {
         if (globStatus != null) {
           for (FileStatus status : globStatus) {
             LOG.debug("Found uncommitted file '{}'", status.getPath());
-            recordWriterManager.renameToFinalName(fs, status.getPath());
+            if (!quarantineIncompleteFile(fs, status.getPath())) {
+              recordWriterManager.renameToFinalName(fs, status.getPath());
+            }
           }
         }
       }
@@ -103,10 +105,35 @@ final class DefaultFsHelper implements FsHelper {
 
   @Override
   public void handleAlreadyExistingFile(FileSystem fs, Path tempPath) throws StageException, IOException {
+    if (quarantineIncompleteFile(fs, tempPath)) {
+      return;
+    }
     Path path = recordWriterManager.renameToFinalName(fs, tempPath);
     LOG.warn("Path[{}] - Found previous file '{}', committing it", tempPath, path);
   }
 
+  /**
+   * Parquet files that were not closed properly don't have a footer and can't be read at all. Rather than committing
+   * them, such files are renamed with the invalid file prefix so that they are neither picked up by readers nor by
+   * the next recovery.
+   *
+   * @return true if the file was quarantined
+   */
+  private boolean quarantineIncompleteFile(FileSystem fs, Path tempPath) throws IOException {
+    if (!recordWriterManager.isParquet() || ParquetDataGenerator.isComplete(fs, tempPath)) {
+      return false;
+    }
+    Path invalidPath = new Path(
+        tempPath.getParent(),
+        tempPath.getName().replaceFirst(RecordWriterManager.TMP_FILE_PREFIX, RecordWriterManager.INVALID_FILE_PREFIX)
+    );
+    if (!fs.rename(tempPath, invalidPath)) {
+      throw new IOException(Utils.format("Could not rename '{}' to '{}'", tempPath, invalidPath));
+    }
+    LOG.warn("Path[{}] - Found incomplete Parquet file without footer, moved it to '{}'", tempPath, invalidPath);
+    return true;
+  }
+
   @Override
   public Path renameAndGetPath(FileSystem fs, Path tempPath) throws IOException, StageException {
     Path finalPath =  new Path(tempPath.getParent(), (StringUtils.isEmpty(uniquePrefix) ? "" : (uniquePrefix + "_") ) + UUID.randomUUID().toString() + recordWriterManager.getExtension());
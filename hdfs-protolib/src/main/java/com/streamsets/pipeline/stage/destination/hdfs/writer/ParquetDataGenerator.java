@@ -0,0 +1,281 @@
+/*
+ * Copyright 2017 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.destination.hdfs.writer;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.StageException;
+import com.streamsets.pipeline.lib.generator.DataGenerator;
+import com.streamsets.pipeline.lib.generator.DataGeneratorException;
+import com.streamsets.pipeline.lib.generator.avro.BaseAvroDataGenerator;
+import com.streamsets.pipeline.lib.generator.parquet.ParquetDataGeneratorFactory;
+import com.streamsets.pipeline.lib.util.AvroTypeUtil;
+import com.streamsets.pipeline.stage.destination.hdfs.Errors;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaParseException;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.avro.AvroParquetWriter;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.codehaus.jackson.node.NullNode;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Writes records into a single Parquet file.
+ *
+ * Records are converted to Avro and handed over to the Parquet Avro writer which encodes them in columnar form. The
+ * Parquet writer is opened lazily on the first record so that the schema can be taken from the record header or
+ * inferred from the record itself. Parquet buffers a whole row group in memory and the file is readable only after
+ * its footer was written on close, hence flush() is a no-op.
+ *
+ * The file stays open across batches and is closed when it rolls on the usual size, record count or idle timeout
+ * thresholds, so that files are not as small as a single batch. The trade-off is durability: records written since
+ * the file was opened are not readable until it is closed. If the data collector dies before that, the file has no
+ * footer and is moved aside with the invalid file prefix on recovery, so its records have to be replayed from the
+ * origin. Lower thresholds shorten that window at the cost of more files.
+ */
+public class ParquetDataGenerator implements DataGenerator {
+
+  private static final String RECORD_NAME = "sdcRecord";
+  private static final Pattern INVALID_NAME_CHARS = Pattern.compile("[^A-Za-z0-9_]");
+
+  private final Path path;
+  private final Configuration conf;
+  private final ParquetDataGeneratorFactory factory;
+
+  private Schema schema;
+  private String headerSchema;
+  private Map<String, Object> defaultValues;
+  private ParquetWriter<GenericRecord> writer;
+  private boolean closed;
+
+  public ParquetDataGenerator(Path path, Configuration conf, ParquetDataGeneratorFactory factory) {
+    this.path = path;
+    this.conf = conf;
+    this.factory = factory;
+  }
+
+  @Override
+  public void write(Record record) throws IOException, DataGeneratorException {
+    if (closed) {
+      throw new IOException("generator has been closed");
+    }
+    if (writer == null) {
+      open(record);
+    } else if (headerSchema != null) {
+      String recordSchema = AvroTypeUtil.getAvroSchemaFromHeader(record, BaseAvroDataGenerator.AVRO_SCHEMA_HEADER);
+      if (!headerSchema.equals(recordSchema)) {
+        throw new DataGeneratorException(
+            Errors.HADOOPFS_63,
+            record.getHeader().getSourceId(),
+            "record schema differs from the schema of the file " + path
+        );
+      }
+    }
+
+    Object avroRecord;
+    try {
+      avroRecord = AvroTypeUtil.sdcRecordToAvro(record, schema, defaultValues);
+    } catch (DataGeneratorException ex) {
+      throw ex;
+    } catch (StageException | RuntimeException ex) {
+      throw new DataGeneratorException(Errors.HADOOPFS_63, record.getHeader().getSourceId(), ex.toString(), ex);
+    }
+    if (!(avroRecord instanceof GenericRecord)) {
+      throw new DataGeneratorException(
+          Errors.HADOOPFS_63,
+          record.getHeader().getSourceId(),
+          "root field must be a map or list-map"
+      );
+    }
+    writer.write((GenericRecord) avroRecord);
+  }
+
+  private void open(Record record) throws IOException, DataGeneratorException {
+    try {
+      schema = getSchema(record);
+    } catch (SchemaParseException ex) {
+      throw new DataGeneratorException(Errors.HADOOPFS_63, record.getHeader().getSourceId(), ex.toString(), ex);
+    }
+    defaultValues = AvroTypeUtil.getDefaultValuesFromSchema(schema, new HashSet<String>());
+
+    writer = AvroParquetWriter.<GenericRecord>builder(path)
+        .withSchema(schema)
+        .withConf(conf)
+        .withCompressionCodec(CompressionCodecName.valueOf(factory.getCompression().getCodecName()))
+        .withDictionaryEncoding(factory.isDictionaryEncoding())
+        .withPageSize(factory.getPageSize())
+        .withRowGroupSize(factory.getRowGroupSize())
+        .build();
+  }
+
+  private Schema getSchema(Record record) throws DataGeneratorException {
+    switch (factory.getSchemaSource()) {
+      case INLINE:
+        return AvroTypeUtil.parseSchema(factory.getSchema());
+      case HEADER:
+        headerSchema = AvroTypeUtil.getAvroSchemaFromHeader(record, BaseAvroDataGenerator.AVRO_SCHEMA_HEADER);
+        return AvroTypeUtil.parseSchema(headerSchema);
+      case INFER:
+        return inferSchema(record);
+      default:
+        throw new IllegalStateException("Unknown schema source: " + factory.getSchemaSource());
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    if (closed) {
+      throw new IOException("generator has been closed");
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    if (writer != null) {
+      writer.close();
+    }
+  }
+
+  /**
+   * Returns true if given file is a complete Parquet file, e.g. it ends with the magic bytes that follow the footer.
+   * Files that were not closed properly (e.g. the JVM crashed) don't have the footer and are not readable.
+   */
+  public static boolean isComplete(FileSystem fs, Path path) throws IOException {
+    long length = fs.getFileStatus(path).getLen();
+    // Magic at the beginning, footer length and magic at the end
+    if (length < 2L * ParquetFileWriter.MAGIC.length + 4) {
+      return false;
+    }
+    byte[] magic = new byte[ParquetFileWriter.MAGIC.length];
+    try (FSDataInputStream in = fs.open(path)) {
+      in.readFully(length - magic.length, magic);
+    }
+    return Arrays.equals(ParquetFileWriter.MAGIC, magic);
+  }
+
+  /**
+   * Estimated size of the file, including the data that are still buffered in memory.
+   */
+  public long getDataSize() {
+    return writer == null ? 0 : writer.getDataSize();
+  }
+
+  /**
+   * Infers Avro schema from the given record. All fields are optional so that records missing some of them can still
+   * be written into the same file.
+   */
+  @VisibleForTesting
+  static Schema inferSchema(Record record) throws DataGeneratorException {
+    Field root = record.get();
+    if (root == null || (root.getType() != Field.Type.MAP && root.getType() != Field.Type.LIST_MAP)
+        || root.getValue() == null) {
+      throw new DataGeneratorException(
+          Errors.HADOOPFS_63,
+          record.getHeader().getSourceId(),
+          "root field must be a map or list-map"
+      );
+    }
+    try {
+      return recordSchema(RECORD_NAME, root.getValueAsMap());
+    } catch (SchemaParseException ex) {
+      throw new DataGeneratorException(Errors.HADOOPFS_63, record.getHeader().getSourceId(), ex.toString(), ex);
+    }
+  }
+
+  private static Schema recordSchema(String name, Map<String, Field> fields) {
+    List<Schema.Field> avroFields = new ArrayList<>(fields.size());
+    for (Map.Entry<String, Field> entry : fields.entrySet()) {
+      avroFields.add(new Schema.Field(
+          entry.getKey(),
+          optional(fieldSchema(name + "_" + entry.getKey(), entry.getValue())),
+          null,
+          NullNode.getInstance()
+      ));
+    }
+    Schema schema = Schema.createRecord(INVALID_NAME_CHARS.matcher(name).replaceAll("_"), null, null, false);
+    schema.setFields(avroFields);
+    return schema;
+  }
+
+  private static Schema fieldSchema(String name, Field field) {
+    switch (field.getType()) {
+      case BOOLEAN:
+        return Schema.create(Schema.Type.BOOLEAN);
+      case BYTE:
+      case SHORT:
+      case INTEGER:
+        return Schema.create(Schema.Type.INT);
+      case LONG:
+        return Schema.create(Schema.Type.LONG);
+      case FLOAT:
+        return Schema.create(Schema.Type.FLOAT);
+      case DOUBLE:
+        return Schema.create(Schema.Type.DOUBLE);
+      case BYTE_ARRAY:
+        return Schema.create(Schema.Type.BYTES);
+      case DATE:
+        return logical(Schema.Type.INT, AvroTypeUtil.LOGICAL_TYPE_DATE);
+      case TIME:
+        return logical(Schema.Type.INT, AvroTypeUtil.LOGICAL_TYPE_TIME_MILLIS);
+      case DATETIME:
+        return logical(Schema.Type.LONG, AvroTypeUtil.LOGICAL_TYPE_TIMESTAMP_MILLIS);
+      case MAP:
+      case LIST_MAP:
+        return field.getValue() == null
+            ? Schema.createMap(optional(Schema.create(Schema.Type.STRING)))
+            : recordSchema(name, field.getValueAsMap());
+      case LIST:
+        List<Field> list = field.getValueAsList();
+        Schema elementSchema = (list == null || list.isEmpty() || list.get(0) == null)
+            ? Schema.create(Schema.Type.STRING)
+            : fieldSchema(name + "_element", list.get(0));
+        return Schema.createArray(optional(elementSchema));
+      case CHAR:
+      case DECIMAL:
+      case STRING:
+      default:
+        return Schema.create(Schema.Type.STRING);
+    }
+  }
+
+  private static Schema logical(Schema.Type type, String logicalType) {
+    Schema schema = Schema.create(type);
+    schema.addProp(AvroTypeUtil.LOGICAL_TYPE, logicalType);
+    return schema;
+  }
+
+  private static Schema optional(Schema schema) {
+    return Schema.createUnion(Arrays.asList(Schema.create(Schema.Type.NULL), schema));
+  }
+}
@@ -35,6 +35,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
@@ -55,9 +56,13 @@ public class RecordWriter {
   private long recordCount;
 
   private CountingOutputStream textOutputStream;
+  private FileOutputStream fileOutputStream;
   private DataGenerator generator;
   private boolean textFile;
 
+  private ParquetDataGenerator parquetGenerator;
+  private boolean parquetFile;
+
   private SequenceFile.Writer seqWriter;
   private String keyEL;
   private ELEval keyElEval;
@@ -87,12 +92,28 @@ public class RecordWriter {
   public RecordWriter(Path path, long timeToLiveMillis, OutputStream textOutputStream,
                       DataGeneratorFactory generatorFactory, StreamCloseEventHandler streamCloseEventHandler) throws StageException, IOException {
     this(path, timeToLiveMillis, generatorFactory);
-    this.textOutputStream = new CountingOutputStream(textOutputStream);
-    generator = generatorFactory.getGenerator(this.textOutputStream, streamCloseEventHandler);
+    if (textOutputStream instanceof FileOutputStream) {
+      // Hand the file stream over as is so that the generator can write through its channel (local whole file
+      // transfers), the length is then taken from the file itself.
+      fileOutputStream = (FileOutputStream) textOutputStream;
+      generator = generatorFactory.getGenerator(textOutputStream, streamCloseEventHandler);
+    } else {
+      this.textOutputStream = new CountingOutputStream(textOutputStream);
+      generator = generatorFactory.getGenerator(this.textOutputStream, streamCloseEventHandler);
+    }
     textFile = true;
     this.idleTimeout = -1L;
   }
 
+  public RecordWriter(Path path, long timeToLiveMillis, ParquetDataGenerator parquetGenerator,
+                      DataGeneratorFactory generatorFactory) {
+    this(path, timeToLiveMillis, generatorFactory);
+    this.parquetGenerator = parquetGenerator;
+    generator = parquetGenerator;
+    parquetFile = true;
+    this.idleTimeout = -1L;
+  }
+
   public RecordWriter(Path path, long timeToLiveMillis, SequenceFile.Writer seqWriter, String keyEL,
       DataGeneratorFactory generatorFactory, Target.Context context) {
     this(path, timeToLiveMillis, generatorFactory);
@@ -196,7 +217,11 @@ public class RecordWriter {
   // buffer size.
   public long getLength() throws IOException {
     long length = -1;
-    if (generator != null) {
+    if (parquetGenerator != null) {
+      length = parquetGenerator.getDataSize();
+    } else if (fileOutputStream != null && generator != null) {
+      length = fileOutputStream.getChannel().size();
+    } else if (generator != null) {
       length = textOutputStream.getByteCount();
     } else if (seqWriter != null) {
       length = seqWriter.getLength();
@@ -234,6 +259,7 @@ public class RecordWriter {
       }
     } finally {
       generator = null;
+      parquetGenerator = null;
       seqWriter = null;
       closeLock.writeLock().unlock();
       //Gracefully Shutdown the thread, so rename goes through without glitch.
@@ -260,6 +286,10 @@ public class RecordWriter {
     return seqFile;
   }
 
+  public boolean isParquetFile() {
+    return parquetFile;
+  }
+
   public boolean isClosed() {
     closeLock.readLock().lock();
     boolean isClosed = (generator == null && seqWriter == null);
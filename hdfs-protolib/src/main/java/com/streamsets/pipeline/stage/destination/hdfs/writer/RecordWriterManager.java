@@ -31,6 +31,7 @@ import com.streamsets.pipeline.config.WholeFileExistsAction;
 import com.streamsets.pipeline.lib.el.FakeRecordEL;
 import com.streamsets.pipeline.lib.el.TimeEL;
 import com.streamsets.pipeline.lib.generator.DataGeneratorFactory;
+import com.streamsets.pipeline.lib.generator.parquet.ParquetDataGeneratorFactory;
 import com.streamsets.pipeline.lib.parser.shaded.com.google.code.regexp.Matcher;
 import com.streamsets.pipeline.lib.parser.shaded.com.google.code.regexp.Pattern;
 import com.streamsets.pipeline.stage.destination.hdfs.Errors;
@@ -59,6 +60,8 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 public class RecordWriterManager {
   private final static Logger LOG = LoggerFactory.getLogger(RecordWriterManager.class);
   public final static String TMP_FILE_PREFIX = "_tmp_";
+  // Prefix of temporary files that could not be committed during recovery
+  public final static String INVALID_FILE_PREFIX = "_invalid_";
 
   private final static String DOT = ".";
   private FileSystem fs;
@@ -193,6 +196,10 @@ public class RecordWriterManager {
     return fsHelper.getPath(fs, recordDate, record);
   }
 
+  boolean isParquet() {
+    return generatorFactory instanceof ParquetDataGeneratorFactory;
+  }
+
   /**
    * This method should be called every time we finish writing into a file and consider it "done".
    */
@@ -248,6 +255,24 @@ public class RecordWriterManager {
         //we are copying the whole file.
         return new RecordWriter(path, timeToLiveMillis, wholeFileOs, generatorFactory, fsHelper.getStreamCloseEventHandler());
       case TEXT:
+        if (generatorFactory instanceof ParquetDataGeneratorFactory) {
+          // Parquet needs to own the file as it writes the footer at the end, compression is done by the format itself
+          ParquetDataGenerator parquetGenerator = new ParquetDataGenerator(
+              fs.makeQualified(path),
+              fs.getConf(),
+              (ParquetDataGeneratorFactory) generatorFactory
+          );
+          RecordWriter parquetRecordWriter = new RecordWriter(
+              path,
+              timeToLiveMillis,
+              parquetGenerator,
+              generatorFactory
+          );
+          if (idleTimeoutSeconds != -1) {
+            parquetRecordWriter.setIdleTimeout(idleTimeoutSeconds);
+          }
+          return parquetRecordWriter;
+        }
         OutputStream os = fsHelper.create(fs, path);
         if (compressionCodec != null) {
           try {
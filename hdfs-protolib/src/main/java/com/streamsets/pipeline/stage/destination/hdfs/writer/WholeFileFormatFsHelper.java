@@ -34,11 +34,15 @@ import com.streamsets.pipeline.lib.io.fileref.FileRefUtil;
 import com.streamsets.pipeline.stage.destination.hdfs.Errors;
 import com.streamsets.pipeline.stage.destination.hdfs.util.HdfsUtils;
 import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.LocalFileSystem;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.RawLocalFileSystem;
 import org.apache.hadoop.fs.permission.FsPermission;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.Date;
@@ -188,10 +192,27 @@ final class WholeFileFormatFsHelper implements FsHelper {
 
   @Override
   public OutputStream create(FileSystem fs, Path path) throws IOException {
+    File localFile = toLocalFile(fs, path);
+    if (localFile != null) {
+      //Plain file stream, so that whole files coming from the local file system are copied by the kernel.
+      //Delete takes care of an already existing tmp file along with its checksum file.
+      fs.delete(path, false);
+      fs.mkdirs(path.getParent());
+      return new FileOutputStream(localFile);
+    }
     //Make sure if the tmp file already exists, overwrite it
     return fs.create(path, true);
   }
 
+  private static File toLocalFile(FileSystem fs, Path path) {
+    if (fs instanceof LocalFileSystem) {
+      return ((LocalFileSystem) fs).pathToFile(path);
+    } else if (fs instanceof RawLocalFileSystem) {
+      return ((RawLocalFileSystem) fs).pathToFile(path);
+    }
+    return null;
+  }
+
   @Override
   public StreamCloseEventHandler<?> getStreamCloseEventHandler() {
     return new FileRefStreamCloseEventHandler(wholeFileEventRecord);
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2017 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.destination.hdfs.writer;
+
+import com.google.common.collect.ImmutableMap;
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.OnRecordError;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.config.ParquetCompression;
+import com.streamsets.pipeline.config.ParquetSchemaSource;
+import com.streamsets.pipeline.lib.generator.DataGeneratorException;
+import com.streamsets.pipeline.lib.generator.DataGeneratorFactoryBuilder;
+import com.streamsets.pipeline.lib.generator.DataGeneratorFormat;
+import com.streamsets.pipeline.lib.generator.parquet.ParquetDataGeneratorFactory;
+import com.streamsets.pipeline.sdk.ContextInfoCreator;
+import com.streamsets.pipeline.sdk.RecordCreator;
+import com.streamsets.pipeline.stage.destination.hdfs.HdfsDTarget;
+import com.streamsets.pipeline.stage.destination.hdfs.HdfsFileType;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.util.Utf8;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.avro.AvroParquetReader;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+public class TestParquetDataGenerator {
+  private static Path testDir;
+
+  @BeforeClass
+  public static void setUpClass() {
+    File dir = new File("target", UUID.randomUUID().toString()).getAbsoluteFile();
+    Assert.assertTrue(dir.mkdirs());
+    testDir = new Path(dir.getAbsolutePath());
+  }
+
+  private static ParquetDataGeneratorFactory createFactory(ParquetSchemaSource schemaSource, String schema) {
+    return (ParquetDataGeneratorFactory) new DataGeneratorFactoryBuilder(
+        ContextInfoCreator.createTargetContext(HdfsDTarget.class, "n", false, OnRecordError.TO_ERROR, null),
+        DataGeneratorFormat.PARQUET
+    )
+        .setConfig(ParquetDataGeneratorFactory.SCHEMA_SOURCE_KEY, schemaSource)
+        .setConfig(ParquetDataGeneratorFactory.SCHEMA_KEY, schema)
+        .setConfig(ParquetDataGeneratorFactory.COMPRESSION_KEY, ParquetCompression.UNCOMPRESSED)
+        .build();
+  }
+
+  private static Record createRecord(long id, String name) {
+    Map<String, Field> map = new LinkedHashMap<>();
+    map.put("id", Field.create(id));
+    map.put("name", Field.create(name));
+    map.put("address", Field.create(ImmutableMap.of("city", Field.create("Prague"))));
+    Record record = RecordCreator.create();
+    record.set(Field.create(map));
+    return record;
+  }
+
+  @Test
+  public void testInferSchema() throws Exception {
+    Schema schema = ParquetDataGenerator.inferSchema(createRecord(1, "a"));
+    Assert.assertEquals(Schema.Type.RECORD, schema.getType());
+    Assert.assertEquals(3, schema.getFields().size());
+    Assert.assertEquals(Schema.Type.LONG, schema.getField("id").schema().getTypes().get(1).getType());
+    Assert.assertEquals(Schema.Type.STRING, schema.getField("name").schema().getTypes().get(1).getType());
+    Assert.assertEquals(Schema.Type.RECORD, schema.getField("address").schema().getTypes().get(1).getType());
+  }
+
+  @Test(expected = DataGeneratorException.class)
+  public void testInferSchemaInvalidRoot() throws Exception {
+    Record record = RecordCreator.create();
+    record.set(Field.create("not a map"));
+    ParquetDataGenerator.inferSchema(record);
+  }
+
+  @Test
+  public void testWriteAndRead() throws Exception {
+    Path file = new Path(testDir, "inferred.parquet");
+    Configuration conf = new Configuration();
+    ParquetDataGenerator generator = new ParquetDataGenerator(
+        FileSystem.getLocal(conf).makeQualified(file),
+        conf,
+        createFactory(ParquetSchemaSource.INFER, "")
+    );
+    RecordWriter writer = new RecordWriter(file, 10000, generator, null);
+    Assert.assertTrue(writer.isParquetFile());
+    Assert.assertFalse(writer.isTextFile());
+    Assert.assertEquals(0, writer.getLength());
+
+    for (int i = 0; i < 10; i++) {
+      writer.write(createRecord(i, "name" + i));
+    }
+    writer.flush();
+    Assert.assertTrue(writer.getLength() > 0);
+    Assert.assertEquals(10, writer.getRecords());
+    writer.close();
+    Assert.assertTrue(writer.isClosed());
+
+    try (ParquetReader<GenericRecord> reader = AvroParquetReader.<GenericRecord>builder(file).build()) {
+      for (long i = 0; i < 10; i++) {
+        GenericRecord row = reader.read();
+        Assert.assertNotNull(row);
+        Assert.assertEquals(i, row.get("id"));
+        Assert.assertEquals(new Utf8("name" + i), row.get("name"));
+        Assert.assertEquals(new Utf8("Prague"), ((GenericRecord) row.get("address")).get("city"));
+      }
+      Assert.assertNull(reader.read());
+    }
+  }
+
+  @Test
+  public void testInlineSchema() throws Exception {
+    String schema = "{\"type\":\"record\",\"name\":\"r\",\"fields\":[{\"name\":\"name\",\"type\":\"string\"}]}";
+    Path file = new Path(testDir, "inline.parquet");
+    Configuration conf = new Configuration();
+    ParquetDataGenerator generator = new ParquetDataGenerator(
+        FileSystem.getLocal(conf).makeQualified(file),
+        conf,
+        createFactory(ParquetSchemaSource.INLINE, schema)
+    );
+    generator.write(createRecord(1, "a"));
+    generator.close();
+
+    try (ParquetReader<GenericRecord> reader = AvroParquetReader.<GenericRecord>builder(file).build()) {
+      GenericRecord row = reader.read();
+      Assert.assertEquals(1, row.getSchema().getFields().size());
+      Assert.assertEquals(new Utf8("a"), row.get("name"));
+      Assert.assertNull(reader.read());
+    }
+  }
+
+  @Test
+  public void testIsComplete() throws Exception {
+    Configuration conf = new Configuration();
+    FileSystem fs = FileSystem.getLocal(conf);
+
+    Path complete = fs.makeQualified(new Path(testDir, "complete.parquet"));
+    ParquetDataGenerator generator = new ParquetDataGenerator(
+        complete,
+        conf,
+        createFactory(ParquetSchemaSource.INFER, "")
+    );
+    generator.write(createRecord(1, "a"));
+    generator.close();
+    Assert.assertTrue(ParquetDataGenerator.isComplete(fs, complete));
+
+    // Simulates a crash, data were written but the footer is missing
+    Path truncated = new Path(testDir, "truncated.parquet");
+    byte[] content = Files.readAllBytes(Paths.get(complete.toUri()));
+    Files.write(Paths.get(truncated.toUri()), Arrays.copyOf(content, content.length - 8));
+    Assert.assertFalse(ParquetDataGenerator.isComplete(fs, truncated));
+
+    Path empty = new Path(testDir, "empty.parquet");
+    Files.createFile(Paths.get(empty.toUri()));
+    Assert.assertFalse(ParquetDataGenerator.isComplete(fs, empty));
+  }
+
+  private RecordWriterManager createManager(String dir, long cutOffRecords) throws Exception {
+    return new RecordWriterManagerTestBuilder()
+        .context(ContextInfoCreator.createTargetContext(HdfsDTarget.class, "n", false, OnRecordError.TO_ERROR, null))
+        .dirPathTemplate(new Path(testDir, dir).toString())
+        .fileType(HdfsFileType.TEXT)
+        .compressionCodec(null)
+        .cutOffSecs(3600)
+        .cutOffRecords(cutOffRecords)
+        .cutOffSizeBytes(0)
+        .generatorFactory(createFactory(ParquetSchemaSource.INFER, ""))
+        .build();
+  }
+
+  private static File[] listFiles(String dir) {
+    File[] files = new File(testDir.toString(), dir).listFiles();
+    Assert.assertNotNull(files);
+    return files;
+  }
+
+  @Test
+  public void testFileStaysOpenAcrossBatches() throws Exception {
+    RecordWriterManager mgr = createManager("batch", 15);
+    ActiveRecordWriters writers = new ActiveRecordWriters(mgr);
+
+    Date now = new Date();
+    RecordWriter writer = writers.get(now, now, createRecord(0, "name"));
+    Assert.assertTrue(writer.isParquetFile());
+    for (int i = 0; i < 10; i++) {
+      writer.write(createRecord(i, "name" + i));
+    }
+    writers.release(writer, false);
+
+    // End of batch, the file is kept open for the next batch
+    writers.flushAll();
+    Assert.assertFalse(writer.isClosed());
+    Assert.assertEquals(1, writers.writers.size());
+    File[] files = listFiles("batch");
+    Assert.assertEquals(1, files.length);
+    Assert.assertTrue(files[0].getName().startsWith(RecordWriterManager.TMP_FILE_PREFIX));
+
+    // Next batch goes to the same file until it rolls on the record count
+    Assert.assertSame(writer, writers.get(now, now, createRecord(10, "name")));
+    for (int i = 10; i < 15; i++) {
+      writer.write(createRecord(i, "name" + i));
+    }
+    writers.release(writer, false);
+    Assert.assertTrue(writer.isClosed());
+    Assert.assertEquals(0, writers.writers.size());
+
+    files = listFiles("batch");
+    Assert.assertEquals(1, files.length);
+    Assert.assertFalse(files[0].getName().startsWith(RecordWriterManager.TMP_FILE_PREFIX));
+    try (ParquetReader<GenericRecord> reader =
+             AvroParquetReader.<GenericRecord>builder(new Path(files[0].getAbsolutePath())).build()) {
+      for (long i = 0; i < 15; i++) {
+        Assert.assertEquals(i, reader.read().get("id"));
+      }
+      Assert.assertNull(reader.read());
+    }
+    writers.closeAll();
+  }
+
+  @Test
+  public void testRecoveryQuarantinesIncompleteFiles() throws Exception {
+    RecordWriterManager mgr = createManager("recovery", 0);
+    String dir = new Path(testDir, "recovery").toString();
+    Files.createDirectories(Paths.get(dir));
+
+    // Leftover of a crashed pipeline, Parquet footer was never written
+    byte[] content = "PAR1some column data".getBytes(StandardCharsets.US_ASCII);
+    Files.write(Paths.get(dir, mgr.getTempFileName()), content);
+
+    Assert.assertEquals(1, mgr.handleAlreadyExistingFiles());
+
+    File[] files = listFiles("recovery");
+    Assert.assertEquals(1, files.length);
+    Assert.assertTrue(files[0].getName(), files[0].getName().startsWith(RecordWriterManager.INVALID_FILE_PREFIX));
+    Assert.assertArrayEquals(content, Files.readAllBytes(files[0].toPath()));
+  }
+}
@@ -69,6 +69,7 @@ public class KafkaTarget extends BaseTarget {
     }
   }
 
+  @SuppressWarnings("unchecked")
   private void writeOneMessagePerBatch(Batch batch) throws StageException {
     int count = 0;
     //Map of topic->(partition->Records)
@@ -113,81 +114,92 @@ public class KafkaTarget extends BaseTarget {
         list.add(record);
       }
     }
-    if (!perTopic.isEmpty()) {
-      for( Map.Entry<String, Map<Object, List<Record>>> topicEntry : perTopic.entrySet()) {
-        String entryTopic = topicEntry.getKey();
-        Map<Object, List<Record>> perPartition = topicEntry.getValue();
-        if(perPartition != null) {
-          for (Map.Entry<Object, List<Record>> entry : perPartition.entrySet()) {
-            Object partition = entry.getKey();
-            List<Record> list = entry.getValue();
-            ByteArrayOutputStream baos = new ByteArrayOutputStream(1024 * list.size());
-            Record currentRecord = null;
-            try {
-              DataGenerator generator = conf.dataGeneratorFormatConfig.getDataGeneratorFactory()
-                .getGenerator(baos);
-              for (Record record : list) {
-                currentRecord = record;
-                generator.write(record);
-                count++;
-              }
-              currentRecord = null;
-              generator.close();
-              byte[] bytes = baos.toByteArray();
-              kafkaProducer.enqueueMessage(entryTopic, bytes, partition);
-            } catch (StageException ex) {
-              errorRecordHandler.onError(
-                  list,
-                  new StageException(
-                      ex.getErrorCode(),
-                      ex.getParams()
-                  )
-              );
-            } catch (IOException ex) {
-              //clear the message list
-              kafkaProducer.clearMessages();
-              String sourceId = (currentRecord == null) ? "<NONE>" : currentRecord.getHeader().getSourceId();
-              errorRecordHandler.onError(
-                  list,
-                  new StageException(
-                      KafkaErrors.KAFKA_60,
-                      sourceId,
-                      batch.getSourceEntity(),
-                      batch.getSourceOffset(),
-                      partition,
-                      ex.toString(),
-                      ex
-                  )
-              );
-            }
-            try {
-              kafkaProducer.write();
-            } catch (StageException ex) {
-              if (ex.getErrorCode().getCode().equals(KafkaErrors.KAFKA_69.name())) {
-                List<Exception> failedRecordException = (List<Exception>) ex.getParams()[1];
-                Exception error = failedRecordException.get(0);
-                errorRecordHandler.onError(
-                    list,
-                    new StageException(
-                        KafkaErrors.KAFKA_60,
-                        "<NONE>",
-                        batch.getSourceEntity(),
-                        batch.getSourceOffset(),
-                        partition,
-                        error.toString(),
-                        error
-                    )
-                );
-              } else {
-                throw ex;
-              }
+    // Messages for all topics and partitions are enqueued (sent asynchronously) first and the producer is flushed and
+    // its acknowledgements collected once for the whole batch, instead of a flush round trip per partition.
+    // Records of each enqueued message are kept (in enqueue order) to map failed messages back to their records.
+    List<List<Record>> enqueuedRecords = new ArrayList<>();
+    List<Object> enqueuedPartitions = new ArrayList<>();
+    for (Map.Entry<String, Map<Object, List<Record>>> topicEntry : perTopic.entrySet()) {
+      String entryTopic = topicEntry.getKey();
+      Map<Object, List<Record>> perPartition = topicEntry.getValue();
+      if (perPartition != null) {
+        for (Map.Entry<Object, List<Record>> entry : perPartition.entrySet()) {
+          Object partition = entry.getKey();
+          List<Record> list = entry.getValue();
+          ByteArrayOutputStream baos = new ByteArrayOutputStream(1024 * list.size());
+          Record currentRecord = null;
+          try {
+            DataGenerator generator = conf.dataGeneratorFormatConfig.getDataGeneratorFactory()
+              .getGenerator(baos);
+            for (Record record : list) {
+              currentRecord = record;
+              generator.write(record);
             }
-            recordCounter += count;
-            LOG.debug("Wrote {} records in this batch.", count);
+            currentRecord = null;
+            generator.close();
+            byte[] bytes = baos.toByteArray();
+            kafkaProducer.enqueueMessage(entryTopic, bytes, partition);
+            enqueuedRecords.add(list);
+            enqueuedPartitions.add(partition);
+            count += list.size();
+          } catch (StageException ex) {
+            errorRecordHandler.onError(
+                list,
+                new StageException(
+                    ex.getErrorCode(),
+                    ex.getParams()
+                )
+            );
+          } catch (IOException ex) {
+            String sourceId = (currentRecord == null) ? "<NONE>" : currentRecord.getHeader().getSourceId();
+            errorRecordHandler.onError(
+                list,
+                new StageException(
+                    KafkaErrors.KAFKA_60,
+                    sourceId,
+                    batch.getSourceEntity(),
+                    batch.getSourceOffset(),
+                    partition,
+                    ex.toString(),
+                    ex
+                )
+            );
+          }
+        }
+      }
+    }
+    if (!enqueuedRecords.isEmpty()) {
+      try {
+        kafkaProducer.write();
+      } catch (StageException ex) {
+        if (ex.getErrorCode().getCode().equals(KafkaErrors.KAFKA_69.name())) {
+          List<Integer> failedMessageIndices = (List<Integer>) ex.getParams()[0];
+          List<Exception> failedMessageExceptions = (List<Exception>) ex.getParams()[1];
+          for (int i = 0; i < failedMessageIndices.size(); i++) {
+            int messageIndex = failedMessageIndices.get(i);
+            Exception error = failedMessageExceptions.get(i);
+            List<Record> failedRecords = enqueuedRecords.get(messageIndex);
+            count -= failedRecords.size();
+            errorRecordHandler.onError(
+                failedRecords,
+                new StageException(
+                    KafkaErrors.KAFKA_60,
+                    "<NONE>",
+                    batch.getSourceEntity(),
+                    batch.getSourceOffset(),
+                    enqueuedPartitions.get(messageIndex),
+                    error.toString(),
+                    error
+                )
+            );
           }
+        } else {
+          throw ex;
         }
       }
     }
+    recordCounter += count;
+    LOG.debug("Wrote {} records in this batch.", count);
   }
 
   @SuppressWarnings("unchecked")
@@ -16,6 +16,7 @@
 package com.streamsets.pipeline.stage.destination.kafka;
 
 import com.google.common.collect.ImmutableList;
+import com.streamsets.pipeline.api.Field;
 import com.streamsets.pipeline.api.OnRecordError;
 import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.Stage;
@@ -23,8 +24,11 @@ import com.streamsets.pipeline.api.StageException;
 import com.streamsets.pipeline.api.impl.Utils;
 import com.streamsets.pipeline.config.DataFormat;
 import com.streamsets.pipeline.kafka.api.PartitionStrategy;
+import com.streamsets.pipeline.kafka.api.SdcKafkaProducer;
 import com.streamsets.pipeline.kafka.common.SdcKafkaTestUtil;
 import com.streamsets.pipeline.kafka.common.SdcKafkaTestUtilFactory;
+import com.streamsets.pipeline.lib.kafka.KafkaErrors;
+import com.streamsets.pipeline.sdk.RecordCreator;
 import com.streamsets.pipeline.sdk.TargetRunner;
 import com.streamsets.pipeline.stage.destination.kafka.util.KafkaTargetUtil;
 import com.streamsets.pipeline.stage.destination.lib.DataGeneratorFormatConfig;
@@ -41,8 +45,12 @@ import org.junit.experimental.categories.Category;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Category(SingleForkNoReuseTest.class)
 public class TestKafkaTargetMultiPartition {
@@ -60,6 +68,7 @@ public class TestKafkaTargetMultiPartition {
   private static List<KafkaStream<byte[], byte[]>> kafkaStreams11;
   private static List<KafkaStream<byte[], byte[]>> kafkaStreams12;
   private static List<KafkaStream<byte[], byte[]>> kafkaStreams13;
+  private static List<KafkaStream<byte[], byte[]>> kafkaStreams14;
 
   private static final int PARTITIONS = 3;
   private static final int REPLICATION_FACTOR = 2;
@@ -76,6 +85,7 @@ public class TestKafkaTargetMultiPartition {
   private static final String TOPIC11 = "TestKafkaTargetMultiPartition11";
   private static final String TOPIC12 = "TestKafkaTargetMultiPartition12";
   private static final String TOPIC13 = "TestKafkaTargetMultiPartition13";
+  private static final String TOPIC14 = "TestKafkaTargetMultiPartition14";
 
   private static final SdcKafkaTestUtil sdcKafkaTestUtil = SdcKafkaTestUtilFactory.getInstance().create();
 
@@ -97,8 +107,9 @@ public class TestKafkaTargetMultiPartition {
     sdcKafkaTestUtil.createTopic(TOPIC11, PARTITIONS, REPLICATION_FACTOR);
     sdcKafkaTestUtil.createTopic(TOPIC12, PARTITIONS, REPLICATION_FACTOR);
     sdcKafkaTestUtil.createTopic(TOPIC13, PARTITIONS, REPLICATION_FACTOR);
+    sdcKafkaTestUtil.createTopic(TOPIC14, PARTITIONS, REPLICATION_FACTOR);
 
-    for (int i = 1; i <= 13 ; i++) {
+    for (int i = 1; i <= 14 ; i++) {
       for (int j = 0; j < PARTITIONS; j++) {
         TestUtils.waitUntilMetadataIsPropagated(
             scala.collection.JavaConversions.asScalaBuffer(sdcKafkaTestUtil.getKafkaServers()),
@@ -119,6 +130,7 @@ public class TestKafkaTargetMultiPartition {
     kafkaStreams11 = sdcKafkaTestUtil.createKafkaStream(sdcKafkaTestUtil.getZkConnect(), TOPIC11, PARTITIONS);
     kafkaStreams12 = sdcKafkaTestUtil.createKafkaStream(sdcKafkaTestUtil.getZkConnect(), TOPIC12, PARTITIONS);
     kafkaStreams13 = sdcKafkaTestUtil.createKafkaStream(sdcKafkaTestUtil.getZkConnect(), TOPIC13, PARTITIONS);
+    kafkaStreams14 = sdcKafkaTestUtil.createKafkaStream(sdcKafkaTestUtil.getZkConnect(), TOPIC14, PARTITIONS);
   }
 
   @AfterClass
@@ -556,6 +568,148 @@ public class TestKafkaTargetMultiPartition {
     }
   }
 
+  /**
+   * Producer failing messages larger than the given size with KAFKA_69 (as the Kafka 0.9+ producers do for messages
+   * over max.request.size), all other messages are written to the broker.
+   */
+  private static class MaxSizeProducer implements SdcKafkaProducer {
+    private final SdcKafkaProducer delegate;
+    private final int maxSize;
+    private final List<Integer> failedIndices = new ArrayList<>();
+    private final List<Exception> failedExceptions = new ArrayList<>();
+    private int enqueued;
+
+    private MaxSizeProducer(SdcKafkaProducer delegate, int maxSize) {
+      this.delegate = delegate;
+      this.maxSize = maxSize;
+    }
+
+    @Override
+    public void init() throws StageException {
+      delegate.init();
+    }
+
+    @Override
+    public void destroy() {
+      delegate.destroy();
+    }
+
+    @Override
+    public void enqueueMessage(String topic, Object message, Object partitionKey) {
+      if (((byte[]) message).length > maxSize) {
+        failedIndices.add(enqueued);
+        failedExceptions.add(new IOException("Message is larger than " + maxSize + " bytes"));
+      } else {
+        delegate.enqueueMessage(topic, message, partitionKey);
+      }
+      enqueued++;
+    }
+
+    @Override
+    public void write() throws StageException {
+      delegate.write();
+      List<Integer> indices = new ArrayList<>(failedIndices);
+      List<Exception> exceptions = new ArrayList<>(failedExceptions);
+      clearMessages();
+      if (!indices.isEmpty()) {
+        throw new StageException(KafkaErrors.KAFKA_69, indices, exceptions);
+      }
+    }
+
+    @Override
+    public void clearMessages() {
+      delegate.clearMessages();
+      failedIndices.clear();
+      failedExceptions.clear();
+      enqueued = 0;
+    }
+
+    @Override
+    public String getVersion() {
+      return delegate.getVersion();
+    }
+  }
+
+  @Test
+  public void testPartialFailureSingleMessage() throws InterruptedException, StageException {
+
+    DataGeneratorFormatConfig dataGeneratorFormatConfig = new DataGeneratorFormatConfig();
+    dataGeneratorFormatConfig.charset = "UTF-8";
+    dataGeneratorFormatConfig.textFieldPath = "/text";
+    dataGeneratorFormatConfig.textEmptyLineIfNull = true;
+
+    KafkaTargetConfig kafkaTargetConfig = new KafkaTargetConfig() {
+      private SdcKafkaProducer producer;
+
+      @Override
+      SdcKafkaProducer getKafkaProducer() {
+        if (producer == null) {
+          producer = new MaxSizeProducer(super.getKafkaProducer(), 1000);
+        }
+        return producer;
+      }
+    };
+    KafkaTarget kafkaTarget = KafkaTargetUtil.createKafkaTarget(
+        sdcKafkaTestUtil.getMetadataBrokerURI(),
+        TOPIC14,
+        "${record:value('/partition') % 3}",
+        sdcKafkaTestUtil.setMaxAcks(new HashMap<String, String>()), // kafka producer configs
+        true,                              // singleMessagePerBatch
+        PartitionStrategy.EXPRESSION,
+        false,                              // runtimeTopicResolution
+        null,                               // topicExpression
+        null,                               // topic white list
+        kafkaTargetConfig,
+        DataFormat.TEXT,
+        dataGeneratorFormatConfig
+    );
+
+    TargetRunner targetRunner = new TargetRunner.Builder(KafkaDTarget.class, kafkaTarget)
+      .setOnRecordError(OnRecordError.TO_ERROR).build();
+
+    targetRunner.runInit();
+    // the message of partition 1 is too large, messages of partitions 0 and 2 are fine
+    List<Record> logRecords = new ArrayList<>();
+    Set<String> expectedErrors = new HashSet<>();
+    for (int i = 0; i < 9; i++) {
+      Record record = RecordCreator.create("s", "r" + i);
+      Map<String, Field> map = new HashMap<>();
+      map.put("partition", Field.create(i % 3));
+      map.put("text", Field.create(i % 3 == 1 ? StringUtils.repeat("x", 600) : "m" + i));
+      record.set(Field.create(map));
+      logRecords.add(record);
+      if (i % 3 == 1) {
+        expectedErrors.add(record.getHeader().getSourceId());
+      }
+    }
+    targetRunner.runWrite(logRecords);
+
+    // exactly the records of the failed message go to error
+    Set<String> errors = new HashSet<>();
+    for (Record record : targetRunner.getErrorRecords()) {
+      Assert.assertEquals(KafkaErrors.KAFKA_60.name(), record.getHeader().getErrorCode());
+      errors.add(record.getHeader().getSourceId());
+    }
+    Assert.assertEquals(3, targetRunner.getErrorRecords().size());
+    Assert.assertEquals(expectedErrors, errors);
+    targetRunner.runDestroy();
+
+    List<String> messages = new ArrayList<>();
+    Assert.assertEquals(PARTITIONS, kafkaStreams14.size());
+    for(KafkaStream<byte[], byte[]> kafkaStream : kafkaStreams14) {
+      ConsumerIterator<byte[], byte[]> it = kafkaStream.iterator();
+      try {
+        while (it.hasNext()) {
+          messages.add(new String(it.next().message()));
+        }
+      } catch (kafka.consumer.ConsumerTimeoutException e) {
+        //no-op
+      }
+    }
+    Collections.sort(messages);
+    Assert.assertEquals(ImmutableList.of("m0\nm3\nm6\n", "m2\nm5\nm8\n"), messages);
+  }
+
   @Test
   public void testDefaultPartitioner1() throws InterruptedException, StageException {
 
@@ -118,6 +118,18 @@ public class KuduLookupConfig {
   )
   public int operationTimeout;
 
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.BOOLEAN,
+      defaultValue = "false",
+      label = "Batch Lookups",
+      description = "Looks up all the distinct keys of a batch that are not cached at once, running their scans " +
+          "concurrently, instead of one scan per record",
+      displayPosition = 40,
+      group = "ADVANCED"
+  )
+  public boolean batchLookups;
+
   @ConfigDef(
       required = true,
       type = ConfigDef.Type.BOOLEAN,
@@ -37,9 +37,11 @@ import org.apache.kudu.client.RowResultIterator;
 import org.apache.kudu.client.RowResult;
 import org.apache.kudu.client.KuduException;
 import org.apache.kudu.client.KuduPredicate;
+import com.stumbleupon.async.Deferred;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.List;
 import java.util.ArrayList;
@@ -49,6 +51,8 @@ import java.util.concurrent.ExecutionException;
 
 public class KuduLookupLoader extends CacheLoader<KuduLookupKey, List<Map<String, Field>>> {
   private static final Logger LOG = LoggerFactory.getLogger(KuduLookupLoader.class);
+  // Maximum scans started at once when looking up multiple keys
+  static final int MAX_CONCURRENT_SCANS = 100;
 
   private final AsyncKuduClient kuduClient;
   private final Meter selectMeter;
@@ -65,6 +69,19 @@ public class KuduLookupLoader extends CacheLoader<KuduLookupKey, List<Map<String
 
   private final boolean ignoreMissing;
 
+  /**
+   * Scan of the rows of a single key, started by {@link #startScan(KuduLookupKey)}.
+   */
+  interface Scan {
+
+    /**
+     * Waits for the scan and returns the rows found (empty list if there are none).
+     */
+    List<Map<String, Field>> read() throws Exception;
+
+    void close();
+  }
+
   public KuduLookupLoader(Stage.Context context,
                           AsyncKuduClient kuduClient,
                           List<String> keyColumns,
@@ -103,81 +120,166 @@ public class KuduLookupLoader extends CacheLoader<KuduLookupKey, List<Map<String
 
   @Override
   public List<Map<String, Field>> load(KuduLookupKey key) throws Exception {
-    List<Map<String, Field>> lookupItems = new ArrayList<>();
-    AsyncKuduScanner scanner = null;
+    Scan scan = null;
     Timer.Context t = selectTimer.time();
+    try {
+      scan = startScan(key);
+      return scan.read();
+    } catch (KuduException e) {
+      // Exception executing query
+      LOG.error(Errors.KUDU_03.getMessage(), e.toString(), e);
+      throw new StageException(Errors.KUDU_03, e.toString(), e);
+    } finally {
+      if (scan != null) {
+        scan.close();
+      }
+      // If the timer wasn't stopped due to exception yet, stop it now
+      if(t != null) {
+        t.stop();
+      }
+      selectMeter.mark();
+    }
+  }
 
-    KuduTable kuduTable = null;
+  /**
+   * Looks up multiple keys at once. The scans for up to {@link #MAX_CONCURRENT_SCANS} keys are started before
+   * waiting for any of them, so their round trips to the tablet servers overlap.
+   *
+   * @param keys keys to look up.
+   * @param values map the values of each key found are added to (empty list if the key has no rows).
+   * @param errors map the record errors of each key that could not be looked up are added to.
+   * @throws StageException if the lookup failed for reasons not related to a particular key.
+   */
+  public void loadAll(
+      Collection<KuduLookupKey> keys,
+      Map<KuduLookupKey, List<Map<String, Field>>> values,
+      Map<KuduLookupKey, OnRecordErrorException> errors
+  ) throws StageException {
+    List<KuduLookupKey> pending = new ArrayList<>(keys);
+    for (int start = 0; start < pending.size(); start += MAX_CONCURRENT_SCANS) {
+      List<KuduLookupKey> keysChunk = pending.subList(start, Math.min(start + MAX_CONCURRENT_SCANS, pending.size()));
+      Map<KuduLookupKey, Scan> scans = new LinkedHashMap<>();
+      Timer.Context t = selectTimer.time();
+      try {
+        for (KuduLookupKey key : keysChunk) {
+          try {
+            scans.put(key, startScan(key));
+          } catch (OnRecordErrorException ex) {
+            errors.put(key, ex);
+          }
+        }
+        for (Map.Entry<KuduLookupKey, Scan> entry : scans.entrySet()) {
+          KuduLookupKey key = entry.getKey();
+          try {
+            values.put(key, entry.getValue().read());
+          } catch (OnRecordErrorException ex) {
+            errors.put(key, ex);
+          }
+          selectMeter.mark();
+        }
+      } catch (KuduException e) {
+        LOG.error(Errors.KUDU_03.getMessage(), e.toString(), e);
+        throw new StageException(Errors.KUDU_03, e.toString(), e);
+      } catch (StageException e) {
+        throw e;
+      } catch (Exception e) {
+        LOG.error(Errors.KUDU_03.getMessage(), e.toString(), e);
+        throw new StageException(Errors.KUDU_03, e.toString(), e);
+      } finally {
+        for (Scan scan : scans.values()) {
+          scan.close();
+        }
+        t.stop();
+      }
+    }
+  }
+
+  /**
+   * Starts the scan for the given key, the first rows are requested right away.
+   */
+  Scan startScan(KuduLookupKey key) throws StageException {
+    KuduTable kuduTable = getTable(key);
+    AsyncKuduScanner scanner = buildScanner(key, kuduTable);
+    Schema schema = kuduTable.getSchema();
+    Deferred<RowResultIterator> firstRows = scanner.nextRows();
+    return new Scan() {
+      @Override
+      public List<Map<String, Field>> read() throws Exception {
+        return readRows(scanner, firstRows, schema);
+      }
+
+      @Override
+      public void close() {
+        scanner.close();
+      }
+    };
+  }
+
+  private KuduTable getTable(KuduLookupKey key) throws OnRecordErrorException {
     try {
-      kuduTable = tableCache.get(key.tableName);
+      return tableCache.get(key.tableName);
     } catch (ExecutionException ex) {
       throw new OnRecordErrorException(Errors.KUDU_03, ex.getMessage(), ex);
     }
+  }
 
+  private AsyncKuduScanner buildScanner(KuduLookupKey key, KuduTable kuduTable) throws StageException {
     // Scanner is not reusable. Need to build per record.
     AsyncKuduScanner.AsyncKuduScannerBuilder scannerBuilder = kuduClient.newScannerBuilder(kuduTable)
         .setProjectedColumnNames(projectColumns);
+    // Set key columns to scanner if specified in Key Column Mapping.
+    // We removed the restriction that requires primary keys here.
+    for (String keyColumn : keyColumns) {
+      addPredicate(key.columns.get(keyColumn), scannerBuilder, kuduTable, keyColumn);
+    }
     try {
-      Schema schema = kuduTable.getSchema();
-      // Set key columns to scanner if specified in Key Column Mapping.
-      // We removed the restriction that requires primary keys here.
-      for (String keyColumn : keyColumns) {
-        addPredicate(key.columns.get(keyColumn), scannerBuilder, kuduTable, keyColumn);
-      }
-      try {
-        scanner = scannerBuilder.build();
-      } catch (IllegalArgumentException ex) {
-        // Thrown here if mapping config has columns that don't exist in the table. Worth stopping pipeline
-        throw new StageException(Errors.KUDU_02, ex);
-      }
+      return scannerBuilder.build();
+    } catch (IllegalArgumentException ex) {
+      // Thrown here if mapping config has columns that don't exist in the table. Worth stopping pipeline
+      throw new StageException(Errors.KUDU_02, ex);
+    }
+  }
 
-      while (scanner.hasMoreRows()) {
-        RowResultIterator results = scanner.nextRows().join();
-        while (results.hasNext()) {
-          RowResult result = results.next();
-          if (LOG.isDebugEnabled()) {
-            LOG.debug("Found row: {}", result.toStringLongFormat());
-          }
-          LinkedHashMap<String, Field> fields = new LinkedHashMap<>(outputColumnToField.size());
-          for (Map.Entry<String, String> column : outputColumnToField.entrySet()) {
-            Field field = null;
-            Type type = null;
-            String columnName = column.getKey();
-            if (result.isNull(columnName)){
-              // Apply default value or send to error
-              if (ignoreMissing && !outputDefault.get(columnName).isEmpty()) {
-                // Apply default value
-                ColumnSchema columnSchema = schema.getColumn(columnName);
-                field = Field.create(
-                    KuduUtils.convertFromKuduType(columnSchema.getType()),
-                    outputDefault.get(columnName)
-                );
-              } else {
-                // Missing value for output, and default value is not configured
-                throw new OnRecordErrorException(Errors.KUDU_35, columnName);
-              }
+  private List<Map<String, Field>> readRows(
+      AsyncKuduScanner scanner,
+      Deferred<RowResultIterator> firstRows,
+      Schema schema
+  ) throws Exception {
+    List<Map<String, Field>> lookupItems = new ArrayList<>();
+    RowResultIterator results = firstRows.join();
+    while (results != null) {
+      while (results.hasNext()) {
+        RowResult result = results.next();
+        if (LOG.isDebugEnabled()) {
+          LOG.debug("Found row: {}", result.toStringLongFormat());
+        }
+        LinkedHashMap<String, Field> fields = new LinkedHashMap<>(outputColumnToField.size());
+        for (Map.Entry<String, String> column : outputColumnToField.entrySet()) {
+          Field field = null;
+          Type type = null;
+          String columnName = column.getKey();
+          if (result.isNull(columnName)){
+            // Apply default value or send to error
+            if (ignoreMissing && !outputDefault.get(columnName).isEmpty()) {
+              // Apply default value
+              ColumnSchema columnSchema = schema.getColumn(columnName);
+              field = Field.create(
+                  KuduUtils.convertFromKuduType(columnSchema.getType()),
+                  outputDefault.get(columnName)
+              );
             } else {
-              type = result.getColumnType(column.getKey());
-              field = KuduUtils.createField(result, columnName, type);
+              // Missing value for output, and default value is not configured
+              throw new OnRecordErrorException(Errors.KUDU_35, columnName);
             }
-            fields.put(column.getValue(), field);
+          } else {
+            type = result.getColumnType(column.getKey());
+            field = KuduUtils.createField(result, columnName, type);
           }
-          lookupItems.add(fields);
+          fields.put(column.getValue(), field);
         }
+        lookupItems.add(fields);
       }
-    } catch (KuduException e) {
-      // Exception executing query
-      LOG.error(Errors.KUDU_03.getMessage(), e.toString(), e);
-      throw new StageException(Errors.KUDU_03, e.toString(), e);
-    } finally {
-      if (scanner != null) {
-        scanner.close();
-      }
-      // If the timer wasn't stopped due to exception yet, stop it now
-      if(t != null) {
-        t.stop();
-      }
-      selectMeter.mark();
+      results = scanner.hasMoreRows() ? scanner.nextRows().join() : null;
     }
     return lookupItems;
   }
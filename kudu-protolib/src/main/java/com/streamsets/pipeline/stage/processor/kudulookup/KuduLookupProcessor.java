@@ -15,6 +15,7 @@
  */
 package com.streamsets.pipeline.stage.processor.kudulookup;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Throwables;
 import com.google.common.cache.LoadingCache;
 import com.streamsets.pipeline.api.Batch;
@@ -46,6 +47,9 @@ import java.util.Map;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 
 public class KuduLookupProcessor extends SingleLaneRecordProcessor {
@@ -71,6 +75,10 @@ public class KuduLookupProcessor extends SingleLaneRecordProcessor {
   private LoadingCache<KuduLookupKey, List<Map<String, Field>>> cache;
   private CacheCleaner cacheCleaner;
 
+  // Results of the batch lookup of the current batch
+  private final Map<KuduLookupKey, List<Map<String, Field>>> batchValues = new HashMap<>();
+  private final Map<KuduLookupKey, OnRecordErrorException> batchErrors = new HashMap<>();
+
   public KuduLookupProcessor(KuduLookupConfig conf) {
     this.conf = conf;
   }
@@ -154,13 +162,17 @@ public class KuduLookupProcessor extends SingleLaneRecordProcessor {
     }
 
     if (issues.isEmpty()) {
-      store = new KuduLookupLoader(getContext(), kuduClient, keyColumns, columnToField, conf);
+      store = createLookupLoader();
       cache = LookupUtils.buildCache(store, conf.cache);
       cacheCleaner = new CacheCleaner(cache, "KuduLookupProcessor", 10 * 60 * 1000);
     }
     return issues;
   }
 
+  @VisibleForTesting
+  KuduLookupLoader createLookupLoader() {
+    return new KuduLookupLoader(getContext(), kuduClient, keyColumns, columnToField, conf);
+  }
 
   @Override
   public void destroy() {
@@ -195,23 +207,72 @@ public class KuduLookupProcessor extends SingleLaneRecordProcessor {
       // No records - take the opportunity to clean up the cache so that we don't hold on to memory indefinitely
       cacheCleaner.periodicCleanUp();
     }
+    batchValues.clear();
+    batchErrors.clear();
+    if (conf.batchLookups) {
+      lookupBatch(batch);
+    }
     super.process(batch, batchMaker);
   }
 
-  /** {@inheritDoc} */
-  @Override
-  protected void process(Record record, SingleLaneProcessor.SingleLaneBatchMaker batchMaker) throws StageException {
+  /**
+   * Looks up all distinct keys of the batch that are not in the cache at once, populating the cache with the results.
+   * Records whose key can't be generated are skipped here, their error is reported when they are processed.
+   */
+  private void lookupBatch(Batch batch) throws StageException {
+    Set<KuduLookupKey> keys = new LinkedHashSet<>();
+    Iterator<Record> records = batch.getRecords();
+    while (records.hasNext()) {
+      Record record = records.next();
+      try {
+        KuduLookupKey key = generateLookupKey(record, getTableName(record));
+        List<Map<String, Field>> values = cache.getIfPresent(key);
+        if (values != null) {
+          batchValues.put(key, values);
+        } else {
+          keys.add(key);
+        }
+      } catch (StageException ex) { // NOSONAR
+        LOG.trace("Skipping record {} from batch lookup: {}", record.getHeader().getSourceId(), ex.toString());
+      }
+    }
+    if (!keys.isEmpty()) {
+      store.loadAll(keys, batchValues, batchErrors);
+      for (KuduLookupKey key : keys) {
+        List<Map<String, Field>> values = batchValues.get(key);
+        if (values != null) {
+          cache.put(key, values);
+        }
+      }
+    }
+  }
+
+  private String getTableName(Record record) throws StageException {
     RecordEL.setRecordInContext(tableNameVars, record);
     String tableName = tableNameEval.eval(tableNameVars, conf.kuduTableTemplate, String.class);
     if (!conf.caseSensitive) {
       tableName = tableName.toLowerCase();
     }
+    return tableName;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  protected void process(Record record, SingleLaneProcessor.SingleLaneBatchMaker batchMaker) throws StageException {
+    String tableName = getTableName(record);
     LOG.trace("Processing record:{}  TableName={}", record.toString(), tableName);
 
     try {
       try {
         KuduLookupKey key = generateLookupKey(record, tableName);
-        List<Map<String, Field>> values = cache.get(key);
+        OnRecordErrorException batchError = batchErrors.get(key);
+        if (batchError != null) {
+          throw batchError;
+        }
+        List<Map<String, Field>> values = batchValues.get(key);
+        if (values == null) {
+          values = cache.get(key);
+        }
         if (values.isEmpty()) {
           // No results
           errorRecordHandler.onError(new OnRecordErrorException(record, Errors.KUDU_31));
@@ -15,11 +15,22 @@
  */
 package com.streamsets.pipeline.stage.processor.kudulookup;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.Stage;
 import com.streamsets.pipeline.api.StageException;
 import com.streamsets.pipeline.api.OnRecordError;
+import com.streamsets.pipeline.api.base.OnRecordErrorException;
+import com.streamsets.pipeline.sdk.ContextInfoCreator;
 import com.streamsets.pipeline.sdk.ProcessorRunner;
+import com.streamsets.pipeline.sdk.RecordCreator;
+import com.streamsets.pipeline.sdk.StageRunner;
+import com.streamsets.pipeline.stage.lib.kudu.Errors;
 import com.streamsets.pipeline.stage.lib.kudu.KuduFieldMappingConfig;
+import com.streamsets.pipeline.stage.processor.kv.EvictionPolicyType;
+import com.stumbleupon.async.Deferred;
 import org.apache.kudu.ColumnSchema;
 import org.apache.kudu.Schema;
 import org.apache.kudu.Type;
@@ -39,7 +50,11 @@ import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @RunWith(PowerMockRunner.class)
 @PrepareForTest({
@@ -122,6 +137,202 @@ public class TestKuduLookup {
     }
   }
 
+  @Test
+  public void testLookupKeyEquality() {
+    Map<String, Field> columns1 = new HashMap<>();
+    columns1.put("key", Field.create(1));
+    Map<String, Field> columns2 = new HashMap<>();
+    columns2.put("key", Field.create(1));
+    Map<String, Field> columns3 = new HashMap<>();
+    columns3.put("key", Field.create(2));
+
+    // Equal keys of different records must hit the same cache entry / batch lookup
+    Assert.assertEquals(new KuduLookupKey(tableName, columns1), new KuduLookupKey(tableName, columns2));
+    Assert.assertEquals(
+        new KuduLookupKey(tableName, columns1).hashCode(),
+        new KuduLookupKey(tableName, columns2).hashCode()
+    );
+    Assert.assertNotEquals(new KuduLookupKey(tableName, columns1), new KuduLookupKey(tableName, columns3));
+    Assert.assertNotEquals(new KuduLookupKey(tableName, columns1), new KuduLookupKey("other", columns1));
+  }
+
+  @Test
+  public void testLoadAll() throws Exception {
+    Map<Integer, List<Map<String, Field>>> rows = new HashMap<>();
+    List<KuduLookupKey> keys = new ArrayList<>();
+    int count = KuduLookupLoader.MAX_CONCURRENT_SCANS * 2 + 50;
+    for (int i = 0; i < count; i++) {
+      switch (i % 3) {
+        case 0:
+          rows.put(i, ImmutableList.of(createRow("v" + i)));
+          break;
+        case 1:
+          rows.put(i, ImmutableList.of());
+          break;
+        default:
+          // no entry, the scan fails
+          break;
+      }
+      keys.add(createKey(i));
+    }
+    FakeLoader loader = new FakeLoader(
+        ContextInfoCreator.createProcessorContext("i", false, OnRecordError.TO_ERROR),
+        createConfig(),
+        rows
+    );
+
+    Map<KuduLookupKey, List<Map<String, Field>>> values = new HashMap<>();
+    Map<KuduLookupKey, OnRecordErrorException> errors = new HashMap<>();
+    loader.loadAll(keys, values, errors);
+
+    for (int i = 0; i < count; i++) {
+      if (i % 3 == 2) {
+        Assert.assertFalse(values.containsKey(createKey(i)));
+        Assert.assertEquals(Errors.KUDU_35, errors.get(createKey(i)).getErrorCode());
+      } else {
+        Assert.assertEquals(rows.get(i), values.get(createKey(i)));
+        Assert.assertFalse(errors.containsKey(createKey(i)));
+      }
+    }
+
+    // all scans of a chunk are started before waiting for any of them
+    int chunk = KuduLookupLoader.MAX_CONCURRENT_SCANS;
+    List<String> events = loader.events;
+    Assert.assertEquals(count * 3, events.size());
+    for (int i = 0; i < chunk; i++) {
+      Assert.assertEquals("start" + i, events.get(i));
+      Assert.assertEquals("read" + i, events.get(chunk + i));
+      Assert.assertEquals("close" + i, events.get(2 * chunk + i));
+    }
+    Assert.assertEquals("start" + chunk, events.get(3 * chunk));
+  }
+
+  @Test
+  public void testBatchLookups() throws Exception {
+    PowerMockito.stub(PowerMockito.method(AsyncKuduClient.class, "tableExists")).toReturn(Deferred.fromResult(true));
+
+    Map<Integer, List<Map<String, Field>>> rows = new HashMap<>();
+    rows.put(1, ImmutableList.of(createRow("one")));
+    // key 2 has no rows, lookup of key 3 fails
+    rows.put(2, ImmutableList.of());
+    rows.put(4, ImmutableList.of(createRow("four")));
+
+    KuduLookupConfig conf = createConfig();
+    conf.batchLookups = true;
+    conf.cache.enabled = true;
+    conf.cache.evictionPolicyType = EvictionPolicyType.EXPIRE_AFTER_WRITE;
+    conf.cache.expirationTime = 1;
+    conf.cache.timeUnit = TimeUnit.HOURS;
+    FakeLoader[] loader = new FakeLoader[1];
+    KuduLookupProcessor processor = new KuduLookupProcessor(conf) {
+      @Override
+      KuduLookupLoader createLookupLoader() {
+        loader[0] = new FakeLoader(getContext(), conf, rows);
+        return loader[0];
+      }
+    };
+    ProcessorRunner runner = new ProcessorRunner.Builder(KuduLookupDProcessor.class, processor)
+        .setOnRecordError(OnRecordError.TO_ERROR)
+        .addOutputLane("lane")
+        .build();
+    runner.runInit();
+    try {
+      // mixed hits and misses, duplicate keys are looked up once
+      StageRunner.Output output = runner.runProcess(ImmutableList.of(
+          createRecord(1), createRecord(2), createRecord(1), createRecord(3), createRecord(1)
+      ));
+      List<Record> records = output.getRecords().get("lane");
+      Assert.assertEquals(3, records.size());
+      for (Record record : records) {
+        Assert.assertEquals("one", record.get("/field").getValueAsString());
+      }
+      Assert.assertEquals(2, runner.getErrorRecords().size());
+      Assert.assertEquals(Errors.KUDU_31.name(), runner.getErrorRecords().get(0).getHeader().getErrorCode());
+      Assert.assertEquals(Errors.KUDU_35.name(), runner.getErrorRecords().get(1).getHeader().getErrorCode());
+      Assert.assertEquals(ImmutableMap.of(1, 1, 2, 1, 3, 1), loader[0].scans);
+      runner.clearErrors();
+
+      // found keys (including the ones without rows) are served from the cache, failed lookups are retried
+      output = runner.runProcess(ImmutableList.of(createRecord(1), createRecord(2), createRecord(3), createRecord(4)));
+      records = output.getRecords().get("lane");
+      Assert.assertEquals(2, records.size());
+      Assert.assertEquals("one", records.get(0).get("/field").getValueAsString());
+      Assert.assertEquals("four", records.get(1).get("/field").getValueAsString());
+      Assert.assertEquals(2, runner.getErrorRecords().size());
+      Assert.assertEquals(ImmutableMap.of(1, 1, 2, 1, 3, 2, 4, 1), loader[0].scans);
+    } finally {
+      runner.runDestroy();
+    }
+  }
+
+  /**
+   * Loader serving rows from a map instead of scanning Kudu, the scan of keys missing in the map fails.
+   */
+  private static class FakeLoader extends KuduLookupLoader {
+    private final Map<Integer, List<Map<String, Field>>> rows;
+    private final List<String> events = new ArrayList<>();
+    private final Map<Integer, Integer> scans = new HashMap<>();
+
+    FakeLoader(Stage.Context context, KuduLookupConfig conf, Map<Integer, List<Map<String, Field>>> rows) {
+      super(context, null, ImmutableList.of("key"), ImmutableMap.of("key", "/key"), conf);
+      this.rows = rows;
+    }
+
+    @Override
+    Scan startScan(KuduLookupKey key) throws StageException {
+      int value = key.columns.get("key").getValueAsInteger();
+      events.add("start" + value);
+      scans.merge(value, 1, Integer::sum);
+      return new Scan() {
+        @Override
+        public List<Map<String, Field>> read() throws Exception {
+          events.add("read" + value);
+          if (!rows.containsKey(value)) {
+            throw new OnRecordErrorException(Errors.KUDU_35, "column");
+          }
+          return rows.get(value);
+        }
+
+        @Override
+        public void close() {
+          events.add("close" + value);
+        }
+      };
+    }
+  }
+
+  private KuduLookupConfig createConfig() {
+    KuduLookupConfig conf = new KuduLookupConfig();
+    conf.kuduMaster = KUDU_MASTER;
+    conf.kuduTableTemplate = tableName;
+    conf.keyColumnMapping = new ArrayList<>();
+    conf.keyColumnMapping.add(new KuduFieldMappingConfig("/key", "key"));
+    conf.outputColumnMapping = new ArrayList<>();
+    conf.outputColumnMapping.add(new KuduOutputColumnMapping("column", "/field", ""));
+    conf.enableTableCache = true;
+    return conf;
+  }
+
+  private KuduLookupKey createKey(int key) {
+    Map<String, Field> columns = new HashMap<>();
+    columns.put("key", Field.create(key));
+    return new KuduLookupKey(tableName, columns);
+  }
+
+  private static Map<String, Field> createRow(String value) {
+    Map<String, Field> row = new LinkedHashMap<>();
+    row.put("/field", Field.create(value));
+    return row;
+  }
+
+  private static Record createRecord(int key) {
+    Record record = RecordCreator.create();
+    Map<String, Field> map = new HashMap<>();
+    map.put("key", Field.create(key));
+    record.set(Field.create(map));
+    return record;
+  }
+
   private ProcessorRunner setProcessorRunner(String tableName)
   {
     KuduLookupConfig conf = new KuduLookupConfig();
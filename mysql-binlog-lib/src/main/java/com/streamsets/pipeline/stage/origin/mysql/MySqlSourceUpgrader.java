@@ -36,6 +36,12 @@ public class MySqlSourceUpgrader implements StageUpgrader {
     switch (fromVersion) {
       case 1:
         upgradeV1ToV2(configs);
+        if (toVersion == 2) {
+          break;
+        }
+        // fall through
+      case 2:
+        upgradeV2ToV3(configs);
         break;
       default:
         throw new IllegalStateException(Utils.format("Unexpected fromVersion {}", fromVersion));
@@ -47,4 +53,8 @@ public class MySqlSourceUpgrader implements StageUpgrader {
     configs.add(new Config(MysqlSourceConfig.CONFIG_PREFIX + "enableKeepAlive", true));
     configs.add(new Config(MysqlSourceConfig.CONFIG_PREFIX + "keepAliveInterval", 60000));
   }
+
+  private void upgradeV2ToV3(List<Config> configs) {
+    configs.add(new Config(MysqlSourceConfig.CONFIG_PREFIX + "numberOfThreads", 1));
+  }
 }
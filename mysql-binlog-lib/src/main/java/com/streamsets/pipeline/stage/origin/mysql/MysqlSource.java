@@ -70,6 +70,8 @@ public abstract class MysqlSource extends BaseSource {
     }
   });
 
+  private ParallelRecordConverter parallelRecordConverter;
+
   public abstract MysqlSourceConfig getConfig();
 
   @Override
@@ -185,6 +187,10 @@ public abstract class MysqlSource extends BaseSource {
       dataSource.close();
     }
 
+    if (parallelRecordConverter != null) {
+      parallelRecordConverter.destroy();
+    }
+
     super.destroy();
   }
 
@@ -201,6 +207,11 @@ public abstract class MysqlSource extends BaseSource {
 
       connectClient(client, lastSourceOffset);
       LOG.info("Connected client with configuration: {}", getConfig());
+
+      // preview truncates records per event, keep it on the sequential path
+      if (getConfig().numberOfThreads > 1 && !getContext().isPreview()) {
+        parallelRecordConverter = new ParallelRecordConverter(recordConverter, getConfig().numberOfThreads);
+      }
     }
 
     // in case of empty batch we don't want to stop
@@ -212,6 +223,8 @@ public abstract class MysqlSource extends BaseSource {
     handleErrors();
 
     int recordCounter = 0;
+    // events to be converted by parallel converter once the batch is complete
+    List<EnrichedEvent> pendingEvents = new ArrayList<>();
     int batchSize = getConfig().maxBatchSize > maxBatchSize ? maxBatchSize : getConfig().maxBatchSize;
     long startTime = System.currentTimeMillis();
     while (recordCounter < batchSize && (startTime + getConfig().maxWaitTime) > System.currentTimeMillis()) {
@@ -229,6 +242,11 @@ public abstract class MysqlSource extends BaseSource {
 
         // check if event should be filtered out
         if (eventFilter.apply(event) == Filter.Result.PASS) {
+          if (parallelRecordConverter != null) {
+            pendingEvents.add(event);
+            recordCounter += ParallelRecordConverter.rowCount(event);
+            continue;
+          }
           List<Record> records = recordConverter.toRecords(event);
           // If we are in preview mode, make sure we don't send a huge number of messages.
           if (getContext().isPreview() && recordCounter + records.size() > batchSize) {
@@ -247,6 +265,13 @@ public abstract class MysqlSource extends BaseSource {
         }
       }
     }
+
+    // offset is returned only after all pending events have been converted
+    if (!pendingEvents.isEmpty()) {
+      for (Record record : parallelRecordConverter.toRecords(pendingEvents, recordCounter)) {
+        batchMaker.addRecord(record);
+      }
+    }
     return lastSourceOffset;
   }
 
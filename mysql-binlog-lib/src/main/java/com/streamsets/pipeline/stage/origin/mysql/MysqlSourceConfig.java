@@ -201,6 +201,21 @@ public class MysqlSourceConfig {
   )
   public String ignoreTables;
 
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      defaultValue = "1",
+      label = "Decoding Threads",
+      description = "Number of threads used to convert binary log events to records. Events are still read " +
+          "and decoded over a single connection, so this only helps when converting rows to records is the " +
+          "bottleneck. Records are produced in binary log order.",
+      min = 1,
+      max = 64,
+      displayPosition = 110,
+      group = "ADVANCED"
+  )
+  public int numberOfThreads;
+
   @Override
   public String toString() {
     return "MysqlSourceConfig{" +
@@ -213,6 +228,7 @@ public class MysqlSourceConfig {
         ", maxWaitTime=" + maxWaitTime +
         ", startFromBeginning=" + startFromBeginning +
         ", offset=" + initialOffset +
+        ", numberOfThreads=" + numberOfThreads +
         '}';
   }
 }
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2017 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.origin.mysql;
+
+import com.github.shyiko.mysql.binlog.event.DeleteRowsEventData;
+import com.github.shyiko.mysql.binlog.event.EventData;
+import com.github.shyiko.mysql.binlog.event.UpdateRowsEventData;
+import com.github.shyiko.mysql.binlog.event.WriteRowsEventData;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.StageException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Converts events read from binary log to records using a pool of threads.
+ *
+ * Events are split into contiguous chunks with roughly the same number of rows and each chunk is converted on its
+ * own thread. Records are returned in the order the events were read, so ordering per table and per primary key is
+ * the same as with sequential conversion.
+ *
+ * Only the conversion is parallel, reading and deserializing the events is still done by the single binary log
+ * client thread. See ParallelRecordConverterBenchmark for the replay of a batch with different number of threads.
+ */
+class ParallelRecordConverter {
+  private final RecordConverter recordConverter;
+  private final int threads;
+  private final ExecutorService executor;
+
+  ParallelRecordConverter(RecordConverter recordConverter, int threads) {
+    this.recordConverter = recordConverter;
+    this.threads = threads;
+    this.executor = Executors.newFixedThreadPool(
+        threads,
+        new ThreadFactoryBuilder().setNameFormat("mysql-binlog-decoder-%d").setDaemon(true).build()
+    );
+  }
+
+  /**
+   * Number of records given event will be converted to.
+   */
+  static int rowCount(EnrichedEvent event) {
+    EventData data = event.getEvent().getData();
+    if (data instanceof WriteRowsEventData) {
+      return ((WriteRowsEventData) data).getRows().size();
+    } else if (data instanceof UpdateRowsEventData) {
+      return ((UpdateRowsEventData) data).getRows().size();
+    } else if (data instanceof DeleteRowsEventData) {
+      return ((DeleteRowsEventData) data).getRows().size();
+    }
+    return 0;
+  }
+
+  /**
+   * Convert given events to records, returned records preserve order of the events.
+   */
+  List<Record> toRecords(List<EnrichedEvent> events, int totalRows) throws StageException {
+    if (threads <= 1 || events.size() <= 1) {
+      List<Record> records = new ArrayList<>(totalRows);
+      for (EnrichedEvent event : events) {
+        records.addAll(recordConverter.toRecords(event));
+      }
+      return records;
+    }
+
+    List<Callable<List<Record>>> tasks = new ArrayList<>(threads);
+    int rowsPerChunk = Math.max(1, (totalRows + threads - 1) / threads);
+    int start = 0;
+    int rows = 0;
+    for (int i = 0; i < events.size(); i++) {
+      rows += rowCount(events.get(i));
+      if (rows >= rowsPerChunk || i == events.size() - 1) {
+        tasks.add(new ConvertTask(events.subList(start, i + 1), rows));
+        start = i + 1;
+        rows = 0;
+      }
+    }
+
+    List<Record> records = new ArrayList<>(totalRows);
+    try {
+      for (Future<List<Record>> future : executor.invokeAll(tasks)) {
+        records.addAll(future.get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new StageException(Errors.MYSQL_009, e.toString(), e);
+    } catch (ExecutionException e) {
+      throw new StageException(Errors.MYSQL_009, e.getCause().toString(), e.getCause());
+    }
+    return records;
+  }
+
+  void destroy() {
+    executor.shutdownNow();
+  }
+
+  private class ConvertTask implements Callable<List<Record>> {
+    private final List<EnrichedEvent> events;
+    private final int rows;
+
+    ConvertTask(List<EnrichedEvent> events, int rows) {
+      this.events = events;
+      this.rows = rows;
+    }
+
+    @Override
+    public List<Record> call() {
+      List<Record> records = new ArrayList<>(rows);
+      for (EnrichedEvent event : events) {
+        records.addAll(recordConverter.toRecords(event));
+      }
+      return records;
+    }
+  }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2017 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.origin.mysql;
+
+import com.github.shyiko.mysql.binlog.event.Event;
+import com.github.shyiko.mysql.binlog.event.EventHeaderV4;
+import com.github.shyiko.mysql.binlog.event.EventType;
+import com.github.shyiko.mysql.binlog.event.WriteRowsEventData;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.StageException;
+import com.streamsets.pipeline.sdk.RecordCreator;
+import com.streamsets.pipeline.stage.origin.mysql.schema.Column;
+import com.streamsets.pipeline.stage.origin.mysql.schema.MysqlType;
+import com.streamsets.pipeline.stage.origin.mysql.schema.Table;
+import com.streamsets.pipeline.stage.origin.mysql.schema.TableImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro benchmark replaying one batch of binary log row events through {@link ParallelRecordConverter}. With one
+ * thread the converter takes the sequential path, so that is the baseline for the "Decoding Threads" option.
+ *
+ * It's not a unit test, run it with:
+ * <pre>
+ *   mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.streamsets.pipeline.stage.origin.mysql.ParallelRecordConverterBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelRecordConverterBenchmark {
+
+  private static final int BATCH_SIZE = 1000;
+  private static final MysqlType[] TYPES = {
+      MysqlType.BIGINT, MysqlType.INT, MysqlType.VARCHAR, MysqlType.DECIMAL, MysqlType.DATETIME
+  };
+
+  @Param({"1", "2", "4", "8"})
+  public int threads;
+
+  @Param({"1", "100"})
+  public int rowsPerEvent;
+
+  @Param({"5", "50"})
+  public int columns;
+
+  private List<EnrichedEvent> events;
+  private ParallelRecordConverter converter;
+
+  @Setup
+  public void setup() {
+    List<Column> tableColumns = new ArrayList<>(columns);
+    for (int i = 0; i < columns; i++) {
+      tableColumns.add(new Column("c" + i, TYPES[i % TYPES.length]));
+    }
+    Table table = new TableImpl("db", "tbl", tableColumns);
+
+    BitSet included = new BitSet();
+    included.set(0, columns);
+
+    events = new ArrayList<>();
+    int row = 0;
+    for (int position = 0; row < BATCH_SIZE; position++) {
+      EventHeaderV4 header = new EventHeaderV4();
+      header.setEventType(EventType.EXT_WRITE_ROWS);
+      header.setServerId(1);
+      header.setTimestamp(position);
+
+      List<Serializable[]> rows = new ArrayList<>(rowsPerEvent);
+      for (int i = 0; i < rowsPerEvent && row < BATCH_SIZE; i++, row++) {
+        rows.add(createRow(row));
+      }
+      WriteRowsEventData data = new WriteRowsEventData();
+      data.setIncludedColumns(included);
+      data.setRows(rows);
+
+      events.add(new EnrichedEvent(
+          new Event(header, data),
+          table,
+          new BinLogPositionSourceOffset("binlog.000001", position)
+      ));
+    }
+
+    converter = new ParallelRecordConverter(
+        new RecordConverter(new RecordFactory() {
+          @Override
+          public Record create(String recordSourceId) {
+            return RecordCreator.create("s", recordSourceId);
+          }
+        }),
+        threads
+    );
+  }
+
+  private Serializable[] createRow(int row) {
+    Serializable[] values = new Serializable[columns];
+    for (int i = 0; i < columns; i++) {
+      switch (TYPES[i % TYPES.length]) {
+        case BIGINT:
+          values[i] = (long) row;
+          break;
+        case INT:
+          values[i] = row + i;
+          break;
+        case VARCHAR:
+          values[i] = "value-" + row + "-" + i;
+          break;
+        case DECIMAL:
+          values[i] = BigDecimal.valueOf(row, 2);
+          break;
+        default:
+          values[i] = new Date(row * 1000L);
+      }
+    }
+    return values;
+  }
+
+  @TearDown
+  public void tearDown() {
+    converter.destroy();
+  }
+
+  @Benchmark
+  public List<Record> replayBatch() throws StageException {
+    return converter.toRecords(events, BATCH_SIZE);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(ParallelRecordConverterBenchmark.class.getSimpleName()).build()).run();
+  }
+}
@@ -46,4 +46,24 @@ public class TestMySqlSourceUpgrader {
     Assert.assertEquals(upgraded.get(MysqlSourceConfig.CONFIG_PREFIX + "enableKeepAlive"), true);
     Assert.assertEquals(upgraded.get(MysqlSourceConfig.CONFIG_PREFIX + "keepAliveInterval"), 60000);
   }
+
+  @Test
+  public void testUpgradeFromV2toV3() throws StageException {
+    List<Config> configs = new ArrayList<>();
+
+    new MySqlSourceUpgrader().upgrade("", "MySQL Bin Log Origin", "test", 2, 3, configs);
+
+    Assert.assertEquals(1, configs.size());
+    Assert.assertEquals(MysqlSourceConfig.CONFIG_PREFIX + "numberOfThreads", configs.get(0).getName());
+    Assert.assertEquals(1, configs.get(0).getValue());
+  }
+
+  @Test
+  public void testUpgradeFromV1toV3() throws StageException {
+    List<Config> configs = new ArrayList<>();
+
+    new MySqlSourceUpgrader().upgrade("", "MySQL Bin Log Origin", "test", 1, 3, configs);
+
+    Assert.assertEquals(3, configs.size());
+  }
 }
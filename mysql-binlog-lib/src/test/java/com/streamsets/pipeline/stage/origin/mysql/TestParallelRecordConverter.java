@@ -0,0 +1,117 @@
+/*
+ * Copyright 2017 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.origin.mysql;
+
+import com.github.shyiko.mysql.binlog.event.Event;
+import com.github.shyiko.mysql.binlog.event.EventHeaderV4;
+import com.github.shyiko.mysql.binlog.event.EventType;
+import com.github.shyiko.mysql.binlog.event.WriteRowsEventData;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.sdk.RecordCreator;
+import com.streamsets.pipeline.stage.origin.mysql.schema.Column;
+import com.streamsets.pipeline.stage.origin.mysql.schema.MysqlType;
+import com.streamsets.pipeline.stage.origin.mysql.schema.Table;
+import com.streamsets.pipeline.stage.origin.mysql.schema.TableImpl;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+public class TestParallelRecordConverter {
+
+  private static final Table TABLE = new TableImpl(
+      "db",
+      "tbl",
+      Collections.singletonList(new Column("id", MysqlType.INT))
+  );
+
+  private static EnrichedEvent createEvent(int position, int firstId, int rows) {
+    EventHeaderV4 header = new EventHeaderV4();
+    header.setEventType(EventType.EXT_WRITE_ROWS);
+    header.setServerId(1);
+    header.setTimestamp(position);
+
+    BitSet columns = new BitSet();
+    columns.set(0);
+    List<Serializable[]> data = new ArrayList<>();
+    for (int i = 0; i < rows; i++) {
+      data.add(new Serializable[]{firstId + i});
+    }
+    WriteRowsEventData eventData = new WriteRowsEventData();
+    eventData.setIncludedColumns(columns);
+    eventData.setRows(data);
+
+    return new EnrichedEvent(
+        new Event(header, eventData),
+        TABLE,
+        new BinLogPositionSourceOffset("binlog.000001", position)
+    );
+  }
+
+  private static RecordConverter createRecordConverter() {
+    return new RecordConverter(new RecordFactory() {
+      @Override
+      public Record create(String recordSourceId) {
+        return RecordCreator.create("s", recordSourceId);
+      }
+    });
+  }
+
+  @Test
+  public void testRowCount() {
+    Assert.assertEquals(3, ParallelRecordConverter.rowCount(createEvent(1, 0, 3)));
+  }
+
+  @Test
+  public void testOrderIsPreserved() throws Exception {
+    List<EnrichedEvent> events = new ArrayList<>();
+    int totalRows = 0;
+    for (int i = 0; i < 50; i++) {
+      // uneven events to exercise chunking by row count
+      int rows = i % 7 + 1;
+      events.add(createEvent(i, totalRows, rows));
+      totalRows += rows;
+    }
+
+    ParallelRecordConverter converter = new ParallelRecordConverter(createRecordConverter(), 4);
+    try {
+      List<Record> records = converter.toRecords(events, totalRows);
+      Assert.assertEquals(totalRows, records.size());
+      for (int i = 0; i < records.size(); i++) {
+        Assert.assertEquals(i, records.get(i).get("/Data/id").getValueAsInteger());
+      }
+    } finally {
+      converter.destroy();
+    }
+  }
+
+  @Test
+  public void testSingleThread() throws Exception {
+    ParallelRecordConverter converter = new ParallelRecordConverter(createRecordConverter(), 1);
+    try {
+      List<Record> records = converter.toRecords(Collections.singletonList(createEvent(1, 10, 2)), 2);
+      Assert.assertEquals(2, records.size());
+      Assert.assertEquals(10, records.get(0).get("/Data/id").getValueAsInteger());
+      Assert.assertEquals(11, records.get(1).get("/Data/id").getValueAsInteger());
+    } finally {
+      converter.destroy();
+    }
+  }
+}
@@ -31,8 +31,8 @@ import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.net.UnknownHostException;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.LinkedList;
 import java.util.List;
 
 /**
@@ -90,7 +90,7 @@ public class NetflowCommonDecoder extends ReplayingDecoder<Void> {
       InetSocketAddress sender,
       InetSocketAddress recipient
   ) throws OnRecordErrorException {
-    final List<Object> results = new LinkedList<>();
+    final List<Object> results = new ArrayList<>();
     try {
       decode(null, buf, results, sender, recipient, true);
       for (Object result : results) {
@@ -180,11 +180,13 @@ public class NetflowCommonDecoder extends ReplayingDecoder<Void> {
   }
 
   public static String ipV4ToString(int ip) {
-    return String.format("%d.%d.%d.%d",
-      (ip >> 24 & 0xff),
-      (ip >> 16 & 0xff),
-      (ip >> 8 & 0xff),
-      (ip & 0xff));
+    // called several times per flow, avoid String.format
+    return new StringBuilder(15)
+        .append(ip >> 24 & 0xff).append('.')
+        .append(ip >> 16 & 0xff).append('.')
+        .append(ip >> 8 & 0xff).append('.')
+        .append(ip & 0xff)
+        .toString();
   }
 
   @NotNull
@@ -25,7 +25,7 @@ import com.streamsets.pipeline.lib.parser.net.netflow.VersionSpecificNetflowDeco
 import io.netty.buffer.ByteBuf;
 
 import java.net.InetSocketAddress;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -50,9 +50,11 @@ public class NetflowV5Decoder implements VersionSpecificNetflowDecoder<NetflowV5
   private int samplingInterval = 0;
   private int samplingMode = 0;
   private UUID packetId = null;
+  private String packetIdString = null;
+  private String senderString = null;
   private String readerId = null;
   private int readIndex = 0;
-  private List<NetflowV5Message> result = new LinkedList<>();
+  private List<NetflowV5Message> result = null;
   // END state vars
 
   public NetflowV5Decoder(NetflowCommonDecoder parentDecoder) {
@@ -95,6 +97,10 @@ public class NetflowV5Decoder implements VersionSpecificNetflowDecoder<NetflowV5
       // java timestamp, which is milliseconds
       timestamp = (seconds * 1000L) + millis;
       packetId = UUIDs.startOfJavaTimestamp(timestamp);
+      // values shared by all flows of the packet
+      packetIdString = packetId.toString();
+      senderString = (sender == null) ? "unknown" : sender.getAddress().toString();
+      result = new ArrayList<>(count);
 
       // 16-19
       flowSequence = buf.readUnsignedInt();
@@ -130,8 +136,8 @@ public class NetflowV5Decoder implements VersionSpecificNetflowDecoder<NetflowV5
       // 14
       msg.setSnmpOnput(buf.readUnsignedShort());
 
-      msg.setPacketId(packetId.toString());
-      msg.setSender((sender == null) ? "unknown" : sender.getAddress().toString());
+      msg.setPacketId(packetIdString);
+      msg.setSender(senderString);
       msg.setLength(packetLength);
       msg.setUptime(uptime);
       msg.setTimestamp(timestamp);
@@ -204,7 +210,7 @@ public class NetflowV5Decoder implements VersionSpecificNetflowDecoder<NetflowV5
 
     // if we reached this point without any further Signal errors, we have finished consuming
     //checkpoint();
-    LinkedList<NetflowV5Message> returnResults = new LinkedList<>(result);
+    List<NetflowV5Message> returnResults = result;
     resetState();
     return returnResults;
   }
@@ -225,8 +231,10 @@ public class NetflowV5Decoder implements VersionSpecificNetflowDecoder<NetflowV5
     samplingInterval = 0;
     samplingMode = 0;
     packetId = null;
+    packetIdString = null;
+    senderString = null;
     readerId = null;
     readIndex = 0;
-    result.clear();
+    result = null;
   }
 }
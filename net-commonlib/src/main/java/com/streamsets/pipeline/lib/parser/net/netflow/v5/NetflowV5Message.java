@@ -68,6 +68,9 @@ public class NetflowV5Message extends BaseNetflowMessage {
   public static final String FIELD_SAMPLINGINT = "samplingint";
   public static final String FIELD_SAMPLINGMODE = "samplingmode";
 
+  // large enough to hold all fields of the record without rehashing
+  private static final int RECORD_MAP_CAPACITY = 64;
+
   private String packetId;
 
   private int count;
@@ -431,7 +434,7 @@ public class NetflowV5Message extends BaseNetflowMessage {
 
   @Override
   public void populateRecord(Record record) {
-    Map<String, Field> fields = new HashMap<>();
+    Map<String, Field> fields = new HashMap<>(RECORD_MAP_CAPACITY);
     fields.put(FIELD_VERSION, Field.create(getNetflowVersion()));
     fields.put(FIELD_PACKETID, Field.create(getPacketId()));
     fields.put(FIELD_SENDER, Field.create(getSender()));
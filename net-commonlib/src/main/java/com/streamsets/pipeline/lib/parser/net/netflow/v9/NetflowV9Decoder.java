@@ -38,6 +38,7 @@ import java.net.Inet6Address;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.UnknownHostException;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.UUID;
@@ -111,7 +112,7 @@ public class NetflowV9Decoder implements VersionSpecificNetflowDecoder<NetflowV9
   private Integer currentRawBytesIndex = null;
 
 
-  private final List<NetflowV9Message> result = new LinkedList<>();
+  private List<NetflowV9Message> result = null;
   // END state vars
 
   private final Cache<FlowSetTemplateCacheKey, FlowSetTemplate> flowSetTemplateCache;
@@ -174,6 +175,9 @@ public class NetflowV9Decoder implements VersionSpecificNetflowDecoder<NetflowV9
       if (count <= 0) {
         throw new OnRecordErrorException(Errors.NETFLOW_01, Utils.format("Count is invalid: {}", count));
       }
+      if (result == null) {
+        result = new ArrayList<>(count);
+      }
       // we cannot perform the packet length validation in Netflow v9, since the set records (template and data) can
       // be variable sizes, so we don't know up front if there are enough bytes to be certain we can read count # of
       // sets
@@ -370,7 +374,7 @@ public class NetflowV9Decoder implements VersionSpecificNetflowDecoder<NetflowV9
             break;
           }
           if (currentDataFlowFields == null) {
-            currentDataFlowFields = new LinkedList<>();
+            currentDataFlowFields = new ArrayList<>(template.getFieldTemplates().size());
             currentDataFlowFieldInd = 0;
           }
 
@@ -418,7 +422,7 @@ public class NetflowV9Decoder implements VersionSpecificNetflowDecoder<NetflowV9
 
     // if we reached this point without any further Signal errors, we have finished consuming
     //checkpoint();
-    LinkedList<NetflowV9Message> returnResults = new LinkedList<>(result);
+    List<NetflowV9Message> returnResults = result;
     resetState();
     return returnResults;
   }
@@ -440,11 +444,10 @@ public class NetflowV9Decoder implements VersionSpecificNetflowDecoder<NetflowV9
       currentRawBytesIndex = 0;
       currentRawBytes = new byte[size];
     }
-    while (currentRawBytesIndex < size) {
-      buf.readBytes(currentRawBytes, currentRawBytesIndex, 1);
-      parentDecoder.doCheckpoint();
-      currentRawBytesIndex++;
-    }
+    // read all remaining bytes at once, if they are not available yet the ReplayingDecoder replays from the last
+    // checkpoint, which is the same position as nothing was read
+    buf.readBytes(currentRawBytes, currentRawBytesIndex, size - currentRawBytesIndex);
+    parentDecoder.doCheckpoint();
     currentRawBytesIndex = null;
     return currentRawBytes;
   }
@@ -785,6 +788,6 @@ public class NetflowV9Decoder implements VersionSpecificNetflowDecoder<NetflowV9
     currentRawBytes = null;
     currentRawBytesIndex = null;
 
-    result.clear();
+    result = null;
   }
 }
@@ -150,11 +150,14 @@ public class NetflowV9Message extends BaseNetflowMessage {
   }
 
   public LinkedHashMap<String, Field> createFieldsMap(boolean rawValues) {
-    LinkedHashMap<String, Field> fields = new LinkedHashMap<>();
-    getFields().forEach(field -> fields.put(
-        field.getSdcFieldName(),
-        rawValues ? Field.create(field.getRawValue()) : field.getInterpretedValueField()
-    ));
+    // sized so that all fields fit without rehashing
+    LinkedHashMap<String, Field> fields = new LinkedHashMap<>(this.fields.size() * 4 / 3 + 1);
+    for (NetflowV9Field field : this.fields) {
+      fields.put(
+          field.getSdcFieldName(),
+          rawValues ? Field.create(field.getRawValue()) : field.getInterpretedValueField()
+      );
+    }
     return fields;
   }
 
@@ -29,9 +29,8 @@ import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.nio.charset.Charset;
 import java.time.Clock;
+import java.time.DateTimeException;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
-import java.time.MonthDay;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
@@ -40,13 +39,12 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.concurrent.ExecutionException;
-import java.util.regex.Pattern;
 
 public class SyslogDecoder extends ByteToMessageDecoder {
 
-  private static final Pattern TWO_SPACES = Pattern.compile("  ");
-  private static final DateTimeFormatter rfc3164Format =
-      DateTimeFormatter.ofPattern("MMM d HH:mm:ss", Locale.US);
+  private static final String[] RFC3164_MONTHS = {
+      "Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"
+  };
 
   public static final String RFC5424_TS_PATTERN = "yyyy-MM-dd'T'HH:mm:ss";
   private static final int RFC3164_LEN = 15;
@@ -145,13 +143,7 @@ public class SyslogDecoder extends ByteToMessageDecoder {
     if (endBracketPos <= 0 || endBracketPos > 6) {
       throw new OnRecordErrorException(Errors.SYSLOG_01, "cannot find end bracket '>'", msg);
     }
-    String priority = msg.substring(1, endBracketPos);
-    int pri;
-    try {
-      pri = Integer.parseInt(priority);
-    } catch (NumberFormatException nfe) {
-      throw new OnRecordErrorException(Errors.SYSLOG_01, nfe, msg, nfe);
-    }
+    int pri = parsePriority(msg, endBracketPos);
     int facility = pri / 8;
     int severity = pri % 8;
 
@@ -169,7 +161,7 @@ public class SyslogDecoder extends ByteToMessageDecoder {
     curPos = endBracketPos + 1;
 
     // remember version string
-    if (msgLen > curPos + 2 && "1 ".equals(msg.substring(curPos, curPos + 2))) {
+    if (msgLen > curPos + 2 && msg.charAt(curPos) == '1' && msg.charAt(curPos + 1) == ' ') {
       // this is curious, I guess the code above matches 1 exactly because
       // there has not been another version.
       syslogMsg.setSyslogVersion(1);
@@ -235,6 +227,27 @@ public class SyslogDecoder extends ByteToMessageDecoder {
     buf.skipBytes(buf.readableBytes());
   }
 
+  private static int parsePriority(String msg, int endBracketPos) throws OnRecordErrorException {
+    int pri = 0;
+    for (int i = 1; i < endBracketPos; i++) {
+      char c = msg.charAt(i);
+      if (c < '0' || c > '9') {
+        pri = -1;
+        break;
+      }
+      pri = pri * 10 + (c - '0');
+    }
+    if (pri < 0 || endBracketPos == 1) {
+      // not a plain number, let Integer.parseInt decide what it is (and report the failure)
+      try {
+        pri = Integer.parseInt(msg.substring(1, endBracketPos));
+      } catch (NumberFormatException nfe) {
+        throw new OnRecordErrorException(Errors.SYSLOG_01, nfe, msg, nfe);
+      }
+    }
+    return pri;
+  }
+
   public static String resolveHostAddressString(InetSocketAddress address) {
     String receiverHost = address.getHostString();
     if (receiverHost == null) {
@@ -376,22 +389,43 @@ public class SyslogDecoder extends ByteToMessageDecoder {
   public static long parseRfc3164Time(String ts) throws OnRecordErrorException {
     LocalDateTime now = LocalDateTime.now();
     int year = now.getYear();
-    ts = TWO_SPACES.matcher(ts).replaceFirst(" ");
     LocalDateTime date;
     try {
-      MonthDay monthDay = MonthDay.parse(ts, rfc3164Format);
-      LocalTime time = LocalTime.parse(ts, rfc3164Format);
-      // this is overly complicated because of the way Java 8 Time API works, as compared to Joda
+      // "MMM d HH:mm:ss", parsed by hand as it is done for every message
+      int month = parseRfc3164Month(ts);
+      int pos = 3;
+      pos = expect(ts, pos, ' ');
+      if (pos < ts.length() && ts.charAt(pos) == ' ') {
+        // single digit days are padded with a space
+        pos++;
+      }
+      int dayStart = pos;
+      int day = 0;
+      while (pos < ts.length() && pos - dayStart < 2 && isDigit(ts.charAt(pos))) {
+        day = day * 10 + (ts.charAt(pos) - '0');
+        pos++;
+      }
+      if (pos == dayStart) {
+        throw new DateTimeParseException("Invalid day of month", ts, pos);
+      }
+      pos = expect(ts, pos, ' ');
+      int hour = parseTwoDigits(ts, pos);
+      pos = expect(ts, pos + 2, ':');
+      int minute = parseTwoDigits(ts, pos);
+      pos = expect(ts, pos + 2, ':');
+      int second = parseTwoDigits(ts, pos);
+      if (pos + 2 != ts.length()) {
+        throw new DateTimeParseException("Unexpected trailing characters", ts, pos + 2);
+      }
       // essentially, we just want to pull year out of "now" and set all other fields based on
-      // what was parsed
-      date = now;
-      // zero out millis since we aren't actually parsing those
-      date = date.with(ChronoField.MILLI_OF_SECOND, 0);
-      // set month and day of month from parsed
-      date = date.withMonth(monthDay.getMonthValue()).withDayOfMonth(monthDay.getDayOfMonth());
-      // set time fields from parsed
-      date = date.withHour(time.getHour()).withMinute(time.getMinute()).withSecond(time.getSecond());
-    } catch (DateTimeParseException e) {
+      // what was parsed; millis are zeroed out since we aren't actually parsing those
+      date = now.with(ChronoField.MILLI_OF_SECOND, 0)
+          .withMonth(month)
+          .withDayOfMonth(day)
+          .withHour(hour)
+          .withMinute(minute)
+          .withSecond(second);
+    } catch (DateTimeException e) {
       throw new OnRecordErrorException(Errors.SYSLOG_10, ts, e);
     }
     // The RFC3164 is a bit weird date format - it contains day and month, but no year. So we have to somehow guess
@@ -407,4 +441,31 @@ public class SyslogDecoder extends ByteToMessageDecoder {
     date = fixed;
     return date.toInstant(ZoneOffset.UTC).toEpochMilli();
   }
+
+  private static int parseRfc3164Month(String ts) {
+    for (int i = 0; i < RFC3164_MONTHS.length; i++) {
+      if (ts.startsWith(RFC3164_MONTHS[i])) {
+        return i + 1;
+      }
+    }
+    throw new DateTimeParseException("Invalid month", ts, 0);
+  }
+
+  private static int expect(String ts, int pos, char expected) {
+    if (pos >= ts.length() || ts.charAt(pos) != expected) {
+      throw new DateTimeParseException("Expected '" + expected + "'", ts, pos);
+    }
+    return pos + 1;
+  }
+
+  private static int parseTwoDigits(String ts, int pos) {
+    if (pos + 1 >= ts.length() || !isDigit(ts.charAt(pos)) || !isDigit(ts.charAt(pos + 1))) {
+      throw new DateTimeParseException("Expected two digits", ts, pos);
+    }
+    return (ts.charAt(pos) - '0') * 10 + (ts.charAt(pos + 1) - '0');
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
 }
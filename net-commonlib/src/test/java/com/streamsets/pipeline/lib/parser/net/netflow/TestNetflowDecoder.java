@@ -152,6 +152,13 @@ public class TestNetflowDecoder {
     return records;
   }
 
+  @Test
+  public void testIpV4ToString() {
+    assertThat(NetflowCommonDecoder.ipV4ToString(0), equalTo("0.0.0.0"));
+    assertThat(NetflowCommonDecoder.ipV4ToString(0xC0A80001), equalTo("192.168.0.1"));
+    assertThat(NetflowCommonDecoder.ipV4ToString(-1), equalTo("255.255.255.255"));
+  }
+
   @Test
   public void testTimestamps() {
 
@@ -15,11 +15,15 @@
  */
 package com.streamsets.pipeline.lib.parser.net.syslog;
 
+import com.streamsets.pipeline.api.base.OnRecordErrorException;
 import io.netty.buffer.Unpooled;
 import org.junit.Test;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.LinkedList;
@@ -57,6 +61,36 @@ public class TestSyslogDecoder extends SyslogBaseTestClass {
     assertEquals(1458161275889L, parser.parseRfc5424Date("2016-03-16T20:47:55.889893")); // SDC-2605
   }
 
+  @Test
+  public void testRfc3164DateParsing() throws Exception {
+    String[][] examples = {
+        {"Feb 14 08:09:10", "2-14-8-9-10"},
+        {"Dec  3 23:59:59", "12-3-23-59-59"},
+        {"Jan 1 00:00:00", "1-1-0-0-0"}
+    };
+    for (String[] example : examples) {
+      LocalDateTime date = LocalDateTime.ofInstant(
+          Instant.ofEpochMilli(SyslogDecoder.parseRfc3164Time(example[0])),
+          ZoneOffset.UTC
+      );
+      assertEquals(
+          example[0],
+          example[1],
+          date.getMonthValue() + "-" + date.getDayOfMonth() + "-" + date.getHour() + "-" + date.getMinute() + "-" +
+              date.getSecond()
+      );
+    }
+
+    for (String invalid : new String[] {"Foo 14 08:09:10", "Feb 30 08:09:10", "Feb 14 8:09:10", "Feb 14 08:09:10x"}) {
+      try {
+        SyslogDecoder.parseRfc3164Time(invalid);
+        fail("Expected failure for " + invalid);
+      } catch (OnRecordErrorException ex) {
+        assertEquals(Errors.SYSLOG_10, ex.getErrorCode());
+      }
+    }
+  }
+
   @Test
   public void testDecodeMessages() throws Exception {
     SyslogDecoder decoder = new SyslogDecoder(StandardCharsets.UTF_8, getSystemClock());
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2017 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.io;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads lines of an UTF-8 text file from the last one to the first one.
+ *
+ * Only the tail of the file that is actually returned is read, so getting the last few lines of a file is cheap
+ * regardless of the file size. The last line is ignored if it's not terminated by a new line, as that means it's
+ * still being written to.
+ */
+public class ReverseLineReader implements Closeable {
+  private static final int BUFFER_SIZE = 8192;
+
+  private final RandomAccessFile file;
+  private final byte[] buffer;
+  // Part of the file that is currently in the buffer
+  private long bufferStart;
+  private int bufferLength;
+  // Position right after the end of the next line to be returned (exclusive), -1 when there are no more lines
+  private long end;
+
+  public ReverseLineReader(File file) throws IOException {
+    this(file, BUFFER_SIZE);
+  }
+
+  ReverseLineReader(File file, int bufferSize) throws IOException {
+    this.file = new RandomAccessFile(file, "r");
+    this.buffer = new byte[bufferSize];
+    long length = this.file.length();
+    if (length == 0) {
+      end = -1;
+    } else if (byteAt(length - 1) == '\n') {
+      // Skip the terminator of the last line
+      end = length - 1;
+    } else {
+      // Skip incomplete last line
+      end = length;
+      readLine();
+    }
+  }
+
+  /**
+   * Returns previous line (without the line terminator) or null if the beginning of the file has been reached.
+   */
+  public String readLine() throws IOException {
+    if (end < 0) {
+      return null;
+    }
+    long lineEnd = end;
+    long lineStart = end;
+    while (lineStart > 0 && byteAt(lineStart - 1) != '\n') {
+      lineStart--;
+    }
+    // Position of the terminator of the previous line, -1 if we've reached beginning of the file
+    end = lineStart - 1;
+    if (lineEnd > lineStart && byteAt(lineEnd - 1) == '\r') {
+      lineEnd--;
+    }
+    byte[] line = new byte[(int) (lineEnd - lineStart)];
+    file.seek(lineStart);
+    file.readFully(line);
+    return new String(line, StandardCharsets.UTF_8);
+  }
+
+  private byte byteAt(long position) throws IOException {
+    if (position < bufferStart || position >= bufferStart + bufferLength) {
+      // We're moving backwards, so we fill the buffer with data that precedes the position
+      bufferStart = Math.max(0, position + 1 - buffer.length);
+      bufferLength = (int) (position + 1 - bufferStart);
+      file.seek(bufferStart);
+      file.readFully(buffer, 0, bufferLength);
+    }
+    return buffer[(int) (position - bufferStart)];
+  }
+
+  @Override
+  public void close() throws IOException {
+    file.close();
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2017 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.io;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class TestReverseLineReader {
+
+  private List<String> readAll(String content, int bufferSize) throws IOException {
+    File dir = new File("target", UUID.randomUUID().toString()).getAbsoluteFile();
+    Assert.assertTrue(dir.mkdirs());
+    File file = new File(dir, "lines.txt");
+    Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+
+    List<String> lines = new ArrayList<>();
+    try (ReverseLineReader reader = new ReverseLineReader(file, bufferSize)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        lines.add(line);
+      }
+    }
+    return lines;
+  }
+
+  @Test
+  public void testReverseOrder() throws IOException {
+    // Buffer smaller than lines, smaller than the file and bigger than the file
+    for (int bufferSize : new int[] {1, 3, 8192}) {
+      Assert.assertEquals(ImmutableList.of(), readAll("", bufferSize));
+      Assert.assertEquals(ImmutableList.of("ccc", "", "bb", "a"), readAll("a\nbb\n\nccc\n", bufferSize));
+      Assert.assertEquals(ImmutableList.of("bb", "a"), readAll("a\r\nbb\r\n", bufferSize));
+      Assert.assertEquals(ImmutableList.of("\u00e9t\u00e9", "\u017c\u00f3\u0142w"), readAll("\u017c\u00f3\u0142w\n\u00e9t\u00e9\n", bufferSize));
+    }
+  }
+
+  @Test
+  public void testIncompleteLastLineIsSkipped() throws IOException {
+    Assert.assertEquals(ImmutableList.of("b", "a"), readAll("a\nb\nincomplete", 2));
+    Assert.assertEquals(ImmutableList.of(), readAll("incomplete", 2));
+  }
+}